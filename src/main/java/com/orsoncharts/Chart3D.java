@@ -41,6 +41,7 @@ import java.awt.Font;
 import java.awt.Paint;
 import java.awt.RenderingHints;
 import java.awt.Shape;
+import java.awt.font.FontRenderContext;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Path2D;
 import java.awt.geom.Point2D;
@@ -66,7 +67,6 @@ import com.orsoncharts.graphics3d.Dimension3D;
 import com.orsoncharts.graphics3d.DoubleSidedFace;
 import com.orsoncharts.graphics3d.Drawable3D;
 import com.orsoncharts.graphics3d.Face;
-import com.orsoncharts.graphics3d.FaceSorter;
 import com.orsoncharts.graphics3d.LabelFace;
 import com.orsoncharts.graphics3d.Object3D;
 import com.orsoncharts.graphics3d.Point3D;
@@ -81,9 +81,10 @@ import com.orsoncharts.plot.Plot3DChangeListener;
 import com.orsoncharts.plot.Plot3D;
 import com.orsoncharts.plot.XYZPlot;
 import com.orsoncharts.graphics3d.Offset2D;
+import com.orsoncharts.graphics3d.PaintOrder;
 import com.orsoncharts.graphics3d.RenderingInfo;
-import com.orsoncharts.graphics3d.StandardFaceSorter;
 import com.orsoncharts.graphics3d.RenderedElement;
+import com.orsoncharts.graphics3d.SpriteFace;
 import com.orsoncharts.interaction.InteractiveElementType;
 import com.orsoncharts.legend.LegendBuilder;
 import com.orsoncharts.legend.StandardLegendBuilder;
@@ -96,6 +97,7 @@ import com.orsoncharts.style.ChartStyler;
 import com.orsoncharts.table.GradientRectanglePainter;
 import com.orsoncharts.table.GridElement;
 import com.orsoncharts.table.HAlign;
+import com.orsoncharts.table.LayoutPass;
 import com.orsoncharts.table.TableElement;
 import com.orsoncharts.table.TextElement;
 import com.orsoncharts.table.StandardRectanglePainter;
@@ -241,9 +243,12 @@ public class Chart3D implements Drawable3D, ChartElement,
     
     /** A 3D model of the world (represents the chart). */
     private transient World world;
-
-    /** An object that sorts faces for rendering (painter's algorithm). */
-    private FaceSorter faceSorter;
+    
+    /** 
+     * The number of segments that the pie in the world was composed with 
+     * (only used for pie charts). 
+     */
+    private transient int pieSegmentCount;
 
     /**
      * A flag that controls whether or not element hints are added to the
@@ -251,6 +256,31 @@ public class Chart3D implements Drawable3D, ChartElement,
      */
     private boolean elementHinting;
     
+    /**
+     * A flag that controls whether or not item labels that overlap a label
+     * already drawn (nearer to the viewer) are skipped.
+     * 
+     * @since 1.7
+     */
+    private boolean itemLabelDecluttering;
+    
+    /** 
+     * The legend measured in the most recent layout (or {@code null}).  The 
+     * legend is created again for each drawing, since the legend builder 
+     * can be modified without a change event, but the measured area is 
+     * reused while the new legend is equal to this one.
+     */
+    private transient TableElement legend;
+    
+    /** The legend area from the most recent layout (or {@code null}). */
+    private transient Rectangle2D legendArea;
+    
+    /** The bounds used for the most recent legend layout. */
+    private transient Rectangle2D layoutBounds;
+    
+    /** The font render context for the most recent layout. */
+    private transient FontRenderContext layoutFRC;
+    
     /**
      * Creates a 3D chart for the specified plot using the default chart
      * style.  Note that a plot instance must be used in one chart instance
@@ -297,13 +327,13 @@ public class Chart3D implements Drawable3D, ChartElement,
         this.projDist = DEFAULT_PROJ_DIST;
         this.chartBoxColor = new Color(255, 255, 255, 100);
         this.translate2D = new Offset2D();
-        this.faceSorter = new StandardFaceSorter();
         this.renderingHints = new RenderingHints(
                 RenderingHints.KEY_ANTIALIASING,
                 RenderingHints.VALUE_ANTIALIAS_ON);
         this.renderingHints.put(RenderingHints.KEY_TEXT_ANTIALIASING,
                 RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
         this.elementHinting = false;
+        this.itemLabelDecluttering = false;
         this.notify = true;
         this.listenerList = new EventListenerList();
         this.style = style;
@@ -580,7 +610,12 @@ public class Chart3D implements Drawable3D, ChartElement,
     /**
      * Returns the legend builder.  The default value is an instance of
      * {@link StandardLegendBuilder}.  If the legend builder is {@code null}, 
-     * no legend will be displayed for the chart.
+     * no legend will be displayed for the chart.  The legend created by the
+     * builder is reused until the chart receives a change event from its 
+     * plot or style (or one of the legend settings is changed), so if you 
+     * modify the builder directly you should call 
+     * {@link #setLegendBuilder(com.orsoncharts.legend.LegendBuilder)} 
+     * afterwards.
      * 
      * @return The legend builder (possibly {@code null}).
      * 
@@ -602,6 +637,7 @@ public class Chart3D implements Drawable3D, ChartElement,
      */
     public void setLegendBuilder(LegendBuilder legendBuilder) {
         this.legendBuilder = legendBuilder;
+        invalidateLayout();
         fireChangeEvent();
     }
     
@@ -628,6 +664,7 @@ public class Chart3D implements Drawable3D, ChartElement,
     public void setLegendAnchor(Anchor2D anchor) {
         ArgChecks.nullNotPermitted(anchor, "anchor");
         this.legendAnchor = anchor;
+        invalidateLayout();
         fireChangeEvent();
     }
     
@@ -653,6 +690,7 @@ public class Chart3D implements Drawable3D, ChartElement,
     public void setLegendOrientation(Orientation orientation) {
         ArgChecks.nullNotPermitted(orientation, "orientation");
         this.legendOrientation = orientation;
+        invalidateLayout();
         fireChangeEvent();
     }
     
@@ -771,6 +809,35 @@ public class Chart3D implements Drawable3D, ChartElement,
         fireChangeEvent();
     }
     
+    /**
+     * Returns the flag that controls whether or not item labels are 
+     * decluttered when the chart is rendered.  When this flag is set, item
+     * labels are placed front-to-back and any label that would overlap a 
+     * label already placed is not drawn.  The default value is 
+     * {@code false}.
+     * 
+     * @return A boolean.
+     * 
+     * @since 1.7
+     */
+    public boolean getItemLabelDecluttering() {
+        return this.itemLabelDecluttering;
+    }
+    
+    /**
+     * Sets the flag that controls whether or not item labels are 
+     * decluttered when the chart is rendered and sends a change event to all
+     * registered listeners.
+     * 
+     * @param declutter  the new flag value.
+     * 
+     * @since 1.7
+     */
+    public void setItemLabelDecluttering(boolean declutter) {
+        this.itemLabelDecluttering = declutter;
+        fireChangeEvent();
+    }
+    
     /**
      * Returns the chart style.
      * 
@@ -813,7 +880,12 @@ public class Chart3D implements Drawable3D, ChartElement,
         if (chartBox != null) {
             result.add("chartbox", chartBox.createObject3D());
         }
-        this.plot.compose(result, -w / 2, -h / 2, -d / 2);
+        if (this.plot instanceof PiePlot3D) {
+            ((PiePlot3D) this.plot).compose(result, -w / 2, -h / 2, -d / 2, 
+                    this.pieSegmentCount);
+        } else {
+            this.plot.compose(result, -w / 2, -h / 2, -d / 2);
+        }
         return result;
     }
     
@@ -849,6 +921,17 @@ public class Chart3D implements Drawable3D, ChartElement,
             chartBox.setYMarkers(fetchYMarkerData(this.plot));
             chartBox.setZMarkers(fetchZMarkerData(this.plot));
         }
+        if (this.plot instanceof PiePlot3D) {
+            // the pie tessellation can depend on the projected pie radius
+            PiePlot3D pie = (PiePlot3D) this.plot;
+            double r = this.projDist * pie.getRadius() 
+                    / this.viewPoint.getRho();
+            int segmentCount = pie.calculateSegmentCount(r);
+            if (segmentCount != this.pieSegmentCount) {
+                this.pieSegmentCount = segmentCount;
+                this.world = null;
+            }
+        }
         if (this.world == null) {
             this.world = createWorld(chartBox);
         } else if (chartBox != null) {
@@ -869,14 +952,39 @@ public class Chart3D implements Drawable3D, ChartElement,
                 this.projDist);
         
         // sort faces by z-order
-        List<Face> facesInPaintOrder = new ArrayList<Face>(world.getFaces());
-        facesInPaintOrder = this.faceSorter.sort(facesInPaintOrder, eyePts);
+        PaintOrder facesInPaintOrder = new PaintOrder(this.world, eyePts);
         Line2D line = null;
         Stroke stroke = new BasicStroke(1.0f);
-        for (Face f : facesInPaintOrder) {
+        // face normals are retained in world coordinates, so the sunlight
+        // vector is transformed from eye to world coordinates for shading
+        Point3D sun = this.viewPoint.eyeToWorldDirection(this.world.getSunX(), 
+                this.world.getSunY(), this.world.getSunZ());
+        Map<LabelFace, Rectangle2D> placedLabels = null;
+        if (this.itemLabelDecluttering) {
+            placedLabels = placeLabels(g2, facesInPaintOrder, pts, 
+                    new Rectangle2D.Double(bounds.getX() - dx, 
+                    bounds.getY() - dy, bounds.getWidth(), 
+                    bounds.getHeight()));
+        }
+        for (int i = 0; i < facesInPaintOrder.size(); i++) {
+            Face f = facesInPaintOrder.getTransientFace(i);
+            // sprites are drawn as flat markers centered on a single vertex
+            if (f instanceof SpriteFace) {
+                SpriteFace sf = (SpriteFace) f;
+                sf.calculateScreenSize(eyePts, this.projDist);
+                g2.setPaint(facesInPaintOrder.getColor(i));
+                if (this.elementHinting) {
+                    beginElementGroup(f, g2);
+                }
+                g2.fill(sf.createShape(pts));
+                if (this.elementHinting) {
+                    endElementGroup(f, g2);
+                }
+                continue;
+            }
             // check for the special case where the face is just a line
             if (f.getVertexCount() == 2) {
-                g2.setPaint(f.getColor());
+                g2.setPaint(facesInPaintOrder.getColor(i));
                 if (line == null) {
                     line = new Line2D.Float();
                 }
@@ -889,14 +997,13 @@ public class Chart3D implements Drawable3D, ChartElement,
                 continue;
             }
             boolean drawOutline = f.getOutline();
-            double[] plane = f.calculateNormal(eyePts);
-            double inprod = plane[0] * world.getSunX() + plane[1]
-                    * world.getSunY() + plane[2] * world.getSunZ();
+            double inprod = facesInPaintOrder.dotNormal(i, sun.x, sun.y, 
+                    sun.z);
             double shade = (inprod + 1) / 2.0;
             if (f instanceof DoubleSidedFace 
                     || Utils2D.area2(pts[f.getVertexIndex(0)],
                     pts[f.getVertexIndex(1)], pts[f.getVertexIndex(2)]) > 0.0) {
-                Color c = f.getColor();
+                Color c = facesInPaintOrder.getColor(i);
                 Path2D p = f.createPath(pts);
                 g2.setPaint(new Color((int) (c.getRed() * shade),
                         (int) (c.getGreen() * shade),
@@ -923,14 +1030,21 @@ public class Chart3D implements Drawable3D, ChartElement,
                 }
             } else if (f instanceof LabelFace) {
                 LabelFace lf = (LabelFace) f;
+                if (placedLabels != null && !placedLabels.containsKey(lf)) {
+                    lf.getOwner().setProperty("labelBounds", null);
+                    continue;
+                }
                 Path2D p = lf.createPath(pts);
                 Rectangle2D lb = p.getBounds2D();
                 g2.setFont(lf.getFont());
                 g2.setColor(lf.getBackgroundColor());
-                Rectangle2D bb = TextUtils.calcAlignedStringBounds(
-                        lf.getLabel(), g2, 
-                        (float) lb.getCenterX(), (float) lb.getCenterY(), 
-                        TextAnchor.CENTER);
+                Rectangle2D bb = placedLabels != null 
+                        ? placedLabels.get(lf) : null;
+                if (bb == null) {
+                    bb = TextUtils.calcAlignedStringBounds(lf.getLabel(), g2, 
+                            (float) lb.getCenterX(), (float) lb.getCenterY(), 
+                            TextAnchor.CENTER);
+                }
                 g2.fill(bb);
                 g2.setColor(lf.getTextColor());
                 Rectangle2D r = TextUtils.drawAlignedString(lf.getLabel(), g2, 
@@ -956,33 +1070,72 @@ public class Chart3D implements Drawable3D, ChartElement,
 
         g2.setTransform(saved);
         
-        // generate and draw the legend...
+        // the legend layout only depends on the bounds and the font metrics 
+        // (unless the legend or the chart settings change)
+        FontRenderContext frc = g2.getFontRenderContext();
+        if (!bounds.equals(this.layoutBounds) 
+                || !frc.equals(this.layoutFRC)) {
+            invalidateLayout();
+            this.layoutBounds = (Rectangle2D) bounds.clone();
+            this.layoutFRC = frc;
+        }
+        
+        // generate the legend, the builder (and the title) can be modified 
+        // without a change event so only the measured area is reused, and
+        // only while the new legend is equal to the one that was measured
+        TableElement legend = null;
         if (this.legendBuilder != null) {
-            TableElement legend = this.legendBuilder.createLegend(this.plot,
+            legend = this.legendBuilder.createLegend(this.plot, 
                     this.legendAnchor, this.legendOrientation, this.style);
+        }
+        if (legend == null || !legend.equals(this.legend)) {
+            this.legendArea = null;
+        }
+        this.legend = legend;
+        
+        // the legend and title share one layout pass, so that each element
+        // is measured only once
+        boolean started = LayoutPass.begin();
+        try {
             if (legend != null) {
-                Dimension2D legendSize = legend.preferredSize(g2, bounds);
-                Rectangle2D legendArea = calculateDrawArea(legendSize, 
-                        this.legendAnchor, bounds);
-                legend.draw(g2, legendArea, onDrawHandler);
+                if (this.legendArea == null) {
+                    Dimension2D legendSize = LayoutPass.preferredSize(legend, 
+                            g2, bounds);
+                    this.legendArea = calculateDrawArea(legendSize, 
+                            this.legendAnchor, bounds);
+                }
+                legend.draw(g2, this.legendArea, onDrawHandler);
             }
-        }
 
-        // draw the title...
-        if (this.title != null) {
-            Dimension2D titleSize = this.title.preferredSize(g2, bounds);
-            Rectangle2D titleArea = calculateDrawArea(titleSize, 
-                    this.titleAnchor, bounds);
-            this.title.draw(g2, titleArea, onDrawHandler);
+            // draw the title...
+            if (this.title != null) {
+                Dimension2D titleSize = LayoutPass.preferredSize(this.title, 
+                        g2, bounds);
+                Rectangle2D titleArea = calculateDrawArea(titleSize, 
+                        this.titleAnchor, bounds);
+                this.title.draw(g2, titleArea, onDrawHandler);
+            }
+        } finally {
+            if (started) {
+                LayoutPass.end();
+            }
         }
         g2.setClip(savedClip);
         endElement(g2);
         return info;
     }
     
+    /**
+     * Clears the cached legend layout so that it is recalculated the next 
+     * time the chart is drawn.
+     */
+    private void invalidateLayout() {
+        this.legend = null;
+        this.legendArea = null;
+    }
+    
     private void beginElementGroup(Face face, Graphics2D g2) {
-        Object3D owner = face.getOwner();
-        ItemKey itemKey = (ItemKey) owner.getProperty(Object3D.ITEM_KEY);
+        ItemKey itemKey = (ItemKey) face.getItemKey();
         if (itemKey != null) {
             Map<String, String> m = new HashMap<String, String>();
             m.put("ref", itemKey.toJSONString());
@@ -991,8 +1144,7 @@ public class Chart3D implements Drawable3D, ChartElement,
     }
     
     private void endElementGroup(Face face, Graphics2D g2) {
-        Object3D owner = face.getOwner();
-        ItemKey itemKey = (ItemKey) owner.getProperty(Object3D.ITEM_KEY);
+        ItemKey itemKey = (ItemKey) face.getItemKey();
         if (itemKey != null) {
             g2.setRenderingHint(Chart3DHints.KEY_END_ELEMENT, Boolean.TRUE);
         }
@@ -1124,6 +1276,47 @@ public class Chart3D implements Drawable3D, ChartElement,
         return new ArrayList<MarkerData>(0);    
     }
     
+    /**
+     * Decides which item labels will be drawn when item label decluttering
+     * is enabled.  The visible label faces are visited front-to-back (the 
+     * reverse of the paint order) and each label is placed only if its 
+     * bounds do not overlap a label that has already been placed, so the 
+     * labels nearest to the viewer take priority.  
+     * 
+     * @param g2  the graphics target ({@code null} not permitted).
+     * @param facesInPaintOrder  the faces in paint order.
+     * @param pts  the projected points.
+     * @param area  the drawing area in the current coordinate space.
+     * 
+     * @return A map containing the background bounds of each label face 
+     *     that should be drawn. 
+     */
+    private Map<LabelFace, Rectangle2D> placeLabels(Graphics2D g2, 
+            PaintOrder facesInPaintOrder, Point2D[] pts, Rectangle2D area) {
+        Map<LabelFace, Rectangle2D> result 
+                = new HashMap<LabelFace, Rectangle2D>();
+        LabelOccupancyGrid grid = new LabelOccupancyGrid(area, 
+                LabelOccupancyGrid.DEFAULT_CELL_SIZE);
+        for (int i = facesInPaintOrder.size() - 1; i >= 0; i--) {
+            Face f = facesInPaintOrder.getTransientFace(i);
+            if (!(f instanceof LabelFace) || f instanceof DoubleSidedFace 
+                    || Utils2D.area2(pts[f.getVertexIndex(0)],
+                    pts[f.getVertexIndex(1)], pts[f.getVertexIndex(2)]) > 0.0) {
+                continue;
+            }
+            LabelFace lf = (LabelFace) f;
+            Rectangle2D lb = lf.createPath(pts).getBounds2D();
+            g2.setFont(lf.getFont());
+            Rectangle2D bb = TextUtils.calcAlignedStringBounds(lf.getLabel(), 
+                    g2, (float) lb.getCenterX(), (float) lb.getCenterY(), 
+                    TextAnchor.CENTER);
+            if (grid.place(bb)) {
+                result.put(lf, bb);
+            }
+        }
+        return result;
+    }
+
     /**
      * Draw the gridlines for one chart box face.
      * 
@@ -1446,12 +1639,11 @@ public class Chart3D implements Drawable3D, ChartElement,
      */
     private double[] findAxisTickUnits(Graphics2D g2, double w, double h, 
             double depth) {
-        World tempWorld = new World();
         ChartBox3D chartBox = new ChartBox3D(w, h, depth, -w / 2.0, -h / 2.0, 
                 -depth / 2.0, Color.WHITE);
-        tempWorld.add(chartBox.createObject3D());
-        Point2D[] axisPts2D = tempWorld.calculateProjectedPoints(
-                this.viewPoint, this.projDist);
+        Object3D box = chartBox.createObject3D();
+        Point2D[] axisPts2D = box.calculateProjectedPoints(this.viewPoint, 
+                this.projDist);
 
         // vertices
         Point2D v0 = axisPts2D[0];
@@ -1799,6 +1991,8 @@ public class Chart3D implements Drawable3D, ChartElement,
     public void receive(ChartElementVisitor visitor) {
         this.plot.receive(visitor);
         visitor.visit(this);
+        // the visitor may have modified the title or the legend settings
+        invalidateLayout();
     }
 
     /**
@@ -1844,6 +2038,9 @@ public class Chart3D implements Drawable3D, ChartElement,
         if (this.projDist != that.projDist) {
             return false;
         }
+        if (this.itemLabelDecluttering != that.itemLabelDecluttering) {
+            return false;
+        }
         return true;
     }
 
@@ -1949,6 +2146,7 @@ public class Chart3D implements Drawable3D, ChartElement,
         if (event.requiresWorldUpdate()) {
             this.world = null;
         }
+        invalidateLayout();
         notifyListeners(new Chart3DChangeEvent(event, this));
     }
 
@@ -2024,6 +2222,7 @@ public class Chart3D implements Drawable3D, ChartElement,
         // if the flag is being set to true, there may be queued up changes...
         if (notify) {
             this.world = null;
+            invalidateLayout();
             fireChangeEvent();
         }
     }
@@ -41,7 +41,7 @@ import java.util.EventListener;
 import javax.swing.event.EventListenerList;
 
 import com.orsoncharts.data.ItemKey;
-import com.orsoncharts.graphics3d.Object3D;
+import com.orsoncharts.graphics3d.Face;
 import com.orsoncharts.graphics3d.RenderingInfo;
 import com.orsoncharts.graphics3d.swing.Panel3D;
 import com.orsoncharts.graphics3d.swing.DisplayPanel3D;
@@ -144,9 +144,9 @@ public class Chart3DPanel extends Panel3D implements Chart3DChangeListener,
         if (info == null) {
             return null;
         }
-        Object3D object = info.fetchObjectAt(e.getX(), e.getY());
-        if (object != null) {
-            ItemKey key = (ItemKey) object.getProperty(Object3D.ITEM_KEY);
+        Face face = info.fetchFaceAt(e.getX(), e.getY());
+        if (face != null) {
+            ItemKey key = (ItemKey) face.getItemKey();
             if (key != null) {
                 return chart.getPlot().generateToolTipText(key);
             }
@@ -0,0 +1,155 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.orsoncharts.util.ArgChecks;
+
+/**
+ * A coarse screen-space grid used to record the bounds of item labels that
+ * have already been placed, so that later labels overlapping them can be
+ * skipped.  Each cell holds the label rectangles that touch it, so an overlap
+ * test only has to look at the few rectangles near the candidate label.
+ * Rectangles outside the grid area are assigned to the nearest edge cells.
+ * <br><br>
+ * This class is for internal use by {@link Chart3D}.
+ * 
+ * @since 1.7
+ */
+final class LabelOccupancyGrid {
+
+    /** The default cell size (in Java2D units). */
+    static final double DEFAULT_CELL_SIZE = 32.0;
+    
+    /** The x-coordinate of the top left corner of the grid. */
+    private final double x0;
+    
+    /** The y-coordinate of the top left corner of the grid. */
+    private final double y0;
+    
+    /** The cell size. */
+    private final double cellSize;
+    
+    /** The number of columns. */
+    private final int columns;
+    
+    /** The number of rows. */
+    private final int rows;
+    
+    /** 
+     * The placed rectangles for each cell (the entries are created when 
+     * first needed).
+     */
+    private final List<List<Rectangle2D>> cells;
+    
+    /**
+     * Creates a new grid covering the specified area.
+     * 
+     * @param area  the area ({@code null} not permitted).
+     * @param cellSize  the cell size (must be positive).
+     */
+    LabelOccupancyGrid(Rectangle2D area, double cellSize) {
+        ArgChecks.nullNotPermitted(area, "area");
+        ArgChecks.positiveRequired(cellSize, "cellSize");
+        this.x0 = area.getX();
+        this.y0 = area.getY();
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(area.getWidth() 
+                / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(area.getHeight() / cellSize));
+        int n = this.columns * this.rows;
+        this.cells = new ArrayList<List<Rectangle2D>>(n);
+        for (int i = 0; i < n; i++) {
+            this.cells.add(null);
+        }
+    }
+    
+    /**
+     * Places the rectangle in the grid if it does not overlap any rectangle
+     * that has already been placed, and returns {@code true}.  If there is 
+     * an overlap, the grid is unchanged and the method returns 
+     * {@code false}.
+     * 
+     * @param r  the rectangle ({@code null} not permitted).
+     * 
+     * @return A boolean. 
+     */
+    boolean place(Rectangle2D r) {
+        ArgChecks.nullNotPermitted(r, "r");
+        int c0 = column(r.getMinX());
+        int c1 = column(r.getMaxX());
+        int r0 = row(r.getMinY());
+        int r1 = row(r.getMaxY());
+        for (int row = r0; row <= r1; row++) {
+            for (int col = c0; col <= c1; col++) {
+                List<Rectangle2D> placed = this.cells.get(row * this.columns 
+                        + col);
+                if (placed == null) {
+                    continue;
+                }
+                for (Rectangle2D p : placed) {
+                    if (p.intersects(r)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        for (int row = r0; row <= r1; row++) {
+            for (int col = c0; col <= c1; col++) {
+                int i = row * this.columns + col;
+                List<Rectangle2D> placed = this.cells.get(i);
+                if (placed == null) {
+                    placed = new ArrayList<Rectangle2D>(2);
+                    this.cells.set(i, placed);
+                }
+                placed.add(r);
+            }
+        }
+        return true;
+    }
+    
+    private int column(double x) {
+        int c = (int) Math.floor((x - this.x0) / this.cellSize);
+        return Math.max(0, Math.min(c, this.columns - 1));
+    }
+    
+    private int row(double y) {
+        int r = (int) Math.floor((y - this.y0) / this.cellSize);
+        return Math.max(0, Math.min(r, this.rows - 1));
+    }
+
+}
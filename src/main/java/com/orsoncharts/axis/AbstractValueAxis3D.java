@@ -396,6 +396,52 @@ public abstract class AbstractValueAxis3D extends AbstractAxis3D
         fireChangeEvent(true);
     }
 
+    /**
+     * Translates a block of data values to world coordinates, writing the 
+     * results to {@code dst}.  The value at {@code src[off + i]} is 
+     * translated to {@code dst[off + i]} for {@code i} from {@code 0} to
+     * {@code len - 1}, giving the same results as calling 
+     * {@link #translateToWorld(double, double)} for each value.  The source 
+     * and destination may be the same array.  This implementation calls
+     * {@link #translateToWorld(double, double)} for each value, subclasses 
+     * override it with a faster loop where they can.
+     * 
+     * @param src  the data values ({@code null} not permitted).
+     * @param off  the index of the first value to translate.
+     * @param len  the number of values to translate.
+     * @param length  the box side length.
+     * @param dst  the array for the world coordinates ({@code null} not 
+     *     permitted).
+     * 
+     * @since 1.7
+     */
+    public void translateToWorld(double[] src, int off, int len, 
+            double length, double[] dst) {
+        checkBlock(src, off, len, dst);
+        for (int i = off; i < off + len; i++) {
+            dst[i] = translateToWorld(src[i], length);
+        }
+    }
+    
+    /**
+     * Checks the arguments for a block translation, throwing an exception 
+     * if the block does not lie within both arrays.
+     * 
+     * @param src  the source array ({@code null} not permitted).
+     * @param off  the offset.
+     * @param len  the number of values.
+     * @param dst  the destination array ({@code null} not permitted).
+     */
+    static void checkBlock(double[] src, int off, int len, double[] dst) {
+        ArgChecks.nullNotPermitted(src, "src");
+        ArgChecks.nullNotPermitted(dst, "dst");
+        if (off < 0 || len < 0 || off + len > src.length 
+                || off + len > dst.length) {
+            throw new IllegalArgumentException("Invalid block: off = " + off 
+                    + ", len = " + len + ".");
+        }
+    }
+
     /**
      * Returns the orientation for the tick labels.  The default value is
      * {@link LabelOrientation#PARALLEL}. 
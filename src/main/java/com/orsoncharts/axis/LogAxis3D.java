@@ -35,6 +35,7 @@ package com.orsoncharts.axis;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.Shape;
+import java.awt.font.FontRenderContext;
 import java.awt.font.TextAttribute;
 import java.awt.font.TextLayout;
 import java.awt.geom.Line2D;
@@ -117,6 +118,12 @@ public class LogAxis3D extends AbstractValueAxis3D implements ValueAxis3D {
 
     /** The tick formatter (never {@code null}). */
     private Format tickLabelFormatter = new DecimalFormat("0.0");
+
+    /** 
+     * The last automatic tick selection, reused while the inputs to the 
+     * selection are unchanged (not included in equals or serialization). 
+     */
+    private transient TickSelection tickSelection;
     
     /**
      * Creates a new log axis with a default base of 10.
@@ -373,6 +380,41 @@ public class LogAxis3D extends AbstractValueAxis3D implements ValueAxis3D {
         return percent * length;
     }
 
+    /**
+     * Translates a block of data values to world coordinates.  The log range
+     * and base are read once and the values are then mapped in a single 
+     * tight loop, with the same arithmetic as 
+     * {@link #translateToWorld(double, double)}.
+     * 
+     * @param src  the data values ({@code null} not permitted).
+     * @param off  the index of the first value to translate.
+     * @param len  the number of values to translate.
+     * @param length  the axis length in world coordinates.
+     * @param dst  the array for the world coordinates ({@code null} not 
+     *     permitted).
+     * 
+     * @since 1.7
+     */
+    @Override
+    public void translateToWorld(double[] src, int off, int len, 
+            double length, double[] dst) {
+        checkBlock(src, off, len, dst);
+        double baseLog = this.baseLog;
+        double min = this.logRange.getMin();
+        double rlen = this.logRange.getLength();
+        int end = off + len;
+        if (isInverted()) {
+            for (int i = off; i < end; i++) {
+                double p = (Math.log(src[i]) / baseLog - min) / rlen;
+                dst[i] = (1.0 - p) * length;
+            }
+        } else {
+            for (int i = off; i < end; i++) {
+                dst[i] = (Math.log(src[i]) / baseLog - min) / rlen * length;
+            }
+        }
+    }
+
     /**
      * Draws the axis.
      * 
@@ -574,11 +616,20 @@ public class LogAxis3D extends AbstractValueAxis3D implements ValueAxis3D {
             return this.tickSize;
         }
         g2.setFont(getTickLabelFont());
-        FontMetrics fm = g2.getFontMetrics();
         double length = pt0.distance(pt1);
+        LabelOrientation orientation = getTickLabelOrientation();
+        FontRenderContext frc = g2.getFontRenderContext();
+        TickSelection last = this.tickSelection;
+        if (last != null && last.matches(getRange(), length, 
+                getTickLabelFont(), orientation, getTickLabelFactor(), 
+                this.tickSelector, frc, this.base)) {
+            this.tickSize = last.getTickSize();
+            this.tickLabelFormatter = last.getFormat();
+            return this.tickSize;
+        }
+        FontMetrics fm = g2.getFontMetrics();
         double rangeLength = this.logRange.getLength();
         
-        LabelOrientation orientation = getTickLabelOrientation();
         if (orientation.equals(LabelOrientation.PERPENDICULAR)) {
             // based on the font height, we can determine roughly how many tick
             // labels will fit in the length available
@@ -638,6 +689,10 @@ public class LogAxis3D extends AbstractValueAxis3D implements ValueAxis3D {
             this.tickLabelFormatter 
                     = this.tickSelector.getCurrentTickLabelFormat();
         }
+        this.tickSelection = new TickSelection(getRange(), length, 
+                getTickLabelFont(), orientation, getTickLabelFactor(), 
+                this.tickSelector, frc, this.base, this.tickSize, 
+                this.tickLabelFormatter);
         return this.tickSize;
     }
 
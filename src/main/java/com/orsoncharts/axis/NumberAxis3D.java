@@ -37,6 +37,7 @@ import java.awt.Graphics2D;
 import java.awt.Shape;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
+import java.awt.font.FontRenderContext;
 import java.awt.font.LineMetrics;
 import java.text.DecimalFormat;
 import java.text.Format;
@@ -101,6 +102,12 @@ public class NumberAxis3D extends AbstractValueAxis3D implements ValueAxis3D,
     /** The tick formatter (never {@code null}). */
     private Format tickLabelFormatter;
 
+    /** 
+     * The last automatic tick selection, reused while the inputs to the 
+     * selection are unchanged (not included in equals or serialization). 
+     */
+    private transient TickSelection tickSelection;
+
     /**
      * Creates a new axis with the specified label and default attributes.
      * 
@@ -332,7 +339,8 @@ public class NumberAxis3D extends AbstractValueAxis3D implements ValueAxis3D,
             if (getTickLabelOrientation().equals(
                     LabelOrientation.PERPENDICULAR)) {
                 maxTickLabelDim = Math.max(maxTickLabelDim, 
-                        g2.getFontMetrics().stringWidth(tickLabel));
+                        TextUtils.getTextBounds(tickLabel, g2.getFont(), 
+                        g2).getWidth());
             }
         }
             
@@ -485,6 +493,39 @@ public class NumberAxis3D extends AbstractValueAxis3D implements ValueAxis3D,
         double p = getRange().percent(value, isInverted());
         return length * p;
     }
+    
+    /**
+     * Translates a block of data values to world coordinates.  The range is 
+     * read once and the values are then mapped in a single tight loop, with
+     * the same arithmetic as {@link #translateToWorld(double, double)}.
+     * 
+     * @param src  the data values ({@code null} not permitted).
+     * @param off  the index of the first value to translate.
+     * @param len  the number of values to translate.
+     * @param length  the length of the (zero based) world axis.
+     * @param dst  the array for the world coordinates ({@code null} not 
+     *     permitted).
+     * 
+     * @since 1.7
+     */
+    @Override
+    public void translateToWorld(double[] src, int off, int len, 
+            double length, double[] dst) {
+        checkBlock(src, off, len, dst);
+        Range r = getRange();
+        double min = r.getMin();
+        double rlen = r.getLength();
+        int end = off + len;
+        if (isInverted()) {
+            for (int i = off; i < end; i++) {
+                dst[i] = length * (1.0 - (src[i] - min) / rlen);
+            }
+        } else {
+            for (int i = off; i < end; i++) {
+                dst[i] = length * ((src[i] - min) / rlen);
+            }
+        }
+    }
   
     /**
      * Selects a tick size that is appropriate for drawing the axis from
@@ -504,9 +545,18 @@ public class NumberAxis3D extends AbstractValueAxis3D implements ValueAxis3D,
             return this.tickSize;
         }
         g2.setFont(getTickLabelFont()); 
-        FontMetrics fm = g2.getFontMetrics(getTickLabelFont());        
         double length = pt0.distance(pt1);
         LabelOrientation orientation = getTickLabelOrientation();
+        FontRenderContext frc = g2.getFontRenderContext();
+        TickSelection last = this.tickSelection;
+        if (last != null && last.matches(getRange(), length, 
+                getTickLabelFont(), orientation, getTickLabelFactor(), 
+                this.tickSelector, frc, Double.NaN)) {
+            this.tickSize = last.getTickSize();
+            this.tickLabelFormatter = last.getFormat();
+            return this.tickSize;
+        }
+        FontMetrics fm = g2.getFontMetrics(getTickLabelFont());        
         if (orientation.equals(LabelOrientation.PERPENDICULAR)) {
             // based on the font height, we can determine roughly how many tick
             // labels will fit in the length available
@@ -560,6 +610,10 @@ public class NumberAxis3D extends AbstractValueAxis3D implements ValueAxis3D,
             this.tickLabelFormatter 
                     = this.tickSelector.getCurrentTickLabelFormat();
         }
+        this.tickSelection = new TickSelection(getRange(), length, 
+                getTickLabelFont(), orientation, getTickLabelFactor(), 
+                this.tickSelector, frc, Double.NaN, this.tickSize, 
+                this.tickLabelFormatter);
         return this.tickSize;
     }
 
@@ -747,7 +747,8 @@ public class StandardCategoryAxis3D extends AbstractAxis3D
             }
             String tickLabel = t.getKeyLabel();
             maxTickLabelWidth = Math.max(maxTickLabelWidth, 
-                    g2.getFontMetrics().stringWidth(tickLabel));
+                    TextUtils.getTextBounds(tickLabel, g2.getFont(), 
+                    g2).getWidth());
         }
 
         double maxTickLabelDim = maxTickLabelWidth;
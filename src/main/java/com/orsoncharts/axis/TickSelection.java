@@ -0,0 +1,194 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.axis;
+
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.text.Format;
+import com.orsoncharts.Range;
+import com.orsoncharts.util.ObjectUtils;
+
+/**
+ * The result of an automatic tick unit selection for a value axis, together
+ * with the inputs that determined it.  An axis retains the last selection 
+ * and reuses it while the inputs are unchanged, so that (for example) 
+ * rotating a chart in a way that does not materially change the projected 
+ * length of an axis skips the tick unit search.  The axis length is compared
+ * after rounding to {@link #LENGTH_TOLERANCE} (in Java2D units).
+ * 
+ * @since 1.7
+ */
+final class TickSelection {
+    
+    /** The tolerance for comparing projected axis lengths. */
+    static final double LENGTH_TOLERANCE = 1.0;
+    
+    /** The axis range. */
+    private final Range range;
+    
+    /** The projected axis length, rounded to the tolerance. */
+    private final long lengthKey;
+    
+    /** The tick label font. */
+    private final Font font;
+    
+    /** The tick label orientation. */
+    private final LabelOrientation orientation;
+    
+    /** The tick label factor. */
+    private final double tickLabelFactor;
+    
+    /** The tick selector (compared by reference, it has state). */
+    private final TickSelector selector;
+    
+    /** The font render context. */
+    private final FontRenderContext frc;
+    
+    /** An additional axis specific parameter (the log base, for example). */
+    private final double param;
+    
+    /** The selected tick size. */
+    private final double tickSize;
+    
+    /** The selected tick label format. */
+    private final Format format;
+    
+    /**
+     * Creates a new instance.
+     * 
+     * @param range  the axis range.
+     * @param length  the projected axis length.
+     * @param font  the tick label font.
+     * @param orientation  the tick label orientation.
+     * @param tickLabelFactor  the tick label factor.
+     * @param selector  the tick selector.
+     * @param frc  the font render context.
+     * @param param  an axis specific parameter ({@code Double.NaN} if not
+     *     used).
+     * @param tickSize  the selected tick size.
+     * @param format  the selected tick label format.
+     */
+    TickSelection(Range range, double length, Font font, 
+            LabelOrientation orientation, double tickLabelFactor, 
+            TickSelector selector, FontRenderContext frc, double param, 
+            double tickSize, Format format) {
+        this.range = range;
+        this.lengthKey = lengthKey(length);
+        this.font = font;
+        this.orientation = orientation;
+        this.tickLabelFactor = tickLabelFactor;
+        this.selector = selector;
+        this.frc = frc;
+        this.param = param;
+        this.tickSize = tickSize;
+        this.format = format;
+    }
+    
+    /**
+     * Returns the selected tick size.
+     * 
+     * @return The tick size. 
+     */
+    double getTickSize() {
+        return this.tickSize;
+    }
+    
+    /**
+     * Returns the selected tick label format.
+     * 
+     * @return The format. 
+     */
+    Format getFormat() {
+        return this.format;
+    }
+    
+    /**
+     * Returns {@code true} if this selection was made for the specified
+     * inputs, and {@code false} otherwise.
+     * 
+     * @param range  the axis range.
+     * @param length  the projected axis length.
+     * @param font  the tick label font.
+     * @param orientation  the tick label orientation.
+     * @param tickLabelFactor  the tick label factor.
+     * @param selector  the tick selector.
+     * @param frc  the font render context.
+     * @param param  an axis specific parameter ({@code Double.NaN} if not
+     *     used).
+     * 
+     * @return A boolean. 
+     */
+    boolean matches(Range range, double length, Font font, 
+            LabelOrientation orientation, double tickLabelFactor, 
+            TickSelector selector, FontRenderContext frc, double param) {
+        if (this.lengthKey != lengthKey(length)) {
+            return false;
+        }
+        if (this.selector != selector) {
+            return false;
+        }
+        if (this.tickLabelFactor != tickLabelFactor) {
+            return false;
+        }
+        if (Double.doubleToLongBits(this.param) 
+                != Double.doubleToLongBits(param)) {
+            return false;
+        }
+        if (!ObjectUtils.equals(this.range, range)) {
+            return false;
+        }
+        if (!ObjectUtils.equals(this.orientation, orientation)) {
+            return false;
+        }
+        if (!ObjectUtils.equals(this.font, font)) {
+            return false;
+        }
+        if (!ObjectUtils.equals(this.frc, frc)) {
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Returns the projected length rounded to the tolerance.
+     * 
+     * @param length  the length.
+     * 
+     * @return The rounded length. 
+     */
+    private static long lengthKey(double length) {
+        return Math.round(length / LENGTH_TOLERANCE);
+    }
+
+}
@@ -0,0 +1,353 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.data.function;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import com.orsoncharts.Range;
+import com.orsoncharts.util.ArgChecks;
+import com.orsoncharts.util.TaskUtils;
+
+/**
+ * An immutable grid of values sampled from a {@link Function3D}.  The 
+ * x-range is divided into {@code xSamples} equal intervals and the z-range 
+ * into {@code zSamples} equal intervals, and the function is evaluated once
+ * at each of the {@code (xSamples + 1) * (zSamples + 1)} grid points and
+ * once at the midpoint of each of the {@code xSamples * zSamples} cells.
+ * <br><br>
+ * Sampling a function can be expensive, so the constructor with the
+ * {@code parallel} argument can be used to fill the grid in parallel 
+ * (using a shared pool of daemon threads) when it is large enough for this
+ * to be worthwhile.  The {@link Function3D} interface does not require 
+ * thread safety, so this must only be requested for functions that are 
+ * safe to call from multiple threads at once.
+ * <br><br>
+ * This class is used by the 
+ * {@link com.orsoncharts.renderer.xyz.SurfaceRenderer} to cache the 
+ * function values between updates of the 3D model, so that changing the 
+ * appearance of a surface does not require the function to be evaluated 
+ * again.
+ * 
+ * @since 1.7
+ */
+public class SampledFunction3D {
+    
+    /** 
+     * The minimum number of function evaluations before the sampling is 
+     * split across multiple threads.
+     */
+    private static final int PARALLEL_THRESHOLD = 4096;
+    
+    /** The function that was sampled. */
+    private final Function3D function;
+    
+    /** The x-range. */
+    private final Range xRange;
+    
+    /** The number of intervals along the x-axis. */
+    private final int xSamples;
+    
+    /** The z-range. */
+    private final Range zRange;
+    
+    /** The number of intervals along the z-axis. */
+    private final int zSamples;
+    
+    /** The x-values for the grid points. */
+    private final double[] xValues;
+    
+    /** The z-values for the grid points. */
+    private final double[] zValues;
+    
+    /** The function values at the grid points (indexed by x then z). */
+    private final double[] values;
+    
+    /** The function values at the cell midpoints (indexed by x then z). */
+    private final double[] midValues;
+    
+    /**
+     * Samples the specified function on the calling thread.
+     * 
+     * @param function  the function ({@code null} not permitted).
+     * @param xRange  the x-range ({@code null} not permitted).
+     * @param xSamples  the number of intervals along the x-axis (at least 1).
+     * @param zRange  the z-range ({@code null} not permitted).
+     * @param zSamples  the number of intervals along the z-axis (at least 1).
+     */
+    public SampledFunction3D(Function3D function, Range xRange, int xSamples,
+            Range zRange, int zSamples) {
+        this(function, xRange, xSamples, zRange, zSamples, false);
+    }
+    
+    /**
+     * Samples the specified function.
+     * 
+     * @param function  the function ({@code null} not permitted).
+     * @param xRange  the x-range ({@code null} not permitted).
+     * @param xSamples  the number of intervals along the x-axis (at least 1).
+     * @param zRange  the z-range ({@code null} not permitted).
+     * @param zSamples  the number of intervals along the z-axis (at least 1).
+     * @param parallel  a flag that permits the function to be evaluated by
+     *     multiple threads (only set this to {@code true} if the function 
+     *     is thread safe).
+     */
+    public SampledFunction3D(Function3D function, Range xRange, int xSamples,
+            Range zRange, int zSamples, boolean parallel) {
+        ArgChecks.nullNotPermitted(function, "function");
+        ArgChecks.nullNotPermitted(xRange, "xRange");
+        ArgChecks.nullNotPermitted(zRange, "zRange");
+        if (xSamples < 1 || zSamples < 1) {
+            throw new IllegalArgumentException(
+                    "Requires 'xSamples' and 'zSamples' of at least 1.");
+        }
+        this.function = function;
+        this.xRange = xRange;
+        this.xSamples = xSamples;
+        this.zRange = zRange;
+        this.zSamples = zSamples;
+        this.xValues = new double[xSamples + 1];
+        for (int i = 0; i <= xSamples; i++) {
+            this.xValues[i] = xRange.value(i / (double) xSamples);
+        }
+        this.zValues = new double[zSamples + 1];
+        for (int k = 0; k <= zSamples; k++) {
+            this.zValues[k] = zRange.value(k / (double) zSamples);
+        }
+        this.values = new double[(xSamples + 1) * (zSamples + 1)];
+        this.midValues = new double[xSamples * zSamples];
+        int evaluations = this.values.length + this.midValues.length;
+        if (parallel && evaluations >= PARALLEL_THRESHOLD 
+                && TaskUtils.isParallelAvailable()) {
+            sampleInParallel();
+        } else {
+            sampleRows(0, xSamples + 1);
+        }
+    }
+    
+    /**
+     * Evaluates the function for a block of rows (a row being the grid 
+     * points with the same x-value, plus the midpoints of the cells that
+     * follow it).
+     * 
+     * @param start  the first row.
+     * @param end  the last row (exclusive).
+     */
+    private void sampleRows(int start, int end) {
+        int zCount = this.zSamples + 1;
+        for (int i = start; i < end; i++) {
+            double x = this.xValues[i];
+            for (int k = 0; k < zCount; k++) {
+                this.values[i * zCount + k] = this.function.getValue(x, 
+                        this.zValues[k]);
+            }
+            if (i < this.xSamples) {
+                double xm = x / 2.0 + this.xValues[i + 1] / 2.0;
+                for (int k = 0; k < this.zSamples; k++) {
+                    double zm = this.zValues[k] / 2.0 
+                            + this.zValues[k + 1] / 2.0;
+                    this.midValues[i * this.zSamples + k] 
+                            = this.function.getValue(xm, zm);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Splits the rows into blocks and samples them using the shared thread 
+     * pool, waiting until all the blocks are complete.
+     */
+    private void sampleInParallel() {
+        int rows = this.xSamples + 1;
+        int blocks = Math.min(rows, 
+                Runtime.getRuntime().availableProcessors() * 4);
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+        for (int b = 0; b < blocks; b++) {
+            final int start = (int) ((long) rows * b / blocks);
+            final int end = (int) ((long) rows * (b + 1) / blocks);
+            tasks.add(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    sampleRows(start, end);
+                    return null;
+                }
+            });
+        }
+        TaskUtils.invokeAll(tasks, "sampling the function");
+    }
+    
+    /**
+     * Returns {@code true} if this instance was created by sampling the 
+     * specified function with the same ranges and sample counts, and 
+     * {@code false} otherwise.  This is used to decide whether a cached
+     * instance can be reused.
+     * 
+     * @param function  the function.
+     * @param xRange  the x-range.
+     * @param xSamples  the number of intervals along the x-axis.
+     * @param zRange  the z-range.
+     * @param zSamples  the number of intervals along the z-axis.
+     * 
+     * @return A boolean. 
+     */
+    public boolean isSampleOf(Function3D function, Range xRange, 
+            int xSamples, Range zRange, int zSamples) {
+        return this.function == function && this.xSamples == xSamples 
+                && this.zSamples == zSamples && this.xRange.equals(xRange) 
+                && this.zRange.equals(zRange);
+    }
+    
+    /**
+     * Returns the function that was sampled.
+     * 
+     * @return The function (never {@code null}). 
+     */
+    public Function3D getFunction() {
+        return this.function;
+    }
+    
+    /**
+     * Returns the x-range.
+     * 
+     * @return The x-range (never {@code null}). 
+     */
+    public Range getXRange() {
+        return this.xRange;
+    }
+    
+    /**
+     * Returns the number of intervals along the x-axis.
+     * 
+     * @return The number of intervals.
+     */
+    public int getXSamples() {
+        return this.xSamples;
+    }
+
+    /**
+     * Returns the z-range.
+     * 
+     * @return The z-range (never {@code null}). 
+     */
+    public Range getZRange() {
+        return this.zRange;
+    }
+    
+    /**
+     * Returns the number of intervals along the z-axis.
+     * 
+     * @return The number of intervals.
+     */
+    public int getZSamples() {
+        return this.zSamples;
+    }
+    
+    /**
+     * Returns the x-value for a grid point.
+     * 
+     * @param xIndex  the x-index (in the range {@code 0} to 
+     *     {@code xSamples}).
+     * 
+     * @return The x-value. 
+     */
+    public double getX(int xIndex) {
+        return this.xValues[xIndex];
+    }
+    
+    /**
+     * Returns the z-value for a grid point.
+     * 
+     * @param zIndex  the z-index (in the range {@code 0} to 
+     *     {@code zSamples}).
+     * 
+     * @return The z-value. 
+     */
+    public double getZ(int zIndex) {
+        return this.zValues[zIndex];
+    }
+    
+    /**
+     * Returns the function value at a grid point.
+     * 
+     * @param xIndex  the x-index (in the range {@code 0} to 
+     *     {@code xSamples}).
+     * @param zIndex  the z-index (in the range {@code 0} to 
+     *     {@code zSamples}).
+     * 
+     * @return The function value. 
+     */
+    public double getValue(int xIndex, int zIndex) {
+        return this.values[xIndex * (this.zSamples + 1) + zIndex];
+    }
+    
+    /**
+     * Returns the function value at the midpoint of a cell.
+     * 
+     * @param xIndex  the x-index (in the range {@code 0} to 
+     *     {@code xSamples - 1}).
+     * @param zIndex  the z-index (in the range {@code 0} to 
+     *     {@code zSamples - 1}).
+     * 
+     * @return The function value. 
+     */
+    public double getMidValue(int xIndex, int zIndex) {
+        return this.midValues[xIndex * this.zSamples + zIndex];
+    }
+    
+    /**
+     * Returns the range of the function values at the grid points.
+     * 
+     * @param ignoreNaN  if {@code true}, any {@code NaN} values will be 
+     *     ignored.
+     * 
+     * @return The range ({@code null} in the case that the function 
+     *     returns no valid values). 
+     */
+    public Range findYRange(boolean ignoreNaN) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double y : this.values) {
+            if (Double.isNaN(y) && ignoreNaN) {
+                continue;
+            }
+            min = Math.min(y, min);
+            max = Math.max(y, max);
+        }
+        if (min <= max) {
+            return new Range(min, max);
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,338 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.data.xyz;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import com.orsoncharts.data.AbstractDataset3D;
+import com.orsoncharts.util.ArgChecks;
+
+/**
+ * A read-only {@link XYZDataset} that reads its data directly from a 
+ * memory-mapped binary file, so that datasets that are larger than the 
+ * available heap can be charted.  The values are read from the mapped 
+ * buffers on each call to {@link #getX(int, int)}, {@link #getY(int, int)} 
+ * and {@link #getZ(int, int)} - no copy of the data is held on the heap, and
+ * opening a dataset only requires the small series directory to be read.
+ * <br><br>
+ * The file format is written by {@link MappedXYZDatasetWriter}.  All values
+ * are little-endian.  The file starts with a 24 byte header:
+ * <ul>
+ * <li>a magic number ({@code int} 0x4F43585A);</li>
+ * <li>the format version ({@code int} 1);</li>
+ * <li>the size of each value in bytes ({@code int} 4 for single precision 
+ *     floats or 8 for doubles);</li>
+ * <li>the number of series ({@code int});</li>
+ * <li>the file offset of the series directory ({@code long}).</li>
+ * </ul>
+ * The data for each series follows as a contiguous region of 
+ * {@code (x, y, z)} triplets.  The series directory contains, for each 
+ * series, the file offset of its region ({@code long}), the item count 
+ * ({@code long}), and the series key as a length-prefixed ({@code int}) 
+ * UTF-8 string.
+ * <br><br>
+ * Regions larger than 2GB are mapped in several chunks, since a single
+ * {@code MappedByteBuffer} is limited to {@code Integer.MAX_VALUE} bytes.
+ * 
+ * @since 1.7
+ */
+public class MappedXYZDataset extends AbstractDataset3D 
+        implements XYZDataset<String> {
+    
+    /** The magic number at the start of each file. */
+    static final int MAGIC = 0x4F43585A;
+    
+    /** The file format version. */
+    static final int VERSION = 1;
+    
+    /** The size of the file header in bytes. */
+    static final int HEADER_SIZE = 24;
+    
+    /** The maximum number of bytes mapped in a single buffer. */
+    private static final long MAX_CHUNK_SIZE = Integer.MAX_VALUE;
+    
+    /** The file. */
+    private final File file;
+    
+    /** The size of a single value in bytes (4 or 8). */
+    private final int valueSize;
+    
+    /** The series keys. */
+    private final List<String> seriesKeys;
+    
+    /** The item count for each series. */
+    private final int[] itemCounts;
+    
+    /** 
+     * The number of items in each mapped chunk (the same for all series), 
+     * chosen so that chunk boundaries never split a triplet.
+     */
+    private final int itemsPerChunk;
+    
+    /** The mapped buffers, indexed by series then chunk. */
+    private final ByteBuffer[][] buffers;
+    
+    /**
+     * Opens a dataset backed by the specified file, which must have been 
+     * created by a {@link MappedXYZDatasetWriter}.
+     * 
+     * @param file  the file ({@code null} not permitted).
+     * 
+     * @throws IOException if there is an I/O problem or the file is not in
+     *     the expected format.
+     */
+    public MappedXYZDataset(File file) throws IOException {
+        ArgChecks.nullNotPermitted(file, "file");
+        this.file = file;
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            ByteBuffer header = readFully(channel, 0L, HEADER_SIZE);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Unrecognised file format: " + file);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported file version: " 
+                        + version);
+            }
+            this.valueSize = header.getInt();
+            if (this.valueSize != 4 && this.valueSize != 8) {
+                throw new IOException("Unsupported value size: " 
+                        + this.valueSize);
+            }
+            int seriesCount = header.getInt();
+            long directoryOffset = header.getLong();
+            ByteBuffer directory = readFully(channel, directoryOffset, 
+                    (int) (channel.size() - directoryOffset));
+            int tripletSize = 3 * this.valueSize;
+            this.itemsPerChunk = (int) (MAX_CHUNK_SIZE / tripletSize);
+            this.seriesKeys = new ArrayList<String>(seriesCount);
+            this.itemCounts = new int[seriesCount];
+            this.buffers = new ByteBuffer[seriesCount][];
+            for (int s = 0; s < seriesCount; s++) {
+                long offset = directory.getLong();
+                long count = directory.getLong();
+                if (count > Integer.MAX_VALUE) {
+                    throw new IOException("Series " + s 
+                            + " has too many items: " + count);
+                }
+                byte[] keyBytes = new byte[directory.getInt()];
+                directory.get(keyBytes);
+                this.seriesKeys.add(new String(keyBytes, "UTF-8"));
+                this.itemCounts[s] = (int) count;
+                int chunkCount = (int) ((count + this.itemsPerChunk - 1) 
+                        / this.itemsPerChunk);
+                this.buffers[s] = new ByteBuffer[chunkCount];
+                for (int c = 0; c < chunkCount; c++) {
+                    long first = (long) c * this.itemsPerChunk;
+                    long n = Math.min(this.itemsPerChunk, count - first);
+                    ByteBuffer b = channel.map(FileChannel.MapMode.READ_ONLY,
+                            offset + first * tripletSize, n * tripletSize);
+                    this.buffers[s][c] = b.order(ByteOrder.LITTLE_ENDIAN);
+                }
+            }
+        } finally {
+            raf.close(); // the mappings remain valid after the file is closed
+        }
+    }
+    
+    /**
+     * Reads a block of bytes from a channel into a little-endian buffer.
+     * 
+     * @param channel  the channel.
+     * @param position  the file position.
+     * @param length  the number of bytes to read.
+     * 
+     * @return The buffer (flipped, ready for reading).
+     * 
+     * @throws IOException if there is an I/O problem. 
+     */
+    private static ByteBuffer readFully(FileChannel channel, long position,
+            int length) throws IOException {
+        ByteBuffer result = ByteBuffer.allocate(length);
+        result.order(ByteOrder.LITTLE_ENDIAN);
+        while (result.hasRemaining()) {
+            int n = channel.read(result, position + result.position());
+            if (n < 0) {
+                throw new IOException("Unexpected end of file.");
+            }
+        }
+        result.flip();
+        return result;
+    }
+    
+    /**
+     * Returns the file backing this dataset.
+     * 
+     * @return The file (never {@code null}). 
+     */
+    public File getFile() {
+        return this.file;
+    }
+    
+    /**
+     * Returns {@code true} if the values in the file are stored as single
+     * precision floats, and {@code false} if they are stored as doubles.
+     * 
+     * @return A boolean. 
+     */
+    public boolean isSinglePrecision() {
+        return this.valueSize == 4;
+    }
+
+    /**
+     * Returns the number of series in the dataset.
+     * 
+     * @return The number of series in the dataset.
+     */
+    @Override
+    public int getSeriesCount() {
+        return this.seriesKeys.size();
+    }
+
+    /**
+     * Returns a new list containing the series keys.
+     * 
+     * @return A list of the series keys (possibly empty, but never 
+     *     {@code null}). 
+     */
+    @Override
+    public List<String> getSeriesKeys() {
+        return new ArrayList<String>(this.seriesKeys);
+    }
+
+    /**
+     * Returns the key for the specified series.
+     * 
+     * @param index  the series index.
+     * 
+     * @return The series key. 
+     */
+    @Override
+    public String getSeriesKey(int index) {
+        return this.seriesKeys.get(index);
+    }
+
+    /**
+     * Returns the index of the specified series key, or {@code -1} if
+     * the key is not found.
+     * 
+     * @param key  the key ({@code null} not permitted).
+     * 
+     * @return The index of the key, or {@code -1}. 
+     */
+    @Override
+    public int getSeriesIndex(String key) {
+        ArgChecks.nullNotPermitted(key, "key");
+        return this.seriesKeys.indexOf(key);
+    }
+
+    /**
+     * Returns the number of items in a given series.
+     * 
+     * @param series  the series index.
+     * 
+     * @return The item count.
+     */
+    @Override
+    public int getItemCount(int series) {
+        return this.itemCounts[series];
+    }
+
+    /**
+     * Returns the x-value for an item in a series.
+     * 
+     * @param series  the series index.
+     * @param item  the item index.
+     * 
+     * @return The x-value. 
+     */
+    @Override
+    public double getX(int series, int item) {
+        return getValue(series, item, 0);
+    }
+
+    /**
+     * Returns the y-value for an item in a series.
+     * 
+     * @param series  the series index.
+     * @param item  the item index.
+     * 
+     * @return The y-value. 
+     */
+    @Override
+    public double getY(int series, int item) {
+        return getValue(series, item, 1);
+    }
+
+    /**
+     * Returns the z-value for an item in a series.
+     * 
+     * @param series  the series index.
+     * @param item  the item index.
+     * 
+     * @return The z-value. 
+     */
+    @Override
+    public double getZ(int series, int item) {
+        return getValue(series, item, 2);
+    }
+
+    /**
+     * Reads one value from the mapped buffers.
+     * 
+     * @param series  the series index.
+     * @param item  the item index.
+     * @param dim  the dimension (0 for x, 1 for y, 2 for z).
+     * 
+     * @return The value. 
+     */
+    private double getValue(int series, int item, int dim) {
+        ArgChecks.checkArrayBounds(item, "item", this.itemCounts[series]);
+        ByteBuffer b = this.buffers[series][item / this.itemsPerChunk];
+        int index = ((item % this.itemsPerChunk) * 3 + dim) * this.valueSize;
+        if (this.valueSize == 8) {
+            return b.getDouble(index);
+        }
+        return b.getFloat(index);
+    }
+
+}
@@ -0,0 +1,304 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.data.xyz;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import com.orsoncharts.util.ArgChecks;
+
+/**
+ * Writes {@code (x, y, z)} data to a binary file that can be opened as a
+ * {@link MappedXYZDataset}.  The data is streamed to the file through a 
+ * small buffer, so arbitrarily large datasets can be written without 
+ * holding them in memory:
+ * <pre>
+ * MappedXYZDatasetWriter writer = new MappedXYZDatasetWriter(file, true);
+ * try {
+ *     writer.startSeries("S1");
+ *     for (...) {
+ *         writer.add(x, y, z);
+ *     }
+ *     writer.startSeries("S2");
+ *     ...
+ * } finally {
+ *     writer.close();
+ * }
+ * </pre>
+ * The file is not valid until {@link #close()} has been called.
+ * 
+ * @since 1.7
+ */
+public class MappedXYZDatasetWriter implements Closeable {
+    
+    /** The size of the write buffer. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    /** The file. */
+    private final RandomAccessFile raf;
+    
+    /** The channel for the file. */
+    private final FileChannel channel;
+    
+    /** The write buffer. */
+    private final ByteBuffer buffer;
+
+    /** The size of a single value in bytes (4 or 8). */
+    private final int valueSize;
+    
+    /** The keys for the series started so far. */
+    private final List<String> seriesKeys;
+    
+    /** The file offsets of the series regions. */
+    private final List<Long> seriesOffsets;
+    
+    /** The item counts for the series that have been completed. */
+    private final List<Long> itemCounts;
+    
+    /** The number of items added to the current series. */
+    private long itemCount;
+    
+    /** The file position that the next buffer flush writes to. */
+    private long position;
+    
+    /** A flag that is set once the writer has been closed. */
+    private boolean closed;
+    
+    /**
+     * Creates a new writer for the specified file (if the file already
+     * exists, it is overwritten).
+     * 
+     * @param file  the file ({@code null} not permitted).
+     * @param singlePrecision  if {@code true}, values are stored as floats,
+     *     otherwise as doubles.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    public MappedXYZDatasetWriter(File file, boolean singlePrecision) 
+            throws IOException {
+        ArgChecks.nullNotPermitted(file, "file");
+        this.raf = new RandomAccessFile(file, "rw");
+        this.raf.setLength(0L);
+        this.channel = this.raf.getChannel();
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.valueSize = singlePrecision ? 4 : 8;
+        this.seriesKeys = new ArrayList<String>();
+        this.seriesOffsets = new ArrayList<Long>();
+        this.itemCounts = new ArrayList<Long>();
+        this.position = MappedXYZDataset.HEADER_SIZE;
+    }
+    
+    /**
+     * Writes all the data from the specified dataset to a file, using the
+     * string form of the series keys.
+     * 
+     * @param dataset  the dataset ({@code null} not permitted).
+     * @param file  the file ({@code null} not permitted).
+     * @param singlePrecision  if {@code true}, values are stored as floats,
+     *     otherwise as doubles.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    public static void write(XYZDataset<?> dataset, File file, 
+            boolean singlePrecision) throws IOException {
+        ArgChecks.nullNotPermitted(dataset, "dataset");
+        MappedXYZDatasetWriter writer = new MappedXYZDatasetWriter(file, 
+                singlePrecision);
+        try {
+            for (int s = 0; s < dataset.getSeriesCount(); s++) {
+                writer.startSeries(dataset.getSeriesKey(s).toString());
+                int itemCount = dataset.getItemCount(s);
+                for (int i = 0; i < itemCount; i++) {
+                    writer.add(dataset.getX(s, i), dataset.getY(s, i), 
+                            dataset.getZ(s, i));
+                }
+            }
+        } finally {
+            writer.close();
+        }
+    }
+    
+    /**
+     * Starts a new series.  Subsequent calls to 
+     * {@link #add(double, double, double)} add items to this series.
+     * 
+     * @param key  the series key ({@code null} not permitted, and must be 
+     *     unique within the file).
+     */
+    public void startSeries(String key) {
+        ArgChecks.nullNotPermitted(key, "key");
+        checkOpen();
+        if (this.seriesKeys.contains(key)) {
+            throw new IllegalArgumentException(
+                    "Another series with the same key already exists.");
+        }
+        endSeries();
+        this.seriesKeys.add(key);
+        this.seriesOffsets.add(this.position + this.buffer.position());
+        this.itemCount = 0L;
+    }
+    
+    /**
+     * Records the item count for the current series, if there is one.
+     */
+    private void endSeries() {
+        if (this.itemCounts.size() < this.seriesKeys.size()) {
+            this.itemCounts.add(this.itemCount);
+        }
+    }
+    
+    /**
+     * Adds an item to the current series.
+     * 
+     * @param x  the x-value.
+     * @param y  the y-value.
+     * @param z  the z-value.
+     * 
+     * @throws IOException if there is an I/O problem.
+     * @throws IllegalStateException if the current series already contains
+     *     {@code Integer.MAX_VALUE} items (the limit for a series in a 
+     *     {@link MappedXYZDataset}).
+     */
+    public void add(double x, double y, double z) throws IOException {
+        checkOpen();
+        if (this.seriesKeys.isEmpty()) {
+            throw new IllegalStateException(
+                    "Call startSeries() before adding items.");
+        }
+        if (this.itemCount >= Integer.MAX_VALUE) {
+            throw new IllegalStateException(
+                    "The current series cannot hold any more items.");
+        }
+        if (this.buffer.remaining() < 3 * this.valueSize) {
+            flush();
+        }
+        if (this.valueSize == 8) {
+            this.buffer.putDouble(x).putDouble(y).putDouble(z);
+        } else {
+            this.buffer.putFloat((float) x).putFloat((float) y)
+                    .putFloat((float) z);
+        }
+        this.itemCount++;
+    }
+    
+    /**
+     * Writes the series directory and the file header, then closes the 
+     * file.  Calling this method more than once has no effect.
+     * 
+     * @throws IOException if there is an I/O problem.
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        endSeries();
+        try {
+            long directoryOffset = this.position + this.buffer.position();
+            for (int s = 0; s < this.seriesKeys.size(); s++) {
+                byte[] key = this.seriesKeys.get(s).getBytes("UTF-8");
+                if (this.buffer.remaining() < 20 + key.length) {
+                    flush();
+                }
+                if (this.buffer.remaining() < 20 + key.length) {
+                    throw new IOException("Series key is too long.");
+                }
+                this.buffer.putLong(this.seriesOffsets.get(s));
+                this.buffer.putLong(this.itemCounts.get(s));
+                this.buffer.putInt(key.length);
+                this.buffer.put(key);
+            }
+            flush();
+            ByteBuffer header = ByteBuffer.allocate(
+                    MappedXYZDataset.HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MappedXYZDataset.MAGIC);
+            header.putInt(MappedXYZDataset.VERSION);
+            header.putInt(this.valueSize);
+            header.putInt(this.seriesKeys.size());
+            header.putLong(directoryOffset);
+            header.flip();
+            writeFully(header, 0L);
+        } finally {
+            this.raf.close();
+        }
+    }
+    
+    /**
+     * Writes the contents of the buffer to the file.
+     * 
+     * @throws IOException if there is an I/O problem. 
+     */
+    private void flush() throws IOException {
+        this.buffer.flip();
+        int n = this.buffer.remaining();
+        writeFully(this.buffer, this.position);
+        this.position += n;
+        this.buffer.clear();
+    }
+    
+    /**
+     * Writes all the remaining bytes in a buffer to the file at the 
+     * specified position.
+     * 
+     * @param b  the buffer.
+     * @param pos  the file position.
+     * 
+     * @throws IOException if there is an I/O problem. 
+     */
+    private void writeFully(ByteBuffer b, long pos) throws IOException {
+        long p = pos;
+        while (b.hasRemaining()) {
+            p += this.channel.write(b, p);
+        }
+    }
+    
+    /**
+     * Throws an exception if the writer has been closed.
+     */
+    private void checkOpen() {
+        if (this.closed) {
+            throw new IllegalStateException("The writer has been closed.");
+        }
+    }
+
+}
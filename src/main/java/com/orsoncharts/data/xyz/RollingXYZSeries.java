@@ -0,0 +1,399 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.data.xyz;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.orsoncharts.data.Series3DChangeEvent;
+import com.orsoncharts.util.ArgChecks;
+
+/**
+ * An {@link XYZSeries} with a fixed capacity, intended for live data feeds 
+ * where only the most recent items are of interest.  The values are stored
+ * in primitive circular buffers and, once the series is full, each new item 
+ * evicts the oldest item in constant time (there is no per-item object 
+ * allocation and no shifting of array elements).
+ * <br><br>
+ * The series can be added to an {@link XYZSeriesCollection} in exactly the
+ * same way as a regular {@link XYZSeries}.  Change events sent to registered
+ * listeners are instances of {@link RollingXYZSeriesChangeEvent} and report
+ * the number of items appended and evicted since the previous event.  When
+ * appending data at a high rate, you can call {@code setNotify(false)}, add
+ * a batch of items, then call {@code setNotify(true)} to send a single event
+ * covering the whole batch.
+ * <br><br>
+ * NOTE: This class is serializable, but the serialization format is subject 
+ * to change in future releases and should not be relied upon for persisting 
+ * instances of this class.
+ * 
+ * @param <K> the type for the series key.
+ * 
+ * @since 1.7
+ */
+@SuppressWarnings("serial")
+public class RollingXYZSeries<K extends Comparable<K>> extends XYZSeries<K> {
+    
+    /** The x-values (circular buffer). */
+    private final double[] xValues;
+    
+    /** The y-values (circular buffer). */
+    private final double[] yValues;
+    
+    /** The z-values (circular buffer). */
+    private final double[] zValues;
+    
+    /** The buffer index of the oldest item in the series. */
+    private int head;
+    
+    /** The number of items currently in the series. */
+    private int count;
+    
+    /** The number of items appended since the last change event. */
+    private int pendingAdded;
+    
+    /** The number of items evicted since the last change event. */
+    private int pendingEvicted;
+    
+    /**
+     * Creates a new (empty) series with the specified key and capacity.
+     * 
+     * @param key  the key ({@code null} not permitted).
+     * @param capacity  the maximum number of items retained by the series
+     *     (must be greater than zero).
+     */
+    public RollingXYZSeries(K key, int capacity) {
+        super(key, null);
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                    "Requires 'capacity' greater than zero.");
+        }
+        this.xValues = new double[capacity];
+        this.yValues = new double[capacity];
+        this.zValues = new double[capacity];
+        this.head = 0;
+        this.count = 0;
+    }
+    
+    /**
+     * Returns the maximum number of items retained by the series (as 
+     * specified in the constructor).
+     * 
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return this.xValues.length;
+    }
+    
+    /**
+     * Returns the number of items in the series.
+     * 
+     * @return The number of items in the series (never more than the 
+     *     capacity). 
+     */
+    @Override
+    public int getItemCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns a list containing all the items for the series, ordered from 
+     * oldest to newest (a new list is created each time this method is 
+     * called).
+     * 
+     * @return A list of all items.
+     */
+    @Override
+    public List<XYZDataItem> getItems() {
+        List<XYZDataItem> result = new ArrayList<XYZDataItem>(this.count);
+        for (int i = 0; i < this.count; i++) {
+            int b = bufferIndex(i);
+            result.add(new XYZDataItem(this.xValues[b], this.yValues[b], 
+                    this.zValues[b]));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the x-value for the specified item in the series.  Item 
+     * {@code 0} is the oldest item in the series.
+     * 
+     * @param itemIndex  the item index.
+     * 
+     * @return The x-value. 
+     */
+    @Override
+    public double getXValue(int itemIndex) {
+        ArgChecks.checkArrayBounds(itemIndex, "itemIndex", this.count);
+        return this.xValues[bufferIndex(itemIndex)];
+    }
+
+    /**
+     * Returns the y-value for the specified item in the series.  Item 
+     * {@code 0} is the oldest item in the series.
+     * 
+     * @param itemIndex  the item index.
+     * 
+     * @return The y-value. 
+     */
+    @Override
+    public double getYValue(int itemIndex) {
+        ArgChecks.checkArrayBounds(itemIndex, "itemIndex", this.count);
+        return this.yValues[bufferIndex(itemIndex)];
+    }
+
+    /**
+     * Returns the z-value for the specified item in the series.  Item 
+     * {@code 0} is the oldest item in the series.
+     * 
+     * @param itemIndex  the item index.
+     * 
+     * @return The z-value. 
+     */
+    @Override
+    public double getZValue(int itemIndex) {
+        ArgChecks.checkArrayBounds(itemIndex, "itemIndex", this.count);
+        return this.zValues[bufferIndex(itemIndex)];
+    }
+
+    /**
+     * Appends a new data item to the series, evicting the oldest item if the
+     * series is already at full capacity, and sends a 
+     * {@link RollingXYZSeriesChangeEvent} to all registered listeners.
+     * 
+     * @param x  the x-value.
+     * @param y  the y-value.
+     * @param z  the z-value.
+     */
+    @Override
+    public void add(double x, double y, double z) {
+        append(x, y, z);
+        fireSeriesChanged();
+    }
+
+    /**
+     * Appends a new data item to the series, evicting the oldest item if the
+     * series is already at full capacity, and sends a 
+     * {@link RollingXYZSeriesChangeEvent} to all registered listeners.  The 
+     * series does not retain a reference to the {@code item}.
+     * 
+     * @param item  the data item ({@code null} not permitted).
+     */
+    @Override
+    public void add(XYZDataItem item) {
+        ArgChecks.nullNotPermitted(item, "item");
+        add(item.getX(), item.getY(), item.getZ());
+    }
+    
+    /**
+     * Appends a block of data items to the series, evicting the oldest items
+     * as necessary, then sends a single {@link RollingXYZSeriesChangeEvent} to 
+     * all registered listeners.  If the block contains more items than the 
+     * capacity of the series, only the most recent items are retained.
+     * 
+     * @param x  the x-values ({@code null} not permitted).
+     * @param y  the y-values ({@code null} not permitted).
+     * @param z  the z-values ({@code null} not permitted).
+     * @param offset  the index of the first value to append.
+     * @param length  the number of values to append.
+     */
+    public void add(double[] x, double[] y, double[] z, int offset, 
+            int length) {
+        ArgChecks.nullNotPermitted(x, "x");
+        ArgChecks.nullNotPermitted(y, "y");
+        ArgChecks.nullNotPermitted(z, "z");
+        if (offset < 0 || length < 0 || offset + length > x.length 
+                || offset + length > y.length 
+                || offset + length > z.length) {
+            throw new IllegalArgumentException(
+                    "The 'offset' and 'length' are outside the array bounds.");
+        }
+        for (int i = offset; i < offset + length; i++) {
+            append(x[i], y[i], z[i]);
+        }
+        fireSeriesChanged();
+    }
+    
+    /**
+     * Removes a data item from the series and sends a 
+     * {@link RollingXYZSeriesChangeEvent} to all registered listeners.  
+     * Removing the oldest item (index {@code 0}) is a constant time operation
+     * that is reported as an eviction, removing any other item requires 
+     * the newer items to be shifted.
+     * 
+     * @param itemIndex  the item index.
+     */
+    @Override
+    public void remove(int itemIndex) {
+        ArgChecks.checkArrayBounds(itemIndex, "itemIndex", this.count);
+        if (itemIndex == 0) {
+            this.head = bufferIndex(1);
+            this.pendingEvicted++;
+        } else {
+            for (int i = itemIndex; i < this.count - 1; i++) {
+                int dest = bufferIndex(i);
+                int src = bufferIndex(i + 1);
+                this.xValues[dest] = this.xValues[src];
+                this.yValues[dest] = this.yValues[src];
+                this.zValues[dest] = this.zValues[src];
+            }
+        }
+        this.count--;
+        fireSeriesChanged();
+    }
+    
+    /**
+     * Removes all data items from the series (they are reported as evicted) 
+     * and sends a {@link RollingXYZSeriesChangeEvent} to all registered 
+     * listeners.  If the series is already empty, this method does nothing.
+     */
+    public void clear() {
+        if (this.count > 0) {
+            this.pendingEvicted += this.count;
+            this.head = 0;
+            this.count = 0;
+            fireSeriesChanged();
+        }
+    }
+    
+    /**
+     * Sends a {@link RollingXYZSeriesChangeEvent} to all registered listeners
+     * (if notification is enabled), reporting the items appended and evicted
+     * since the previous event.
+     */
+    @Override
+    public void fireSeriesChanged() {
+        if (getNotify()) {
+            Series3DChangeEvent event = new RollingXYZSeriesChangeEvent(this, 
+                    this.pendingAdded, this.pendingEvicted);
+            this.pendingAdded = 0;
+            this.pendingEvicted = 0;
+            notifyListeners(event);
+        }
+    }
+
+    /**
+     * Writes an item to the tail of the buffer, evicting the oldest item if
+     * the buffer is full.  No change event is sent.
+     * 
+     * @param x  the x-value.
+     * @param y  the y-value.
+     * @param z  the z-value.
+     */
+    private void append(double x, double y, double z) {
+        int capacity = this.xValues.length;
+        int tail;
+        if (this.count < capacity) {
+            tail = bufferIndex(this.count);
+            this.count++;
+        } else {
+            tail = this.head;
+            this.head = (this.head + 1) % capacity;
+            this.pendingEvicted++;
+        }
+        this.xValues[tail] = x;
+        this.yValues[tail] = y;
+        this.zValues[tail] = z;
+        this.pendingAdded++;
+    }
+    
+    /**
+     * Converts an item index (relative to the oldest item) to an index into
+     * the circular buffers.
+     * 
+     * @param itemIndex  the item index.
+     * 
+     * @return The buffer index. 
+     */
+    private int bufferIndex(int itemIndex) {
+        int i = this.head + itemIndex;
+        int capacity = this.xValues.length;
+        return i < capacity ? i : i - capacity;
+    }
+
+    /**
+     * Tests this series for equality with an arbitrary object.  Two rolling
+     * series are equal if they have the same key, the same capacity and the
+     * same data items in the same order (the internal position of the items
+     * within the circular buffers is not significant).  A rolling series is
+     * never equal to a regular {@link XYZSeries}.
+     * 
+     * @param obj  the object to test ({@code null} permitted).
+     * 
+     * @return A boolean. 
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        RollingXYZSeries that = (RollingXYZSeries) obj;
+        if (!getKey().equals(that.getKey())) {
+            return false;
+        }
+        if (this.xValues.length != that.xValues.length) {
+            return false;
+        }
+        if (this.count != that.count) {
+            return false;
+        }
+        for (int i = 0; i < this.count; i++) {
+            int b1 = bufferIndex(i);
+            int b2 = that.bufferIndex(i);
+            if (Double.doubleToLongBits(this.xValues[b1]) 
+                    != Double.doubleToLongBits(that.xValues[b2])) {
+                return false;
+            }
+            if (Double.doubleToLongBits(this.yValues[b1]) 
+                    != Double.doubleToLongBits(that.yValues[b2])) {
+                return false;
+            }
+            if (Double.doubleToLongBits(this.zValues[b1]) 
+                    != Double.doubleToLongBits(that.zValues[b2])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = super.hashCode();
+        hash = 41 * hash + this.xValues.length;
+        return hash;
+    }
+
+}
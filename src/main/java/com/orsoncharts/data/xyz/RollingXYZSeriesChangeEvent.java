@@ -0,0 +1,93 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.data.xyz;
+
+import com.orsoncharts.data.Series3DChangeEvent;
+
+/**
+ * A change event for a {@link RollingXYZSeries}, carrying the number of 
+ * items appended to and evicted from the series since the previous event.
+ * Listeners that maintain derived state (for example, running totals) can
+ * use these counts to update incrementally rather than rescanning the 
+ * whole series.
+ * 
+ * @since 1.7
+ */
+@SuppressWarnings("serial")
+public class RollingXYZSeriesChangeEvent extends Series3DChangeEvent {
+
+    /** The number of items appended since the previous event. */
+    private final int addedCount;
+    
+    /** 
+     * The number of items evicted from the head of the series since the
+     * previous event. 
+     */
+    private final int evictedCount;
+    
+    /**
+     * Creates a new event.
+     * 
+     * @param source  the source of the change event.
+     * @param addedCount  the number of items appended.
+     * @param evictedCount  the number of items evicted.
+     */
+    public RollingXYZSeriesChangeEvent(Object source, int addedCount, 
+            int evictedCount) {
+        super(source);
+        this.addedCount = addedCount;
+        this.evictedCount = evictedCount;
+    }
+    
+    /**
+     * Returns the number of items appended to the series since the previous
+     * event.
+     * 
+     * @return The number of items appended. 
+     */
+    public int getAddedCount() {
+        return this.addedCount;
+    }
+    
+    /**
+     * Returns the number of items evicted from the head of the series (the 
+     * oldest items) since the previous event.
+     * 
+     * @return The number of items evicted.
+     */
+    public int getEvictedCount() {
+        return this.evictedCount;
+    }
+
+}
@@ -0,0 +1,427 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.data.xyz;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import com.orsoncharts.Range;
+import com.orsoncharts.util.ArgChecks;
+import com.orsoncharts.util.TaskUtils;
+
+/**
+ * An immutable summary of the items in an {@link XYZDataset}, obtained by
+ * dividing the x, y and z ranges into equal intervals and counting the 
+ * items that fall into each of the resulting cells (voxels).  The sum of 
+ * the y-values is also recorded for each voxel, so that the mean y-value 
+ * is available.  Items that lie outside the ranges (or that have a 
+ * {@code NaN} value) are ignored.
+ * <br><br>
+ * The dataset is read in a single pass.  For large datasets with more than
+ * one series, the constructor with the {@code parallel} argument can be 
+ * used to bin the series in parallel (using a shared pool of daemon 
+ * threads) and merge the results.  The {@link XYZDataset} interface does 
+ * not require thread safety, so this must only be requested for datasets 
+ * that are safe to read from multiple threads at once.
+ * <br><br>
+ * This class is used by the 
+ * {@link com.orsoncharts.renderer.xyz.VoxelXYZRenderer} to cache the 
+ * binning of a dataset between updates of the 3D model.
+ * 
+ * @since 1.7
+ */
+public class VoxelGrid {
+    
+    /** 
+     * The minimum number of items before the binning is split across 
+     * multiple threads.
+     */
+    private static final int PARALLEL_THRESHOLD = 100000;
+    
+    /** The dataset that was binned. */
+    private final XYZDataset<?> dataset;
+    
+    /** The x-range. */
+    private final Range xRange;
+    
+    /** The number of intervals along the x-axis. */
+    private final int xBins;
+    
+    /** The y-range. */
+    private final Range yRange;
+    
+    /** The number of intervals along the y-axis. */
+    private final int yBins;
+    
+    /** The z-range. */
+    private final Range zRange;
+    
+    /** The number of intervals along the z-axis. */
+    private final int zBins;
+    
+    /** The item count for each voxel (indexed by x, then y, then z). */
+    private final int[] counts;
+    
+    /** The sum of the y-values for each voxel. */
+    private final double[] sums;
+    
+    /** The number of voxels containing at least one item. */
+    private int occupiedCount;
+    
+    /** The highest item count for any voxel. */
+    private int maxCount;
+    
+    /** The total number of items binned. */
+    private long itemCount;
+
+    /**
+     * Bins the items in the specified dataset on the calling thread.
+     * 
+     * @param dataset  the dataset ({@code null} not permitted).
+     * @param xRange  the x-range ({@code null} not permitted).
+     * @param xBins  the number of intervals along the x-axis (at least 1).
+     * @param yRange  the y-range ({@code null} not permitted).
+     * @param yBins  the number of intervals along the y-axis (at least 1).
+     * @param zRange  the z-range ({@code null} not permitted).
+     * @param zBins  the number of intervals along the z-axis (at least 1).
+     */
+    public VoxelGrid(XYZDataset<?> dataset, Range xRange, int xBins, 
+            Range yRange, int yBins, Range zRange, int zBins) {
+        this(dataset, xRange, xBins, yRange, yBins, zRange, zBins, false);
+    }
+    
+    /**
+     * Bins the items in the specified dataset.
+     * 
+     * @param dataset  the dataset ({@code null} not permitted).
+     * @param xRange  the x-range ({@code null} not permitted).
+     * @param xBins  the number of intervals along the x-axis (at least 1).
+     * @param yRange  the y-range ({@code null} not permitted).
+     * @param yBins  the number of intervals along the y-axis (at least 1).
+     * @param zRange  the z-range ({@code null} not permitted).
+     * @param zBins  the number of intervals along the z-axis (at least 1).
+     * @param parallel  a flag that permits the series to be binned by 
+     *     multiple threads (only set this to {@code true} if the dataset 
+     *     is thread safe).
+     */
+    public VoxelGrid(XYZDataset<?> dataset, Range xRange, int xBins, 
+            Range yRange, int yBins, Range zRange, int zBins, 
+            boolean parallel) {
+        ArgChecks.nullNotPermitted(dataset, "dataset");
+        ArgChecks.nullNotPermitted(xRange, "xRange");
+        ArgChecks.nullNotPermitted(yRange, "yRange");
+        ArgChecks.nullNotPermitted(zRange, "zRange");
+        if (xBins < 1 || yBins < 1 || zBins < 1) {
+            throw new IllegalArgumentException(
+                    "Requires 'xBins', 'yBins' and 'zBins' of at least 1.");
+        }
+        this.dataset = dataset;
+        this.xRange = xRange;
+        this.xBins = xBins;
+        this.yRange = yRange;
+        this.yBins = yBins;
+        this.zRange = zRange;
+        this.zBins = zBins;
+        int seriesCount = dataset.getSeriesCount();
+        long items = 0;
+        for (int s = 0; s < seriesCount; s++) {
+            items += dataset.getItemCount(s);
+        }
+        this.counts = new int[xBins * yBins * zBins];
+        this.sums = new double[this.counts.length];
+        int threads = Math.min(seriesCount, 
+                Runtime.getRuntime().availableProcessors());
+        if (parallel && items >= PARALLEL_THRESHOLD && threads > 1
+                && TaskUtils.isParallelAvailable()) {
+            binInParallel(threads);
+        } else {
+            binSeries(0, 1, this.counts, this.sums);
+        }
+        for (int i = 0; i < this.counts.length; i++) {
+            int c = this.counts[i];
+            if (c > 0) {
+                this.occupiedCount++;
+                this.maxCount = Math.max(this.maxCount, c);
+                this.itemCount += c;
+            }
+        }
+    }
+    
+    /**
+     * Bins every {@code step}-th series starting from {@code first}, adding 
+     * the results to the supplied arrays.
+     * 
+     * @param first  the index of the first series.
+     * @param step  the step between series.
+     * @param c  the counts array.
+     * @param s  the sums array.
+     */
+    private void binSeries(int first, int step, int[] c, double[] s) {
+        double xmin = this.xRange.getMin();
+        double xlen = this.xRange.getLength();
+        double ymin = this.yRange.getMin();
+        double ylen = this.yRange.getLength();
+        double zmin = this.zRange.getMin();
+        double zlen = this.zRange.getLength();
+        for (int series = first; series < this.dataset.getSeriesCount(); 
+                series += step) {
+            int itemCount = this.dataset.getItemCount(series);
+            for (int item = 0; item < itemCount; item++) {
+                int i = binIndex(this.dataset.getX(series, item), xmin, xlen, 
+                        this.xBins);
+                if (i < 0) {
+                    continue;
+                }
+                double y = this.dataset.getY(series, item);
+                int j = binIndex(y, ymin, ylen, this.yBins);
+                if (j < 0) {
+                    continue;
+                }
+                int k = binIndex(this.dataset.getZ(series, item), zmin, zlen, 
+                        this.zBins);
+                if (k < 0) {
+                    continue;
+                }
+                int index = (i * this.yBins + j) * this.zBins + k;
+                c[index]++;
+                s[index] += y;
+            }
+        }
+    }
+    
+    /**
+     * Returns the bin index for a value, or {@code -1} if the value lies 
+     * outside the range (or is {@code NaN}).
+     * 
+     * @param value  the value.
+     * @param min  the minimum of the range.
+     * @param length  the length of the range.
+     * @param bins  the number of bins.
+     * 
+     * @return The bin index (or {@code -1}). 
+     */
+    private static int binIndex(double value, double min, double length, 
+            int bins) {
+        double f = (value - min) / length;
+        if (!(f >= 0.0 && f <= 1.0)) {
+            if (length == 0.0 && value == min) {
+                return 0;
+            }
+            return -1;
+        }
+        return Math.min((int) (f * bins), bins - 1);
+    }
+    
+    /**
+     * Bins the series using the shared thread pool, with each task binning 
+     * a subset of the series into its own arrays, then merges the results.
+     * 
+     * @param threads  the number of tasks.
+     */
+    private void binInParallel(int threads) {
+        List<Callable<Object[]>> tasks = new ArrayList<Callable<Object[]>>();
+        final int cells = this.counts.length;
+        for (int t = 0; t < threads; t++) {
+            final int first = t;
+            final int step = threads;
+            tasks.add(new Callable<Object[]>() {
+                @Override
+                public Object[] call() {
+                    int[] c = new int[cells];
+                    double[] s = new double[cells];
+                    binSeries(first, step, c, s);
+                    return new Object[] {c, s};
+                }
+            });
+        }
+        List<Object[]> results = TaskUtils.invokeAll(tasks, 
+                "binning the dataset");
+        for (Object[] result : results) {
+            int[] c = (int[]) result[0];
+            double[] s = (double[]) result[1];
+            for (int i = 0; i < cells; i++) {
+                this.counts[i] += c[i];
+                this.sums[i] += s[i];
+            }
+        }
+    }
+    
+    /**
+     * Returns {@code true} if this instance was created by binning the 
+     * specified dataset with the same ranges and bin counts, and 
+     * {@code false} otherwise.  This is used to decide whether a cached
+     * instance can be reused (note that changes to the content of the 
+     * dataset are not detected by this method).
+     * 
+     * @param dataset  the dataset.
+     * @param xRange  the x-range.
+     * @param xBins  the number of intervals along the x-axis.
+     * @param yRange  the y-range.
+     * @param yBins  the number of intervals along the y-axis.
+     * @param zRange  the z-range.
+     * @param zBins  the number of intervals along the z-axis.
+     * 
+     * @return A boolean. 
+     */
+    public boolean isBinningOf(XYZDataset<?> dataset, Range xRange, 
+            int xBins, Range yRange, int yBins, Range zRange, int zBins) {
+        return this.dataset == dataset && this.xBins == xBins 
+                && this.yBins == yBins && this.zBins == zBins 
+                && this.xRange.equals(xRange) && this.yRange.equals(yRange)
+                && this.zRange.equals(zRange);
+    }
+    
+    /**
+     * Returns the dataset that was binned.
+     * 
+     * @return The dataset (never {@code null}). 
+     */
+    public XYZDataset<?> getDataset() {
+        return this.dataset;
+    }
+    
+    /**
+     * Returns the x-range.
+     * 
+     * @return The x-range (never {@code null}). 
+     */
+    public Range getXRange() {
+        return this.xRange;
+    }
+    
+    /**
+     * Returns the number of intervals along the x-axis.
+     * 
+     * @return The number of intervals. 
+     */
+    public int getXBins() {
+        return this.xBins;
+    }
+    
+    /**
+     * Returns the y-range.
+     * 
+     * @return The y-range (never {@code null}). 
+     */
+    public Range getYRange() {
+        return this.yRange;
+    }
+    
+    /**
+     * Returns the number of intervals along the y-axis.
+     * 
+     * @return The number of intervals. 
+     */
+    public int getYBins() {
+        return this.yBins;
+    }
+    
+    /**
+     * Returns the z-range.
+     * 
+     * @return The z-range (never {@code null}). 
+     */
+    public Range getZRange() {
+        return this.zRange;
+    }
+    
+    /**
+     * Returns the number of intervals along the z-axis.
+     * 
+     * @return The number of intervals. 
+     */
+    public int getZBins() {
+        return this.zBins;
+    }
+    
+    /**
+     * Returns the number of items in a voxel.
+     * 
+     * @param i  the x-index.
+     * @param j  the y-index.
+     * @param k  the z-index.
+     * 
+     * @return The item count. 
+     */
+    public int getCount(int i, int j, int k) {
+        return this.counts[(i * this.yBins + j) * this.zBins + k];
+    }
+    
+    /**
+     * Returns the mean y-value for the items in a voxel, or 
+     * {@code Double.NaN} if the voxel is empty.
+     * 
+     * @param i  the x-index.
+     * @param j  the y-index.
+     * @param k  the z-index.
+     * 
+     * @return The mean y-value. 
+     */
+    public double getMeanY(int i, int j, int k) {
+        int index = (i * this.yBins + j) * this.zBins + k;
+        if (this.counts[index] == 0) {
+            return Double.NaN;
+        }
+        return this.sums[index] / this.counts[index];
+    }
+    
+    /**
+     * Returns the number of voxels that contain at least one item.
+     * 
+     * @return The number of occupied voxels. 
+     */
+    public int getOccupiedCount() {
+        return this.occupiedCount;
+    }
+    
+    /**
+     * Returns the highest item count for any voxel.
+     * 
+     * @return The highest item count. 
+     */
+    public int getMaxCount() {
+        return this.maxCount;
+    }
+    
+    /**
+     * Returns the total number of items that were binned (this excludes 
+     * items outside the ranges).
+     * 
+     * @return The item count. 
+     */
+    public long getItemCount() {
+        return this.itemCount;
+    }
+    
+}
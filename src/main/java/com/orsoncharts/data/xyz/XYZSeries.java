@@ -63,7 +63,10 @@ public class XYZSeries<K extends Comparable<K>> implements Serializable {
     /** The series key (never {@code null}). */
     private final K key;
 
-    /** The data items in the series. */
+    /** 
+     * The data items in the series ({@code null} for subclasses that store
+     * the data themselves).
+     */
     private final List<XYZDataItem> items;
 
     /** Storage for registered change listeners. */
@@ -82,9 +85,22 @@ public class XYZSeries<K extends Comparable<K>> implements Serializable {
      * @param key  the key ({@code null} not permitted). 
      */
     public XYZSeries(K key) {
+        this(key, new ArrayList<XYZDataItem>());
+    }
+    
+    /**
+     * Creates a new series with the specified key and item storage.  
+     * Subclasses that store the data items themselves pass {@code null} for
+     * the list, and must then override all the methods that access the 
+     * items.
+     * 
+     * @param key  the key ({@code null} not permitted).
+     * @param items  the list for the data items ({@code null} permitted).
+     */
+    XYZSeries(K key, List<XYZDataItem> items) {
         ArgChecks.nullNotPermitted(key, "key");
         this.key = key;
-        this.items = new ArrayList<XYZDataItem>();
+        this.items = items;
         this.listeners = new EventListenerList();
         this.notify = true;
     }
@@ -297,6 +313,8 @@ public class XYZSeries<K extends Comparable<K>> implements Serializable {
         if (!this.key.equals(that.key)) {
             return false;
         }
+        // a subclass that stores its own data (with no item list here) 
+        // overrides this method, and is never equal to a regular series
         if (!this.items.equals(that.items)) {
             return false;
         }
@@ -47,7 +47,7 @@ import com.orsoncharts.Chart3DChangeEvent;
 import com.orsoncharts.Chart3DChangeListener;
 import com.orsoncharts.data.ItemKey;
 import com.orsoncharts.graphics3d.Dimension3D;
-import com.orsoncharts.graphics3d.Object3D;
+import com.orsoncharts.graphics3d.Face;
 import com.orsoncharts.graphics3d.Offset2D;
 import com.orsoncharts.graphics3d.RenderingInfo;
 import com.orsoncharts.graphics3d.ViewPoint3D;
@@ -390,10 +390,9 @@ public class Chart3DCanvas extends Canvas implements Chart3DChangeListener {
         if (!this.tooltipEnabled || this.renderingInfo == null) {
             return;
         }
-        Object3D object = this.renderingInfo.fetchObjectAt(me.getX(), 
-                me.getY());
-        if (object != null) {
-            ItemKey key = (ItemKey) object.getProperty(Object3D.ITEM_KEY);
+        Face face = this.renderingInfo.fetchFaceAt(me.getX(), me.getY());
+        if (face != null) {
+            ItemKey key = (ItemKey) face.getItemKey();
             if (key != null) {
                 String toolTipText = chart.getPlot().generateToolTipText(key);
                 if (this.tooltip == null) {
@@ -40,9 +40,6 @@ import java.awt.geom.Rectangle2D;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.GeneralPath;
 import java.awt.geom.Point2D;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import com.orsoncharts.util.ArgChecks;
 import com.orsoncharts.Chart3D;
 
@@ -182,20 +179,27 @@ public class DefaultDrawable3D implements Drawable3D {
 
         Point2D[] pts = this.world.calculateProjectedPoints(this.viewPoint,
                     this.projDist);
-        List<Face> facesInPaintOrder = new ArrayList<Face>(
-                this.world.getFaces());
-
         // sort faces by z-order
-        Collections.sort(facesInPaintOrder, new ZOrderComparator(eyePts));
+        PaintOrder facesInPaintOrder = new PaintOrder(this.world, eyePts);
+        Point3D sun = this.viewPoint.eyeToWorldDirection(
+                this.world.getSunX(), this.world.getSunY(), 
+                this.world.getSunZ());
 
-        for (Face f : facesInPaintOrder) {
-            double[] plane = f.calculateNormal(eyePts);
-            double inprod = plane[0] * this.world.getSunX() + plane[1]
-                    * this.world.getSunY() + plane[2] * this.world.getSunZ();
+        for (int i = 0; i < facesInPaintOrder.size(); i++) {
+            Face f = facesInPaintOrder.getTransientFace(i);
+            if (f instanceof SpriteFace) {
+                SpriteFace sf = (SpriteFace) f;
+                sf.calculateScreenSize(eyePts, this.projDist);
+                g2.setPaint(facesInPaintOrder.getColor(i));
+                g2.fill(sf.createShape(pts));
+                continue;
+            }
+            double inprod = facesInPaintOrder.dotNormal(i, sun.x, sun.y, 
+                    sun.z);
             double shade = (inprod + 1) / 2.0;
             if (Utils2D.area2(pts[f.getVertexIndex(0)],
                     pts[f.getVertexIndex(1)], pts[f.getVertexIndex(2)]) > 0) {
-                Color c = f.getColor();
+                Color c = facesInPaintOrder.getColor(i);
                 if (c != null) {
                     GeneralPath p = new GeneralPath();
                     for (int v = 0; v < f.getVertexCount(); v++) {
@@ -49,7 +49,7 @@ public class Dot3D extends Object3D {
      */
     public Dot3D(float x, float y, float z, Color color) {
         super(color);
-        addVertex(new Point3D(x, y, z));
+        addVertex(x, y, z);
     }
     
 }
@@ -32,6 +32,8 @@
 
 package com.orsoncharts.graphics3d;
 
+import java.awt.Color;
+
 /**
  * A double-sided face.  This is identical to a normal face except that during
  * rendering these faces will be drawn no matter which side they are viewed
@@ -41,6 +43,12 @@ package com.orsoncharts.graphics3d;
  */
 public class DoubleSidedFace extends Face {
  
+    /** 
+     * The color for this face, or {@code null} if the color is taken from
+     * the owner.
+     */
+    private Color color;
+    
     /**
      * Creates a new double-sided face.
      * 
@@ -53,4 +61,39 @@ public class DoubleSidedFace extends Face {
     public DoubleSidedFace(Object3D owner, int[] vertices) {
         super(owner, vertices); 
     }
+    
+    /**
+     * Creates a new double-sided face with its own color.  This is used for
+     * meshes where many faces share the same vertices but each face has a 
+     * different color (for example, the faces of a surface plot).
+     * 
+     * @param owner  the object that the face belongs to ({@code null} not 
+     *     permitted).
+     * @param vertices  the vertices.
+     * @param color  the face color ({@code null} permitted, in which case the
+     *     color is obtained from the owner).
+     * 
+     * @since 1.7
+     */
+    public DoubleSidedFace(Object3D owner, int[] vertices, Color color) {
+        super(owner, vertices);
+        this.color = color;
+    }
+    
+    /**
+     * Returns the color for this face.  If a color was specified in the
+     * constructor, it is returned, otherwise the color is obtained from the
+     * object that owns the face.
+     * 
+     * @return The color (never {@code null}).
+     * 
+     * @since 1.7
+     */
+    @Override
+    public Color getColor() {
+        if (this.color != null) {
+            return this.color;
+        }
+        return super.getColor();
+    }
 }
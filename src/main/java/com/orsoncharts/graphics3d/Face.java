@@ -84,6 +84,24 @@ public class Face {
         this.offset = 0;
     }
 
+    /**
+     * Creates a new face with a single vertex that is part of the 3D
+     * {@code owner} object.  This is used by {@link SpriteFace}, where a data
+     * item is drawn as a 2D marker centered on one projected vertex.
+     * 
+     * @param owner  the object that owns the face ({@code null} not 
+     *     permitted).
+     * @param vertex  the index of the vertex.
+     * 
+     * @since 1.7
+     */
+    protected Face(Object3D owner, int vertex) {
+        ArgChecks.nullNotPermitted(owner, "owner");
+        this.owner = owner;
+        this.vertices = new int[] {vertex};
+        this.offset = 0;
+    }
+
     /**
      * Returns the object that this face belongs too (as passed to the 
      * constructor).
@@ -146,6 +164,19 @@ public class Face {
         return this.owner.getColor(this);
     }
     
+    /**
+     * A convenience method that looks up and returns the key for the data
+     * item that this face represents (obtained by querying the object that
+     * owns the face).
+     * 
+     * @return The item key (possibly {@code null}).
+     * 
+     * @since 1.7
+     */
+    public Object getItemKey() {
+        return this.owner.getItemKey(this);
+    }
+    
     /**
      * Returns {@code true} if an outline should be drawn for this face,
      * and {@code false} otherwise.  The value is obtained by querying
@@ -201,6 +232,35 @@ public class Face {
         return new double[] {a, b, c};
     }
 
+    /**
+     * Returns the dot product of the unit normal vector for this face (in 
+     * world coordinates) with the specified vector.  The normal is 
+     * calculated from the owner's vertices on each call, so when shading 
+     * many faces use {@link Object3D#dotNormal(int, double, double, double)}
+     * instead (the owner retains the normals for all its faces).
+     * 
+     * @param x  the x-component of the vector.
+     * @param y  the y-component of the vector.
+     * @param z  the z-component of the vector.
+     * 
+     * @return The dot product.
+     * 
+     * @since 1.7
+     */
+    public double dotNormal(double x, double y, double z) {
+        int base = getOffset();
+        Point3D a = this.owner.getVertex(getVertexIndex(0) - base);
+        Point3D b = this.owner.getVertex(getVertexIndex(1) - base);
+        Point3D c = this.owner.getVertex(getVertexIndex(2) - base);
+        double u1 = b.x - a.x, u2 = b.y - a.y, u3 = b.z - a.z;
+        double v1 = c.x - a.x, v2 = c.y - a.y, v3 = c.z - a.z;
+        double nx = u2 * v3 - u3 * v2;
+        double ny = u3 * v1 - u1 * v3;
+        double nz = u1 * v2 - u2 * v1;
+        double len = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        return (nx * x + ny * y + nz * z) / len;
+    }
+
     /**
      * Returns the average z-value.
      *
@@ -0,0 +1,787 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.Color;
+import java.awt.geom.Point2D;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.orsoncharts.util.ArgChecks;
+
+/**
+ * An {@link Object3D} that draws many copies (instances) of a single 
+ * template shape (for example a box, octahedron or sphere), where each 
+ * instance has its own position, scale, color and item key.  The template
+ * vertices and faces are shared by all instances and the per-instance 
+ * attributes are stored in primitive arrays, so no {@code Point3D}, 
+ * vertex index array or property map is created for each instance.  The
+ * vertices for each instance are calculated as the eye/screen coordinates
+ * are required, and the faces are referenced by index when they are sorted
+ * and painted (see {@link PaintOrder}), so face objects are only created 
+ * when they are requested via {@link #getFaces()}.
+ * <br><br>
+ * The template shape should be defined relative to the origin, with 
+ * instance vertex {@code v} placed at {@code position + scale * v} (per 
+ * axis).  Faces in the template can be tagged (see {@link TaggedFace}), the
+ * color for a tag can then be specified per instance via the 
+ * {@link #setTagColor(int, String, Color)} method.  Double-sided faces and
+ * label faces are not supported in the template.
+ * 
+ * @since 1.7
+ */
+public class InstancedObject3D extends Object3D {
+
+    /** The number of values stored per instance in the transforms array. */
+    private static final int STRIDE = 6;
+    
+    /** The template x-coordinates. */
+    private double[] tx;
+    
+    /** The template y-coordinates. */
+    private double[] ty;
+    
+    /** The template z-coordinates. */
+    private double[] tz;
+    
+    /** The vertex indices for each template face. */
+    private int[][] templateFaces;
+    
+    /** The tag for each template face (entries may be {@code null}). */
+    private String[] templateTags;
+    
+    /** 
+     * The (unnormalised) normal vector for each template face, three values
+     * per face.
+     */
+    private double[] templateNormals;
+    
+    /** The number of instances. */
+    private int instanceCount;
+    
+    /** 
+     * The position (x, y, z) and scale (sx, sy, sz) for each instance, six
+     * values per instance.
+     */
+    private double[] transforms;
+    
+    /** The color for each instance, as an index into the palette. */
+    private int[] colors;
+    
+    /** 
+     * Per-tag color indices for each instance (-1 means use the instance 
+     * color).  This map is created only when a tag color is specified.
+     */
+    private Map<String, int[]> tagColors;
+    
+    /** 
+     * The tag color indices for each template face (the entry from 
+     * {@code tagColors} for the face's tag, or {@code null}), created when
+     * first required.
+     */
+    private int[][] faceTagColors;
+    
+    /** The item key for each instance (entries may be {@code null}). */
+    private Object[] itemKeys;
+    
+    /** 
+     * A bit mask of the hidden template faces for each instance.  This 
+     * array is created only when faces are hidden.
+     */
+    private int[] hiddenFaces;
+    
+    /** The distinct colors used by the instances. */
+    private List<Color> palette;
+    
+    /** A lookup table for the palette indices. */
+    private Map<Color, Integer> paletteIndices;
+    
+    /** 
+     * The visible faces (as {@code instance * faceCount + face}) when some
+     * faces are hidden, created when first required.
+     */
+    private int[] visibleFaces;
+    
+    /** A list view of the faces (see {@link #getFaces()}). */
+    private List<Face> faceList;
+    
+    /**
+     * Creates a new instance with no instances, using the specified 
+     * object as the template shape.  The template is copied, later changes
+     * to it will not be reflected in this object.
+     * 
+     * @param template  the template ({@code null} not permitted).
+     */
+    public InstancedObject3D(Object3D template) {
+        super(template.getColor(), template.getOutline());
+        int vertexCount = template.getVertexCount();
+        this.tx = new double[vertexCount];
+        this.ty = new double[vertexCount];
+        this.tz = new double[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            Point3D v = template.getVertex(i);
+            this.tx[i] = v.x;
+            this.ty[i] = v.y;
+            this.tz[i] = v.z;
+        }
+        List<Face> tfaces = template.getFaces();
+        this.templateFaces = new int[tfaces.size()][];
+        this.templateTags = new String[tfaces.size()];
+        this.templateNormals = new double[tfaces.size() * 3];
+        for (int f = 0; f < tfaces.size(); f++) {
+            Face face = tfaces.get(f);
+            if (face instanceof DoubleSidedFace || face instanceof LabelFace) {
+                throw new IllegalArgumentException(
+                        "Template faces must be single-sided.");
+            }
+            int[] indices = new int[face.getVertexCount()];
+            for (int v = 0; v < indices.length; v++) {
+                indices[v] = face.getVertexIndex(v) - face.getOffset();
+            }
+            this.templateFaces[f] = indices;
+            this.templateTags[f] = face.getTag();
+            if (indices.length >= 3) {
+                int a = indices[0];
+                int b = indices[1];
+                int c = indices[2];
+                double u1 = this.tx[b] - this.tx[a];
+                double u2 = this.ty[b] - this.ty[a];
+                double u3 = this.tz[b] - this.tz[a];
+                double v1 = this.tx[c] - this.tx[a];
+                double v2 = this.ty[c] - this.ty[a];
+                double v3 = this.tz[c] - this.tz[a];
+                this.templateNormals[f * 3] = u2 * v3 - u3 * v2;
+                this.templateNormals[f * 3 + 1] = u3 * v1 - u1 * v3;
+                this.templateNormals[f * 3 + 2] = u1 * v2 - u2 * v1;
+            }
+        }
+        this.transforms = new double[16 * STRIDE];
+        this.colors = new int[16];
+        this.itemKeys = new Object[16];
+        this.palette = new ArrayList<Color>();
+        this.paletteIndices = new HashMap<Color, Integer>();
+    }
+    
+    /**
+     * Returns the number of instances.
+     * 
+     * @return The number of instances. 
+     */
+    public int getInstanceCount() {
+        return this.instanceCount;
+    }
+    
+    /**
+     * Adds an instance of the template shape.
+     * 
+     * @param x  the x-coordinate of the instance position.
+     * @param y  the y-coordinate of the instance position.
+     * @param z  the z-coordinate of the instance position.
+     * @param sx  the scale factor along the x-axis.
+     * @param sy  the scale factor along the y-axis.
+     * @param sz  the scale factor along the z-axis.
+     * @param color  the color ({@code null} not permitted).
+     * @param itemKey  the item key ({@code null} permitted).
+     * 
+     * @return The index of the new instance.
+     */
+    public int addInstance(double x, double y, double z, double sx, 
+            double sy, double sz, Color color, Object itemKey) {
+        ArgChecks.nullNotPermitted(color, "color");
+        int index = this.instanceCount;
+        if (index == this.colors.length) {
+            int capacity = index * 2;
+            this.transforms = Arrays.copyOf(this.transforms, 
+                    capacity * STRIDE);
+            this.colors = Arrays.copyOf(this.colors, capacity);
+            this.itemKeys = Arrays.copyOf(this.itemKeys, capacity);
+            if (this.hiddenFaces != null) {
+                this.hiddenFaces = Arrays.copyOf(this.hiddenFaces, capacity);
+            }
+            if (this.tagColors != null) {
+                for (Map.Entry<String, int[]> entry 
+                        : this.tagColors.entrySet()) {
+                    int[] c = Arrays.copyOf(entry.getValue(), capacity);
+                    Arrays.fill(c, index, capacity, -1);
+                    entry.setValue(c);
+                }
+                this.faceTagColors = null;
+            }
+        }
+        int i = index * STRIDE;
+        this.transforms[i] = x;
+        this.transforms[i + 1] = y;
+        this.transforms[i + 2] = z;
+        this.transforms[i + 3] = sx;
+        this.transforms[i + 4] = sy;
+        this.transforms[i + 5] = sz;
+        this.colors[index] = paletteIndex(color);
+        this.itemKeys[index] = itemKey;
+        this.instanceCount++;
+        this.visibleFaces = null;
+        return index;
+    }
+    
+    /**
+     * Sets the color for the faces with the specified tag in one instance
+     * (overriding the instance color for those faces).
+     * 
+     * @param instance  the instance index.
+     * @param tag  the tag ({@code null} not permitted).
+     * @param color  the color ({@code null} permitted, in which case the 
+     *     instance color is used).
+     */
+    public void setTagColor(int instance, String tag, Color color) {
+        ArgChecks.nullNotPermitted(tag, "tag");
+        if (instance < 0 || instance >= this.instanceCount) {
+            throw new IndexOutOfBoundsException("Invalid instance index: " 
+                    + instance);
+        }
+        if (this.tagColors == null) {
+            this.tagColors = new HashMap<String, int[]>();
+        }
+        int[] c = this.tagColors.get(tag);
+        if (c == null) {
+            c = new int[this.colors.length];
+            Arrays.fill(c, -1);
+            this.tagColors.put(tag, c);
+            this.faceTagColors = null;
+        }
+        c[instance] = color != null ? paletteIndex(color) : -1;
+    }
+    
+    /**
+     * Hides some of the template faces for one instance, typically because
+     * they are covered by an adjacent opaque instance.  Bit {@code f} of 
+     * the mask corresponds to the template face with index {@code f} (so 
+     * only the first 32 template faces can be hidden).
+     * 
+     * @param instance  the instance index.
+     * @param mask  the bit mask for the hidden faces ({@code 0} to show all
+     *     faces).
+     */
+    public void setHiddenFaces(int instance, int mask) {
+        if (instance < 0 || instance >= this.instanceCount) {
+            throw new IndexOutOfBoundsException("Invalid instance index: " 
+                    + instance);
+        }
+        if (this.hiddenFaces == null) {
+            if (mask == 0) {
+                return;
+            }
+            this.hiddenFaces = new int[this.colors.length];
+        }
+        this.hiddenFaces[instance] = mask;
+        this.visibleFaces = null;
+    }
+    
+    /**
+     * Returns the palette index for the specified color, adding the color
+     * to the palette if it is not already there.
+     * 
+     * @param color  the color ({@code null} not permitted).
+     * 
+     * @return The palette index. 
+     */
+    private int paletteIndex(Color color) {
+        Integer index = this.paletteIndices.get(color);
+        if (index == null) {
+            index = Integer.valueOf(this.palette.size());
+            this.palette.add(color);
+            this.paletteIndices.put(color, index);
+        }
+        return index.intValue();
+    }
+
+    /**
+     * Returns the color for a face.  For faces belonging to an instance, 
+     * this is the tag color (if one is defined for the instance) or the
+     * instance color.
+     * 
+     * @param face  the face ({@code null} not permitted).
+     * 
+     * @return The color (never {@code null}). 
+     */
+    @Override
+    public Color getColor(Face face) {
+        if (!(face instanceof InstanceFace)) {
+            return super.getColor(face);
+        }
+        InstanceFace f = (InstanceFace) face;
+        return instanceColor(f.instance, f.face);
+    }
+
+    /**
+     * Returns the color for the face with the specified index.  The color
+     * is looked up from the instance (the tag colors for each template face
+     * are resolved once), so no colors are stored per face.  If a subclass 
+     * overrides {@link #getColor(Face)}, the color is obtained from the 
+     * face instead.
+     * 
+     * @param face  the face index.
+     * 
+     * @return The color (never {@code null}). 
+     */
+    @Override
+    public Color getColor(int face) {
+        if (!hasStandardFaceColors()) {
+            return getFaces().get(face).getColor();
+        }
+        int n = this.templateFaces.length;
+        int ref = faceRef(face);
+        return instanceColor(ref / n, ref % n);
+    }
+    
+    /**
+     * Returns the color for a template face of an instance.
+     * 
+     * @param instance  the instance index.
+     * @param face  the template face index.
+     * 
+     * @return The color (never {@code null}). 
+     */
+    private Color instanceColor(int instance, int face) {
+        if (this.tagColors != null) {
+            int[][] tc = this.faceTagColors;
+            if (tc == null) {
+                tc = new int[this.templateFaces.length][];
+                for (int f = 0; f < tc.length; f++) {
+                    String tag = this.templateTags[f];
+                    if (tag != null) {
+                        tc[f] = this.tagColors.get(tag);
+                    }
+                }
+                this.faceTagColors = tc;
+            }
+            int[] c = tc[face];
+            if (c != null && c[instance] >= 0) {
+                return this.palette.get(c[instance]);
+            }
+        }
+        return this.palette.get(this.colors[instance]);
+    }
+
+    /**
+     * Returns the item key for the instance that the face belongs to.
+     * 
+     * @param face  the face ({@code null} not permitted).
+     * 
+     * @return The item key (possibly {@code null}). 
+     */
+    @Override
+    public Object getItemKey(Face face) {
+        if (face instanceof InstanceFace) {
+            return this.itemKeys[((InstanceFace) face).instance];
+        }
+        return super.getItemKey(face);
+    }
+
+    /**
+     * Returns the total number of vertices for all instances.
+     * 
+     * @return The vertex count. 
+     */
+    @Override
+    public int getVertexCount() {
+        return this.instanceCount * this.tx.length;
+    }
+
+    /**
+     * Returns a new point containing the coordinates of the vertex with the
+     * specified index (vertices are numbered consecutively by instance).
+     * 
+     * @param index  the vertex index.
+     * 
+     * @return The vertex (never {@code null}). 
+     */
+    @Override
+    public Point3D getVertex(int index) {
+        Point3D result = new Point3D(0, 0, 0);
+        vertex(index / this.tx.length, index % this.tx.length, result);
+        return result;
+    }
+
+    /**
+     * Calculates the world coordinates for a vertex of an instance and 
+     * stores them in {@code result}.
+     * 
+     * @param instance  the instance index.
+     * @param v  the template vertex index.
+     * @param result  the point to update ({@code null} not permitted).
+     */
+    private void vertex(int instance, int v, Point3D result) {
+        int i = instance * STRIDE;
+        result.x = this.transforms[i] + this.transforms[i + 3] * this.tx[v];
+        result.y = this.transforms[i + 1] + this.transforms[i + 4] * this.ty[v];
+        result.z = this.transforms[i + 2] + this.transforms[i + 5] * this.tz[v];
+    }
+    
+    /**
+     * Throws an {@code UnsupportedOperationException}, the vertices for 
+     * this object are defined by the template and the instances.
+     * 
+     * @param x  the x-coordinate.
+     * @param y  the y-coordinate.
+     * @param z  the z-coordinate.
+     */
+    @Override
+    public void addVertex(double x, double y, double z) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Throws an {@code UnsupportedOperationException}, the faces for this 
+     * object are defined by the template and the instances.
+     * 
+     * @param face  the face.
+     */
+    @Override
+    public void addFace(Face face) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the number of faces (for all instances, excluding hidden 
+     * faces).
+     * 
+     * @return The number of faces. 
+     */
+    @Override
+    public int getFaceCount() {
+        int n = this.templateFaces.length;
+        int result = this.instanceCount * n;
+        if (this.hiddenFaces != null) {
+            int valid = n >= 32 ? -1 : (1 << n) - 1;
+            for (int i = 0; i < this.instanceCount; i++) {
+                result -= Integer.bitCount(this.hiddenFaces[i] & valid);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the number of template faces.
+     * 
+     * @return The number of template faces. 
+     */
+    int getTemplateFaceCount() {
+        return this.templateFaces.length;
+    }
+    
+    /**
+     * Returns the reference ({@code instance * faceCount + face}) for the 
+     * visible face with the specified index.
+     * 
+     * @param index  the face index (in the range {@code 0} to 
+     *     {@code getFaceCount() - 1}).
+     * 
+     * @return The face reference. 
+     */
+    private int faceRef(int index) {
+        if (this.hiddenFaces == null) {
+            return index;
+        }
+        if (this.visibleFaces == null) {
+            int n = this.templateFaces.length;
+            int[] refs = new int[getFaceCount()];
+            int k = 0;
+            for (int i = 0; i < this.instanceCount; i++) {
+                int hidden = this.hiddenFaces[i];
+                for (int f = 0; f < n; f++) {
+                    if (f < 32 && (hidden & (1 << f)) != 0) {
+                        continue;
+                    }
+                    refs[k++] = i * n + f;
+                }
+            }
+            this.visibleFaces = refs;
+        }
+        return this.visibleFaces[index];
+    }
+    
+    /**
+     * Returns the (visible) faces for all instances, as an unmodifiable 
+     * list view.  The faces are not stored, so a new face object is 
+     * created each time an element of the list is requested (faces that 
+     * refer to the same instance and template face are equal).  Each face 
+     * holds only its instance and template face indices: the vertex 
+     * indices, tag and normal are looked up from the template.
+     * 
+     * @return The faces (never {@code null}). 
+     */
+    @Override
+    public List<Face> getFaces() {
+        if (this.faceList == null) {
+            this.faceList = new AbstractList<Face>() {
+                @Override
+                public Face get(int index) {
+                    if (index < 0 || index >= size()) {
+                        throw new IndexOutOfBoundsException(
+                                "Invalid face index: " + index);
+                    }
+                    int n = InstancedObject3D.this.templateFaces.length;
+                    int ref = faceRef(index);
+                    return new InstanceFace(InstancedObject3D.this, ref % n, 
+                            ref / n);
+                }
+
+                @Override
+                public int size() {
+                    return getFaceCount();
+                }
+            };
+        }
+        return this.faceList;
+    }
+    
+    /**
+     * Returns a face for immediate use, reusing a face object from 
+     * {@code reuse} (an array with one entry per template face, that 
+     * initially contains {@code null} entries).  This is used by 
+     * {@link PaintOrder} so that no face objects are created for each 
+     * instance when the faces are painted.
+     * 
+     * @param index  the face index.
+     * @param offset  the vertex offset for this object in the world.
+     * @param reuse  the faces available for reuse ({@code null} not 
+     *     permitted).
+     * 
+     * @return The face. 
+     */
+    Face fetchFace(int index, int offset, Face[] reuse) {
+        int n = this.templateFaces.length;
+        int ref = faceRef(index);
+        int f = ref % n;
+        InstanceFace face = (InstanceFace) reuse[f];
+        if (face == null) {
+            face = new InstanceFace(this, f, ref / n);
+            reuse[f] = face;
+        } else {
+            face.instance = ref / n;
+        }
+        face.setOffset(offset);
+        return face;
+    }
+    
+    /**
+     * Returns the average z-value (in eye coordinates) for the face with 
+     * the specified index.
+     * 
+     * @param index  the face index.
+     * @param pts  the eye coordinates for the world.
+     * @param offset  the vertex offset for this object in the world.
+     * 
+     * @return The average z-value. 
+     */
+    float calculateAverageZValue(int index, Point3D[] pts, int offset) {
+        int n = this.templateFaces.length;
+        int ref = faceRef(index);
+        int[] vertices = this.templateFaces[ref % n];
+        int base = offset + (ref / n) * this.tx.length;
+        float total = 0.0f;
+        for (int i = 0; i < vertices.length; i++) {
+            total = total + (float) pts[vertices[i] + base].z;
+        }
+        return total / vertices.length;
+    }
+
+    /**
+     * Calculates the projected points for the vertices of all instances.
+     * 
+     * @param viewPoint  the view point ({@code null} not permitted).
+     * @param d  the projection distance.
+     * 
+     * @return The projected points. 
+     */
+    @Override
+    public Point2D[] calculateProjectedPoints(ViewPoint3D viewPoint, 
+            double d) {
+        ArgChecks.nullNotPermitted(viewPoint, "viewPoint");
+        int n = this.tx.length;
+        Point2D[] result = new Point2D[this.instanceCount * n];
+        Point3D p = new Point3D(0, 0, 0);
+        int k = 0;
+        for (int i = 0; i < this.instanceCount; i++) {
+            for (int v = 0; v < n; v++) {
+                vertex(i, v, p);
+                result[k++] = viewPoint.worldToScreen(p, d);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the eye coordinates for the vertices of all instances.
+     * 
+     * @param viewPoint  the view point ({@code null} not permitted).
+     * 
+     * @return The eye coordinates. 
+     */
+    @Override
+    public Point3D[] calculateEyeCoordinates(ViewPoint3D viewPoint) {
+        ArgChecks.nullNotPermitted(viewPoint, "viewPoint");
+        int n = this.tx.length;
+        Point3D[] result = new Point3D[this.instanceCount * n];
+        Point3D p = new Point3D(0, 0, 0);
+        int k = 0;
+        for (int i = 0; i < this.instanceCount; i++) {
+            for (int v = 0; v < n; v++) {
+                vertex(i, v, p);
+                result[k++] = viewPoint.worldToEye(p);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the dot product of the unit normal vector for a face with the
+     * specified vector.  The normal is derived from the template normal and
+     * the scaling for the instance, so no normals are stored per instance.
+     * 
+     * @param face  the face index.
+     * @param x  the x-component of the vector.
+     * @param y  the y-component of the vector.
+     * @param z  the z-component of the vector.
+     * 
+     * @return The dot product. 
+     */
+    @Override
+    public double dotNormal(int face, double x, double y, double z) {
+        int n = this.templateFaces.length;
+        int ref = faceRef(face);
+        return instanceDotNormal(ref / n, ref % n, x, y, z);
+    }
+
+    /**
+     * Returns the dot product of the unit normal for a template face, 
+     * transformed by the scaling for an instance, with the specified vector.
+     * Scaling by {@code (sx, sy, sz)} transforms the cross product of two 
+     * edges to {@code (sy * sz * nx, sx * sz * ny, sx * sy * nz)}, so no 
+     * vertices need to be calculated.
+     * 
+     * @param instance  the instance index.
+     * @param face  the template face index.
+     * @param x  the x-component of the vector.
+     * @param y  the y-component of the vector.
+     * @param z  the z-component of the vector.
+     * 
+     * @return The dot product. 
+     */
+    private double instanceDotNormal(int instance, int face, double x, 
+            double y, double z) {
+        int i = instance * STRIDE;
+        double sx = this.transforms[i + 3];
+        double sy = this.transforms[i + 4];
+        double sz = this.transforms[i + 5];
+        double nx = sy * sz * this.templateNormals[face * 3];
+        double ny = sx * sz * this.templateNormals[face * 3 + 1];
+        double nz = sx * sy * this.templateNormals[face * 3 + 2];
+        double len = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        return (nx * x + ny * y + nz * z) / len;
+    }
+
+    /**
+     * A face belonging to one instance.  The vertex indices are shared with
+     * the template face, the offset for the instance is added to the 
+     * offset for the object.
+     */
+    private static final class InstanceFace extends Face {
+        
+        /** 
+         * The instance index (this is changed when the face is reused, see
+         * {@link InstancedObject3D#fetchFace(int, int, Face[])}).
+         */
+        private int instance;
+        
+        /** The template face index. */
+        private final int face;
+        
+        InstanceFace(InstancedObject3D owner, int face, int instance) {
+            super(owner, owner.templateFaces[face]);
+            this.face = face;
+            this.instance = instance;
+            setOffset(0);
+        }
+        
+        private InstancedObject3D owner() {
+            return (InstancedObject3D) getOwner();
+        }
+
+        @Override
+        public String getTag() {
+            return owner().templateTags[this.face];
+        }
+
+        @Override
+        public int getOffset() {
+            return super.getOffset() - this.instance * owner().tx.length;
+        }
+
+        @Override
+        public void setOffset(int offset) {
+            super.setOffset(offset + this.instance * owner().tx.length);
+        }
+
+        @Override
+        public double dotNormal(double x, double y, double z) {
+            return owner().instanceDotNormal(this.instance, this.face, x, y, 
+                    z);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof InstanceFace)) {
+                return false;
+            }
+            InstanceFace that = (InstanceFace) obj;
+            return getOwner() == that.getOwner() 
+                    && this.instance == that.instance 
+                    && this.face == that.face;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.instance + this.face;
+        }
+        
+    }
+    
+}
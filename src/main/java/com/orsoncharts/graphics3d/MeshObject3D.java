@@ -0,0 +1,299 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.orsoncharts.util.ArgChecks;
+
+/**
+ * An {@link Object3D} that is built up from a sequence of parts (for 
+ * example, the segments of a line or area in a category chart), each of 
+ * which has its own color, tag colors, outline flag and item key.  
+ * Vertices that a part has in common with the preceding part are shared 
+ * rather than duplicated, so a chain of segments becomes one continuous 
+ * mesh, and the faces keep track of the part they came from so that 
+ * {@link #getColor(Face)}, {@link #getOutline(Face)} and 
+ * {@link #getItemKey(Face)} still resolve per part (for tooltips and 
+ * selection).
+ * <br><br>
+ * Double-sided faces and label faces are not supported in the parts.
+ * 
+ * @since 1.7
+ */
+public class MeshObject3D extends Object3D {
+
+    /** The number of parts. */
+    private int partCount;
+    
+    /** The color for each part. */
+    private Color[] colors;
+    
+    /** The outline flag for each part. */
+    private boolean[] outlines;
+    
+    /** The item key for each part (entries may be {@code null}). */
+    private Object[] itemKeys;
+    
+    /** 
+     * The tag colors for each part, by tag (entries may be {@code null}).  
+     * This map is created only when a part has tagged faces.
+     */
+    private Map<String, Color[]> tagColors;
+    
+    /** 
+     * The mesh vertex index for each vertex of the most recently added 
+     * part.
+     */
+    private int[] lastVertices;
+    
+    /**
+     * Creates a new mesh with no parts.
+     * 
+     * @param color  the default color ({@code null} not permitted).
+     */
+    public MeshObject3D(Color color) {
+        super(color);
+        this.colors = new Color[16];
+        this.outlines = new boolean[16];
+        this.itemKeys = new Object[16];
+        this.lastVertices = new int[0];
+    }
+    
+    /**
+     * Returns the number of parts that have been added to the mesh.
+     * 
+     * @return The number of parts. 
+     */
+    public int getPartCount() {
+        return this.partCount;
+    }
+    
+    /**
+     * Adds the vertices and faces from {@code part} to this mesh, reusing
+     * any vertices that are equal to a vertex in the previous part.  The 
+     * color and outline flag of the part and the colors for the tags on its
+     * faces are copied, the part itself is not retained.
+     * 
+     * @param part  the part ({@code null} not permitted).
+     * @param itemKey  the item key for the part ({@code null} permitted).
+     * 
+     * @return The index of the part.
+     */
+    public int addPart(Object3D part, Object itemKey) {
+        ArgChecks.nullNotPermitted(part, "part");
+        int index = this.partCount;
+        if (index == this.colors.length) {
+            int capacity = index * 2;
+            this.colors = Arrays.copyOf(this.colors, capacity);
+            this.outlines = Arrays.copyOf(this.outlines, capacity);
+            this.itemKeys = Arrays.copyOf(this.itemKeys, capacity);
+            if (this.tagColors != null) {
+                for (Map.Entry<String, Color[]> entry 
+                        : this.tagColors.entrySet()) {
+                    entry.setValue(Arrays.copyOf(entry.getValue(), capacity));
+                }
+            }
+        }
+        this.colors[index] = part.getColor();
+        this.outlines[index] = part.getOutline();
+        this.itemKeys[index] = itemKey;
+        
+        // parts are small, so the shared vertices are found by scanning the
+        // vertices of the previous part (and the part itself)
+        int[] map = new int[part.getVertexCount()];
+        Point3D pt = new Point3D(0, 0, 0);
+        Point3D other = new Point3D(0, 0, 0);
+        for (int v = 0; v < map.length; v++) {
+            part.fetchVertex(v, pt);
+            int i = findVertex(this.lastVertices, this.lastVertices.length, 
+                    pt, other);
+            if (i < 0) {
+                i = findVertex(map, v, pt, other);
+            }
+            if (i < 0) {
+                i = getVertexCount();
+                super.addVertex(pt.x, pt.y, pt.z);
+            }
+            map[v] = i;
+        }
+        this.lastVertices = map;
+        
+        for (Face face : part.getFaces()) {
+            if (face instanceof DoubleSidedFace || face instanceof LabelFace) {
+                throw new IllegalArgumentException(
+                        "Part faces must be single-sided.");
+            }
+            int[] indices = new int[face.getVertexCount()];
+            for (int v = 0; v < indices.length; v++) {
+                indices[v] = map[face.getVertexIndex(v) - face.getOffset()];
+            }
+            String tag = face.getTag();
+            if (tag != null) {
+                Color c = part.getTagColor(tag);
+                if (c != null) {
+                    tagColors(tag)[index] = c;
+                }
+            }
+            super.addFace(new MeshFace(this, indices, tag, index));
+        }
+        this.partCount++;
+        return index;
+    }
+    
+    /**
+     * Returns the index of the first vertex in {@code indices} (up to 
+     * {@code count}) with the same coordinates as {@code pt}, or 
+     * {@code -1}.
+     * 
+     * @param indices  the mesh vertex indices to check.
+     * @param count  the number of indices to check.
+     * @param pt  the point.
+     * @param other  a point used to fetch the mesh vertices.
+     * 
+     * @return The mesh vertex index, or {@code -1}. 
+     */
+    private int findVertex(int[] indices, int count, Point3D pt, 
+            Point3D other) {
+        for (int k = 0; k < count; k++) {
+            fetchVertex(indices[k], other);
+            if (other.x == pt.x && other.y == pt.y && other.z == pt.z) {
+                return indices[k];
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Returns the array of colors for the specified tag, creating it if 
+     * necessary.
+     * 
+     * @param tag  the tag.
+     * 
+     * @return The colors for the tag (one per part).
+     */
+    private Color[] tagColors(String tag) {
+        if (this.tagColors == null) {
+            this.tagColors = new HashMap<String, Color[]>();
+        }
+        Color[] c = this.tagColors.get(tag);
+        if (c == null) {
+            c = new Color[this.colors.length];
+            this.tagColors.put(tag, c);
+        }
+        return c;
+    }
+
+    /**
+     * Returns the color for a face.  For faces belonging to a part, this is
+     * the color for the face's tag in that part (if one was defined) or 
+     * the part color.
+     * 
+     * @param face  the face ({@code null} not permitted).
+     * 
+     * @return The color (never {@code null}). 
+     */
+    @Override
+    public Color getColor(Face face) {
+        if (!(face instanceof MeshFace)) {
+            return super.getColor(face);
+        }
+        MeshFace f = (MeshFace) face;
+        if (f.tag != null && this.tagColors != null) {
+            Color[] c = this.tagColors.get(f.tag);
+            if (c != null && c[f.part] != null) {
+                return c[f.part];
+            }
+        }
+        return this.colors[f.part];
+    }
+
+    /**
+     * Returns the outline flag for the part that the face belongs to.
+     * 
+     * @param face  the face ({@code null} not permitted).
+     * 
+     * @return A boolean. 
+     */
+    @Override
+    public boolean getOutline(Face face) {
+        if (face instanceof MeshFace) {
+            return this.outlines[((MeshFace) face).part];
+        }
+        return super.getOutline(face);
+    }
+
+    /**
+     * Returns the item key for the part that the face belongs to.
+     * 
+     * @param face  the face ({@code null} not permitted).
+     * 
+     * @return The item key (possibly {@code null}). 
+     */
+    @Override
+    public Object getItemKey(Face face) {
+        if (face instanceof MeshFace) {
+            return this.itemKeys[((MeshFace) face).part];
+        }
+        return super.getItemKey(face);
+    }
+    
+    /**
+     * A face that records the part it belongs to.
+     */
+    private static final class MeshFace extends Face {
+        
+        /** The part index. */
+        private final int part;
+        
+        /** The tag from the part face (possibly {@code null}). */
+        private final String tag;
+        
+        MeshFace(MeshObject3D owner, int[] vertices, String tag, int part) {
+            super(owner, vertices);
+            this.tag = tag;
+            this.part = part;
+        }
+
+        @Override
+        public String getTag() {
+            return this.tag;
+        }
+        
+    }
+    
+}
@@ -36,6 +36,8 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -48,6 +50,14 @@ import com.orsoncharts.util.ArgChecks;
  * <br><br>
  * This class also contains a collection of static methods for constructing
  * common 3D objects.
+ * <br><br>
+ * Since version 1.7, the list returned by {@link #getFaces()} is 
+ * unmodifiable (faces are added with {@link #addFace(Face)}), and the 
+ * color for each face is cached for rendering (see {@link #getColor(int)}).
+ * The cache is cleared when a face is added or a color is set.  Colors 
+ * from subclasses that override {@link #getColor(Face)} (or from custom face
+ * classes that override {@link Face#getColor()}) are not cached, so they 
+ * can vary.
  */
 public class Object3D {
 
@@ -72,12 +82,104 @@ public class Object3D {
      * @since 1.3
      */
     public static final String COLOR_PREFIX = "color/";
+
+    /**
+     * A flag for the face of a bar that lies in the plane of the bar base
+     * (see {@link #createBar(double, double, double, double, double, double, 
+     * Color, Color, Color, boolean, int)}).
+     * 
+     * @since 1.7
+     */
+    public static final int BAR_FACE_BASE = 1;
+    
+    /**
+     * A flag for the face of a bar that lies in the plane of the bar top.
+     * 
+     * @since 1.7
+     */
+    public static final int BAR_FACE_TOP = 2;
+    
+    /**
+     * A flag for the side face of a bar with the minimum z-coordinate.
+     * 
+     * @since 1.7
+     */
+    public static final int BAR_FACE_MIN_Z = 4;
+    
+    /**
+     * A flag for the side face of a bar with the maximum x-coordinate.
+     * 
+     * @since 1.7
+     */
+    public static final int BAR_FACE_MAX_X = 8;
+    
+    /**
+     * A flag for the side face of a bar with the maximum z-coordinate.
+     * 
+     * @since 1.7
+     */
+    public static final int BAR_FACE_MAX_Z = 16;
+    
+    /**
+     * A flag for the side face of a bar with the minimum x-coordinate.
+     * 
+     * @since 1.7
+     */
+    public static final int BAR_FACE_MIN_X = 32;
+    
+    /** An empty coordinate array, shared by objects with no vertices. */
+    private static final double[] NO_COORDS = new double[0];
+    
+    /** An empty face array, shared by objects with no faces. */
+    private static final Face[] NO_FACES = new Face[0];
+    
+    /** 
+     * World coordinates for the vertices, packed as (x, y, z) triples.  The
+     * array can have spare capacity while the object is being constructed.
+     */
+    private double[] coords;
     
-    /** World coordinates. */
-    private List<Point3D> vertices;
+    /** The number of vertices. */
+    private int vertexCount;
 
-    /** Faces for the object, specified by indices to the world coords. */
-    private List<Face> faces;
+    /** 
+     * Faces for the object, specified by indices to the world coords.  The
+     * array can have spare capacity while the object is being constructed.
+     */
+    private Face[] faces;
+    
+    /** The number of faces. */
+    private int faceCount;
+    
+    /** 
+     * The unit normal vectors (in world coordinates) for the faces, packed
+     * as (x, y, z) triples, calculated when first required and discarded 
+     * if another face is added.
+     */
+    private double[] normals;
+    
+    /**
+     * The resolved color for each face, created when first required and
+     * discarded when a face is added or a color is changed.  An entry is 
+     * {@code null} for a face whose color is not cached (see 
+     * {@link #getColor(int)}).
+     */
+    private Color[] faceColors;
+    
+    /**
+     * A flag that records whether the color for a face is resolved by the
+     * {@code getColor(Face)} method of this package (if {@code false}, a 
+     * subclass overrides the method and face colors are not cached), or 
+     * {@code null} if this has not been checked yet.
+     */
+    private Boolean standardFaceColors;
+    
+    /** 
+     * A fixed-size list view of the faces, created (after the storage is 
+     * trimmed to size) the first time the faces are requested and discarded
+     * if another face is added.
+     */
+    private List<Face> faceList;
     
     /** The primary color for the object. */
     private Color color;
@@ -89,10 +191,33 @@ public class Object3D {
      */
     private boolean outline;
  
+    /** 
+     * The key for the data item that the object represents (stored as the 
+     * {@link #ITEM_KEY} property).
+     */
+    private Object itemKey;
+    
+    /** 
+     * The object class (stored as the {@link #CLASS_KEY} property), possibly
+     * {@code null}.
+     */
+    private String objectClass;
+    
+    /** 
+     * The face tags that have a custom color (see {@link #COLOR_PREFIX}), or 
+     * {@code null}.  Objects have at most a few of these, so they are stored
+     * in small arrays (searched linearly) rather than a map.
+     */
+    private String[] tags;
+    
+    /** The colors for the tags (the array has the same length as tags). */
+    private Color[] tagColors;
+    
     /**
-     * A map containing properties for the object.  If there are no properties
-     * defined, then we leave this as {@code null} as an empty map would 
-     * consume memory unnecessarily.
+     * A map containing other properties for the object.  The item key, 
+     * object class and tag colors are stored in separate fields, so most 
+     * objects have no other properties and we leave this as {@code null} as 
+     * an empty map would consume memory unnecessarily.
      */
     private Map<String, Object> properties;
     
@@ -120,8 +245,8 @@ public class Object3D {
         ArgChecks.nullNotPermitted(color, "color");
         this.color = color;
         this.outline = outline;
-        this.vertices = new java.util.ArrayList<Point3D>();
-        this.faces = new java.util.ArrayList<Face>();
+        this.coords = NO_COORDS;
+        this.faces = NO_FACES;
     }
 
     /**
@@ -135,6 +260,20 @@ public class Object3D {
         return this.color;
     }
     
+    /**
+     * Sets the default face color.  This allows an object to be reused with
+     * a new color, without rebuilding its vertices and faces.
+     * 
+     * @param color  the color ({@code null} not permitted).
+     * 
+     * @since 1.7
+     */
+    public void setColor(Color color) {
+        ArgChecks.nullNotPermitted(color, "color");
+        this.color = color;
+        this.faceColors = null;
+    }
+    
     /**
      * Returns the outline flag.
      * 
@@ -170,6 +309,18 @@ public class Object3D {
      */
     public Object getProperty(String key) {
         ArgChecks.nullNotPermitted(key, "key");
+        if (ITEM_KEY.equals(key)) {
+            return this.itemKey;
+        }
+        if (CLASS_KEY.equals(key) && this.objectClass != null) {
+            return this.objectClass;
+        }
+        if (key.startsWith(COLOR_PREFIX)) {
+            Color c = getTagColor(key.substring(COLOR_PREFIX.length()));
+            if (c != null) {
+                return c;
+            }
+        }
         if (this.properties == null) {
             return null;
         } else {
@@ -181,7 +332,11 @@ public class Object3D {
      * Sets the value of a property, overwriting any existing value.  One 
      * application for this is storing item key references to link a 3D object
      * back to the data item that it represents (the key for this is
-     * {@link Object3D#ITEM_KEY}).
+     * {@link Object3D#ITEM_KEY}).  The item key, object class (a string) and
+     * tag colors are stored in dedicated fields (see also the typed methods
+     * {@link #setItemKey(Object)}, {@link #setObjectClass(String)} and 
+     * {@link #setTagColor(String, Color)}), other properties are stored in a
+     * map.
      * 
      * @param key  the key ({@code null} not permitted).
      * @param value  the value ({@code null} permitted).
@@ -190,17 +345,154 @@ public class Object3D {
      */
     public void setProperty(String key, Object value) {
         ArgChecks.nullNotPermitted(key, "key");
+        if (ITEM_KEY.equals(key)) {
+            this.itemKey = value;
+            return;
+        }
+        if (CLASS_KEY.equals(key) 
+                && (value == null || value instanceof String)) {
+            this.objectClass = (String) value;
+            if (this.properties != null) {
+                this.properties.remove(key);
+            }
+            return;
+        }
+        if (key.startsWith(COLOR_PREFIX) 
+                && (value == null || value instanceof Color)) {
+            setTagColor(key.substring(COLOR_PREFIX.length()), (Color) value);
+            if (this.properties != null) {
+                this.properties.remove(key);
+            }
+            return;
+        }
         if (this.properties == null) {
             this.properties = new HashMap<String, Object>();
         }
         this.properties.put(key, value);
     }
     
+    /**
+     * Returns the key for the data item that this object represents (the
+     * value of the {@link #ITEM_KEY} property).
+     * 
+     * @return The item key (possibly {@code null}).
+     * 
+     * @since 1.7
+     */
+    public Object getItemKey() {
+        return this.itemKey;
+    }
+    
+    /**
+     * Sets the key for the data item that this object represents (the
+     * value of the {@link #ITEM_KEY} property).
+     * 
+     * @param itemKey  the item key ({@code null} permitted).
+     * 
+     * @since 1.7
+     */
+    public void setItemKey(Object itemKey) {
+        this.itemKey = itemKey;
+    }
+    
+    /**
+     * Returns the object class (the value of the {@link #CLASS_KEY} 
+     * property).
+     * 
+     * @return The object class (possibly {@code null}).
+     * 
+     * @since 1.7
+     */
+    public String getObjectClass() {
+        return this.objectClass;
+    }
+    
+    /**
+     * Sets the object class (the value of the {@link #CLASS_KEY} property).
+     * 
+     * @param objectClass  the object class ({@code null} permitted).
+     * 
+     * @since 1.7
+     */
+    public void setObjectClass(String objectClass) {
+        this.objectClass = objectClass;
+    }
+    
+    /**
+     * Returns the color for faces with the specified tag, or {@code null} if
+     * no color has been set for the tag.  This is the value of the property
+     * with the key {@link #COLOR_PREFIX} + tag.
+     * 
+     * @param tag  the tag ({@code null} not permitted).
+     * 
+     * @return The color (possibly {@code null}).
+     * 
+     * @since 1.7
+     */
+    public Color getTagColor(String tag) {
+        ArgChecks.nullNotPermitted(tag, "tag");
+        int i = tagIndex(tag);
+        return i >= 0 ? this.tagColors[i] : null;
+    }
+    
+    /**
+     * Sets the color for faces with the specified tag.  This is the same as 
+     * setting the property with the key {@link #COLOR_PREFIX} + tag.
+     * 
+     * @param tag  the tag ({@code null} not permitted).
+     * @param color  the color ({@code null} permitted).
+     * 
+     * @since 1.7
+     */
+    public void setTagColor(String tag, Color color) {
+        ArgChecks.nullNotPermitted(tag, "tag");
+        int i = tagIndex(tag);
+        if (i >= 0) {
+            this.tagColors[i] = color;
+        } else if (this.tags == null) {
+            this.tags = new String[] {tag};
+            this.tagColors = new Color[] {color};
+        } else {
+            int n = this.tags.length;
+            this.tags = Arrays.copyOf(this.tags, n + 1);
+            this.tagColors = Arrays.copyOf(this.tagColors, n + 1);
+            this.tags[n] = tag;
+            this.tagColors[n] = color;
+        }
+        this.faceColors = null;
+    }
+    
+    /**
+     * Returns the index of a tag in the tag color arrays, or {@code -1}.
+     * Tags are usually string constants, so an identity check is tried 
+     * before calling {@code equals()}.
+     * 
+     * @param tag  the tag.
+     * 
+     * @return The index. 
+     */
+    private int tagIndex(String tag) {
+        if (this.tags == null) {
+            return -1;
+        }
+        for (int i = 0; i < this.tags.length; i++) {
+            if (this.tags[i] == tag) {
+                return i;
+            }
+        }
+        for (int i = 0; i < this.tags.length; i++) {
+            if (this.tags[i].equals(tag)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
     /**
      * Returns the color for a specific face.  If the face has a tag, then
-     * this method will look for a property with the key COLOR_PREFIX + tag
-     * and return that color, otherwise it returns the default color for the
-     * object.
+     * this method will look for a color for that tag (the property with the 
+     * key COLOR_PREFIX + tag) and return that color, otherwise it returns the
+     * default color for the object.
      * 
      * @param face  the face ({@code null} not permitted).
      * 
@@ -209,16 +501,126 @@ public class Object3D {
      * @since 1.3
      */
     public Color getColor(Face face) {
-        if (face.getTag() != null) {
+        String tag = face.getTag();
+        if (tag != null && this.tags != null) {
             // see if there is a custom color defined for the tag
-            Object obj = getProperty(COLOR_PREFIX + face.getTag());
-            if (obj != null) {
-                return (Color) obj;
+            int i = tagIndex(tag);
+            if (i >= 0 && this.tagColors[i] != null) {
+                return this.tagColors[i];
             }
         }
         return this.color;
     }
     
+    /**
+     * Returns the color for the face with the specified index.  The colors
+     * for all faces are resolved (from the face, its tag and this object)
+     * the first time this method is called and retained until a face is
+     * added or a color is changed, so rendering does not repeat the tag
+     * lookup for every face in every frame.
+     * <br><br>
+     * Colors are only retained when they are resolved by the classes in this
+     * package.  If a subclass overrides {@link #getColor(Face)}, or a face 
+     * class overrides {@link Face#getColor()} outside this package, the 
+     * color is looked up each time this method is called.
+     * 
+     * @param face  the face index (in the range {@code 0} to 
+     *     {@code getFaceCount() - 1}).
+     * 
+     * @return The color (never {@code null}).
+     * 
+     * @since 1.7
+     */
+    public Color getColor(int face) {
+        Color[] c = this.faceColors;
+        if (c == null) {
+            if (!hasStandardFaceColors()) {
+                return getFaces().get(face).getColor();
+            }
+            List<Face> faceList = getFaces();
+            c = new Color[faceList.size()];
+            Class<?> faceClass = null;
+            boolean standard = false;
+            for (int f = 0; f < c.length; f++) {
+                Face ff = faceList.get(f);
+                if (ff.getClass() != faceClass) {
+                    faceClass = ff.getClass();
+                    standard = isStandardFace(faceClass);
+                }
+                if (standard) {
+                    c[f] = ff.getColor();
+                }
+            }
+            this.faceColors = c;
+        }
+        Color result = c[face];
+        if (result == null) {
+            result = getFaces().get(face).getColor();
+        }
+        return result;
+    }
+    
+    /**
+     * Returns {@code true} if the {@link Face#getColor()} method for the 
+     * specified face class is one of the implementations in this package.
+     * 
+     * @param faceClass  the face class.
+     * 
+     * @return A boolean.
+     */
+    private static boolean isStandardFace(Class<?> faceClass) {
+        Class<?> c;
+        try {
+            c = faceClass.getMethod("getColor").getDeclaringClass();
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+        return c == Face.class || c == DoubleSidedFace.class 
+                || c == SpriteFace.class || c == LabelFace.class;
+    }
+    
+    /**
+     * Returns {@code true} if the {@link #getColor(Face)} method for this 
+     * object is one of the implementations in this package (so that the
+     * colors it returns only change when a face is added or a color is 
+     * set), and {@code false} if a subclass overrides it.
+     * 
+     * @return A boolean.
+     */
+    boolean hasStandardFaceColors() {
+        Boolean result = this.standardFaceColors;
+        if (result == null) {
+            Class<?> c;
+            try {
+                c = getClass().getMethod("getColor", Face.class)
+                        .getDeclaringClass();
+            } catch (NoSuchMethodException e) {
+                c = Object3D.class;
+            }
+            result = Boolean.valueOf(c == Object3D.class 
+                    || c == MeshObject3D.class 
+                    || c == InstancedObject3D.class);
+            this.standardFaceColors = result;
+        }
+        return result.booleanValue();
+    }
+    
+    /**
+     * Returns the item key for the data item that a face represents.  This
+     * implementation returns the item key for this object (the same for all
+     * faces), subclasses that represent several data items in a single 
+     * object can override this.
+     * 
+     * @param face  the face ({@code null} not permitted).
+     * 
+     * @return The item key (possibly {@code null}).
+     * 
+     * @since 1.7
+     */
+    public Object getItemKey(Face face) {
+        return this.itemKey;
+    }
+    
     /**
      * Returns {@code true} if an outline should be drawn for the 
      * specified face, and {@code false} otherwise.
@@ -239,7 +641,39 @@ public class Object3D {
      * @return The number of vertices.
      */
     public int getVertexCount() {
-        return this.vertices.size();
+        return this.vertexCount;
+    }
+
+    /**
+     * Returns the vertex with the specified index.  The vertices are stored
+     * as packed coordinates, so a new point is returned on each call 
+     * (changing it has no effect on this object).
+     * 
+     * @param index  the vertex index.
+     * 
+     * @return The vertex (never {@code null}).
+     * 
+     * @since 1.7
+     */
+    public Point3D getVertex(int index) {
+        ArgChecks.checkArrayBounds(index, "index", this.vertexCount);
+        int i = index * 3;
+        return new Point3D(this.coords[i], this.coords[i + 1], 
+                this.coords[i + 2]);
+    }
+
+    /**
+     * Copies the coordinates of the vertex with the specified index into 
+     * {@code result}, without creating a new point.
+     * 
+     * @param index  the vertex index.
+     * @param result  the point to update ({@code null} not permitted).
+     */
+    void fetchVertex(int index, Point3D result) {
+        int i = index * 3;
+        result.x = this.coords[i];
+        result.y = this.coords[i + 1];
+        result.z = this.coords[i + 2];
     }
 
     /**
@@ -250,17 +684,26 @@ public class Object3D {
      * @param z  the z-coordinate.
      */
     public void addVertex(double x, double y, double z) {
-        addVertex(new Point3D(x, y, z));    
+        int i = this.vertexCount * 3;
+        if (i == this.coords.length) {
+            this.coords = Arrays.copyOf(this.coords, 
+                    Math.max(24, this.coords.length * 2));
+        }
+        this.coords[i] = x;
+        this.coords[i + 1] = y;
+        this.coords[i + 2] = z;
+        this.vertexCount++;
     }
     
     /**
-     * Adds a new object vertex.
+     * Adds a new object vertex.  The coordinates are copied, later changes
+     * to {@code vertex} will not be reflected in this object.
      *
      * @param vertex  the vertex ({@code null} not permitted).
      */
     public void addVertex(Point3D vertex) {
         ArgChecks.nullNotPermitted(vertex, "vertex");
-        this.vertices.add(vertex);
+        addVertex(vertex.x, vertex.y, vertex.z);
     }
 
     /**
@@ -269,7 +712,7 @@ public class Object3D {
      * @return The number of faces.
      */
     public int getFaceCount() {
-        return this.faces.size();
+        return this.faceCount;
     }
 
     /**
@@ -315,19 +758,104 @@ public class Object3D {
      */
     public void addFace(Face face) {
         ArgChecks.nullNotPermitted(face, "face");
-        this.faces.add(face);
+        if (this.faceCount == this.faces.length) {
+            this.faces = Arrays.copyOf(this.faces, 
+                    Math.max(6, this.faces.length * 2));
+        }
+        this.faces[this.faceCount++] = face;
+        this.faceList = null;
+        this.normals = null;
+        this.faceColors = null;
     }
 
     /**
-     * Returns the faces for this object.  Note that the list returned is a 
-     * direct reference to the internal storage for this {@code Object3D} 
-     * instance, so callers should take care not to modify this list 
-     * unintentionally.
+     * Returns the faces for this object.  The first time this method is 
+     * called (after the last face was added) the vertex and face storage is
+     * trimmed to size, and an unmodifiable view of the faces is created and
+     * retained.  Use {@link #addFace(Face)} to add faces, the returned list
+     * throws an {@code UnsupportedOperationException} if it is modified
+     * (before version 1.7, this method returned the modifiable list that 
+     * held the faces).
      *
-     * @return The faces.
+     * @return The faces (an unmodifiable list).
      */
     public List<Face> getFaces() {
-        return this.faces;
+        if (this.faceList == null) {
+            if (this.faces.length > this.faceCount) {
+                this.faces = Arrays.copyOf(this.faces, this.faceCount);
+            }
+            if (this.coords.length > this.vertexCount * 3) {
+                this.coords = Arrays.copyOf(this.coords, this.vertexCount * 3);
+            }
+            this.faceList = Collections.unmodifiableList(
+                    Arrays.asList(this.faces));
+        }
+        return this.faceList;
+    }
+
+    /**
+     * Returns the dot product of the unit normal vector (in world 
+     * coordinates) for a face with the specified vector.  Normals in world
+     * coordinates do not change when the view point changes, so the normals
+     * for all faces are calculated the first time this method is called 
+     * and retained in a single array (the vertices of an object are not 
+     * expected to change after its faces have been rendered).  Callers 
+     * transform the light direction into world coordinates once per frame
+     * (see {@link ViewPoint3D#eyeToWorldDirection(double, double, double)})
+     * to shade faces without calculating eye space normals.
+     * 
+     * @param face  the face index (in the range {@code 0} to 
+     *     {@code getFaceCount() - 1}).
+     * @param x  the x-component of the vector.
+     * @param y  the y-component of the vector.
+     * @param z  the z-component of the vector.
+     * 
+     * @return The dot product (zero for a face with fewer than three 
+     *     vertices).
+     * 
+     * @since 1.7
+     */
+    public double dotNormal(int face, double x, double y, double z) {
+        double[] n = this.normals;
+        if (n == null) {
+            n = calculateNormals();
+            this.normals = n;
+        }
+        int i = face * 3;
+        return n[i] * x + n[i + 1] * y + n[i + 2] * z;
+    }
+    
+    /**
+     * Calculates the unit normals for all faces.
+     * 
+     * @return The normals, packed as (x, y, z) triples. 
+     */
+    private double[] calculateNormals() {
+        List<Face> faceList = getFaces();
+        double[] result = new double[faceList.size() * 3];
+        Point3D a = new Point3D(0, 0, 0);
+        Point3D b = new Point3D(0, 0, 0);
+        Point3D c = new Point3D(0, 0, 0);
+        for (int f = 0; f < faceList.size(); f++) {
+            Face face = faceList.get(f);
+            if (face.getVertexCount() < 3) {
+                continue;
+            }
+            int base = face.getOffset();
+            fetchVertex(face.getVertexIndex(0) - base, a);
+            fetchVertex(face.getVertexIndex(1) - base, b);
+            fetchVertex(face.getVertexIndex(2) - base, c);
+            double u1 = b.x - a.x, u2 = b.y - a.y, u3 = b.z - a.z;
+            double v1 = c.x - a.x, v2 = c.y - a.y, v3 = c.z - a.z;
+            double nx = u2 * v3 - u3 * v2;
+            double ny = u3 * v1 - u1 * v3;
+            double nz = u1 * v2 - u2 * v1;
+            double len = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            result[f * 3] = nx / len;
+            result[f * 3 + 1] = ny / len;
+            result[f * 3 + 2] = nz / len;
+        }
+        return result;
     }
 
     /**
@@ -341,10 +869,12 @@ public class Object3D {
      */
     public Point2D[] calculateProjectedPoints(ViewPoint3D viewPoint, double d) {
         ArgChecks.nullNotPermitted(viewPoint, "viewPoint");
-        Point2D[] result = new Point2D[this.vertices.size()];
-        int vertexCount = this.vertices.size();
-        for (int i = 0; i < vertexCount; i++) {
-            Point3D p = this.vertices.get(i);
+        Point2D[] result = new Point2D[this.vertexCount];
+        Point3D p = new Point3D(0, 0, 0);
+        for (int i = 0; i < this.vertexCount; i++) {
+            p.x = this.coords[i * 3];
+            p.y = this.coords[i * 3 + 1];
+            p.z = this.coords[i * 3 + 2];
             result[i] = viewPoint.worldToScreen(p, d);
         }
         return result;
@@ -359,11 +889,13 @@ public class Object3D {
      */
     public Point3D[] calculateEyeCoordinates(ViewPoint3D viewPoint) {
         ArgChecks.nullNotPermitted(viewPoint, "viewPoint");
-        Point3D[] result = new Point3D[this.vertices.size()];
-        int i = 0;
-        for (Point3D vertex : this.vertices) {
-            result[i] = viewPoint.worldToEye(vertex);
-            i++;
+        Point3D[] result = new Point3D[this.vertexCount];
+        Point3D p = new Point3D(0, 0, 0);
+        for (int i = 0; i < this.vertexCount; i++) {
+            p.x = this.coords[i * 3];
+            p.y = this.coords[i * 3 + 1];
+            p.z = this.coords[i * 3 + 2];
+            result[i] = viewPoint.worldToEye(p);
         }
         return result;
     }
@@ -386,10 +918,10 @@ public class Object3D {
         ArgChecks.nullNotPermitted(color, "color");
         Object3D sheet = new Object3D(color);
         double delta = size / 2.0;
-        sheet.addVertex(new Point3D(x + delta, y, z - delta));
-        sheet.addVertex(new Point3D(x + delta, y, z + delta));
-        sheet.addVertex(new Point3D(x - delta, y, z + delta));
-        sheet.addVertex(new Point3D(x - delta, y, z - delta));
+        sheet.addVertex(x + delta, y, z - delta);
+        sheet.addVertex(x + delta, y, z + delta);
+        sheet.addVertex(x - delta, y, z + delta);
+        sheet.addVertex(x - delta, y, z - delta);
         if (invert) {
             sheet.addFace(new Face(sheet, new int[] {3, 2, 1, 0}));   
         } else {
@@ -413,10 +945,10 @@ public class Object3D {
             double z, Color color) {
         Object3D sheet = new Object3D(color);
         double delta = size / 2.0;
-        sheet.addVertex(new Point3D(x + delta, y - delta, z));
-        sheet.addVertex(new Point3D(x + delta, y + delta, z));
-        sheet.addVertex(new Point3D(x - delta, y + delta, z));
-        sheet.addVertex(new Point3D(x - delta, y - delta, z));
+        sheet.addVertex(x + delta, y - delta, z);
+        sheet.addVertex(x + delta, y + delta, z);
+        sheet.addVertex(x - delta, y + delta, z);
+        sheet.addVertex(x - delta, y - delta, z);
         sheet.addFace(new Face(sheet, new int[] {0, 1, 2, 3}));
         return sheet;
     }
@@ -458,25 +990,8 @@ public class Object3D {
             double y, double ydim, double z, double zdim, 
             Color color) {
         ArgChecks.nullNotPermitted(color, "color");
-        Object3D box = new Object3D(color);
-        double xdelta = xdim / 2.0;
-        double ydelta = ydim / 2.0;
-        double zdelta = zdim / 2.0;
-        box.addVertex(new Point3D(x - xdelta, y - ydelta, z - zdelta));
-        box.addVertex(new Point3D(x + xdelta, y - ydelta, z - zdelta));
-        box.addVertex(new Point3D(x + xdelta, y - ydelta, z + zdelta));
-        box.addVertex(new Point3D(x - xdelta, y - ydelta, z + zdelta));
-        box.addVertex(new Point3D(x - xdelta, y + ydelta, z - zdelta));
-        box.addVertex(new Point3D(x + xdelta, y + ydelta, z - zdelta));
-        box.addVertex(new Point3D(x + xdelta, y + ydelta, z + zdelta));
-        box.addVertex(new Point3D(x - xdelta, y + ydelta, z + zdelta));
-        box.addFace(new Face(box, new int[] {4, 5, 1, 0}));
-        box.addFace(new Face(box, new int[] {5, 6, 2, 1}));
-        box.addFace(new Face(box, new int[] {6, 7, 3, 2}));
-        box.addFace(new Face(box, new int[] {3, 7, 4, 0}));
-        box.addFace(new Face(box, new int[] {7, 6, 5, 4}));
-        box.addFace(new Face(box, new int[] {0, 1, 2, 3}));
-        return box;
+        return new PrimitiveObject3D(PrimitiveTemplate.box(), x, xdim, y, 
+                ydim, z, zdim, color);
     }
 
     /**
@@ -493,20 +1008,8 @@ public class Object3D {
     public static Object3D createTetrahedron(double size, double xOffset,
             double yOffset, double zOffset, Color color) {
         ArgChecks.nullNotPermitted(color, "color");
-        Object3D tetra = new Object3D(color);
-        tetra.addVertex(new Point3D(size + xOffset, -size + yOffset, 
-                -size + zOffset));
-        tetra.addVertex(new Point3D(-size + xOffset, size + yOffset, 
-                -size + zOffset));
-        tetra.addVertex(new Point3D(size + xOffset, size + yOffset, 
-                size + zOffset));
-        tetra.addVertex(new Point3D(-size + xOffset, -size + yOffset, 
-                size + zOffset));
-        tetra.addFace(new Face(tetra, new int[] {0, 1, 2}));
-        tetra.addFace(new Face(tetra, new int[] {1, 3, 2}));
-        tetra.addFace(new Face(tetra, new int[] {0, 3, 1}));
-        tetra.addFace(new Face(tetra, new int[] {0, 2, 3}));
-        return tetra;
+        return new PrimitiveObject3D(PrimitiveTemplate.tetrahedron(), xOffset, 
+                size, yOffset, size, zOffset, size, color);
     }
 
     /**
@@ -523,23 +1026,8 @@ public class Object3D {
     public static Object3D createOctahedron(double size, double xOffset,
             double yOffset, double zOffset, Color color) {
         ArgChecks.nullNotPermitted(color, "color");
-        Object3D octa = new Object3D(color);
-        octa.addVertex(new Point3D(size + xOffset, 0 + yOffset, 0 + zOffset));
-        octa.addVertex(new Point3D(0 + xOffset, size + yOffset, 0 + zOffset));
-        octa.addVertex(new Point3D(-size + xOffset, 0 + yOffset, 0 + zOffset));
-        octa.addVertex(new Point3D(0 + xOffset, -size + yOffset, 0 + zOffset));
-        octa.addVertex(new Point3D(0 + xOffset, 0 + yOffset, -size + zOffset));
-        octa.addVertex(new Point3D(0 + xOffset, 0 + yOffset, size + zOffset));
-
-        octa.addFace(new Face(octa, new int[] {0, 1, 5}));
-        octa.addFace(new Face(octa, new int[] {1, 2, 5}));
-        octa.addFace(new Face(octa, new int[] {2, 3, 5}));
-        octa.addFace(new Face(octa, new int[] {3, 0, 5}));
-        octa.addFace(new Face(octa, new int[] {1, 0, 4}));
-        octa.addFace(new Face(octa, new int[] {2, 1, 4}));
-        octa.addFace(new Face(octa, new int[] {3, 2, 4}));
-        octa.addFace(new Face(octa, new int[] {0, 3, 4}));
-        return octa;
+        return new PrimitiveObject3D(PrimitiveTemplate.octahedron(), xOffset, 
+                size, yOffset, size, zOffset, size, color);
     }
 
     /**
@@ -557,53 +1045,13 @@ public class Object3D {
      */
     public static Object3D createSphere(double radius, int n,
             double x, double y, double z, Color extColor, Color intColor) {
-        Object3D sphere = new Object3D(extColor);
-        sphere.setProperty(COLOR_PREFIX + "interior", intColor);
-        double theta = Math.PI / n;
-        Point3D[] prevLayer = new Point3D[n * 2 + 1];
-        for (int i = 0; i <= n * 2; i++) {
-            prevLayer[i] = new Point3D(x, y + radius, z);
-            if (i != n * 2) {
-                sphere.addVertex(prevLayer[i]);
-            }
-        }
-
-        for (int layer = 1; layer < n; layer++) {
-            Point3D[] currLayer = new Point3D[n * 2 + 1];
-            for (int i = 0; i <= n * 2; i++) {
-                double xx = radius * Math.cos(i * theta) 
-                        * Math.sin(layer * theta);
-                double yy = radius * Math.cos(layer * theta);
-                double zz = radius * Math.sin(i * theta) 
-                        * Math.sin(layer * theta);
-                currLayer[i] = new Point3D(x + xx, y + yy, z + zz);
-                if (i != n * 2) {
-                    sphere.addVertex(currLayer[i]);
-                }
-                if (i > 0 && layer > 1) {
-                    if (i != n * 2) {
-                        Face f = new Face(sphere, new int[] {
-                            (layer - 1) * n * 2 + i - 1, 
-                            (layer - 1) * n * 2 + i, layer * n * 2 + i, 
-                            layer * n * 2 + i - 1});
-                        sphere.addFace(f);
-                        f = new TaggedFace(sphere, new int[] {
-                            layer * n * 2 + i - 1, layer * n * 2 + i, 
-                            (layer - 1) * n * 2 + i, 
-                            (layer - 1) * n * 2 + i - 1}, "interior");
-                        sphere.addFace(f);
-                    } else {
-                        sphere.addFace(new Face(sphere, new int[] {
-                            (layer - 1) * n * 2 + i - 1, (layer - 1) * n * 2, 
-                            layer * n * 2, layer * n * 2 + i - 1}));
-                        sphere.addFace(new TaggedFace(sphere, new int[] {
-                            layer * n * 2 + i - 1, layer * n * 2, 
-                            (layer - 1) * n * 2, (layer - 1) * n * 2 + i - 1}, 
-                            "interior"));
-                    }
-                }
-            }
+        ArgChecks.nullNotPermitted(extColor, "extColor");
+        if (n < 0) {
+            throw new IllegalArgumentException("Requires 'n' >= 0.");
         }
+        Object3D sphere = new PrimitiveObject3D(PrimitiveTemplate.sphere(n), 
+                x, radius, y, radius, z, radius, extColor);
+        sphere.setTagColor(PrimitiveTemplate.INTERIOR, intColor);
         return sphere;
     }
  
@@ -631,8 +1079,8 @@ public class Object3D {
                 base, explodeRadius * Math.sin(angleCentre));
         float cx = (float) centre.x;
         float cz = (float) centre.z;
-        segment.addVertex(new Point3D(cx + 0.0, base, cz + 0.0));
-        segment.addVertex(new Point3D(cx + 0.0, base + height, cz + 0.0));
+        segment.addVertex(cx + 0.0, base, cz + 0.0);
+        segment.addVertex(cx + 0.0, base + height, cz + 0.0);
         Point3D v0 = new Point3D(cx + radius * Math.cos(angle1), base, 
                 cz + radius * Math.sin(angle1));
         Point3D v1 = new Point3D(cx + radius * Math.cos(angle1), base + height, 
@@ -751,21 +1199,21 @@ public class Object3D {
         }
         Object3D bar = new Object3D(barColor);
         if (c0 != null) {
-            bar.setProperty(COLOR_PREFIX + "c0", c0);
+            bar.setTagColor("c0", c0);
         }
         if (c1 != null) {
-            bar.setProperty(COLOR_PREFIX + "c1", c1);
+            bar.setTagColor("c1", c1);
         }
         double xdelta = xWidth / 2.0;
         double zdelta = zWidth / 2.0;
-        bar.addVertex(new Point3D(x - xdelta, zero, z - zdelta));
-        bar.addVertex(new Point3D(x + xdelta, zero, z - zdelta));
-        bar.addVertex(new Point3D(x + xdelta, zero, z + zdelta));
-        bar.addVertex(new Point3D(x - xdelta, zero, z + zdelta));
-        bar.addVertex(new Point3D(x - xdelta, y, z - zdelta));
-        bar.addVertex(new Point3D(x + xdelta, y, z - zdelta));
-        bar.addVertex(new Point3D(x + xdelta, y, z + zdelta));
-        bar.addVertex(new Point3D(x - xdelta, y, z + zdelta));
+        bar.addVertex(x - xdelta, zero, z - zdelta);
+        bar.addVertex(x + xdelta, zero, z - zdelta);
+        bar.addVertex(x + xdelta, zero, z + zdelta);
+        bar.addVertex(x - xdelta, zero, z + zdelta);
+        bar.addVertex(x - xdelta, y, z - zdelta);
+        bar.addVertex(x + xdelta, y, z - zdelta);
+        bar.addVertex(x + xdelta, y, z + zdelta);
+        bar.addVertex(x - xdelta, y, z + zdelta);
 
         bar.addFace(new Face(bar, new int[] {0, 1, 5, 4}));
         bar.addFace(new Face(bar, new int[] {4, 5, 1, 0}));
@@ -790,6 +1238,90 @@ public class Object3D {
         
         return bar;      
     }
+
+    /**
+     * Creates a bar with the specified dimensions and color, omitting the
+     * faces specified by {@code hiddenFaces}.  Unlike the method
+     * {@link #createBar(double, double, double, double, double, double, 
+     * Color, Color, Color, boolean)}, the faces are created with a single 
+     * (outward facing) winding only, so a bar has at most six faces.  When 
+     * all the faces are present they are added in the order base, top, 
+     * minimum z, maximum x, maximum z then minimum x, which is the order of 
+     * the bits in the {@code BAR_FACE_*} flags.  A face should only be 
+     * omitted when it is fully covered by an adjacent opaque object.
+     * 
+     * @param xWidth  the x-width of the bar.
+     * @param zWidth  the z-width (or depth) of the bar.
+     * @param x  the x-coordinate for the center of the bar.
+     * @param y  the y-coordinate for the top of the bar.
+     * @param z  the z-coordinate for the center of the bar.
+     * @param zero  the y-coordinate for the bottom of the bar.
+     * @param barColor  the color for the bar ({@code null} not permitted).
+     * @param baseColor  the color for the base of the bar (if {@code null}, 
+     *     the {@code color} is used instead).
+     * @param topColor  the color for the top of the bar (if 
+     *     {@code null}, the {@code color} is used instead).
+     * @param inverted  a flag that determines whether the baseColor and 
+     *     topColor should be swapped in their usage.
+     * @param hiddenFaces  a combination of the {@code BAR_FACE_*} flags for
+     *     the faces that should be omitted ({@code 0} for none).
+     * 
+     * @return A 3D object that can represent a bar in a bar chart. 
+     * 
+     * @since 1.7
+     */
+    public static Object3D createBar(double xWidth, double zWidth, double x, 
+            double y, double z, double zero, Color barColor, Color baseColor,
+            Color topColor, boolean inverted, int hiddenFaces) {
+        ArgChecks.nullNotPermitted(barColor, "barColor");
+        Color c0 = baseColor;
+        Color c1 = topColor;
+        if (inverted) {
+            Color cc = c1;
+            c1 = c0;
+            c0 = cc;
+        }
+        Object3D bar = new Object3D(barColor);
+        if (c0 != null) {
+            bar.setTagColor("c0", c0);
+        }
+        if (c1 != null) {
+            bar.setTagColor("c1", c1);
+        }
+        double xdelta = xWidth / 2.0;
+        double zdelta = zWidth / 2.0;
+        bar.addVertex(x - xdelta, zero, z - zdelta);
+        bar.addVertex(x + xdelta, zero, z - zdelta);
+        bar.addVertex(x + xdelta, zero, z + zdelta);
+        bar.addVertex(x - xdelta, zero, z + zdelta);
+        bar.addVertex(x - xdelta, y, z - zdelta);
+        bar.addVertex(x + xdelta, y, z - zdelta);
+        bar.addVertex(x + xdelta, y, z + zdelta);
+        bar.addVertex(x - xdelta, y, z + zdelta);
+        
+        // the windings below face outwards when the top is above the base,
+        // otherwise every face is reversed
+        int[][] faces = new int[][] {{0, 1, 2, 3}, {7, 6, 5, 4}, 
+                {4, 5, 1, 0}, {5, 6, 2, 1}, {6, 7, 3, 2}, {3, 7, 4, 0}};
+        String[] tags = new String[] {c0 != null ? "c0" : null, 
+                c1 != null ? "c1" : null, null, null, null, null};
+        boolean reverse = y < zero;
+        for (int f = 0; f < faces.length; f++) {
+            if ((hiddenFaces & (1 << f)) != 0) {
+                continue;
+            }
+            int[] v = faces[f];
+            if (reverse) {
+                v = new int[] {v[3], v[2], v[1], v[0]};
+            }
+            if (tags[f] != null) {
+                bar.addFace(new TaggedFace(bar, v, tags[f]));
+            } else {
+                bar.addFace(new Face(bar, v));
+            }
+        }
+        return bar;      
+    }
     
     /**
      * Creates a label object, which has a single transparent face in the 
@@ -814,7 +1346,7 @@ public class Object3D {
             Color fgColor, Color bgColor, double x, double y, double z, 
             boolean reversed, boolean doubleSided) {
         Object3D labelObj = new Object3D(bgColor);
-        labelObj.setProperty(Object3D.CLASS_KEY, "ItemLabel");
+        labelObj.setObjectClass("ItemLabel");
         labelObj.addVertex(x - 0.1, y, z);
         labelObj.addVertex(x + 0.1, y, z);
         labelObj.addVertex(x + 0.1, y + 0.1, z);
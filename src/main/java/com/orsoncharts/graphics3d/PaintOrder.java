@@ -0,0 +1,295 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.Color;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import com.orsoncharts.util.ArgChecks;
+
+/**
+ * The faces of all the objects in a {@link World}, sorted into the order in
+ * which they should be painted (by average z-value in eye coordinates, the 
+ * same order as a {@link StandardFaceSorter}).  The faces are referenced by
+ * index, so the faces of an {@link InstancedObject3D} are only created 
+ * when they are requested, not once for each instance in the world.
+ * <br><br>
+ * Creating a new instance also updates the vertex offsets for the faces of
+ * the objects in the world, as {@link World#getFaces()} does.
+ * 
+ * @since 1.7
+ */
+public final class PaintOrder {
+    
+    /** The objects in the world. */
+    private final Object3D[] objects;
+    
+    /** 
+     * The index of the first face of each object (in world order), with the
+     * total number of faces as the last entry.
+     */
+    private final int[] faceStarts;
+    
+    /** The index of the first vertex of each object. */
+    private final int[] vertexStarts;
+    
+    /** The face indices (in world order) sorted into paint order. */
+    private final int[] order;
+    
+    /** 
+     * The reusable faces for each instanced object, one per template face 
+     * (see {@link #getTransientFace(int)}).
+     */
+    private final Face[][] transientFaces;
+    
+    /**
+     * Sorts the faces of the objects in the world into paint order.
+     * 
+     * @param world  the world ({@code null} not permitted).
+     * @param eyePts  the eye coordinates for all the vertices in the world
+     *     ({@code null} not permitted).
+     */
+    public PaintOrder(World world, Point3D[] eyePts) {
+        ArgChecks.nullNotPermitted(world, "world");
+        ArgChecks.nullNotPermitted(eyePts, "eyePts");
+        List<Object3D> list = world.getObjects();
+        int n = list.size();
+        this.objects = list.toArray(new Object3D[n]);
+        this.faceStarts = new int[n + 1];
+        this.vertexStarts = new int[n];
+        this.transientFaces = new Face[n][];
+        int faceCount = 0;
+        int vertexCount = 0;
+        for (int k = 0; k < n; k++) {
+            Object3D obj = this.objects[k];
+            this.faceStarts[k] = faceCount;
+            this.vertexStarts[k] = vertexCount;
+            if (obj instanceof InstancedObject3D) {
+                faceCount += obj.getFaceCount();
+            } else {
+                List<Face> faces = obj.getFaces();
+                for (Face f : faces) {
+                    f.setOffset(vertexCount);
+                }
+                faceCount += faces.size();
+            }
+            vertexCount += obj.getVertexCount();
+        }
+        this.faceStarts[n] = faceCount;
+        
+        // each key holds the z-value (as bits that sort in the same order 
+        // as the float values) and the face index, so a primitive sort 
+        // keeps faces with equal z-values in world order
+        long[] keys = new long[faceCount];
+        int index = 0;
+        for (int k = 0; k < n; k++) {
+            Object3D obj = this.objects[k];
+            if (obj instanceof InstancedObject3D) {
+                InstancedObject3D inst = (InstancedObject3D) obj;
+                int count = inst.getFaceCount();
+                for (int i = 0; i < count; i++) {
+                    keys[index] = sortKey(inst.calculateAverageZValue(i, 
+                            eyePts, this.vertexStarts[k]), index);
+                    index++;
+                }
+            } else {
+                for (Face f : obj.getFaces()) {
+                    keys[index] = sortKey(f.calculateAverageZValue(eyePts), 
+                            index);
+                    index++;
+                }
+            }
+        }
+        Arrays.sort(keys);
+        this.order = new int[faceCount];
+        for (int i = 0; i < faceCount; i++) {
+            this.order[i] = (int) keys[i];
+        }
+    }
+    
+    /**
+     * Returns a key that sorts by z-value, then by face index.
+     * 
+     * @param z  the z-value.
+     * @param index  the face index.
+     * 
+     * @return The key. 
+     */
+    private static long sortKey(float z, int index) {
+        int bits = Float.floatToIntBits(z + 0.0f);
+        bits ^= (bits >> 31) & 0x7FFFFFFF;
+        return ((long) bits << 32) | (index & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Returns the number of faces.
+     * 
+     * @return The number of faces. 
+     */
+    public int size() {
+        return this.order.length;
+    }
+    
+    /**
+     * Returns the index of the object that owns the face with the specified
+     * index (in world order).
+     * 
+     * @param face  the face index.
+     * 
+     * @return The object index. 
+     */
+    private int objectIndex(int face) {
+        // find the last object that starts at or before the face (objects 
+        // without faces share their start with the next object)
+        int low = 0;
+        int high = this.objects.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (this.faceStarts[mid] <= face) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * Returns the face at the specified position in the paint order.  For 
+     * an {@link InstancedObject3D} a new face object is returned on each 
+     * call.
+     * 
+     * @param position  the position (in the range {@code 0} to 
+     *     {@code size() - 1}).
+     * 
+     * @return The face (never {@code null}). 
+     */
+    public Face getFace(int position) {
+        ArgChecks.checkArrayBounds(position, "position", this.order.length);
+        int face = this.order[position];
+        int k = objectIndex(face);
+        Object3D obj = this.objects[k];
+        if (obj instanceof InstancedObject3D) {
+            Face result = obj.getFaces().get(face - this.faceStarts[k]);
+            result.setOffset(this.vertexStarts[k]);
+            return result;
+        }
+        return obj.getFaces().get(face - this.faceStarts[k]);
+    }
+    
+    /**
+     * Returns the face at the specified position in the paint order, for 
+     * immediate use only.  For an {@link InstancedObject3D} the face object 
+     * is reused (and changed) by later calls to this method, so the result 
+     * must not be retained - use {@link #getFace(int)} for a face that can 
+     * be kept.  This avoids creating an object for every instance face 
+     * when the faces are painted.
+     * 
+     * @param position  the position (in the range {@code 0} to 
+     *     {@code size() - 1}).
+     * 
+     * @return The face (never {@code null}). 
+     */
+    public Face getTransientFace(int position) {
+        ArgChecks.checkArrayBounds(position, "position", this.order.length);
+        int face = this.order[position];
+        int k = objectIndex(face);
+        Object3D obj = this.objects[k];
+        if (obj instanceof InstancedObject3D) {
+            InstancedObject3D inst = (InstancedObject3D) obj;
+            if (this.transientFaces[k] == null) {
+                this.transientFaces[k] = new Face[inst.getTemplateFaceCount()];
+            }
+            return inst.fetchFace(face - this.faceStarts[k], 
+                    this.vertexStarts[k], this.transientFaces[k]);
+        }
+        return obj.getFaces().get(face - this.faceStarts[k]);
+    }
+    
+    /**
+     * Returns the color for the face at the specified position in the 
+     * paint order (see {@link Object3D#getColor(int)}).
+     * 
+     * @param position  the position (in the range {@code 0} to 
+     *     {@code size() - 1}).
+     * 
+     * @return The color (never {@code null}). 
+     */
+    public Color getColor(int position) {
+        int face = this.order[position];
+        int k = objectIndex(face);
+        return this.objects[k].getColor(face - this.faceStarts[k]);
+    }
+    
+    /**
+     * Returns the dot product of the unit normal vector (in world 
+     * coordinates) for the face at the specified position in the paint 
+     * order with the specified vector (see 
+     * {@link Object3D#dotNormal(int, double, double, double)}).
+     * 
+     * @param position  the position (in the range {@code 0} to 
+     *     {@code size() - 1}).
+     * @param x  the x-component of the vector.
+     * @param y  the y-component of the vector.
+     * @param z  the z-component of the vector.
+     * 
+     * @return The dot product. 
+     */
+    public double dotNormal(int position, double x, double y, double z) {
+        int face = this.order[position];
+        int k = objectIndex(face);
+        return this.objects[k].dotNormal(face - this.faceStarts[k], x, y, z);
+    }
+    
+    /**
+     * Returns an unmodifiable list view of the faces in paint order.  The 
+     * elements are obtained from {@link #getFace(int)}.
+     * 
+     * @return The faces (never {@code null}). 
+     */
+    public List<Face> getFaces() {
+        return new AbstractList<Face>() {
+            @Override
+            public Face get(int index) {
+                return getFace(index);
+            }
+
+            @Override
+            public int size() {
+                return PaintOrder.this.order.length;
+            }
+        };
+    }
+    
+}
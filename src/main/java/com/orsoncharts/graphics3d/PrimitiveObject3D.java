@@ -0,0 +1,308 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.Color;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.orsoncharts.util.ArgChecks;
+
+/**
+ * An {@link Object3D} for one of the primitive shapes (box, tetrahedron, 
+ * octahedron or sphere) that takes its vertices and faces from a shared 
+ * {@link PrimitiveTemplate}, storing only its own position and scale.  The
+ * vertex coordinates are calculated when required, and the faces share the
+ * vertex index arrays of the template.
+ * <br><br>
+ * If a vertex or face is added to the object, the template geometry is
+ * first copied into the object, after which it behaves exactly like a 
+ * regular {@code Object3D}.
+ * 
+ * @since 1.7
+ */
+class PrimitiveObject3D extends Object3D {
+
+    /** The template ({@code null} once the geometry has been copied). */
+    private PrimitiveTemplate template;
+    
+    /** The x-coordinate of the origin of the template. */
+    private final double x;
+    
+    /** The y-coordinate of the origin of the template. */
+    private final double y;
+    
+    /** The z-coordinate of the origin of the template. */
+    private final double z;
+    
+    /** The scale factor in the x-dimension. */
+    private final double xScale;
+    
+    /** The scale factor in the y-dimension. */
+    private final double yScale;
+    
+    /** The scale factor in the z-dimension. */
+    private final double zScale;
+    
+    /** The faces (created the first time they are requested). */
+    private List<Face> faces;
+    
+    /**
+     * Creates a new object.
+     * 
+     * @param template  the template ({@code null} not permitted).
+     * @param x  the x-coordinate of the template origin.
+     * @param xScale  the scale factor in the x-dimension.
+     * @param y  the y-coordinate of the template origin.
+     * @param yScale  the scale factor in the y-dimension.
+     * @param z  the z-coordinate of the template origin.
+     * @param zScale  the scale factor in the z-dimension.
+     * @param color  the color ({@code null} not permitted).
+     */
+    PrimitiveObject3D(PrimitiveTemplate template, double x, double xScale,
+            double y, double yScale, double z, double zScale, Color color) {
+        super(color);
+        ArgChecks.nullNotPermitted(template, "template");
+        this.template = template;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.xScale = xScale;
+        this.yScale = yScale;
+        this.zScale = zScale;
+    }
+    
+    /**
+     * Returns the number of vertices for this object.
+     * 
+     * @return The number of vertices. 
+     */
+    @Override
+    public int getVertexCount() {
+        if (this.template == null) {
+            return super.getVertexCount();
+        }
+        return this.template.getVertexCount();
+    }
+
+    /**
+     * Returns the vertex with the specified index.  While the object uses
+     * its template, a new point is returned on each call.
+     * 
+     * @param index  the vertex index.
+     * 
+     * @return The vertex (never {@code null}). 
+     */
+    @Override
+    public Point3D getVertex(int index) {
+        if (this.template == null) {
+            return super.getVertex(index);
+        }
+        Point3D result = new Point3D(0, 0, 0);
+        vertex(index, result);
+        return result;
+    }
+
+    /**
+     * Copies the coordinates of the vertex with the specified index into 
+     * {@code result}.
+     * 
+     * @param index  the vertex index.
+     * @param result  the point to update ({@code null} not permitted).
+     */
+    @Override
+    void fetchVertex(int index, Point3D result) {
+        if (this.template == null) {
+            super.fetchVertex(index, result);
+        } else {
+            vertex(index, result);
+        }
+    }
+
+    /**
+     * Calculates the coordinates of a template vertex and stores them in
+     * {@code result}.
+     * 
+     * @param v  the vertex index.
+     * @param result  the point to update ({@code null} not permitted).
+     */
+    private void vertex(int v, Point3D result) {
+        result.x = this.x + this.xScale * this.template.getX()[v];
+        result.y = this.y + this.yScale * this.template.getY()[v];
+        result.z = this.z + this.zScale * this.template.getZ()[v];
+    }
+    
+    /**
+     * Adds a vertex, after first copying the template geometry into this
+     * object.
+     * 
+     * @param x  the x-coordinate.
+     * @param y  the y-coordinate.
+     * @param z  the z-coordinate.
+     */
+    @Override
+    public void addVertex(double x, double y, double z) {
+        copyTemplate();
+        super.addVertex(x, y, z);
+    }
+
+    /**
+     * Returns the number of faces.
+     * 
+     * @return The number of faces. 
+     */
+    @Override
+    public int getFaceCount() {
+        if (this.template == null) {
+            return super.getFaceCount();
+        }
+        return this.template.getFaceCount();
+    }
+
+    /**
+     * Adds a face, after first copying the template geometry into this
+     * object.
+     * 
+     * @param face  the face ({@code null} not permitted).
+     */
+    @Override
+    public void addFace(Face face) {
+        copyTemplate();
+        super.addFace(face);
+    }
+
+    /**
+     * Returns the faces for this object.  While the object uses its 
+     * template, the face objects are created the first time this method is
+     * called and share the vertex index arrays from the template.
+     * 
+     * @return An unmodifiable list of the faces (never {@code null}). 
+     */
+    @Override
+    public List<Face> getFaces() {
+        if (this.template == null) {
+            return super.getFaces();
+        }
+        if (this.faces == null) {
+            int count = this.template.getFaceCount();
+            List<Face> result = new ArrayList<Face>(count);
+            for (int f = 0; f < count; f++) {
+                String tag = this.template.getTag(f);
+                if (tag != null) {
+                    result.add(new TaggedFace(this, this.template.getFace(f), 
+                            tag));
+                } else {
+                    result.add(new Face(this, this.template.getFace(f)));
+                }
+            }
+            this.faces = Collections.unmodifiableList(result);
+        }
+        return this.faces;
+    }
+
+    /**
+     * Calculates the projected points for the object's vertices, for the
+     * given viewpoint.
+     *
+     * @param viewPoint  the view point ({@code null} not permitted).
+     * @param d  the projection distance.
+     *
+     * @return The projected points.
+     */
+    @Override
+    public Point2D[] calculateProjectedPoints(ViewPoint3D viewPoint, 
+            double d) {
+        if (this.template == null) {
+            return super.calculateProjectedPoints(viewPoint, d);
+        }
+        ArgChecks.nullNotPermitted(viewPoint, "viewPoint");
+        int n = this.template.getVertexCount();
+        Point2D[] result = new Point2D[n];
+        Point3D p = new Point3D(0, 0, 0);
+        for (int v = 0; v < n; v++) {
+            vertex(v, p);
+            result[v] = viewPoint.worldToScreen(p, d);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the eye coordinates of the object's vertices.
+     *
+     * @param viewPoint  the view point ({@code null} not permitted).
+     *
+     * @return The eye coordinates.
+     */
+    @Override
+    public Point3D[] calculateEyeCoordinates(ViewPoint3D viewPoint) {
+        if (this.template == null) {
+            return super.calculateEyeCoordinates(viewPoint);
+        }
+        ArgChecks.nullNotPermitted(viewPoint, "viewPoint");
+        int n = this.template.getVertexCount();
+        Point3D[] result = new Point3D[n];
+        Point3D p = new Point3D(0, 0, 0);
+        for (int v = 0; v < n; v++) {
+            vertex(v, p);
+            result[v] = viewPoint.worldToEye(p);
+        }
+        return result;
+    }
+    
+    /**
+     * Copies the template vertices and faces into the storage for this 
+     * object, so that the object can be modified.  The face objects (if
+     * already created) are retained.
+     */
+    private void copyTemplate() {
+        if (this.template == null) {
+            return;
+        }
+        List<Face> templateFaces = getFaces();
+        int n = this.template.getVertexCount();
+        Point3D p = new Point3D(0, 0, 0);
+        for (int v = 0; v < n; v++) {
+            vertex(v, p);
+            super.addVertex(p.x, p.y, p.z);
+        }
+        for (Face face : templateFaces) {
+            super.addFace(face);
+        }
+        this.template = null;
+        this.faces = null;
+    }
+    
+}
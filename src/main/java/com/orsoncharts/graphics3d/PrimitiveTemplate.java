@@ -0,0 +1,287 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.graphics3d;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The shared geometry (unit vertices, face index arrays and face tags) for
+ * one of the primitive shapes created by the static methods in 
+ * {@link Object3D}.  Templates are immutable and cached by primitive type 
+ * and resolution, so that every box (for example) created in an application
+ * uses the same vertex table and face index arrays, with each object 
+ * storing only its own position and scale (see {@link PrimitiveObject3D}).
+ * <br><br>
+ * The arrays returned by the accessor methods are the internal storage for
+ * the template, they must not be modified.
+ * 
+ * @since 1.7
+ */
+final class PrimitiveTemplate {
+
+    /** The tag used for the interior faces of a sphere. */
+    static final String INTERIOR = "interior";
+    
+    /** The cache of templates, keyed by primitive type and resolution. */
+    private static final ConcurrentMap<String, PrimitiveTemplate> CACHE 
+            = new ConcurrentHashMap<String, PrimitiveTemplate>();
+    
+    /** The x-coordinates of the unit vertices. */
+    private final double[] x;
+    
+    /** The y-coordinates of the unit vertices. */
+    private final double[] y;
+    
+    /** The z-coordinates of the unit vertices. */
+    private final double[] z;
+    
+    /** The vertex indices for each face. */
+    private final int[][] faces;
+    
+    /** The tag for each face (entries may be {@code null}). */
+    private final String[] tags;
+    
+    /**
+     * Creates a new template.
+     * 
+     * @param x  the x-coordinates.
+     * @param y  the y-coordinates.
+     * @param z  the z-coordinates.
+     * @param faces  the face index arrays.
+     * @param tags  the face tags.
+     */
+    private PrimitiveTemplate(double[] x, double[] y, double[] z, 
+            int[][] faces, String[] tags) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.faces = faces;
+        this.tags = tags;
+    }
+    
+    /**
+     * Returns the number of vertices.
+     * 
+     * @return The number of vertices. 
+     */
+    int getVertexCount() {
+        return this.x.length;
+    }
+    
+    /**
+     * Returns the unit x-coordinates (shared, do not modify).
+     * 
+     * @return The x-coordinates. 
+     */
+    double[] getX() {
+        return this.x;
+    }
+
+    /**
+     * Returns the unit y-coordinates (shared, do not modify).
+     * 
+     * @return The y-coordinates. 
+     */
+    double[] getY() {
+        return this.y;
+    }
+
+    /**
+     * Returns the unit z-coordinates (shared, do not modify).
+     * 
+     * @return The z-coordinates. 
+     */
+    double[] getZ() {
+        return this.z;
+    }
+    
+    /**
+     * Returns the number of faces.
+     * 
+     * @return The number of faces. 
+     */
+    int getFaceCount() {
+        return this.faces.length;
+    }
+    
+    /**
+     * Returns the vertex indices for a face (shared, do not modify).
+     * 
+     * @param f  the face index.
+     * 
+     * @return The vertex indices. 
+     */
+    int[] getFace(int f) {
+        return this.faces[f];
+    }
+    
+    /**
+     * Returns the tag for a face.
+     * 
+     * @param f  the face index.
+     * 
+     * @return The tag (possibly {@code null}). 
+     */
+    String getTag(int f) {
+        return this.tags[f];
+    }
+
+    /**
+     * Returns the template for a box centered on the origin with unit 
+     * length in each dimension.
+     * 
+     * @return The template (never {@code null}). 
+     */
+    static PrimitiveTemplate box() {
+        PrimitiveTemplate result = CACHE.get("box");
+        if (result == null) {
+            double[] x = {-0.5, 0.5, 0.5, -0.5, -0.5, 0.5, 0.5, -0.5};
+            double[] y = {-0.5, -0.5, -0.5, -0.5, 0.5, 0.5, 0.5, 0.5};
+            double[] z = {-0.5, -0.5, 0.5, 0.5, -0.5, -0.5, 0.5, 0.5};
+            int[][] faces = {{4, 5, 1, 0}, {5, 6, 2, 1}, {6, 7, 3, 2}, 
+                    {3, 7, 4, 0}, {7, 6, 5, 4}, {0, 1, 2, 3}};
+            result = cache("box", new PrimitiveTemplate(x, y, z, faces, 
+                    new String[faces.length]));
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the template for a tetrahedron with unit size.
+     * 
+     * @return The template (never {@code null}). 
+     */
+    static PrimitiveTemplate tetrahedron() {
+        PrimitiveTemplate result = CACHE.get("tetrahedron");
+        if (result == null) {
+            double[] x = {1, -1, 1, -1};
+            double[] y = {-1, 1, 1, -1};
+            double[] z = {-1, -1, 1, 1};
+            int[][] faces = {{0, 1, 2}, {1, 3, 2}, {0, 3, 1}, {0, 2, 3}};
+            result = cache("tetrahedron", new PrimitiveTemplate(x, y, z, 
+                    faces, new String[faces.length]));
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the template for an octahedron with unit size.
+     * 
+     * @return The template (never {@code null}). 
+     */
+    static PrimitiveTemplate octahedron() {
+        PrimitiveTemplate result = CACHE.get("octahedron");
+        if (result == null) {
+            double[] x = {1, 0, -1, 0, 0, 0};
+            double[] y = {0, 1, 0, -1, 0, 0};
+            double[] z = {0, 0, 0, 0, -1, 1};
+            int[][] faces = {{0, 1, 5}, {1, 2, 5}, {2, 3, 5}, {3, 0, 5}, 
+                    {1, 0, 4}, {2, 1, 4}, {3, 2, 4}, {0, 3, 4}};
+            result = cache("octahedron", new PrimitiveTemplate(x, y, z, 
+                    faces, new String[faces.length]));
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the template for a sphere with unit radius approximated by 
+     * {@code n} layers.  Each quad has an exterior face and an interior
+     * face (tagged {@link #INTERIOR}).
+     * 
+     * @param n  the number of layers.
+     * 
+     * @return The template (never {@code null}). 
+     */
+    static PrimitiveTemplate sphere(int n) {
+        String key = "sphere/" + n;
+        PrimitiveTemplate result = CACHE.get(key);
+        if (result == null) {
+            int m = n * 2;
+            int vertexCount = n * m;
+            double[] x = new double[vertexCount];
+            double[] y = new double[vertexCount];
+            double[] z = new double[vertexCount];
+            for (int i = 0; i < m; i++) {
+                y[i] = 1.0;
+            }
+            double theta = Math.PI / n;
+            for (int layer = 1; layer < n; layer++) {
+                double sin = Math.sin(layer * theta);
+                double cos = Math.cos(layer * theta);
+                for (int i = 0; i < m; i++) {
+                    int v = layer * m + i;
+                    x[v] = Math.cos(i * theta) * sin;
+                    y[v] = cos;
+                    z[v] = Math.sin(i * theta) * sin;
+                }
+            }
+            int faceCount = Math.max(n - 2, 0) * m * 2;
+            int[][] faces = new int[faceCount][];
+            String[] tags = new String[faceCount];
+            int f = 0;
+            for (int layer = 2; layer < n; layer++) {
+                int prev = (layer - 1) * m;
+                int curr = layer * m;
+                for (int i = 1; i <= m; i++) {
+                    int j = i % m;
+                    faces[f] = new int[] {prev + i - 1, prev + j, curr + j, 
+                            curr + i - 1};
+                    faces[f + 1] = new int[] {curr + i - 1, curr + j, 
+                            prev + j, prev + i - 1};
+                    tags[f + 1] = INTERIOR;
+                    f += 2;
+                }
+            }
+            result = cache(key, new PrimitiveTemplate(x, y, z, faces, tags));
+        }
+        return result;
+    }
+    
+    /**
+     * Adds a template to the cache, unless another thread has already 
+     * added one for the same key (in which case that one is returned).
+     * 
+     * @param key  the key.
+     * @param template  the template.
+     * 
+     * @return The cached template. 
+     */
+    private static PrimitiveTemplate cache(String key, 
+            PrimitiveTemplate template) {
+        PrimitiveTemplate existing = CACHE.putIfAbsent(key, template);
+        return existing != null ? existing : template;
+    }
+    
+}
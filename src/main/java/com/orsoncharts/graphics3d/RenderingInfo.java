@@ -33,11 +33,12 @@
 package com.orsoncharts.graphics3d;
 
 import java.awt.Shape;
-import java.awt.geom.Path2D;
+import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.List;
 import java.util.ArrayList;
+import com.orsoncharts.util.ArgChecks;
 
 /**
  * Rendering info returned from the {@link Drawable3D} {@code draw()} 
@@ -47,11 +48,21 @@ import java.util.ArrayList;
  */
 public class RenderingInfo {
     
+    /** 
+     * The maximum distance (in Java2D units) from a line face for a point to
+     * be considered as hitting the line.
+     */
+    private static final double LINE_TOLERANCE = 2.0;
+    
     /**
-     * A list of the faces drawn in order of rendering.
+     * A list of the faces drawn in order of rendering (created from the 
+     * paint order when first requested, if there is one).
      */
     private List<Face> faces;
     
+    /** The faces drawn, in paint order (possibly {@code null}). */
+    private PaintOrder paintOrder;
+    
     /** The projected points for the vertices in the faces. */
     Point2D[] projPts;
     
@@ -87,12 +98,32 @@ public class RenderingInfo {
         this.otherOffsetElements = new ArrayList<RenderedElement>();
     }
     
+    /**
+     * Creates a new instance.
+     * 
+     * @param paintOrder  the rendered faces ({@code null} not permitted).
+     * @param projPts  the projected points for all vertices in the 3D model.
+     * @param dx  the x-delta.
+     * @param dy  the y-delta.
+     * 
+     * @since 1.7
+     */
+    public RenderingInfo(PaintOrder paintOrder, Point2D[] projPts, double dx, 
+            double dy) {
+        this((List<Face>) null, projPts, dx, dy);
+        ArgChecks.nullNotPermitted(paintOrder, "paintOrder");
+        this.paintOrder = paintOrder;
+    }
+    
     /**
      * Returns the list of faces rendered.
      * 
      * @return The list of faces.
      */
     public List<Face> getFaces() {
+        if (this.faces == null && this.paintOrder != null) {
+            this.faces = this.paintOrder.getFaces();
+        }
         return this.faces;
     }
     
@@ -153,29 +184,71 @@ public class RenderingInfo {
      * @param y  the y-coordinate.
      * 
      * @return The object (or {@code null}). 
+     * 
+     * @see #fetchFaceAt(double, double) 
      */
     public Object3D fetchObjectAt(double x, double y) {
-        for (int i = this.faces.size() - 1; i >= 0; i--) {
-            Face f = this.faces.get(i);
-            if (f instanceof LabelFace) {
-                Rectangle2D bounds 
-                        = (Rectangle2D) f.getOwner().getProperty("labelBounds");
-                if (bounds != null && bounds.contains(x - dx, y - dy)) {
-                    return f.getOwner();
-                }
-            } else {
-                Path2D p = f.createPath(this.projPts);
-                if (p.contains(x - dx, y - dy)) {
-                    return f.getOwner();
-                }
+        Face f = fetchFaceAt(x, y);
+        return f != null ? f.getOwner() : null;
+    }
+    
+    /**
+     * Fetches the face, if any, that is rendered at {@code (x, y)}.  Some 
+     * objects represent more than one data item, so when looking up the 
+     * item key for the location, use {@link Face#getItemKey()} on the face
+     * returned by this method rather than the {@link Object3D#ITEM_KEY} 
+     * property of the face's owner.
+     * 
+     * @param x  the x-coordinate.
+     * @param y  the y-coordinate.
+     * 
+     * @return The face (or {@code null}). 
+     * 
+     * @since 1.7
+     */
+    public Face fetchFaceAt(double x, double y) {
+        int count = this.paintOrder != null ? this.paintOrder.size() 
+                : this.faces.size();
+        for (int i = count - 1; i >= 0; i--) {
+            Face f = this.paintOrder != null 
+                    ? this.paintOrder.getTransientFace(i) : this.faces.get(i);
+            if (contains(f, x - dx, y - dy)) {
+                return this.paintOrder != null ? this.paintOrder.getFace(i) 
+                        : f;
             }
         }
         return null;
     }
     
+    /**
+     * Returns {@code true} if the rendered face contains the point 
+     * {@code (x, y)} (relative to the center of the projection), and 
+     * {@code false} otherwise.
+     * 
+     * @param f  the face.
+     * @param x  the x-coordinate.
+     * @param y  the y-coordinate.
+     * 
+     * @return A boolean. 
+     */
+    private boolean contains(Face f, double x, double y) {
+        if (f instanceof LabelFace) {
+            Rectangle2D bounds 
+                    = (Rectangle2D) f.getOwner().getProperty("labelBounds");
+            return bounds != null && bounds.contains(x, y);
+        } else if (f.getVertexCount() == 2) {
+            // a line has no area, so accept points close to it
+            Point2D p0 = this.projPts[f.getVertexIndex(0)];
+            Point2D p1 = this.projPts[f.getVertexIndex(1)];
+            return Line2D.ptSegDist(p0.getX(), p0.getY(), p1.getX(), 
+                    p1.getY(), x, y) <= LINE_TOLERANCE;
+        }
+        return f.createPath(this.projPts).contains(x, y);
+    }
+    
     /**
      * Finds the rendered element, if any, at the location {@code (x, y)}.
-     * The method first calls fetchObjectAt(x, y) to see if there is an
+     * The method first calls fetchFaceAt(x, y) to see if there is an
      * object at the specified location and, if there is, returns a new
      * RenderedElement instance for that object.  Otherwise, it searches the
      * otherElements list to see if there is some other element (such as a
@@ -204,11 +277,11 @@ public class RenderingInfo {
             }
         }
 
-        Object3D obj = fetchObjectAt(x, y);
-        if (obj != null) {
+        Face face = fetchFaceAt(x, y);
+        if (face != null) {
+            Object3D obj = face.getOwner();
             RenderedElement element = new RenderedElement("obj3d", null);
-            element.setProperty(Object3D.ITEM_KEY, 
-                    obj.getProperty(Object3D.ITEM_KEY));
+            element.setProperty(Object3D.ITEM_KEY, face.getItemKey());
             if (obj.getProperty(Object3D.CLASS_KEY) != null) {
                 element.setProperty(Object3D.CLASS_KEY, 
                         obj.getProperty(Object3D.CLASS_KEY));
@@ -0,0 +1,208 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.graphics3d;
+
+import java.awt.Color;
+import java.awt.Shape;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+
+import com.orsoncharts.util.ArgChecks;
+
+/**
+ * A face that is defined by a single vertex and drawn as a flat 2D marker 
+ * (a "sprite") centered on the projected vertex.  The marker size is 
+ * specified in world units and scaled for perspective during rendering, so
+ * sprites nearer the viewer appear larger.  Sprites are much cheaper to 
+ * render than solid objects (one vertex to transform and one face to sort
+ * per data item), which makes them suitable for very dense scatter plots.
+ * <br><br>
+ * A sprite face can carry its own color and item key, so a single 
+ * {@link Object3D} can hold the sprites for many data items.
+ * 
+ * @since 1.7
+ */
+public class SpriteFace extends Face {
+    
+    /** The marker shape. */
+    private SpriteShape shape;
+    
+    /** The marker size in world units. */
+    private double size;
+    
+    /** The color ({@code null} to use the owner's color). */
+    private Color color;
+    
+    /** The item key ({@code null} to use the owner's item key). */
+    private Object itemKey;
+    
+    /** The marker size in screen units, updated each time it is rendered. */
+    private double screenSize;
+    
+    /**
+     * Creates a new sprite face.
+     * 
+     * @param owner  the object that the face belongs to ({@code null} not 
+     *     permitted).
+     * @param vertex  the index of the vertex.
+     * @param shape  the marker shape ({@code null} not permitted).
+     * @param size  the marker size in world units (must be positive).
+     * @param color  the color ({@code null} permitted, in which case the 
+     *     color is obtained from the owner).
+     * @param itemKey  the item key ({@code null} permitted, in which case 
+     *     the item key is obtained from the owner).
+     */
+    public SpriteFace(Object3D owner, int vertex, SpriteShape shape, 
+            double size, Color color, Object itemKey) {
+        super(owner, vertex);
+        ArgChecks.nullNotPermitted(shape, "shape");
+        ArgChecks.positiveRequired(size, "size");
+        this.shape = shape;
+        this.size = size;
+        this.color = color;
+        this.itemKey = itemKey;
+    }
+    
+    /**
+     * Returns the marker shape.
+     * 
+     * @return The marker shape (never {@code null}). 
+     */
+    public SpriteShape getShape() {
+        return this.shape;
+    }
+    
+    /**
+     * Returns the marker size in world units.
+     * 
+     * @return The marker size. 
+     */
+    public double getSize() {
+        return this.size;
+    }
+
+    /**
+     * Returns the color for this face.  If a color was specified in the 
+     * constructor it is returned, otherwise the color is obtained from the 
+     * object that owns the face.
+     * 
+     * @return The color (never {@code null}). 
+     */
+    @Override
+    public Color getColor() {
+        if (this.color != null) {
+            return this.color;
+        }
+        return super.getColor();
+    }
+
+    /**
+     * Returns the item key for this face.  If an item key was specified in
+     * the constructor it is returned, otherwise the item key is obtained 
+     * from the object that owns the face.
+     * 
+     * @return The item key (possibly {@code null}). 
+     */
+    @Override
+    public Object getItemKey() {
+        if (this.itemKey != null) {
+            return this.itemKey;
+        }
+        return super.getItemKey();
+    }
+    
+    /**
+     * Returns the marker size in screen units, as calculated by the most 
+     * recent call to {@link #calculateScreenSize(Point3D[], double)}.
+     * 
+     * @return The marker size in screen units. 
+     */
+    public double getScreenSize() {
+        return this.screenSize;
+    }
+    
+    /**
+     * Calculates the marker size in screen units from the eye coordinates of
+     * the vertex and the projection distance.  The result is stored so that
+     * it is available for hit-testing (see {@link #createPath(Point2D[])}) 
+     * after the face has been rendered.
+     * 
+     * @param eyePts  the eye coordinates for the world ({@code null} not 
+     *     permitted).
+     * @param projDist  the projection distance.
+     * 
+     * @return The marker size in screen units.
+     */
+    public double calculateScreenSize(Point3D[] eyePts, double projDist) {
+        double z = eyePts[getVertexIndex(0)].z;
+        this.screenSize = Math.abs(projDist * this.size / z);
+        return this.screenSize;
+    }
+    
+    /**
+     * Creates the marker shape, centered on the projected vertex and sized 
+     * according to the most recently calculated screen size.
+     * 
+     * @param pts  the projected points for the world ({@code null} not 
+     *     permitted).
+     * 
+     * @return The shape (never {@code null}). 
+     */
+    public Shape createShape(Point2D[] pts) {
+        Point2D pt = pts[getVertexIndex(0)];
+        double s = this.screenSize;
+        if (this.shape == SpriteShape.CIRCLE) {
+            return new Ellipse2D.Double(pt.getX() - s / 2.0, 
+                    pt.getY() - s / 2.0, s, s);
+        }
+        return new Rectangle2D.Double(pt.getX() - s / 2.0, pt.getY() - s / 2.0,
+                s, s);
+    }
+
+    /**
+     * Creates and returns a path for the outline of the marker.
+     * 
+     * @param pts  the projected points for the world ({@code null} not 
+     *     permitted).
+     * 
+     * @return A path. 
+     */
+    @Override
+    public Path2D createPath(Point2D[] pts) {
+        return new Path2D.Double(createShape(pts));
+    }
+    
+}
@@ -32,12 +32,12 @@
 
 package com.orsoncharts.graphics3d;
 
-import java.awt.Color;
-import java.awt.Dimension;
 import java.awt.geom.Dimension2D;
 import java.awt.geom.Point2D;
 import java.io.Serializable;
 
+import com.orsoncharts.util.ArgChecks;
+
 /**
  * Specifies the location and orientation of the view point in 3D space.  
  * Assumes the eye looks towards the origin in world coordinates.
@@ -61,6 +61,12 @@ import java.io.Serializable;
 @SuppressWarnings("serial")
 public class ViewPoint3D implements Serializable {
 
+    /** 
+     * The maximum number of bisection steps used to find the optimal 
+     * viewing distance.
+     */
+    private static final int MAX_BISECTION_STEPS = 64;
+
     /**
      * Creates and returns a view point for looking at a chart from the 
      * front and above.
@@ -354,9 +360,44 @@ public class ViewPoint3D implements Serializable {
                 -d * rotated[1] / rotated[2]);
     }
 
+    /**
+     * Converts a direction vector in eye coordinates to the corresponding
+     * direction vector in world coordinates.  This is the inverse of the
+     * rotation applied by {@link #worldToEye(Point3D)} (the translation 
+     * does not apply to directions).  The rotation is orthonormal, so the
+     * dot product of two vectors is the same in both coordinate systems.
+     * 
+     * @param x  the x-component of the vector (eye coordinates).
+     * @param y  the y-component of the vector (eye coordinates).
+     * @param z  the z-component of the vector (eye coordinates).
+     * 
+     * @return The vector in world coordinates (never {@code null}).
+     * 
+     * @since 1.7
+     */
+    public Point3D eyeToWorldDirection(double x, double y, double z) {
+        // undo the roll rotation (the transpose of the rotation matrix, 
+        // whose columns are the rotated unit vectors)...
+        double[] r = this.rotation.applyRotation(1, 0, 0, this.workspace);
+        double x1 = r[0] * x + r[1] * y + r[2] * z;
+        r = this.rotation.applyRotation(0, 1, 0, this.workspace);
+        double y1 = r[0] * x + r[1] * y + r[2] * z;
+        r = this.rotation.applyRotation(0, 0, 1, this.workspace);
+        double z1 = r[0] * x + r[1] * y + r[2] * z;
+        // ...then the view matrix
+        return new Point3D(this.v11 * x1 + this.v12 * y1 + this.v13 * z1,
+                this.v21 * x1 + this.v22 * y1 + this.v23 * z1,
+                this.v32 * y1 + this.v33 * z1);
+    }
+
     /**
      * Calculate the distance that would render a box of the given dimensions 
-     * within a screen area of the specified size.
+     * within a screen area of the specified size.  The distance is found by
+     * bisection between {@code d} and {@code 40 * d} (where {@code d} is the
+     * diagonal length of the box), projecting the eight corners of the box
+     * directly so that no intermediate objects are created.  The number of
+     * iterations is bounded, so this method is cheap enough to be called on 
+     * every resize of a component.
      * 
      * @param target  the target dimension ({@code null} not permitted).
      * @param dim3D  the dimensions of the 3D content ({@code null} not 
@@ -367,51 +408,89 @@ public class ViewPoint3D implements Serializable {
      */
     public float optimalDistance(Dimension2D target, Dimension3D dim3D,
             double projDist) {
-        
+        ArgChecks.nullNotPermitted(target, "target");
+        ArgChecks.nullNotPermitted(dim3D, "dim3D");
         ViewPoint3D vp = new ViewPoint3D(this.theta, this.phi, this.rho, 
                 calcRollAngle());
         float near = (float) dim3D.getDiagonalLength();
         float far = (float) near * 40;
-        
-        World w = new World();
         double ww = dim3D.getWidth();
         double hh = dim3D.getHeight();
         double dd = dim3D.getDepth();
-        w.add(Object3D.createBox(0, ww, 0, hh, 0, dd, Color.RED));
-               
-        while (true) {
-            vp.setRho(near);
-            Point2D[] nearpts = w.calculateProjectedPoints(vp, projDist);
-            Dimension neardim = Utils2D.findDimension(nearpts);
-            double nearcover = coverage(neardim, target);
-            vp.setRho(far);
-            Point2D[] farpts = w.calculateProjectedPoints(vp, projDist);
-            Dimension fardim = Utils2D.findDimension(farpts);
-            double farcover = coverage(fardim, target);
-            if (nearcover <= 1.0) {
-                return near;
-            }
-            if (farcover >= 1.0) {
-                return far;
-            }
-            // bisect near and far until we get close enough to the specified 
-            // dimension
+        
+        vp.setRho(near);
+        double nearcover = vp.boxCoverage(ww, hh, dd, projDist, target);
+        if (nearcover <= 1.0) {
+            return near;
+        }
+        vp.setRho(far);
+        double farcover = vp.boxCoverage(ww, hh, dd, projDist, target);
+        if (farcover >= 1.0) {
+            return far;
+        }
+        // bisect near and far until we get close enough to the specified 
+        // dimension (a float has a 24 bit significand, so the interval 
+        // collapses well within the iteration limit)
+        for (int i = 0; i < MAX_BISECTION_STEPS; i++) {
             float mid = (near + far) / 2.0f;
+            if (mid == near || mid == far) {
+                break;  // no further refinement is possible
+            }
             vp.setRho(mid);
-            Point2D[] midpts = w.calculateProjectedPoints(vp, projDist);
-            Dimension middim = Utils2D.findDimension(midpts);
-            double midcover = coverage(middim, target);
+            double midcover = vp.boxCoverage(ww, hh, dd, projDist, target);
             if (midcover >= 1.0) {
                 near = mid;
+                if (midcover <= 1.0) {
+                    return near;
+                }
             } else {
                 far = mid;
             }
-        }  
+        }
+        return far;
+    }
+    
+    /**
+     * Returns the coverage of the target area by a box centered at the 
+     * origin with the specified dimensions, when projected from this viewing 
+     * point.  The projected size is truncated to whole pixels, just as 
+     * {@link Utils2D#findDimension(Point2D[])} does.
+     * 
+     * @param ww  the width of the box.
+     * @param hh  the height of the box.
+     * @param dd  the depth of the box.
+     * @param d  the projection distance.
+     * @param target  the target dimension.
+     * 
+     * @return The coverage. 
+     */
+    private double boxCoverage(double ww, double hh, double dd, double d, 
+            Dimension2D target) {
+        double minx = Double.POSITIVE_INFINITY;
+        double maxx = Double.NEGATIVE_INFINITY;
+        double miny = Double.POSITIVE_INFINITY;
+        double maxy = Double.NEGATIVE_INFINITY;
+        for (int c = 0; c < 8; c++) {
+            double px = ww * ((c & 1) == 0 ? -0.5 : 0.5);
+            double py = hh * ((c & 2) == 0 ? -0.5 : 0.5);
+            double pz = dd * ((c & 4) == 0 ? -0.5 : 0.5);
+            double x = this.v11 * px + this.v21 * py;
+            double y = this.v12 * px + this.v22 * py + this.v32 * pz;
+            double z = this.v13 * px + this.v23 * py + this.v33 * pz + this.v43;
+            double[] r = this.rotation.applyRotation(x, y, z, this.workspace);
+            double sx = -d * r[0] / r[2];
+            double sy = -d * r[1] / r[2];
+            minx = Math.min(minx, sx);
+            maxx = Math.max(maxx, sx);
+            miny = Math.min(miny, sy);
+            maxy = Math.max(maxy, sy);
+        }
+        return coverage((int) (maxx - minx), (int) (maxy - miny), target);
     }
     
-    private double coverage(Dimension2D d, Dimension2D target) {
-        double wpercent = d.getWidth() / target.getWidth();
-        double hpercent = d.getHeight() / target.getHeight();
+    private double coverage(double w, double h, Dimension2D target) {
+        double wpercent = w / target.getWidth();
+        double hpercent = h / target.getHeight();
         if (wpercent <= 1.0 && hpercent <= 1.0) {
             return Math.max(wpercent, hpercent);
         } else {
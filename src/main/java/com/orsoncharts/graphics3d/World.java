@@ -251,7 +251,9 @@ public class World {
 
     /**
      * Fetches the faces for all the objects in this world, updating the
-     * offset to match the current position.
+     * offset to match the current position.  To sort the faces for 
+     * painting, {@link PaintOrder} avoids creating a face object for each 
+     * instance in an {@link InstancedObject3D}.
      *
      * @return A list of faces.
      */
@@ -263,9 +265,9 @@ public class World {
             for (Object3D object : objs) {
                 for (Face f : object.getFaces()) {
                     f.setOffset(offset);
+                    result.add(f);
                 }
                 offset += object.getVertexCount();
-                result.addAll(object.getFaces());
             }
         }
         return result;
@@ -0,0 +1,386 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.label;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.Formatter;
+import java.util.List;
+import java.util.Locale;
+
+import com.orsoncharts.util.ArgChecks;
+
+/**
+ * A label template string (in the format used by {@link java.util.Formatter})
+ * that is parsed once into a list of segments, so that labels can be 
+ * generated repeatedly without parsing the template again.  Literal text 
+ * and the {@code %s}, {@code %d} and {@code %f} conversions (with optional 
+ * explicit argument indices, the {@code ','} flag and, for {@code %f}, a 
+ * precision) are formatted directly.  For anything else (other conversions,
+ * flags or widths, unexpected argument types, {@code null} or non-finite 
+ * numbers, or a default locale that formats numbers differently from 
+ * {@code Locale.US}) the label is generated by a {@code Formatter}, so the
+ * result is always the same as {@code String.format(template, args)}.
+ * <br><br>
+ * Instances of this class are immutable.
+ * 
+ * @since 1.7
+ */
+final class LabelTemplate {
+
+    /** The locale most recently checked for compatible number formatting. */
+    private static volatile LocaleCheck localeCheck;
+    
+    /** The template string. */
+    private final String template;
+    
+    /** 
+     * The parsed segments, or {@code null} if the template can only be 
+     * formatted by a {@code Formatter}.
+     */
+    private final Segment[] segments;
+    
+    /**
+     * Creates a new instance by parsing the specified template.
+     * 
+     * @param template  the template ({@code null} not permitted).
+     */
+    LabelTemplate(String template) {
+        ArgChecks.nullNotPermitted(template, "template");
+        this.template = template;
+        this.segments = parse(template);
+    }
+    
+    /**
+     * Returns the template string.
+     * 
+     * @return The template string (never {@code null}). 
+     */
+    String getTemplate() {
+        return this.template;
+    }
+    
+    /**
+     * Returns {@code true} if the template was parsed into segments (so that
+     * labels are usually generated without a {@code Formatter}), and 
+     * {@code false} otherwise.
+     * 
+     * @return A boolean. 
+     */
+    boolean isCompiled() {
+        return this.segments != null;
+    }
+    
+    /**
+     * Formats the arguments using the template.
+     * 
+     * @param args  the arguments.
+     * 
+     * @return The formatted string. 
+     */
+    String format(Object... args) {
+        if (this.segments != null && isStandardLocale()) {
+            StringBuilder sb = new StringBuilder(this.template.length() + 16);
+            boolean ok = true;
+            for (Segment segment : this.segments) {
+                if (!segment.appendTo(sb, args)) {
+                    ok = false;
+                    break;
+                }
+            }
+            if (ok) {
+                return sb.toString();
+            }
+        }
+        Formatter formatter = new Formatter(new StringBuilder());
+        formatter.format(this.template, args);
+        String result = formatter.toString();
+        formatter.close();
+        return result;
+    }
+    
+    /**
+     * Returns {@code true} if the current default locale formats numbers in
+     * the same way as {@code Locale.US}.
+     * 
+     * @return A boolean. 
+     */
+    private static boolean isStandardLocale() {
+        Locale locale = Locale.getDefault();
+        LocaleCheck check = localeCheck;
+        if (check == null || !check.locale.equals(locale)) {
+            String probe = String.format(locale, "%,.2f|%,d|%.1f", 
+                    -1234567.25, -1234567L, 0.5);
+            check = new LocaleCheck(locale, 
+                    "-1,234,567.25|-1,234,567|0.5".equals(probe));
+            localeCheck = check;
+        }
+        return check.standard;
+    }
+    
+    /**
+     * Parses the template into segments.
+     * 
+     * @param template  the template.
+     * 
+     * @return The segments, or {@code null} if the template contains 
+     *     anything that is not handled directly. 
+     */
+    private static Segment[] parse(String template) {
+        List<Segment> result = new ArrayList<Segment>();
+        StringBuilder text = new StringBuilder();
+        int ordinaryIndex = 0;
+        int n = template.length();
+        int i = 0;
+        while (i < n) {
+            char c = template.charAt(i++);
+            if (c != '%') {
+                text.append(c);
+                continue;
+            }
+            // %[argument_index$][flags][width][.precision]conversion
+            int start = i;
+            while (i < n && Character.isDigit(template.charAt(i))) {
+                i++;
+            }
+            int argIndex = 0;
+            if (i > start) {
+                if (i >= n || template.charAt(i) != '$') {
+                    return null; // a width or the '0' flag
+                }
+                argIndex = Integer.parseInt(template.substring(start, i));
+                if (argIndex <= 0) {
+                    return null;
+                }
+                i++;
+            }
+            boolean group = false;
+            while (i < n && "-#+ 0,(<".indexOf(template.charAt(i)) >= 0) {
+                if (template.charAt(i) != ',' || group) {
+                    return null;
+                }
+                group = true;
+                i++;
+            }
+            if (i < n && Character.isDigit(template.charAt(i))) {
+                return null; // a width
+            }
+            int precision = -1;
+            if (i < n && template.charAt(i) == '.') {
+                start = ++i;
+                while (i < n && Character.isDigit(template.charAt(i))) {
+                    i++;
+                }
+                if (i == start) {
+                    return null;
+                }
+                precision = Integer.parseInt(template.substring(start, i));
+            }
+            if (i >= n) {
+                return null;
+            }
+            char conversion = template.charAt(i++);
+            boolean plain = argIndex == 0 && !group && precision < 0;
+            if (conversion == '%' && plain) {
+                text.append('%');
+            } else if (conversion == 'n' && plain) {
+                text.append(System.getProperty("line.separator"));
+            } else if (conversion == 's' && !group && precision < 0 
+                    || conversion == 'd' && precision < 0 
+                    || conversion == 'f') {
+                if (text.length() > 0) {
+                    result.add(new Segment(text.toString()));
+                    text.setLength(0);
+                }
+                if (argIndex == 0) {
+                    argIndex = ++ordinaryIndex;
+                }
+                result.add(new Segment(conversion, argIndex - 1, group, 
+                        precision < 0 ? 6 : precision));
+            } else {
+                return null;
+            }
+        }
+        if (text.length() > 0) {
+            result.add(new Segment(text.toString()));
+        }
+        return result.toArray(new Segment[result.size()]);
+    }
+    
+    /**
+     * Appends the digits to the buffer, inserting a comma between each 
+     * group of three digits.
+     * 
+     * @param sb  the buffer.
+     * @param digits  the digits.
+     */
+    private static void appendGrouped(StringBuilder sb, String digits) {
+        int len = digits.length();
+        for (int i = 0; i < len; i++) {
+            if (i > 0 && (len - i) % 3 == 0) {
+                sb.append(',');
+            }
+            sb.append(digits.charAt(i));
+        }
+    }
+    
+    /**
+     * A segment of a parsed template, either literal text or a single 
+     * conversion.
+     */
+    private static final class Segment {
+        
+        /** The literal text (or {@code null} for a conversion). */
+        private final String text;
+        
+        /** The conversion ('s', 'd' or 'f'). */
+        private final char conversion;
+        
+        /** The index of the argument. */
+        private final int argIndex;
+        
+        /** A flag that indicates whether the digits are grouped. */
+        private final boolean group;
+        
+        /** The number of decimal places (for 'f'). */
+        private final int precision;
+        
+        Segment(String text) {
+            this.text = text;
+            this.conversion = 0;
+            this.argIndex = -1;
+            this.group = false;
+            this.precision = 0;
+        }
+        
+        Segment(char conversion, int argIndex, boolean group, int precision) {
+            this.text = null;
+            this.conversion = conversion;
+            this.argIndex = argIndex;
+            this.group = group;
+            this.precision = precision;
+        }
+        
+        /**
+         * Appends this segment to the buffer.
+         * 
+         * @param sb  the buffer.
+         * @param args  the arguments.
+         * 
+         * @return {@code false} if the arguments cannot be formatted 
+         *     directly (in which case the buffer is left incomplete).
+         */
+        boolean appendTo(StringBuilder sb, Object[] args) {
+            if (this.text != null) {
+                sb.append(this.text);
+                return true;
+            }
+            if (args == null || this.argIndex >= args.length) {
+                return false;
+            }
+            Object arg = args[this.argIndex];
+            if (this.conversion == 's') {
+                if (arg instanceof Formattable) {
+                    return false;
+                }
+                sb.append(String.valueOf(arg));
+                return true;
+            }
+            if (this.conversion == 'd') {
+                if (!(arg instanceof Integer || arg instanceof Long 
+                        || arg instanceof Short || arg instanceof Byte)) {
+                    return false;
+                }
+                long v = ((Number) arg).longValue();
+                String digits = Long.toString(v);
+                if (v < 0) {
+                    sb.append('-');
+                    digits = digits.substring(1);
+                }
+                if (this.group) {
+                    appendGrouped(sb, digits);
+                } else {
+                    sb.append(digits);
+                }
+                return true;
+            }
+            // 'f'
+            if (!(arg instanceof Double || arg instanceof Float)) {
+                return false;
+            }
+            double v = ((Number) arg).doubleValue();
+            if (Double.isNaN(v) || Double.isInfinite(v)) {
+                return false;
+            }
+            // like Formatter, round the shortest decimal representation of 
+            // the value (half-up)
+            String s = new BigDecimal(Double.toString(Math.abs(v)))
+                    .setScale(this.precision, RoundingMode.HALF_UP)
+                    .toPlainString();
+            if (Double.compare(v, 0.0) < 0) {
+                sb.append('-');
+            }
+            if (this.group) {
+                int dot = s.indexOf('.');
+                appendGrouped(sb, dot < 0 ? s : s.substring(0, dot));
+                if (dot >= 0) {
+                    sb.append(s, dot, s.length());
+                }
+            } else {
+                sb.append(s);
+            }
+            return true;
+        }
+    }
+    
+    /**
+     * The result of checking a locale.
+     */
+    private static final class LocaleCheck {
+        
+        /** The locale. */
+        private final Locale locale;
+        
+        /** Does the locale format numbers in the same way as Locale.US? */
+        private final boolean standard;
+        
+        LocaleCheck(Locale locale, boolean standard) {
+            this.locale = locale;
+            this.standard = standard;
+        }
+    }
+
+}
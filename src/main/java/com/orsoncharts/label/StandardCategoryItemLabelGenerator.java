@@ -33,7 +33,6 @@
 package com.orsoncharts.label;
 
 import java.io.Serializable;
-import java.util.Formatter;
 
 import com.orsoncharts.data.category.CategoryDataset3D;
 import com.orsoncharts.data.KeyedValues3DItemKey;
@@ -94,6 +93,9 @@ public class StandardCategoryItemLabelGenerator
     /** The template. */
     private String template;
     
+    /** The parsed template (created when first needed). */
+    private transient LabelTemplate compiledTemplate;
+    
     /** 
      * If this object is not-{@code null}, an item label will only be
      * returned by this generator if the selection contains the item that
@@ -171,18 +173,29 @@ public class StandardCategoryItemLabelGenerator
                 return null;
             }
         }
-        Formatter formatter = new Formatter(new StringBuilder());
         Number value = (Number) dataset.getValue(seriesKey, rowKey, columnKey);
         Double d = null;
         if (value != null) {
             d = Double.valueOf(value.doubleValue());
         }
-        formatter.format(this.template, seriesKey, rowKey, columnKey, d);
-        String result = formatter.toString();
-        formatter.close();
-        return result;
+        return compiledTemplate().format(seriesKey, rowKey, columnKey, d);
     }
  
+    /**
+     * Returns the parsed template, which is created the first time it is
+     * needed (and again after deserialization).
+     * 
+     * @return The parsed template (never {@code null}). 
+     */
+    private LabelTemplate compiledTemplate() {
+        LabelTemplate result = this.compiledTemplate;
+        if (result == null) {
+            result = new LabelTemplate(this.template);
+            this.compiledTemplate = result;
+        }
+        return result;
+    }
+    
     /**
      * Tests this label generator for equality with an arbitrary object.
      * 
@@ -33,7 +33,6 @@
 package com.orsoncharts.label;
 
 import java.io.Serializable;
-import java.util.Formatter;
 
 import com.orsoncharts.data.DataUtils;
 import com.orsoncharts.data.category.CategoryDataset3D;
@@ -88,6 +87,9 @@ public class StandardCategoryLabelGenerator<S extends Comparable<S>, R extends C
     /** The template. */
     private String template;
     
+    /** The parsed template (created when first needed). */
+    private transient LabelTemplate compiledTemplate;
+    
     /**
      * The default constructor.
      */
@@ -121,13 +123,9 @@ public class StandardCategoryLabelGenerator<S extends Comparable<S>, R extends C
             S seriesKey) {
         ArgChecks.nullNotPermitted(dataset, "dataset");
         ArgChecks.nullNotPermitted(seriesKey, "seriesKey");
-        Formatter formatter = new Formatter(new StringBuilder());
         int count = DataUtils.count(dataset, seriesKey);
         double total = DataUtils.total(dataset, seriesKey);
-        formatter.format(this.template, seriesKey, count, total);
-        String result = formatter.toString();
-        formatter.close();
-        return result;
+        return compiledTemplate().format(seriesKey, count, total);
     }
     
     /**
@@ -143,13 +141,9 @@ public class StandardCategoryLabelGenerator<S extends Comparable<S>, R extends C
             R rowKey) {
         ArgChecks.nullNotPermitted(dataset, "dataset");
         ArgChecks.nullNotPermitted(rowKey, "rowKey");
-        Formatter formatter = new Formatter(new StringBuilder());
         int count = DataUtils.countForRow(dataset, rowKey);
         double total = DataUtils.totalForRow(dataset, rowKey);
-        formatter.format(this.template, rowKey, count, total);
-        String result = formatter.toString();
-        formatter.close();
-        return result;
+        return compiledTemplate().format(rowKey, count, total);
     }
     
     /**
@@ -165,15 +159,26 @@ public class StandardCategoryLabelGenerator<S extends Comparable<S>, R extends C
             C columnKey) {
         ArgChecks.nullNotPermitted(dataset, "dataset");
         ArgChecks.nullNotPermitted(columnKey, "columnKey");
-        Formatter formatter = new Formatter(new StringBuilder());
         int count = DataUtils.countForColumn(dataset, columnKey);
         double total = DataUtils.totalForColumn(dataset, columnKey);
-        formatter.format(this.template, columnKey, count, total);
-        String result = formatter.toString();
-        formatter.close();
-        return result;
+        return compiledTemplate().format(columnKey, count, total);
     }
 
+    /**
+     * Returns the parsed template, which is created the first time it is
+     * needed (and again after deserialization).
+     * 
+     * @return The parsed template (never {@code null}). 
+     */
+    private LabelTemplate compiledTemplate() {
+        LabelTemplate result = this.compiledTemplate;
+        if (result == null) {
+            result = new LabelTemplate(this.template);
+            this.compiledTemplate = result;
+        }
+        return result;
+    }
+    
     /**
      * Tests this label generator for equality with an arbitrary object.
      * 
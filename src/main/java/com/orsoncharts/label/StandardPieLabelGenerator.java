@@ -33,7 +33,6 @@
 package com.orsoncharts.label;
 
 import java.io.Serializable;
-import java.util.Formatter;
 
 import com.orsoncharts.data.DataUtils;
 import com.orsoncharts.data.PieDataset3D;
@@ -107,6 +106,9 @@ public class StandardPieLabelGenerator implements PieLabelGenerator,
     
     /** The label template. */
     private String template;
+    
+    /** The parsed template (created when first needed). */
+    private transient LabelTemplate compiledTemplate;
 
     /**
      * The default constructor, uses {@link #DEFAULT_TEMPLATE} for the 
@@ -141,16 +143,27 @@ public class StandardPieLabelGenerator implements PieLabelGenerator,
     public String generateLabel(PieDataset3D dataset, Comparable<?> key) {
         ArgChecks.nullNotPermitted(dataset, "dataset");
         ArgChecks.nullNotPermitted(key, "key");
-        Formatter formatter = new Formatter(new StringBuilder());
         Number value = (Number) dataset.getValue(key);
         Number percent = Double.NaN;
         if (value != null) {
             double total = DataUtils.total(dataset);
             percent = Double.valueOf(100.0 * value.doubleValue() / total);
         }
-        formatter.format(this.template, key, value, percent);
-        String result = formatter.toString();
-        formatter.close();
+        return compiledTemplate().format(key, value, percent);
+    }
+    
+    /**
+     * Returns the parsed template, which is created the first time it is
+     * needed (and again after deserialization).
+     * 
+     * @return The parsed template (never {@code null}). 
+     */
+    private LabelTemplate compiledTemplate() {
+        LabelTemplate result = this.compiledTemplate;
+        if (result == null) {
+            result = new LabelTemplate(this.template);
+            this.compiledTemplate = result;
+        }
         return result;
     }
     
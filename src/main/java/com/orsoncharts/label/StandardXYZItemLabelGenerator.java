@@ -33,7 +33,6 @@
 package com.orsoncharts.label;
 
 import java.io.Serializable;
-import java.util.Formatter;
 
 import com.orsoncharts.data.xyz.XYZDataset;
 import com.orsoncharts.data.xyz.XYZItemKey;
@@ -76,6 +75,9 @@ public class StandardXYZItemLabelGenerator implements XYZItemLabelGenerator,
     /** The label template. */
     private String template;
     
+    /** The parsed template (created when first needed). */
+    private transient LabelTemplate compiledTemplate;
+    
     private XYZDataItemSelection itemSelection;
     
     /**
@@ -137,16 +139,27 @@ public class StandardXYZItemLabelGenerator implements XYZItemLabelGenerator,
             }
         }
         int seriesIndex = dataset.getSeriesIndex(seriesKey);
-        Formatter formatter = new Formatter(new StringBuilder());
         double x = dataset.getX(seriesIndex, itemIndex);
         double y = dataset.getY(seriesIndex, itemIndex);
         double z = dataset.getZ(seriesIndex, itemIndex);
-        formatter.format(this.template, seriesKey, x, y, z);
-        String result = formatter.toString();
-        formatter.close();
-        return result;
+        return compiledTemplate().format(seriesKey, x, y, z);
     }
 
+    /**
+     * Returns the parsed template, which is created the first time it is
+     * needed (and again after deserialization).
+     * 
+     * @return The parsed template (never {@code null}). 
+     */
+    private LabelTemplate compiledTemplate() {
+        LabelTemplate result = this.compiledTemplate;
+        if (result == null) {
+            result = new LabelTemplate(this.template);
+            this.compiledTemplate = result;
+        }
+        return result;
+    }
+    
     /**
      * Tests this label generator for equality with an arbitrary object.
      * 
@@ -33,7 +33,6 @@
 package com.orsoncharts.label;
 
 import java.io.Serializable;
-import java.util.Formatter;
 
 import com.orsoncharts.data.DataUtils;
 import com.orsoncharts.data.xyz.XYZDataset;
@@ -87,6 +86,9 @@ public class StandardXYZLabelGenerator implements XYZLabelGenerator,
     /** The label template. */
     private String template;
     
+    /** The parsed template (created when first needed). */
+    private transient LabelTemplate compiledTemplate;
+    
     /**
      * The default constructor.
      */
@@ -117,15 +119,26 @@ public class StandardXYZLabelGenerator implements XYZLabelGenerator,
             XYZDataset<S> dataset, S seriesKey) {
         ArgChecks.nullNotPermitted(dataset, "dataset");
         ArgChecks.nullNotPermitted(seriesKey, "seriesKey");
-        Formatter formatter = new Formatter(new StringBuilder());
         int count = dataset.getItemCount(dataset.getSeriesIndex(seriesKey));
         double total = DataUtils.total(dataset, seriesKey);
-        formatter.format(this.template, seriesKey, count, total);
-        String result = formatter.toString();
-        formatter.close();
-        return result;
+        return compiledTemplate().format(seriesKey, count, total);
     }
 
+    /**
+     * Returns the parsed template, which is created the first time it is
+     * needed (and again after deserialization).
+     * 
+     * @return The parsed template (never {@code null}). 
+     */
+    private LabelTemplate compiledTemplate() {
+        LabelTemplate result = this.compiledTemplate;
+        if (result == null) {
+            result = new LabelTemplate(this.template);
+            this.compiledTemplate = result;
+        }
+        return result;
+    }
+    
     /**
      * Tests this label generator for equality with an arbitrary object.
      * 
@@ -39,15 +39,18 @@ import java.awt.Graphics2D;
 import java.awt.Insets;
 import java.awt.BasicStroke;
 import java.awt.Color;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Dimension2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.awt.FontMetrics;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 
 import com.orsoncharts.renderer.ColorScale;
+import com.orsoncharts.renderer.RGBColorScale;
 import com.orsoncharts.table.AbstractTableElement;
 import com.orsoncharts.table.ElementDimension;
 import com.orsoncharts.table.TableElement;
@@ -97,6 +100,13 @@ public class ColorScaleElement extends AbstractTableElement
     /** The number formatter. */
     private NumberFormat formatter;
     
+    /** 
+     * An image of the color bar, created when the bar is first drawn and 
+     * reused until the size of the bar changes (the color scale and 
+     * orientation do not change).
+     */
+    private transient BufferedImage barImage;
+    
     /**
      * Creates a new {@code ColorScaleElement} with the specified 
      * attributes.
@@ -220,12 +230,13 @@ public class ColorScaleElement extends AbstractTableElement
     public Dimension2D preferredSize(Graphics2D g2, Rectangle2D bounds, 
             Map<String, Object> constraints) {
         g2.setFont(this.font);
-        FontMetrics fm = g2.getFontMetrics();
         Range r = this.scale.getRange();
         String minStr = this.formatter.format(r.getMin());
         String maxStr = this.formatter.format(r.getMax());
-        Rectangle2D minStrBounds = TextUtils.getTextBounds(minStr, fm);
-        Rectangle2D maxStrBounds = TextUtils.getTextBounds(maxStr, fm);
+        Rectangle2D minStrBounds = TextUtils.getTextBounds(minStr, this.font, 
+                g2);
+        Rectangle2D maxStrBounds = TextUtils.getTextBounds(maxStr, this.font, 
+                g2);
         double maxStrWidth = Math.max(minStrBounds.getWidth(),
                 maxStrBounds.getWidth());
         Insets insets = getInsets();
@@ -295,12 +306,13 @@ public class ColorScaleElement extends AbstractTableElement
             getBackground().fill(g2, dest);
         }
         g2.setFont(this.font);
-        FontMetrics fm = g2.getFontMetrics();
         Range r = this.scale.getRange();
         String minStr = this.formatter.format(r.getMin());
         String maxStr = this.formatter.format(r.getMax());
-        Rectangle2D minStrBounds = TextUtils.getTextBounds(minStr, fm);
-        Rectangle2D maxStrBounds = TextUtils.getTextBounds(maxStr, fm);
+        Rectangle2D minStrBounds = TextUtils.getTextBounds(minStr, this.font, 
+                g2);
+        Rectangle2D maxStrBounds = TextUtils.getTextBounds(maxStr, this.font, 
+                g2);
         Insets insets = getInsets();
         if (this.orientation == Orientation.HORIZONTAL) {
             double x0 = dest.getX() + insets.left 
@@ -347,7 +359,11 @@ public class ColorScaleElement extends AbstractTableElement
     }
     
     /**
-     * Draws the color scale horizontally within the specified bounds.
+     * Draws the color scale horizontally within the specified bounds.  When
+     * the graphics target maps Java2D units directly onto device pixels, the
+     * bar is drawn as a single (cached) image, otherwise (for example, with
+     * a scaling transform for a HiDPI display or for printing) it is drawn
+     * one line at a time so that it stays sharp.
      * 
      * @param colorScale  the color scale.
      * @param g2  the graphics target.
@@ -355,17 +371,31 @@ public class ColorScaleElement extends AbstractTableElement
      */
     private void drawHorizontalScale(ColorScale colorScale, Graphics2D g2, 
             Rectangle2D bounds) {
-        g2.setStroke(new BasicStroke(1.0f));
-        for (int x = (int) bounds.getX(); x < bounds.getMaxX(); x++) {
-            double p = (x - bounds.getX()) / bounds.getWidth();
-            double value = colorScale.getRange().value(p);
-            g2.setColor(colorScale.valueToColor(value));
-            g2.drawLine(x, (int) bounds.getMinY(), x, (int) bounds.getMaxY());
-        }    
+        if (!isPixelAligned(g2.getTransform())) {
+            g2.setStroke(new BasicStroke(1.0f));
+            for (int x = (int) bounds.getX(); x < bounds.getMaxX(); x++) {
+                double p = (x - bounds.getX()) / bounds.getWidth();
+                double value = colorScale.getRange().value(p);
+                g2.setColor(colorScale.valueToColor(value));
+                g2.drawLine(x, (int) bounds.getMinY(), x, 
+                        (int) bounds.getMaxY());
+            }
+            return;
+        }
+        // the bar covers the same pixels as one vertical line per x-value
+        int w = (int) Math.ceil(bounds.getWidth());
+        int h = (int) bounds.getHeight() + 1;
+        BufferedImage image = fetchBarImage(colorScale, w, h);
+        if (image != null) {
+            g2.drawImage(image, (int) bounds.getX(), (int) bounds.getY(), 
+                    null);
+        }
     }
     
     /**
-     * Draws the color scale vertically within the specified bounds.
+     * Draws the color scale vertically within the specified bounds, as a 
+     * single image or one line at a time (see 
+     * {@link #drawHorizontalScale(ColorScale, Graphics2D, Rectangle2D)}).
      * 
      * @param colorScale  the color scale.
      * @param g2  the graphics target.
@@ -373,13 +403,105 @@ public class ColorScaleElement extends AbstractTableElement
      */
     private void drawVerticalScale(ColorScale colorScale, Graphics2D g2, 
             Rectangle2D bounds) {
-        g2.setStroke(new BasicStroke(1.0f));
-        for (int y = (int) bounds.getY(); y < bounds.getMaxY(); y++) {
-            double p = (y - bounds.getY()) / bounds.getHeight();
-            double value = colorScale.getRange().value(1 - p);
-            g2.setColor(this.scale.valueToColor(value));
-            g2.drawLine((int) bounds.getX(), y, (int) bounds.getMaxX(), y);
-        }    
+        if (!isPixelAligned(g2.getTransform())) {
+            g2.setStroke(new BasicStroke(1.0f));
+            for (int y = (int) bounds.getY(); y < bounds.getMaxY(); y++) {
+                double p = (y - bounds.getY()) / bounds.getHeight();
+                double value = colorScale.getRange().value(1 - p);
+                g2.setColor(colorScale.valueToColor(value));
+                g2.drawLine((int) bounds.getX(), y, (int) bounds.getMaxX(), 
+                        y);
+            }
+            return;
+        }
+        // the bar covers the same pixels as one horizontal line per y-value
+        int w = (int) bounds.getWidth() + 1;
+        int h = (int) Math.ceil(bounds.getHeight());
+        BufferedImage image = fetchBarImage(colorScale, w, h);
+        if (image != null) {
+            g2.drawImage(image, (int) bounds.getX(), (int) bounds.getY(), 
+                    null);
+        }
+    }
+    
+    /**
+     * Returns {@code true} if the transform is the identity or a translation
+     * by whole units, so that an image drawn at an integer position maps 
+     * one-to-one onto device pixels.
+     * 
+     * @param t  the transform.
+     * 
+     * @return A boolean. 
+     */
+    private static boolean isPixelAligned(AffineTransform t) {
+        int type = t.getType();
+        if (type == AffineTransform.TYPE_IDENTITY) {
+            return true;
+        }
+        return type == AffineTransform.TYPE_TRANSLATION 
+                && t.getTranslateX() == Math.rint(t.getTranslateX())
+                && t.getTranslateY() == Math.rint(t.getTranslateY());
+    }
+    
+    /**
+     * Returns an image of the color bar with the specified size, reusing the
+     * image from the previous call if the size is unchanged.  Drawing the 
+     * bar as a single image is faster than drawing one line per pixel.  The
+     * image samples the color scale once per pixel column (or row), which 
+     * can differ slightly from the line-by-line rendering where the bar does
+     * not start at a whole pixel.
+     * 
+     * @param colorScale  the color scale.
+     * @param w  the image width.
+     * @param h  the image height.
+     * 
+     * @return The image (or {@code null} if the bar is empty). 
+     */
+    private BufferedImage fetchBarImage(ColorScale colorScale, int w, int h) {
+        if (w <= 0 || h <= 0) {
+            return null;
+        }
+        BufferedImage image = this.barImage;
+        if (image != null && image.getWidth() == w 
+                && image.getHeight() == h) {
+            return image;
+        }
+        image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Range range = colorScale.getRange();
+        if (this.orientation == Orientation.HORIZONTAL) {
+            int[] column = new int[h];
+            for (int x = 0; x < w; x++) {
+                double p = x / (double) w;
+                Arrays.fill(column, valueToRGB(colorScale, range.value(p)));
+                image.setRGB(x, 0, 1, h, column, 0, 1);
+            }
+        } else {
+            int[] row = new int[w];
+            for (int y = 0; y < h; y++) {
+                double p = y / (double) h;
+                Arrays.fill(row, valueToRGB(colorScale, 
+                        range.value(1 - p)));
+                image.setRGB(0, y, w, 1, row, 0, w);
+            }
+        }
+        this.barImage = image;
+        return image;
+    }
+    
+    /**
+     * Returns the color for a value as a packed ARGB integer, using the 
+     * {@link RGBColorScale} fast path if the color scale supports it.
+     * 
+     * @param colorScale  the color scale.
+     * @param value  the value.
+     * 
+     * @return The packed ARGB color. 
+     */
+    private static int valueToRGB(ColorScale colorScale, double value) {
+        if (colorScale instanceof RGBColorScale) {
+            return ((RGBColorScale) colorScale).valueToRGB(value);
+        }
+        return colorScale.valueToColor(value).getRGB();
     }
 
     @Override
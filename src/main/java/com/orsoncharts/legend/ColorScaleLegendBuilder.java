@@ -77,6 +77,13 @@ public class ColorScaleLegendBuilder implements LegendBuilder, Serializable {
      */
     private boolean ignoreFixedColorScale;
     
+    /**
+     * The element created by the most recent call to createLegend(), reused 
+     * when the next element is equal so that its cached image of the color
+     * bar is kept (the chart creates a new legend for each drawing).
+     */
+    private transient ColorScaleElement element;
+    
     /**
      * Creates a new instance.
      */
@@ -191,7 +198,11 @@ public class ColorScaleLegendBuilder implements LegendBuilder, Serializable {
                 this.barWidth, this.barLength, style.getLegendItemFont(),
                 style.getLegendItemColor());
         element.setBackgroundColor(style.getLegendItemBackgroundColor());
+        if (element.equals(this.element)) {
+            element = this.element;
+        }
         element.setRefPoint(anchor.getRefPt());
+        this.element = element;
         return element;
     }
 
@@ -54,6 +54,7 @@ import com.orsoncharts.data.ItemKey;
 import com.orsoncharts.data.KeyedValues3DItemKey;
 import com.orsoncharts.data.category.CategoryDataset3D;
 import com.orsoncharts.graphics3d.Dimension3D;
+import com.orsoncharts.graphics3d.MeshObject3D;
 import com.orsoncharts.graphics3d.World;
 import com.orsoncharts.label.CategoryLabelGenerator;
 import com.orsoncharts.label.CategoryItemLabelGenerator;
@@ -63,6 +64,7 @@ import com.orsoncharts.legend.LegendItemInfo;
 import com.orsoncharts.legend.StandardLegendItemInfo;
 import com.orsoncharts.renderer.Renderer3DChangeEvent;
 import com.orsoncharts.renderer.Renderer3DChangeListener;
+import com.orsoncharts.renderer.category.CategoryMeshRenderer3D;
 import com.orsoncharts.renderer.category.CategoryRenderer3D;
 import com.orsoncharts.util.ArgChecks;
 import com.orsoncharts.util.ObjectUtils;
@@ -674,8 +676,26 @@ public class CategoryPlot3D extends AbstractPlot3D
     @Override
     public void compose(World world, double xOffset, double yOffset, 
             double zOffset) {
+        CategoryMeshRenderer3D meshRenderer = null;
+        if (this.renderer instanceof CategoryMeshRenderer3D) {
+            meshRenderer = (CategoryMeshRenderer3D) this.renderer;
+        }
         for (int series = 0; series < this.dataset.getSeriesCount(); series++) {
             for (int row = 0; row < this.dataset.getRowCount(); row++) {
+                if (meshRenderer != null) {
+                    // one mesh holds the parts for all items in the row
+                    MeshObject3D mesh = new MeshObject3D(Color.BLACK);
+                    for (int column = 0; 
+                            column < this.dataset.getColumnCount(); column++) {
+                        meshRenderer.composeItem(this.dataset, series, row, 
+                                column, world, getDimensions(), xOffset, 
+                                yOffset, zOffset, mesh);
+                    }
+                    if (mesh.getPartCount() > 0) {
+                        world.add(mesh);
+                    }
+                    continue;
+                }
                 for (int column = 0; column < this.dataset.getColumnCount(); 
                         column++) {
                     this.renderer.composeItem(this.dataset, series, row, column,
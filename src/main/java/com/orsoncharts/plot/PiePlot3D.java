@@ -36,6 +36,7 @@ import java.awt.Color;
 import java.awt.Font;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import com.orsoncharts.Chart3D;
@@ -76,6 +77,9 @@ public class PiePlot3D extends AbstractPlot3D implements Serializable {
     public static final Font DEFAULT_SECTION_LABEL_FONT 
             = new Font("Dialog", Font.PLAIN, 14);
     
+    /** The smallest segment count used when the count is adaptive. */
+    private static final int MIN_ADAPTIVE_SEGMENT_COUNT = 4;
+    
     /** The dataset. */
     private PieDataset3D<? extends Comparable> dataset;
 
@@ -113,6 +117,34 @@ public class PiePlot3D extends AbstractPlot3D implements Serializable {
      * number will give better output but slower performance.
      */
     private int segments = 40;
+    
+    /**
+     * A flag that controls whether the number of segments is chosen from the
+     * projected (on-screen) radius of the pie, using {@code segments} as the
+     * upper limit.
+     * 
+     * @since 1.7
+     */
+    private boolean adaptiveSegmentCount;
+    
+    /**
+     * The maximum distance (in Java2D units) between the outline of the 
+     * tessellated pie and a true circle, used when the segment count is 
+     * adaptive.
+     * 
+     * @since 1.7
+     */
+    private double segmentTolerance;
+    
+    /** The section objects created by the last call to compose(). */
+    private transient List<Object3D> sectionCache;
+    
+    /** 
+     * The start and end angles of the sections in the cache, followed by the
+     * radius, depth, base and angle increment that the cached sections were
+     * created with.
+     */
+    private transient double[] sectionCacheKey;
   
     /**
      * Creates a new pie plot in 3D.
@@ -125,6 +157,8 @@ public class PiePlot3D extends AbstractPlot3D implements Serializable {
         this.dataset.addChangeListener(this);
         this.radius = 4.0;    
         this.depth = 0.5;
+        this.adaptiveSegmentCount = false;
+        this.segmentTolerance = 0.5;
         this.sectionColorSource = new StandardColorSource();
         this.sectionLabelGenerator = new StandardPieLabelGenerator(
                 StandardPieLabelGenerator.KEY_ONLY_TEMPLATE);
@@ -395,6 +429,92 @@ public class PiePlot3D extends AbstractPlot3D implements Serializable {
         fireChangeEvent(true);
     }
     
+    /**
+     * Returns the flag that controls whether the number of segments used to 
+     * compose the pie is chosen from the projected (on-screen) radius of the
+     * pie.  The default value is {@code false}.
+     * 
+     * @return A boolean.
+     * 
+     * @since 1.7
+     */
+    public boolean isAdaptiveSegmentCount() {
+        return this.adaptiveSegmentCount;
+    }
+    
+    /**
+     * Sets the flag that controls whether the number of segments used to 
+     * compose the pie is chosen from the projected (on-screen) radius of the
+     * pie, and sends a {@link Plot3DChangeEvent} to all registered listeners.
+     * When {@code true}, small pies (for example, in a dashboard with many 
+     * charts) are composed with fewer faces, and the segment count (see 
+     * {@link #setSegmentCount(int)}) is used as the upper limit.
+     * 
+     * @param adaptive  the new flag value.
+     * 
+     * @since 1.7
+     */
+    public void setAdaptiveSegmentCount(boolean adaptive) {
+        this.adaptiveSegmentCount = adaptive;
+        fireChangeEvent(true);
+    }
+    
+    /**
+     * Returns the maximum distance (in Java2D units) between the outline of
+     * the composed pie and a true circle when the segment count is adaptive.
+     * The default value is {@code 0.5}.
+     * 
+     * @return The tolerance.
+     * 
+     * @since 1.7
+     */
+    public double getSegmentTolerance() {
+        return this.segmentTolerance;
+    }
+    
+    /**
+     * Sets the maximum distance (in Java2D units) between the outline of the
+     * composed pie and a true circle when the segment count is adaptive, and
+     * sends a {@link Plot3DChangeEvent} to all registered listeners.
+     * 
+     * @param tolerance  the tolerance (must be positive).
+     * 
+     * @since 1.7
+     */
+    public void setSegmentTolerance(double tolerance) {
+        ArgChecks.positiveRequired(tolerance, "tolerance");
+        this.segmentTolerance = tolerance;
+        fireChangeEvent(true);
+    }
+    
+    /**
+     * Returns the number of segments required to compose the pie when its 
+     * projected radius is {@code projectedRadius} (in Java2D units).  If
+     * the segment count is not adaptive, this method returns 
+     * {@link #getSegmentCount()}.
+     * 
+     * @param projectedRadius  the projected radius of the pie.
+     * 
+     * @return The segment count.
+     * 
+     * @since 1.7
+     */
+    public int calculateSegmentCount(double projectedRadius) {
+        if (!this.adaptiveSegmentCount) {
+            return this.segments;
+        }
+        int count = MIN_ADAPTIVE_SEGMENT_COUNT;
+        if (projectedRadius > this.segmentTolerance) {
+            // a chord spanning an angle 'inc' deviates from the arc by at 
+            // most r * (1 - cos(inc / 2)), and compose() uses PI / count as
+            // the angle increment
+            double inc = 2.0 * Math.acos(1.0 - this.segmentTolerance 
+                    / projectedRadius);
+            count = Math.max(count, (int) Math.ceil(Math.PI / inc));
+        }
+        return Math.min(count, this.segments);
+    }
+    
     /**
      * Returns a list containing legend item info, typically one item for
      * each series in the chart.  This is intended for use in the construction
@@ -418,9 +538,9 @@ public class PiePlot3D extends AbstractPlot3D implements Serializable {
     
     /**
      * Adds 3D objects representing the current data for the plot to the 
-     * specified world.  After the world has been populated (or constructed) in
-     * this way, it is ready for rendering.  This method is called by the
-     * {@link Chart3D} class, you won't normally call it directly.
+     * specified world, using the segment count (see 
+     * {@link #getSegmentCount()}).  After the world has been populated (or 
+     * constructed) in this way, it is ready for rendering.
      * 
      * @param world  the world ({@code null} not permitted).
      * @param xOffset  the x-offset.
@@ -428,26 +548,76 @@ public class PiePlot3D extends AbstractPlot3D implements Serializable {
      * @param zOffset  the z-offset.
      */
     @Override
-    @SuppressWarnings("unchecked")
     public void compose(World world, double xOffset, double yOffset, 
             double zOffset) {
+        compose(world, xOffset, yOffset, zOffset, this.segments);
+    }
+    
+    /**
+     * Adds 3D objects representing the current data for the plot to the 
+     * specified world, using {@code segmentCount} segments for 360 degrees
+     * of the pie.  This method is called by the {@link Chart3D} class with 
+     * the count from {@link #calculateSegmentCount(double)}, you won't 
+     * normally call it directly.
+     * <br><br>
+     * The section objects are cached, when the plot is composed again with
+     * the same geometry (for example, after a change to the section colors
+     * or labels) the cached objects are reused with updated colors.
+     * 
+     * @param world  the world ({@code null} not permitted).
+     * @param xOffset  the x-offset.
+     * @param yOffset  the y-offset.
+     * @param zOffset  the z-offset.
+     * @param segmentCount  the number of segments for 360 degrees.
+     * 
+     * @since 1.7
+     */
+    @SuppressWarnings("unchecked")
+    public void compose(World world, double xOffset, double yOffset, 
+            double zOffset, int segmentCount) {
         double total = DataUtils.total(this.dataset);
-        double r = 0.0;
+        double inc = Math.PI / segmentCount;
         int count = this.dataset.getItemCount();
+        double[] key = new double[count * 2 + 4];
+        double r = 0.0;
         for (int i = 0; i < count; i++) {
-            Comparable<?> key = this.dataset.getKey(i);
             Number n = (Number) this.dataset.getValue(i);
             if (n != null) {
                 double angle = Math.PI * 2 * (n.doubleValue() / total);
-                Color c = this.sectionColorSource.getColor(
-                        this.dataset.getKey(i));
-                Object3D segment = Object3D.createPieSegment(this.radius, 0.0, 
-                        yOffset, this.depth, r, r + angle, 
-                        Math.PI / this.segments, c);
-                segment.setProperty(Object3D.ITEM_KEY, 
-                        new KeyedValuesItemKey(key));
-                world.add(segment);
+                key[i * 2] = r;
+                key[i * 2 + 1] = r + angle;
                 r = r + angle;
+            } else {
+                key[i * 2] = Double.NaN;
+                key[i * 2 + 1] = Double.NaN;
+            }
+        }
+        key[count * 2] = this.radius;
+        key[count * 2 + 1] = this.depth;
+        key[count * 2 + 2] = yOffset;
+        key[count * 2 + 3] = inc;
+        if (this.sectionCache == null 
+                || !Arrays.equals(key, this.sectionCacheKey)) {
+            List<Object3D> sections = new ArrayList<Object3D>(count);
+            for (int i = 0; i < count; i++) {
+                Object3D section = null;
+                if (!Double.isNaN(key[i * 2])) {
+                    section = Object3D.createPieSegment(this.radius, 0.0, 
+                            yOffset, this.depth, key[i * 2], key[i * 2 + 1], 
+                            inc, Color.BLACK);
+                }
+                sections.add(section);
+            }
+            this.sectionCache = sections;
+            this.sectionCacheKey = key;
+        }
+        for (int i = 0; i < count; i++) {
+            Object3D section = this.sectionCache.get(i);
+            if (section != null) {
+                Comparable<?> sectionKey = this.dataset.getKey(i);
+                section.setColor(this.sectionColorSource.getColor(sectionKey));
+                section.setItemKey(new KeyedValuesItemKey(sectionKey));
+                world.add(section);
             }
         }
     }
@@ -558,6 +728,12 @@ public class PiePlot3D extends AbstractPlot3D implements Serializable {
         if (this.segments != that.segments) {
             return false;
         }
+        if (this.adaptiveSegmentCount != that.adaptiveSegmentCount) {
+            return false;
+        }
+        if (this.segmentTolerance != that.segmentTolerance) {
+            return false;
+        }
         return super.equals(obj);
     }
 
@@ -0,0 +1,190 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.renderer;
+
+import java.awt.Color;
+import java.io.Serializable;
+
+import com.orsoncharts.Range;
+import com.orsoncharts.util.ArgChecks;
+
+/**
+ * An immutable lookup table of colors sampled at evenly spaced positions 
+ * along a value range.  Color scales can precompute their colors in a table
+ * when they are created, so that converting a data value to a color requires
+ * no calculation or allocation and is safe for use by multiple threads.  
+ * Sample {@code i} of {@code n} corresponds to the fraction 
+ * {@link #sampleFraction(int, int)} along the range.  The range is divided 
+ * into a number of equal bins and a data value at the fraction {@code f}
+ * along the range is mapped to sample {@code (int) (f * bins)} (values 
+ * outside the range are mapped to the first or last sample).
+ * <br><br>
+ * NOTE: This class is serializable, but the serialization format is subject 
+ * to change in future releases and should not be relied upon for persisting 
+ * instances of this class. 
+ * 
+ * @since 1.7
+ */
+@SuppressWarnings("serial")
+public final class ColorLookupTable implements Serializable {
+    
+    /** The value range. */
+    private final Range range;
+    
+    /** The colors, as packed ARGB values. */
+    private final int[] rgb;
+    
+    /** The colors (matching the {@code rgb} array). */
+    private final Color[] colors;
+    
+    /** The number of bins that the value range is divided into. */
+    private final int bins;
+    
+    /**
+     * Creates a new lookup table with one bin less than the number of 
+     * samples, so that only the maximum value of the range is mapped to the 
+     * last sample.
+     * 
+     * @param range  the value range ({@code null} not permitted).
+     * @param argb  the color samples as packed ARGB values (the array is 
+     *     copied, {@code null} not permitted and must contain at least one
+     *     sample).
+     */
+    public ColorLookupTable(Range range, int[] argb) {
+        this(range, argb, argb.length - 1);
+    }
+    
+    /**
+     * Creates a new lookup table.
+     * 
+     * @param range  the value range ({@code null} not permitted).
+     * @param argb  the color samples as packed ARGB values (the array is 
+     *     copied, {@code null} not permitted and must contain at least one
+     *     sample).
+     * @param bins  the number of bins that the range is divided into 
+     *     (values in bins beyond the last sample are mapped to the last 
+     *     sample).
+     */
+    public ColorLookupTable(Range range, int[] argb, int bins) {
+        ArgChecks.nullNotPermitted(range, "range");
+        ArgChecks.nullNotPermitted(argb, "argb");
+        if (argb.length == 0) {
+            throw new IllegalArgumentException(
+                    "Requires at least one color sample.");
+        }
+        ArgChecks.negativeNotPermitted(bins, "bins");
+        this.bins = bins;
+        this.range = range;
+        this.rgb = argb.clone();
+        this.colors = new Color[argb.length];
+        for (int i = 0; i < argb.length; i++) {
+            this.colors[i] = new Color(argb[i], true);
+        }
+    }
+    
+    /**
+     * Returns the fraction along the value range for sample {@code i} in a
+     * table with {@code count} samples.  The first and last samples are at 
+     * the ends of the range.
+     * 
+     * @param i  the sample index.
+     * @param count  the sample count (at least one).
+     * 
+     * @return The fraction (in the range 0.0 to 1.0). 
+     */
+    public static double sampleFraction(int i, int count) {
+        if (count <= 1) {
+            return 0.0;
+        }
+        return i / (double) (count - 1);
+    }
+    
+    /**
+     * Returns the value range for the table.
+     * 
+     * @return The value range (never {@code null}). 
+     */
+    public Range getRange() {
+        return this.range;
+    }
+    
+    /**
+     * Returns the number of samples in the table.
+     * 
+     * @return The number of samples. 
+     */
+    public int getSampleCount() {
+        return this.rgb.length;
+    }
+    
+    /**
+     * Returns the packed ARGB color for the specified value.
+     * 
+     * @param value  the value.
+     * 
+     * @return The packed ARGB color. 
+     */
+    public int valueToRGB(double value) {
+        return this.rgb[index(value)];
+    }
+    
+    /**
+     * Returns the color for the specified value.
+     * 
+     * @param value  the value.
+     * 
+     * @return The color (never {@code null}). 
+     */
+    public Color valueToColor(double value) {
+        return this.colors[index(value)];
+    }
+    
+    /**
+     * Returns the index of the sample for the bin containing the specified
+     * value.
+     * 
+     * @param value  the value.
+     * 
+     * @return The sample index. 
+     */
+    private int index(double value) {
+        double fraction = (value - this.range.getMin()) 
+                / this.range.getLength();
+        if (!(fraction > 0.0)) { // also catches NaN
+            return 0;
+        }
+        return (int) Math.min(fraction * this.bins, this.rgb.length - 1);
+    }
+    
+}
@@ -51,7 +51,7 @@ import com.orsoncharts.util.ArgChecks;
  * @since 1.1
  */
 @SuppressWarnings("serial")
-public class FixedColorScale implements ColorScale, Serializable {
+public class FixedColorScale implements RGBColorScale, Serializable {
     
     /** The fixed color. */
     private Color color;
@@ -96,6 +96,20 @@ public class FixedColorScale implements ColorScale, Serializable {
         return this.color;
     }
     
+    /**
+     * Returns the fixed color as a packed ARGB integer.
+     * 
+     * @param value  the value (ignored).
+     * 
+     * @return The packed ARGB color.
+     * 
+     * @since 1.7
+     */
+    @Override
+    public int valueToRGB(double value) {
+        return this.color.getRGB();
+    }
+    
     /**
      * Tests this instance for equality with an arbitrary object.
      * 
@@ -48,7 +48,7 @@ import com.orsoncharts.util.ArgChecks;
  */
 @SuppressWarnings("serial")
 public class GradientColorScale extends AbstractColorScale 
-        implements ColorScale {
+        implements RGBColorScale {
 
     /** The color at the low end of the value range. */
     private Color lowColor;
@@ -56,8 +56,8 @@ public class GradientColorScale extends AbstractColorScale
     /** The color at the high end of the value range. */
     private Color highColor;
     
-    /** Storage for the color samples. */
-    private Color[] colors;
+    /** The precomputed color samples. */
+    private ColorLookupTable lookupTable;
 
     /**
      * Creates a new instance with the specified value range and colors.
@@ -69,12 +69,42 @@ public class GradientColorScale extends AbstractColorScale
      *     ({@code null} not permitted).
      */
     public GradientColorScale(Range range, Color lowColor, Color highColor) {
+        this(range, lowColor, highColor, 255);
+    }
+    
+    /**
+     * Creates a new instance with the specified value range, colors and
+     * number of color samples.
+     * 
+     * @param range  the data value range ({@code null} not permitted).
+     * @param lowColor  the color for the low end of the data range 
+     *     ({@code null} not permitted).
+     * @param highColor  the color for the high end of the data range 
+     *     ({@code null} not permitted).
+     * @param samples  the number of color samples (must be positive).
+     * 
+     * @since 1.7
+     */
+    public GradientColorScale(Range range, Color lowColor, Color highColor, 
+            int samples) {
         super(range);
         ArgChecks.nullNotPermitted(lowColor, "lowColor");
         ArgChecks.nullNotPermitted(highColor, "highColor");
+        ArgChecks.positiveRequired(samples, "samples");
         this.lowColor = lowColor;
         this.highColor = highColor;
-        this.colors = new Color[255];
+        float[] lrgba = lowColor.getRGBComponents(null);
+        float[] hrgba = highColor.getRGBComponents(null);
+        int[] argb = new int[samples];
+        for (int i = 0; i < samples; i++) {
+            float p = (float) ColorLookupTable.sampleFraction(i, samples);
+            argb[i] = new Color(lrgba[0] * (1 - p) + hrgba[0] * p,
+                    lrgba[1] * (1 - p) + hrgba[1] * p,
+                    lrgba[2] * (1 - p) + hrgba[2] * p,
+                    lrgba[3] * (1 - p) + hrgba[3] * p).getRGB();
+        }
+        // one bin per sample, as in earlier releases
+        this.lookupTable = new ColorLookupTable(range, argb, samples);
     }
 
     /**
@@ -101,11 +131,14 @@ public class GradientColorScale extends AbstractColorScale
      * @return The number of samples. 
      */
     public int getSampleCount() {
-        return this.colors.length;
+        return this.lookupTable.getSampleCount();
     }
 
     /**
-     * Returns the color corresponding to the specified data value.  If this
+     * Returns the color corresponding to the specified data value.  The 
+     * range is divided into one bin per sample, and values in a bin are
+     * given the same color.  Values outside the range of the scale are given
+     * the color at the nearest end of the range.
      * 
      * @param value  the data value.
      * 
@@ -113,25 +146,22 @@ public class GradientColorScale extends AbstractColorScale
      */
     @Override
     public Color valueToColor(double value) {
-        Range r = getRange();
-        if (value < r.getMin()) {
-            return valueToColor(r.getMin());
-        }
-        if (value > r.getMax()) {
-            return valueToColor(r.getMax());
-        }
-        double fraction = getRange().percent(value);
-        int i = (int) (fraction * this.colors.length);
-        if (this.colors[i] == null) {
-            float[] lrgba = this.lowColor.getRGBComponents(null);
-            float[] hrgba = this.highColor.getRGBComponents(null);
-            float p = (float) fraction;
-            this.colors[i] = new Color(lrgba[0] * (1 - p) + hrgba[0] * p,
-                    lrgba[1] * (1 - p) + hrgba[1] * p,
-                    lrgba[2] * (1 - p) + hrgba[2] * p,
-                    lrgba[3] * (1 - p) + hrgba[3] * p);
-        }
-        return this.colors[i];
+        return this.lookupTable.valueToColor(value);
+    }
+    
+    /**
+     * Returns the color corresponding to the specified data value, as a 
+     * packed ARGB integer.
+     * 
+     * @param value  the data value.
+     * 
+     * @return The packed ARGB color. 
+     * 
+     * @since 1.7
+     */
+    @Override
+    public int valueToRGB(double value) {
+        return this.lookupTable.valueToRGB(value);
     }
     
     /**
@@ -156,6 +186,9 @@ public class GradientColorScale extends AbstractColorScale
         if (!this.highColor.equals(that.highColor)) {
             return false;
         }
+        if (getSampleCount() != that.getSampleCount()) {
+            return false;
+        }
         return super.equals(obj);
     }
 
@@ -0,0 +1,57 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.renderer;
+
+/**
+ * A {@link ColorScale} that can also return colors as packed ARGB integers,
+ * without creating a {@code Color} instance for each value.  Code that 
+ * converts many values (for example, to fill an image) can check for this
+ * interface and otherwise fall back to 
+ * {@code valueToColor(value).getRGB()}.
+ * 
+ * @since 1.7
+ */
+public interface RGBColorScale extends ColorScale {
+
+    /**
+     * Returns the color on the scale that corresponds to the specified
+     * value, as a packed ARGB integer (the same value as 
+     * {@code valueToColor(value).getRGB()}).
+     * 
+     * @param value  the value.
+     * 
+     * @return The packed ARGB color.
+     */
+    int valueToRGB(double value);
+
+}
@@ -48,7 +48,8 @@ import com.orsoncharts.util.ArgChecks;
  * @since 1.1
  */
 @SuppressWarnings("serial")
-public class RainbowScale extends AbstractColorScale implements ColorScale {
+public class RainbowScale extends AbstractColorScale implements 
+        RGBColorScale {
     
     /** 
      * A range to include all hues.  This can be used for the 
@@ -62,8 +63,8 @@ public class RainbowScale extends AbstractColorScale implements ColorScale {
      */
     public static final Range BLUE_TO_RED_RANGE = new Range(0.0, 0.6666);
     
-    /** Storage for the color samples. */
-    private Color[] colors;
+    /** The precomputed color samples. */
+    private ColorLookupTable lookupTable;
     
     /** 
      * The subrange of hues (useful to restrict the scale to the range from
@@ -86,14 +87,20 @@ public class RainbowScale extends AbstractColorScale implements ColorScale {
      * given number of samples and hues restricted to the specified range.
      * 
      * @param range  the range ({@code null} not permitted).
-     * @param samples  the number of samples.
+     * @param samples  the number of samples (must be positive).
      * @param hueSubrange  the hue sub-range.
      */
     public RainbowScale(Range range, int samples, Range hueSubrange) {
         super(range);
+        ArgChecks.positiveRequired(samples, "samples");
         ArgChecks.nullNotPermitted(hueSubrange, "hueSubrange");
-        this.colors = new Color[samples];
         this.hueSubrange = hueSubrange;
+        int[] argb = new int[samples];
+        for (int i = 0; i < samples; i++) {
+            argb[i] = createRainbowColor(ColorLookupTable.sampleFraction(i, 
+                    samples)).getRGB();
+        }
+        this.lookupTable = new ColorLookupTable(range, argb);
     }
 
     /**
@@ -102,7 +109,7 @@ public class RainbowScale extends AbstractColorScale implements ColorScale {
      * @return The number of samples. 
      */
     public int getSampleCount() {
-        return this.colors.length;
+        return this.lookupTable.getSampleCount();
     }
 
     /**
@@ -115,7 +122,9 @@ public class RainbowScale extends AbstractColorScale implements ColorScale {
     }
     
     /**
-     * Converts a value to a color on the scale.
+     * Converts a value to a color on the scale.  The range is divided into
+     * one bin less than the number of samples (the last sample is used for
+     * the maximum value only), and values in a bin are given the same color.
      * 
      * @param value  the value.
      * 
@@ -123,19 +132,22 @@ public class RainbowScale extends AbstractColorScale implements ColorScale {
      */
     @Override
     public Color valueToColor(double value) {
-        Range r = getRange();
-        if (value < r.getMin()) {
-            return valueToColor(r.getMin());
-        }
-        if (value > r.getMax()) {
-            return valueToColor(r.getMax());
-        }
-        double fraction = getRange().percent(value);
-        int i = (int) (fraction * (this.colors.length - 1));
-        if (this.colors[i] == null) {
-            this.colors[i] = createRainbowColor(fraction);
-        }
-        return this.colors[i];
+        return this.lookupTable.valueToColor(value);
+    }
+    
+    /**
+     * Converts a value to a color on the scale, returned as a packed ARGB
+     * integer.
+     * 
+     * @param value  the value.
+     * 
+     * @return The packed ARGB color.
+     * 
+     * @since 1.7
+     */
+    @Override
+    public int valueToRGB(double value) {
+        return this.lookupTable.valueToRGB(value);
     }
     
     /**
@@ -168,7 +180,7 @@ public class RainbowScale extends AbstractColorScale implements ColorScale {
             return false;
         }
         RainbowScale that = (RainbowScale) obj;
-        if (this.colors.length != that.colors.length) {
+        if (getSampleCount() != that.getSampleCount()) {
             return false;
         }
         if (!this.hueSubrange.equals(that.hueSubrange)) {
@@ -38,7 +38,10 @@ import com.orsoncharts.util.ArgChecks;
 import com.orsoncharts.Range;
 import com.orsoncharts.data.DataUtils;
 import com.orsoncharts.data.Values3D;
+import com.orsoncharts.graphics3d.MeshObject3D;
+import com.orsoncharts.graphics3d.Object3D;
 import com.orsoncharts.graphics3d.Offset3D;
+import com.orsoncharts.graphics3d.World;
 import com.orsoncharts.label.CategoryItemLabelGenerator;
 import com.orsoncharts.plot.CategoryPlot3D;
 import com.orsoncharts.renderer.AbstractRenderer3D;
@@ -203,6 +206,34 @@ public abstract class AbstractCategoryRenderer3D extends AbstractRenderer3D
         return DataUtils.findValueRange(data);
     }
     
+    /**
+     * Adds a part (for example, one segment of a line) representing an item
+     * to the mesh for its series and row, so that a long series becomes one
+     * object with shared vertices rather than many small objects (see 
+     * {@link CategoryMeshRenderer3D}).  The faces in the mesh still resolve
+     * to {@code itemKey}, so tooltips and selection work per item.  If 
+     * {@code mesh} is {@code null} the part is added to the world as a 
+     * separate object.
+     * 
+     * @param world  the world ({@code null} not permitted).
+     * @param mesh  the mesh for the series and row ({@code null} permitted).
+     * @param part  the part ({@code null} not permitted).
+     * @param itemKey  the item key ({@code null} permitted).
+     * 
+     * @since 1.7
+     */
+    protected void addToSeriesMesh(World world, MeshObject3D mesh, 
+            Object3D part, Object itemKey) {
+        ArgChecks.nullNotPermitted(world, "world");
+        ArgChecks.nullNotPermitted(part, "part");
+        if (mesh != null) {
+            mesh.addPart(part, itemKey);
+        } else {
+            part.setProperty(Object3D.ITEM_KEY, itemKey);
+            world.add(part);
+        }
+    }
+    
     /**
      * Tests this renderer for equality with an arbitrary object.
      * 
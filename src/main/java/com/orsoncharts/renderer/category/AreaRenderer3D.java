@@ -46,6 +46,7 @@ import com.orsoncharts.data.DataUtils;
 import com.orsoncharts.data.Values3D;
 import com.orsoncharts.data.KeyedValues3DItemKey;
 import com.orsoncharts.graphics3d.Dimension3D;
+import com.orsoncharts.graphics3d.MeshObject3D;
 import com.orsoncharts.graphics3d.Object3D;
 import com.orsoncharts.graphics3d.Offset3D;
 import com.orsoncharts.graphics3d.Utils2D;
@@ -77,7 +78,7 @@ import com.orsoncharts.util.ObjectUtils;
  */
 @SuppressWarnings("serial")
 public class AreaRenderer3D extends AbstractCategoryRenderer3D 
-        implements Serializable {
+        implements CategoryMeshRenderer3D, Serializable {
     
     /** The base for the areas (defaults to 0.0). */
     private double base;
@@ -279,10 +280,40 @@ public class AreaRenderer3D extends AbstractCategoryRenderer3D
      * @param yOffset  the y-offset.
      * @param zOffset  the z-offset.
      */
-    @Override @SuppressWarnings("unchecked")
+    @Override
     public void composeItem(CategoryDataset3D dataset, int series, int row, 
             int column, World world, Dimension3D dimensions, 
             double xOffset, double yOffset, double zOffset) {
+        composeItem(dataset, series, row, column, world, dimensions, 
+                xOffset, yOffset, zOffset, null);
+    }
+    
+    /**
+     * Constructs one item from the specified dataset, adding the segments
+     * that represent it to {@code mesh}.  This method will be called by the
+     * {@link CategoryPlot3D} class while iterating over the items in the 
+     * dataset.
+     * 
+     * @param dataset  the dataset ({@code null} not permitted).
+     * @param series  the series index.
+     * @param row  the row index.
+     * @param column  the column index.
+     * @param world  the world ({@code null} not permitted).
+     * @param dimensions  the plot dimensions ({@code null} not permitted).
+     * @param xOffset  the x-offset.
+     * @param yOffset  the y-offset.
+     * @param zOffset  the z-offset.
+     * @param mesh  the mesh for the series and row ({@code null} permitted,
+     *     in which case each segment is added to the world as a separate
+     *     object).
+     * 
+     * @since 1.7
+     */
+    @Override @SuppressWarnings("unchecked")
+    public void composeItem(CategoryDataset3D dataset, int series, int row, 
+            int column, World world, Dimension3D dimensions, 
+            double xOffset, double yOffset, double zOffset, 
+            MeshObject3D mesh) {
         
         Number y = (Number) dataset.getValue(series, row, column);
         Number yprev = null;
@@ -398,9 +429,10 @@ public class AreaRenderer3D extends AbstractCategoryRenderer3D
                     basew, ywmin, ywmax, color, this.baseColor, clipColor, 
                     leftOpen, leftClose);
             for (Object3D obj : leftObjs) {
-                obj.setProperty(Object3D.ITEM_KEY, itemKey);
-                obj.setOutline(this.drawFaceOutlines);
-                world.add(obj);
+                if (obj != null) {
+                    obj.setOutline(this.drawFaceOutlines);
+                    addToSeriesMesh(world, mesh, obj, itemKey);
+                }
             }
         }
 
@@ -419,9 +451,10 @@ public class AreaRenderer3D extends AbstractCategoryRenderer3D
                     basew, ywmin, ywmax, color, this.baseColor, clipColor, 
                     rightOpen, rightClose);
             for (Object3D obj : rightObjs) {
-                obj.setProperty(Object3D.ITEM_KEY, itemKey);
-                obj.setOutline(this.drawFaceOutlines);
-                world.add(obj);
+                if (obj != null) {
+                    obj.setOutline(this.drawFaceOutlines);
+                    addToSeriesMesh(world, mesh, obj, itemKey);
+                }
             }
         }
 
@@ -433,8 +466,7 @@ public class AreaRenderer3D extends AbstractCategoryRenderer3D
             Object3D isolated = Object3D.createBox(xw, cww, yw - h / 2, h, 
                     zw, this.depth, color);
             isolated.setOutline(this.drawFaceOutlines);
-            isolated.setProperty(Object3D.ITEM_KEY, itemKey);
-            world.add(isolated);
+            addToSeriesMesh(world, mesh, isolated, itemKey);
         }
         
         if (getItemLabelGenerator() != null && !Double.isNaN(yw) 
@@ -453,7 +485,7 @@ public class AreaRenderer3D extends AbstractCategoryRenderer3D
                         getItemLabelBackgroundColor(), xw, yw + ydelta, zw, 
                         false, true);
                 
-                labelObj.setProperty(Object3D.ITEM_KEY, itemKey);
+                labelObj.setItemKey(itemKey);
                 world.add(labelObj);
             } else if (positioning.equals(
                     ItemLabelPositioning.FRONT_AND_BACK)) {
@@ -462,15 +494,15 @@ public class AreaRenderer3D extends AbstractCategoryRenderer3D
                         getItemLabelFont(), getItemLabelColor(), 
                         getItemLabelBackgroundColor(), xw, yw + ydelta, 
                         zw - zdelta, false, false);
-                labelObj1.setProperty(Object3D.CLASS_KEY, "ItemLabel");
-                labelObj1.setProperty(Object3D.ITEM_KEY, itemKey);
+                labelObj1.setObjectClass("ItemLabel");
+                labelObj1.setItemKey(itemKey);
                 world.add(labelObj1);
                 Object3D labelObj2 = Object3D.createLabelObject(label, 
                         getItemLabelFont(), getItemLabelColor(), 
                         getItemLabelBackgroundColor(), xw, yw + ydelta, 
                         zw + zdelta, true, false);
-                labelObj2.setProperty(Object3D.CLASS_KEY, "ItemLabel");
-                labelObj2.setProperty(Object3D.ITEM_KEY, itemKey);
+                labelObj2.setObjectClass("ItemLabel");
+                labelObj2.setItemKey(itemKey);
                 world.add(labelObj2);
             } 
         }
@@ -74,6 +74,12 @@ import com.orsoncharts.util.ObjectUtils;
 public class BarRenderer3D extends AbstractCategoryRenderer3D 
                 implements Serializable {
 
+    /** 
+     * The tolerance (as a fraction of the axis length) used when checking 
+     * whether adjacent bars touch.
+     */
+    private static final double EPSILON = 0.000000001;
+    
     /** The base of the bars - defaults to 0.0. */
     private double base;
     
@@ -360,15 +366,152 @@ public class BarRenderer3D extends AbstractCategoryRenderer3D
         if (topColor == null) {
             topColor = color;
         }
-        Object3D bar = Object3D.createBar(xxw, xzw, xx, yy, zz, basew, 
-                color, baseColor, topColor, inverted);
+        Object3D bar;
+        if (color.getAlpha() == 255) {
+            // an opaque bar only needs its outward facing faces, less any
+            // faces that are covered by adjacent bars
+            int hiddenFaces = findHiddenFaces(dataset, series, row, column, 
+                    barBase, value);
+            bar = Object3D.createBar(xxw, xzw, xx, yy, zz, basew, color, 
+                    baseColor, topColor, inverted, hiddenFaces);
+        } else {
+            bar = Object3D.createBar(xxw, xzw, xx, yy, zz, basew, color, 
+                    baseColor, topColor, inverted);
+        }
         KeyedValues3DItemKey itemKey = new KeyedValues3DItemKey(seriesKey, 
                 rowKey, columnKey);
-        bar.setProperty(Object3D.ITEM_KEY, itemKey);
+        bar.setItemKey(itemKey);
         world.add(bar);
         drawItemLabels(world, dataset, itemKey, xx, yy, zz, basew, inverted);   
     }
     
+    /**
+     * Returns the faces of the bar for an item that are completely covered 
+     * by the bars for adjacent opaque items, as a combination of the 
+     * {@code BAR_FACE_*} flags defined in {@link Object3D}.  Omitting these
+     * faces when the geometry is composed reduces the number of faces that
+     * must be sorted and drawn for every frame without changing the 
+     * rendered chart.  This implementation checks the bars for the same 
+     * series in the neighbouring columns and rows, which can only touch
+     * when the bar widths fill the category widths (see 
+     * {@link #setBarXWidth(double)} and {@link #setBarZWidth(double)}).  
+     * This method is called only for items with an opaque color.
+     * 
+     * @param dataset  the dataset ({@code null} not permitted).
+     * @param series  the series index.
+     * @param row  the row index.
+     * @param column  the column index.
+     * @param barBase  the base value for the bar.
+     * @param value  the data value (top of the bar).
+     * 
+     * @return The hidden faces ({@code 0} if there are none).
+     * 
+     * @since 1.7
+     */
+    protected int findHiddenFaces(CategoryDataset3D dataset, int series, 
+            int row, int column, double barBase, double value) {
+        CategoryPlot3D plot = getPlot();
+        Range range = plot.getValueAxis().getRange();
+        Dimension3D dimensions = plot.getDimensions();
+        double vlow = range.peggedValue(Math.min(barBase, value));
+        double vhigh = range.peggedValue(Math.max(barBase, value));
+        int result = 0;
+        
+        CategoryAxis3D columnAxis = plot.getColumnAxis();
+        double width = dimensions.getWidth();
+        double xw = columnAxis.translateToWorld(this.barXWidth 
+                * columnAxis.getCategoryWidth(), width);
+        if (column > 0 && touches(columnAxis, dataset.getColumnKey(column), 
+                dataset.getColumnKey(column - 1), xw, width) 
+                && covers(dataset, series, row, column - 1, vlow, vhigh)) {
+            result |= columnAxis.isInverted() ? Object3D.BAR_FACE_MAX_X 
+                    : Object3D.BAR_FACE_MIN_X;
+        }
+        if (column < dataset.getColumnCount() - 1 
+                && touches(columnAxis, dataset.getColumnKey(column), 
+                dataset.getColumnKey(column + 1), xw, width) 
+                && covers(dataset, series, row, column + 1, vlow, vhigh)) {
+            result |= columnAxis.isInverted() ? Object3D.BAR_FACE_MIN_X 
+                    : Object3D.BAR_FACE_MAX_X;
+        }
+        
+        CategoryAxis3D rowAxis = plot.getRowAxis();
+        double depth = dimensions.getDepth();
+        double zw = rowAxis.translateToWorld(this.barZWidth 
+                * rowAxis.getCategoryWidth(), depth);
+        if (row > 0 && touches(rowAxis, dataset.getRowKey(row), 
+                dataset.getRowKey(row - 1), zw, depth) 
+                && covers(dataset, series, row - 1, column, vlow, vhigh)) {
+            result |= rowAxis.isInverted() ? Object3D.BAR_FACE_MAX_Z 
+                    : Object3D.BAR_FACE_MIN_Z;
+        }
+        if (row < dataset.getRowCount() - 1 
+                && touches(rowAxis, dataset.getRowKey(row), 
+                dataset.getRowKey(row + 1), zw, depth) 
+                && covers(dataset, series, row + 1, column, vlow, vhigh)) {
+            result |= rowAxis.isInverted() ? Object3D.BAR_FACE_MIN_Z 
+                    : Object3D.BAR_FACE_MAX_Z;
+        }
+        return result;
+    }
+    
+    /**
+     * Returns {@code true} if bars with the specified world width for two
+     * categories touch (or overlap), and {@code false} otherwise.
+     * 
+     * @param axis  the category axis.
+     * @param key1  the first category.
+     * @param key2  the second category.
+     * @param barWidth  the bar width in world units.
+     * @param length  the world length of the axis.
+     * 
+     * @return A boolean. 
+     */
+    private boolean touches(CategoryAxis3D axis, Comparable<?> key1, 
+            Comparable<?> key2, double barWidth, double length) {
+        double v1 = axis.getCategoryValue(key1);
+        double v2 = axis.getCategoryValue(key2);
+        if (Double.isNaN(v1) || Double.isNaN(v2)) {
+            return false;
+        }
+        double gap = Math.abs(axis.translateToWorld(v2, length) 
+                - axis.translateToWorld(v1, length));
+        return gap <= barWidth + length * EPSILON;
+    }
+    
+    /**
+     * Returns {@code true} if the (opaque) bar for the specified item 
+     * covers the value range {@code vlow} to {@code vhigh}, and 
+     * {@code false} otherwise.
+     * 
+     * @param dataset  the dataset.
+     * @param series  the series index.
+     * @param row  the row index.
+     * @param column  the column index.
+     * @param vlow  the lower value (already pegged to the axis range).
+     * @param vhigh  the upper value (already pegged to the axis range).
+     * 
+     * @return A boolean. 
+     */
+    private boolean covers(CategoryDataset3D dataset, int series, int row, 
+            int column, double vlow, double vhigh) {
+        double value = dataset.getDoubleValue(series, row, column);
+        if (Double.isNaN(value)) {
+            return false;
+        }
+        Range range = getPlot().getValueAxis().getRange();
+        double low = Math.min(this.base, value);
+        double high = Math.max(this.base, value);
+        if (!range.intersects(low, high)) {
+            return false;
+        }
+        if (range.peggedValue(low) > vlow || range.peggedValue(high) < vhigh) {
+            return false;
+        }
+        return getColorSource().getColor(series, row, column).getAlpha() 
+                == 255;
+    }
+    
     protected void drawItemLabels(World world, CategoryDataset3D dataset, 
             KeyedValues3DItemKey itemKey, double xw, double yw, double zw, 
             double basew, boolean inverted) {
@@ -394,7 +537,7 @@ public class BarRenderer3D extends AbstractCategoryRenderer3D
                         getItemLabelFont(), getItemLabelColor(), 
                         getItemLabelBackgroundColor(), xw + dx, yy + dy, zw, 
                         false, true);
-                labelObj.setProperty(Object3D.ITEM_KEY, itemKey);
+                labelObj.setItemKey(itemKey);
                 world.add(labelObj);
             } else if (positioning.equals(
                     ItemLabelPositioning.FRONT_AND_BACK)) {
@@ -402,13 +545,13 @@ public class BarRenderer3D extends AbstractCategoryRenderer3D
                         getItemLabelFont(), getItemLabelColor(), 
                         getItemLabelBackgroundColor(), xw + dx, yy + dy, 
                         zw + dz, false, false);
-                labelObj1.setProperty(Object3D.ITEM_KEY, itemKey);
+                labelObj1.setItemKey(itemKey);
                 world.add(labelObj1);
                 Object3D labelObj2 = Object3D.createLabelObject(label, 
                         getItemLabelFont(), getItemLabelColor(), 
                         getItemLabelBackgroundColor(), xw + dx, yy + dy, 
                         zw - dz, true, false);
-                labelObj1.setProperty(Object3D.ITEM_KEY, itemKey);
+                labelObj1.setItemKey(itemKey);
                 world.add(labelObj2);
             }
         }        
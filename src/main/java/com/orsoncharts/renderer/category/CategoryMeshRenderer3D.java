@@ -0,0 +1,75 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.renderer.category;
+
+import com.orsoncharts.data.category.CategoryDataset3D;
+import com.orsoncharts.graphics3d.Dimension3D;
+import com.orsoncharts.graphics3d.MeshObject3D;
+import com.orsoncharts.graphics3d.World;
+import com.orsoncharts.plot.CategoryPlot3D;
+
+/**
+ * A renderer that can add the parts for all the items in one series and 
+ * row to a single {@link MeshObject3D}.  When the renderer for a 
+ * {@link CategoryPlot3D} implements this interface, the plot creates a mesh
+ * for each series and row, passes it to the renderer for each item (in 
+ * column order) and adds it to the world once the items for the row have 
+ * been composed, so that a long series becomes one object with shared 
+ * vertices rather than many small objects.
+ * 
+ * @since 1.7
+ */
+public interface CategoryMeshRenderer3D extends CategoryRenderer3D {
+    
+    /**
+     * Constructs one item from the specified dataset, adding the parts that
+     * represent it to {@code mesh} (item labels are added to the world).
+     * 
+     * @param dataset  the dataset ({@code null} not permitted).
+     * @param series  the series index.
+     * @param row  the row index.
+     * @param column  the column index.
+     * @param world  the world ({@code null} not permitted).
+     * @param dimensions  the plot dimensions ({@code null} not permitted).
+     * @param xOffset  the x-offset.
+     * @param yOffset  the y-offset.
+     * @param zOffset  the z-offset.
+     * @param mesh  the mesh for the series and row ({@code null} permitted,
+     *     in which case each part is added to the world as a separate 
+     *     object).
+     */
+    void composeItem(CategoryDataset3D dataset, int series, int row, int column,
+            World world, Dimension3D dimensions, 
+            double xOffset, double yOffset, double zOffset, MeshObject3D mesh);
+ 
+}
@@ -43,6 +43,7 @@ import com.orsoncharts.axis.ValueAxis3D;
 import com.orsoncharts.data.KeyedValues3DItemKey;
 import com.orsoncharts.data.category.CategoryDataset3D;
 import com.orsoncharts.graphics3d.Dimension3D;
+import com.orsoncharts.graphics3d.MeshObject3D;
 import com.orsoncharts.graphics3d.Object3D;
 import com.orsoncharts.graphics3d.Offset3D;
 import com.orsoncharts.graphics3d.World;
@@ -76,7 +77,7 @@ import com.orsoncharts.util.ObjectUtils;
  */
 @SuppressWarnings("serial")
 public class LineRenderer3D extends AbstractCategoryRenderer3D 
-        implements Serializable {
+        implements CategoryMeshRenderer3D, Serializable {
 
     /** The line width (in world units). */
     private double lineWidth;
@@ -213,10 +214,40 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
      * @param zOffset  the z-offset.
      */
     @Override
-    @SuppressWarnings("unchecked")
     public void composeItem(CategoryDataset3D dataset, int series, int row, 
             int column, World world, Dimension3D dimensions, 
             double xOffset, double yOffset, double zOffset) {
+        composeItem(dataset, series, row, column, world, dimensions, 
+                xOffset, yOffset, zOffset, null);
+    }
+    
+    /**
+     * Constructs one item from the specified dataset, adding the segments
+     * that represent it to {@code mesh}.  This method will be called by the
+     * {@link CategoryPlot3D} class while iterating over the items in the 
+     * dataset.
+     * 
+     * @param dataset  the dataset ({@code null} not permitted).
+     * @param series  the series index.
+     * @param row  the row index.
+     * @param column  the column index.
+     * @param world  the world ({@code null} not permitted).
+     * @param dimensions  the plot dimensions ({@code null} not permitted).
+     * @param xOffset  the x-offset.
+     * @param yOffset  the y-offset.
+     * @param zOffset  the z-offset.
+     * @param mesh  the mesh for the series and row ({@code null} permitted,
+     *     in which case each segment is added to the world as a separate
+     *     object).
+     * 
+     * @since 1.7
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void composeItem(CategoryDataset3D dataset, int series, int row, 
+            int column, World world, Dimension3D dimensions, 
+            double xOffset, double yOffset, double zOffset, 
+            MeshObject3D mesh) {
         
         // there is a lot of brute force code underneath this compose method
         // because I haven't seen the pattern yet that will let me reduce it
@@ -320,8 +351,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
                     this.lineHeight, ywmin, ywmax, color, clipColor, leftOpen, 
                     leftClose);
             if (left != null) {
-                left.setProperty(Object3D.ITEM_KEY, itemKey);
-                world.add(left);
+                addToSeriesMesh(world, mesh, left, itemKey);
             }
         }
         if (createRightSegment) {
@@ -337,8 +367,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
                     this.lineHeight, ywmin, ywmax, color, clipColor, rightOpen, 
                     rightClose);
             if (right != null) {
-                right.setProperty(Object3D.ITEM_KEY, itemKey);
-                world.add(right);
+                addToSeriesMesh(world, mesh, right, itemKey);
             }
         }
         if (createIsolatedSegment) {
@@ -348,8 +377,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
             Object3D isolated = Object3D.createBox(xw, cww, yw, this.lineHeight, 
                     zw, this.lineWidth, color);
             if (isolated != null) {
-                isolated.setProperty(Object3D.ITEM_KEY, itemKey);
-                world.add(isolated);
+                addToSeriesMesh(world, mesh, isolated, itemKey);
             }
         }
         
@@ -366,7 +394,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
                             getItemLabelFont(), getItemLabelColor(), 
                             getItemLabelBackgroundColor(),
                             xw, yw + dy, zw, false, true);
-                    labelObj.setProperty(Object3D.ITEM_KEY, itemKey);
+                    labelObj.setItemKey(itemKey);
                     world.add(labelObj);
                 } else if (positioning.equals(
                         ItemLabelPositioning.FRONT_AND_BACK)) {
@@ -375,13 +403,13 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
                             getItemLabelFont(), getItemLabelColor(), 
                             getItemLabelBackgroundColor(),
                             xw, yw, zw - dz, false, false);
-                    labelObj1.setProperty(Object3D.ITEM_KEY, itemKey);
+                    labelObj1.setItemKey(itemKey);
                     world.add(labelObj1);
                     Object3D labelObj2 = Object3D.createLabelObject(label, 
                             getItemLabelFont(), getItemLabelColor(), 
                             getItemLabelBackgroundColor(),
                             xw, yw, zw + dz, true, false);
-                    labelObj2.setProperty(Object3D.ITEM_KEY, itemKey);
+                    labelObj2.setItemKey(itemKey);
                     world.add(labelObj2);
                 }
             }
@@ -513,7 +541,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
             if (y1b >= wmin) {
                 // create a triangle with the top and right
                 Object3D seg = new Object3D(color, true);
-                seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+                seg.setTagColor("clip", clipColor);
                 seg.addVertex(xpts[2], wmax, zf);
                 seg.addVertex(xpts[2], wmax, zb);
                 seg.addVertex(x1, wmax, zf);
@@ -530,7 +558,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
                 return seg;
             } else {
                 Object3D seg = new Object3D(color, true);
-                seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+                seg.setTagColor("clip", clipColor);
                 seg.addVertex(xpts[2], wmax, zf);
                 seg.addVertex(xpts[2], wmax, zb);
                 seg.addVertex(x1, wmax, zf);
@@ -552,7 +580,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
         } else if (y1t >= wmin) {
             if (y1b >= wmin) {
                 Object3D seg = new Object3D(color, true);
-                seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+                seg.setTagColor("clip", clipColor);
                 seg.addVertex(xpts[2], wmax, zf);
                 seg.addVertex(xpts[2], wmax, zb);
                 seg.addVertex(xpts[3], wmax, zf);
@@ -572,7 +600,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
                 return seg;
             } else {
                 Object3D seg = new Object3D(color, true);
-                seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+                seg.setTagColor("clip", clipColor);
                 seg.addVertex(xpts[2], wmax, zf);
                 seg.addVertex(xpts[2], wmax, zb);
                 seg.addVertex(xpts[3], wmax, zf);
@@ -597,7 +625,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
             }
         } else {
             Object3D seg = new Object3D(color, true);
-            seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+            seg.setTagColor("clip", clipColor);
             seg.addVertex(xpts[2], wmax, zf);
             seg.addVertex(xpts[2], wmax, zb);
             seg.addVertex(xpts[3], wmax, zf);
@@ -646,7 +674,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
         
         if (y1b >= wmax) {
             Object3D seg = new Object3D(color, true);
-            seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+            seg.setTagColor("clip", clipColor);
             seg.addVertex(x0, y0b, zf);
             seg.addVertex(x0, y0b, zb);
             seg.addVertex(x0, wmax, zf);
@@ -666,7 +694,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
         if (y1t > wmax) {
             if (y1b >= wmin) {
                 Object3D seg = new Object3D(color, true);
-                seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+                seg.setTagColor("clip", clipColor);
                 seg.addVertex(x0, y0b, zf);
                 seg.addVertex(x0, y0b, zb);
                 seg.addVertex(x0, wmax, zf);
@@ -688,7 +716,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
                 return seg;
             } else {
                 Object3D seg = new Object3D(color, true);
-                seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+                seg.setTagColor("clip", clipColor);
                 seg.addVertex(x0, y0b, zf);
                 seg.addVertex(x0, y0b, zb);
                 seg.addVertex(x0, wmax, zf);
@@ -716,7 +744,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
         if (y1t > wmin) {
             if (y1b >= wmin) {
                 Object3D seg = new Object3D(color, true);
-                seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+                seg.setTagColor("clip", clipColor);
                 seg.addVertex(x0, y0b, zf);
                 seg.addVertex(x0, y0b, zb);
                 seg.addVertex(x0, wmax, zf);
@@ -741,7 +769,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
                 return seg;
             } else {
                 Object3D seg = new Object3D(color, true);
-                seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+                seg.setTagColor("clip", clipColor);
                 seg.addVertex(x0, y0b, zf);
                 seg.addVertex(x0, y0b, zb);
                 seg.addVertex(x0, wmax, zf);
@@ -770,7 +798,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
             }
         }
         Object3D seg = new Object3D(color, true);
-        seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+        seg.setTagColor("clip", clipColor);
         seg.addVertex(x0, y0b, zf);
         seg.addVertex(x0, y0b, zb);
         seg.addVertex(x0, wmax, zf);
@@ -824,7 +852,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
         // the first 4 vertices and the opening face are common to all 
         // segments in this case
         Object3D seg = new Object3D(color, true);
-        seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+        seg.setTagColor("clip", clipColor);
         seg.addVertex(x0, wmin, zf);
         seg.addVertex(x0, wmin, zb);
         seg.addVertex(x0, wmax, zf);
@@ -937,7 +965,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
             boolean openingFace, boolean closingFace) {
 
         Object3D seg = new Object3D(color, true);
-        seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+        seg.setTagColor("clip", clipColor);
         seg.addVertex(x0, y0b, zf);
         seg.addVertex(x0, y0b, zb);
         seg.addVertex(x0, y0t, zf);
@@ -1066,7 +1094,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
             boolean openingFace, boolean closingFace) {
         if (y1b > wmax) {
             Object3D seg = new Object3D(color, true);
-            seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+            seg.setTagColor("clip", clipColor);
             seg.addVertex(x0, wmin, zf);
             seg.addVertex(x0, wmin, zb);
             seg.addVertex(x0, y0t, zf);
@@ -1091,7 +1119,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
         if (y1t > wmax) {
             if (y1b >= wmin) {
                 Object3D seg = new Object3D(color, true);
-                seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+                seg.setTagColor("clip", clipColor);
                 seg.addVertex(x0, wmin, zf);
                 seg.addVertex(x0, wmin, zb);
                 seg.addVertex(x0, y0t, zf);
@@ -1119,7 +1147,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
                 return seg;
             } else {
                 Object3D seg = new Object3D(color, true);
-                seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+                seg.setTagColor("clip", clipColor);
                 seg.addVertex(x0, wmin, zf);
                 seg.addVertex(x0, wmin, zb);
                 seg.addVertex(x0, y0t, zf);
@@ -1147,7 +1175,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
         if (y1t > wmin) {
             if (y1b >= wmin) {
                 Object3D seg = new Object3D(color, true);
-                seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+                seg.setTagColor("clip", clipColor);
                 seg.addVertex(x0, wmin, zf);
                 seg.addVertex(x0, wmin, zb);
                 seg.addVertex(x0, y0t, zf);
@@ -1172,7 +1200,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
                 return seg;
             } else {
                 Object3D seg = new Object3D(color, true);
-                seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+                seg.setTagColor("clip", clipColor);
                 seg.addVertex(x0, wmin, zf);
                 seg.addVertex(x0, wmin, zb);
                 seg.addVertex(x0, y0t, zf);
@@ -1195,7 +1223,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
             }
         }
         Object3D seg = new Object3D(color, true);
-        seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+        seg.setTagColor("clip", clipColor);
         seg.addVertex(x0, wmin, zf);
         seg.addVertex(x0, wmin, zb);
         seg.addVertex(x0, y0t, zf);
@@ -1243,7 +1271,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
 
         if (y1b > wmax) {
             Object3D seg = new Object3D(color, true);
-            seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+            seg.setTagColor("clip", clipColor);
             seg.addVertex(xpts[1], wmin, zf);
             seg.addVertex(xpts[1], wmin, zb);
             seg.addVertex(xpts[3], wmax, zf);
@@ -1264,7 +1292,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
         if (y1t > wmax) {
             if (y1b > wmin) {
                 Object3D seg = new Object3D(color, true);
-                seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+                seg.setTagColor("clip", clipColor);
                 seg.addVertex(xpts[1], wmin, zf);
                 seg.addVertex(xpts[1], wmin, zb);
                 seg.addVertex(xpts[3], wmax, zf);
@@ -1288,7 +1316,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
                 return seg;
             } else {
                 Object3D seg = new Object3D(color, true);
-                seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+                seg.setTagColor("clip", clipColor);
                 seg.addVertex(xpts[1], wmin, zf);
                 seg.addVertex(xpts[1], wmin, zb);
                 seg.addVertex(xpts[3], wmax, zf);
@@ -1311,7 +1339,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
         if (y1t > wmin) {
             if (y1b >= wmin) {
                 Object3D seg = new Object3D(color, true);
-                seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+                seg.setTagColor("clip", clipColor);
                 seg.addVertex(xpts[1], wmin, zf);
                 seg.addVertex(xpts[1], wmin, zb);
                 seg.addVertex(x1, y1t, zf);
@@ -1331,7 +1359,7 @@ public class LineRenderer3D extends AbstractCategoryRenderer3D
                 return seg;
             } else {
                 Object3D seg = new Object3D(color, true);
-                seg.setProperty(Object3D.COLOR_PREFIX + "clip", clipColor);
+                seg.setTagColor("clip", clipColor);
                 seg.addVertex(xpts[1], wmin, zf);
                 seg.addVertex(xpts[1], wmin, zb);
                 seg.addVertex(x1, y1t, zf);
@@ -128,6 +128,64 @@ public class StackedBarRenderer3D extends BarRenderer3D {
         
     }
     
+    /**
+     * Returns the faces of the bar for an item that are completely covered 
+     * by adjacent opaque bars.  We override the method to check for the 
+     * segments above and below the bar in the same stack, which share the
+     * top and base faces of the bar.
+     * 
+     * @param dataset  the dataset ({@code null} not permitted).
+     * @param series  the series index.
+     * @param row  the row index.
+     * @param column  the column index.
+     * @param barBase  the base value for the bar.
+     * @param value  the data value (top of the bar).
+     * 
+     * @return The hidden faces ({@code 0} if there are none).
+     * 
+     * @since 1.7
+     */
+    @Override
+    protected int findHiddenFaces(CategoryDataset3D dataset, int series, 
+            int row, int column, double barBase, double value) {
+        Range range = getPlot().getValueAxis().getRange();
+        double vlow = Math.min(barBase, value);
+        double vhigh = Math.max(barBase, value);
+        // a face on the edge of the axis range belongs to a cropped bar, 
+        // the segment on the other side of it is not visible
+        boolean checkBase = vlow > range.getMin() && vlow < range.getMax();
+        boolean checkTop = vhigh > range.getMin() && vhigh < range.getMax();
+        int result = 0;
+        double neg = getBase();
+        double pos = getBase();
+        for (int s = 0; s < dataset.getSeriesCount(); s++) {
+            double v = dataset.getDoubleValue(s, row, column);
+            double low, high;
+            if (v > 0.0) {
+                low = pos;
+                high = pos + v;
+                pos = high;
+            } else if (v < 0.0) {
+                high = neg;
+                low = neg + v;
+                neg = low;
+            } else {
+                continue;
+            }
+            if (s == series || getColorSource().getColor(s, row, 
+                    column).getAlpha() != 255) {
+                continue;
+            }
+            if (checkTop && low == vhigh) {
+                result |= Object3D.BAR_FACE_TOP;
+            }
+            if (checkBase && high == vlow) {
+                result |= Object3D.BAR_FACE_BASE;
+            }
+        }
+        return result;
+    }
+    
     @Override
     protected void drawItemLabels(World world, CategoryDataset3D dataset, 
             KeyedValues3DItemKey itemKey, double xw, double yw, double zw, 
@@ -153,7 +211,7 @@ public class StackedBarRenderer3D extends BarRenderer3D {
                             getItemLabelFont(), getItemLabelColor(), 
                             getItemLabelBackgroundColor(), xw + dx, 
                             yy + dy, zw, false, true);
-                    labelObj.setProperty(Object3D.ITEM_KEY, itemKey);
+                    labelObj.setItemKey(itemKey);
                     world.add(labelObj);
                 } else if (positioning.equals(
                         ItemLabelPositioning.FRONT_AND_BACK)) {
@@ -162,13 +220,13 @@ public class StackedBarRenderer3D extends BarRenderer3D {
                             getItemLabelFont(), getItemLabelColor(), 
                             getItemLabelBackgroundColor(), xw + dx, 
                             yy + dy, zw + dz, false, false);
-                    labelObj1.setProperty(Object3D.ITEM_KEY, itemKey);
+                    labelObj1.setItemKey(itemKey);
                     world.add(labelObj1);
                     Object3D labelObj2 = Object3D.createLabelObject(label, 
                             getItemLabelFont(), getItemLabelColor(), 
                             getItemLabelBackgroundColor(), xw + dx, 
                             yy + dy, zw - dz, true, false);
-                    labelObj2.setProperty(Object3D.ITEM_KEY, itemKey);
+                    labelObj2.setItemKey(itemKey);
                     world.add(labelObj2);
                 }
             }
@@ -33,7 +33,10 @@
 package com.orsoncharts.renderer.xyz;
 
 import java.awt.Color;
+import java.lang.reflect.Method;
 import com.orsoncharts.Range;
+import com.orsoncharts.axis.AbstractValueAxis3D;
+import com.orsoncharts.axis.ValueAxis3D;
 import com.orsoncharts.data.DataUtils;
 import com.orsoncharts.data.xyz.XYZDataset;
 import com.orsoncharts.graphics3d.Dimension3D;
@@ -130,6 +133,31 @@ public class AbstractXYZRenderer extends AbstractRenderer3D {
         return ComposeType.PER_ITEM;
     }
     
+    /**
+     * Returns {@code true} if the {@code composeItem()} method of this 
+     * renderer is declared by a class other than {@code base}, that is, if a 
+     * subclass of {@code base} overrides it.  Renderers that compose all 
+     * items at once use this to keep composing one item at a time for 
+     * subclasses that customise {@code composeItem()}.
+     * 
+     * @param base  the class that declares the standard implementation
+     *     ({@code null} not permitted).
+     * 
+     * @return A boolean.
+     * 
+     * @since 1.7
+     */
+    protected boolean isComposeItemOverridden(Class<?> base) {
+        try {
+            Method m = getClass().getMethod("composeItem", XYZDataset.class, 
+                    int.class, int.class, World.class, Dimension3D.class, 
+                    double.class, double.class, double.class);
+            return m.getDeclaringClass() != base;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+    
     /**
      * Adds objects to the {@code world} to represent all the data items
      * that this renderer is responsible for.  This method is only called for
@@ -221,6 +249,35 @@ public class AbstractXYZRenderer extends AbstractRenderer3D {
         return DataUtils.findZRange(dataset);
     }
     
+    /**
+     * Translates a block of data values to world coordinates, writing the 
+     * results to {@code dst} (the source and destination may be the same 
+     * array).  Axes derived from {@link AbstractValueAxis3D} translate the 
+     * whole block in one call, for other axes this method calls 
+     * {@link ValueAxis3D#translateToWorld(double, double)} for each value.
+     * 
+     * @param axis  the axis ({@code null} not permitted).
+     * @param src  the data values ({@code null} not permitted).
+     * @param off  the index of the first value to translate.
+     * @param len  the number of values to translate.
+     * @param length  the box side length.
+     * @param dst  the array for the world coordinates ({@code null} not 
+     *     permitted).
+     * 
+     * @since 1.7
+     */
+    protected static void translateToWorld(ValueAxis3D axis, double[] src, 
+            int off, int len, double length, double[] dst) {
+        if (axis instanceof AbstractValueAxis3D) {
+            ((AbstractValueAxis3D) axis).translateToWorld(src, off, len, 
+                    length, dst);
+            return;
+        }
+        for (int i = off; i < off + len; i++) {
+            dst[i] = axis.translateToWorld(src[i], length);
+        }
+    }
+    
     /**
      * Tests this renderer for equality with an arbitrary object.
      * 
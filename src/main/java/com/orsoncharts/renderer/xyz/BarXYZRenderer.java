@@ -34,15 +34,19 @@ package com.orsoncharts.renderer.xyz;
 
 import java.awt.Color;
 import java.io.Serializable;
+import java.util.Arrays;
 
 import com.orsoncharts.axis.Axis3D;
 import com.orsoncharts.Range;
 import com.orsoncharts.data.DataUtils;
 import com.orsoncharts.data.xyz.XYZDataset;
+import com.orsoncharts.data.xyz.XYZItemKey;
 import com.orsoncharts.plot.XYZPlot;
 import com.orsoncharts.graphics3d.Dimension3D;
+import com.orsoncharts.graphics3d.InstancedObject3D;
 import com.orsoncharts.graphics3d.Object3D;
 import com.orsoncharts.graphics3d.World;
+import com.orsoncharts.renderer.ComposeType;
 import com.orsoncharts.renderer.Renderer3DChangeEvent;
 import com.orsoncharts.util.ObjectUtils;
 
@@ -56,6 +60,10 @@ import com.orsoncharts.util.ObjectUtils;
  * (refer to {@code XYZBarChart3DDemo1.java} for the code to generate 
  * the above chart).
  * <br><br>
+ * Since version 1.7 the bars are composed all at once as a single 
+ * {@link InstancedObject3D} (see {@link #getComposeType()}).  Subclasses
+ * that override {@code composeItem()} are still composed one item at a time.
+ * <br><br>
  * NOTE: This class is serializable, but the serialization format is subject 
  * to change in future releases and should not be relied upon for persisting 
  * instances of this class.
@@ -279,7 +287,238 @@ public class BarXYZRenderer extends AbstractXYZRenderer implements XYZRenderer,
     }
 
     /**
-     * Adds a single bar representing one item from the dataset.
+     * Returns the compose-type for the renderer.  Here the value is
+     * {@code ComposeType.ALL} which means the plot will call the 
+     * {@link #composeAll(com.orsoncharts.plot.XYZPlot, 
+     * com.orsoncharts.graphics3d.World, com.orsoncharts.graphics3d.Dimension3D,
+     * double, double, double)} method for composing the chart.  All the 
+     * bars are added to the world as a single {@link InstancedObject3D}, 
+     * which uses much less memory than one object per data item.  The side
+     * faces of opaque bars that are covered by an adjacent bar are omitted.
+     * <br><br>
+     * If a subclass overrides 
+     * {@link #composeItem(XYZDataset, int, int, World, Dimension3D, double, double, double)},
+     * the value is {@code ComposeType.PER_ITEM} (as in releases before 1.7) 
+     * so that the overridden method is still called for each item.
+     * 
+     * @return The compose type (never {@code null}). 
+     * 
+     * @since 1.7
+     */
+    @Override
+    public ComposeType getComposeType() {
+        if (isComposeItemOverridden(BarXYZRenderer.class)) {
+            return ComposeType.PER_ITEM;
+        }
+        return ComposeType.ALL;
+    }
+    
+    /**
+     * Composes all the data items for the plot's dataset, adding the bars 
+     * to the world as a single {@link InstancedObject3D}.  When all the bars
+     * are opaque, only their outward facing faces are created and where 
+     * the bars for two items touch along the x or z-axis (for example, when 
+     * the data forms a regular grid with the bar widths equal to the grid 
+     * spacing) the side face of a bar that is covered by the neighbouring 
+     * bar is hidden.
+     * 
+     * @param plot  the plot ({@code null} not permitted).
+     * @param world  the world ({@code null} not permitted).
+     * @param dimensions  the dimensions ({@code null} not permitted).
+     * @param xOffset  the x-offset.
+     * @param yOffset  the y-offset.
+     * @param zOffset  the z-offset.
+     * 
+     * @since 1.7
+     */
+    @Override
+    public void composeAll(XYZPlot plot, World world, Dimension3D dimensions, 
+            double xOffset, double yOffset, double zOffset) {
+        XYZDataset dataset = plot.getDataset();
+        // translucent bars show their inside faces, so the faces for both
+        // windings are required unless every bar is opaque
+        boolean allOpaque = true;
+        search:
+        for (int series = 0; series < dataset.getSeriesCount(); series++) {
+            for (int item = 0; item < dataset.getItemCount(series); item++) {
+                if (getColorSource().getColor(series, item).getAlpha() 
+                        != 255) {
+                    allOpaque = false;
+                    break search;
+                }
+            }
+        }
+        Object3D template;
+        if (allOpaque) {
+            template = Object3D.createBar(1.0, 1.0, 0.0, 1.0, 0.0, 0.0, 
+                    Color.BLACK, Color.BLACK, Color.BLACK, false, 0);
+        } else {
+            template = Object3D.createBar(1.0, 1.0, 0.0, 1.0, 0.0, 0.0, 
+                    Color.BLACK, Color.BLACK, Color.BLACK, false);
+        }
+        InstancedObject3D bars = new InstancedObject3D(template);
+        // the world bounds (x0, x1, y0, y1, z0, z1) of each bar, used to 
+        // find the faces that are covered by neighbouring bars
+        double[] bounds = new double[6 * 64];
+        double[] b = new double[6];
+        for (int series = 0; series < dataset.getSeriesCount(); series++) {
+            for (int item = 0; item < dataset.getItemCount(series); item++) {
+                int i = composeBar(dataset, series, item, world, bars, b, 
+                        dimensions, xOffset, yOffset, zOffset);
+                if (i < 0 || !allOpaque) {
+                    continue;
+                }
+                if (i * 6 == bounds.length) {
+                    bounds = Arrays.copyOf(bounds, i * 12);
+                }
+                System.arraycopy(b, 0, bounds, i * 6, 6);
+            }
+        }
+        if (bars.getInstanceCount() > 0) {
+            if (allOpaque) {
+                hideCoveredFaces(bars, bounds);
+            }
+            world.add(bars);
+        }
+    }
+    
+    /**
+     * Hides the side faces of (opaque) bars that are completely covered by 
+     * an adjacent bar.
+     * 
+     * @param bars  the bars.
+     * @param bounds  the world bounds for each bar.
+     */
+    private void hideCoveredFaces(InstancedObject3D bars, double[] bounds) {
+        int count = bars.getInstanceCount();
+        int[] hidden = new int[count];
+        // bars that touch along the x-axis share an x-coordinate and the 
+        // same z-extent, and vice versa, so the bars are hashed on their
+        // minimum x and z edges (bars with the same edge are chained)
+        int[] nextX = new int[count];
+        int[] nextZ = new int[count];
+        int[] byMinX = edgeTable(bounds, count, 0, 4, nextX);
+        int[] byMinZ = edgeTable(bounds, count, 4, 0, nextZ);
+        for (int i = 0; i < count; i++) {
+            int k = i * 6;
+            int slot = findEdge(byMinX, bounds, 0, 4, bounds[k + 1], 
+                    bounds[k + 4], bounds[k + 5]);
+            for (int j = byMinX[slot]; j >= 0; j = nextX[j]) {
+                if (covers(bounds, j, i)) {
+                    hidden[i] |= Object3D.BAR_FACE_MAX_X;
+                }
+                if (covers(bounds, i, j)) {
+                    hidden[j] |= Object3D.BAR_FACE_MIN_X;
+                }
+            }
+            slot = findEdge(byMinZ, bounds, 4, 0, bounds[k + 5], bounds[k], 
+                    bounds[k + 1]);
+            for (int j = byMinZ[slot]; j >= 0; j = nextZ[j]) {
+                if (covers(bounds, j, i)) {
+                    hidden[i] |= Object3D.BAR_FACE_MAX_Z;
+                }
+                if (covers(bounds, i, j)) {
+                    hidden[j] |= Object3D.BAR_FACE_MIN_Z;
+                }
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (hidden[i] != 0) {
+                bars.setHiddenFaces(i, hidden[i]);
+            }
+        }
+    }
+    
+    /**
+     * Creates an open addressing hash table of the bars, keyed on one edge
+     * of each bar: the coordinate {@code bounds[i * 6 + v]} and the extent
+     * from {@code bounds[i * 6 + lo]} to {@code bounds[i * 6 + lo + 1]}.
+     * Each slot holds the first bar with the key (or {@code -1}), the 
+     * remaining bars with the same key are chained through {@code next}.
+     * 
+     * @param bounds  the world bounds for each bar.
+     * @param count  the number of bars.
+     * @param v  the offset of the edge coordinate in the bounds.
+     * @param lo  the offset of the minimum of the edge extent.
+     * @param next  an array to hold the chains (length {@code count}).
+     * 
+     * @return The table. 
+     */
+    private static int[] edgeTable(double[] bounds, int count, int v, int lo,
+            int[] next) {
+        int[] table = new int[Integer.highestOneBit(Math.max(count, 1)) * 4];
+        Arrays.fill(table, -1);
+        for (int i = count - 1; i >= 0; i--) {
+            int k = i * 6;
+            int slot = findEdge(table, bounds, v, lo, bounds[k + v], 
+                    bounds[k + lo], bounds[k + lo + 1]);
+            next[i] = table[slot];
+            table[slot] = i;
+        }
+        return table;
+    }
+    
+    /**
+     * Returns the slot in an edge table (see 
+     * {@link #edgeTable(double[], int, int, int, int[])}) for the specified
+     * edge, this is either the slot holding the bars with that edge or the
+     * empty slot where they would be added.  Coordinates are compared using
+     * their bit patterns, so no boxed keys are required.
+     * 
+     * @param table  the table.
+     * @param bounds  the world bounds for each bar.
+     * @param v  the offset of the edge coordinate in the bounds.
+     * @param lo  the offset of the minimum of the edge extent.
+     * @param c  the edge coordinate.
+     * @param min  the minimum of the edge extent.
+     * @param max  the maximum of the edge extent.
+     * 
+     * @return The slot. 
+     */
+    private static int findEdge(int[] table, double[] bounds, int v, int lo,
+            double c, double min, double max) {
+        long bc = Double.doubleToLongBits(c);
+        long bmin = Double.doubleToLongBits(min);
+        long bmax = Double.doubleToLongBits(max);
+        long h = (bc * 31 + bmin) * 31 + bmax;
+        int hash = (int) (h ^ (h >>> 32));
+        hash ^= (hash >>> 16);
+        hash *= 0x85ebca6b;
+        hash ^= (hash >>> 13);
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] >= 0) {
+            int k = table[slot] * 6;
+            if (Double.doubleToLongBits(bounds[k + v]) == bc 
+                    && Double.doubleToLongBits(bounds[k + lo]) == bmin
+                    && Double.doubleToLongBits(bounds[k + lo + 1]) == bmax) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+    
+    /**
+     * Returns {@code true} if the y-extent of bar {@code i} covers the 
+     * y-extent of bar {@code j}.
+     * 
+     * @param bounds  the world bounds for each bar.
+     * @param i  the index of the covering bar.
+     * @param j  the index of the covered bar.
+     * 
+     * @return A boolean. 
+     */
+    private static boolean covers(double[] bounds, int i, int j) {
+        return bounds[i * 6 + 2] <= bounds[j * 6 + 2] 
+                && bounds[i * 6 + 3] >= bounds[j * 6 + 3];
+    }
+
+    /**
+     * Adds a single bar representing one item from the dataset.  This 
+     * renderer normally composes all items at once, and the {@link XYZPlot}
+     * class only calls this method when a subclass overrides it (see 
+     * {@link #getComposeType()}).
      * 
      * @param dataset  the dataset.
      * @param series  the series index.
@@ -294,29 +533,61 @@ public class BarXYZRenderer extends AbstractXYZRenderer implements XYZRenderer,
     public void composeItem(XYZDataset dataset, int series, int item, 
             World world, Dimension3D dimensions, double xOffset, double yOffset, 
             double zOffset) {
+        composeBar(dataset, series, item, world, null, null, dimensions, 
+                xOffset, yOffset, zOffset);
+    }
+    
+    /**
+     * Constructs the bar for one item from the specified dataset.  If 
+     * {@code bars} is not {@code null} the bar is added to it as a new 
+     * instance (and the world bounds of the bar are written to 
+     * {@code bounds} as x0, x1, y0, y1, z0, z1), otherwise a new object is 
+     * added to the world.
+     * 
+     * @param dataset  the dataset.
+     * @param series  the series index.
+     * @param item  the item index.
+     * @param world  the world used to model the 3D chart.
+     * @param bars  the instanced object for the bars ({@code null} 
+     *     permitted).
+     * @param bounds  an array to receive the world bounds of the bar 
+     *     (required when {@code bars} is not {@code null}).
+     * @param dimensions  the plot dimensions in 3D.
+     * @param xOffset  the x-offset.
+     * @param yOffset  the y-offset.
+     * @param zOffset  the z-offset.
+     * 
+     * @return The instance index for the bar, or {@code -1} if no instance
+     *     was added.
+     */
+    @SuppressWarnings("unchecked")
+    private int composeBar(XYZDataset dataset, int series, int item, 
+            World world, InstancedObject3D bars, double[] bounds, 
+            Dimension3D dimensions, double xOffset, double yOffset, 
+            double zOffset) {
 
-        XYZPlot plot = getPlot();
-        Axis3D xAxis = plot.getXAxis();
-        Axis3D yAxis = plot.getYAxis();
-        Axis3D zAxis = plot.getZAxis();
         double x = dataset.getX(series, item);
         double y = dataset.getY(series, item);
         double z = dataset.getZ(series, item);
         double xdelta = this.barXWidth / 2.0;
         double zdelta = this.barZWidth / 2.0;
 
+        XYZPlot plot = getPlot();
+        Axis3D xAxis = plot.getXAxis();
+        Axis3D yAxis = plot.getYAxis();
+        Axis3D zAxis = plot.getZAxis();
         double x0 = xAxis.getRange().peggedValue(x - xdelta);
         double x1 = xAxis.getRange().peggedValue(x + xdelta);
         double z0 = zAxis.getRange().peggedValue(z - zdelta);
         double z1 = zAxis.getRange().peggedValue(z + zdelta);
         if ((x1 <= x0) || (z1 <= z0)) {
-            return;
+            return -1;
         }
         double ylow = Math.min(this.base, y);
         double yhigh = Math.max(this.base, y);
         Range range = yAxis.getRange();
         if (!range.intersects(ylow, yhigh)) {
-            return; // the bar is not visible for the given axis range
+            return -1; // the bar is not visible for the given axis range
         }
         double ybase = range.peggedValue(ylow);
         double ytop = range.peggedValue(yhigh);
@@ -328,6 +599,15 @@ public class BarXYZRenderer extends AbstractXYZRenderer implements XYZRenderer,
         double wy1 = yAxis.translateToWorld(ytop, dimensions.getHeight());
         double wz0 = zAxis.translateToWorld(z0, dimensions.getDepth());
         double wz1 = zAxis.translateToWorld(z1, dimensions.getDepth());
+        // the bars have single-sided faces, so the coordinates are ordered 
+        // to keep the faces pointing outwards when an axis is inverted
+        boolean flipped = wy1 < wy0;
+        double wxmin = Math.min(wx0, wx1);
+        double wxmax = Math.max(wx0, wx1);
+        double wymin = Math.min(wy0, wy1);
+        double wymax = Math.max(wy0, wy1);
+        double wzmin = Math.min(wz0, wz1);
+        double wzmax = Math.max(wz0, wz1);
     
         Color color = getColorSource().getColor(series, item);
         Color baseColor = null;
@@ -346,11 +626,39 @@ public class BarXYZRenderer extends AbstractXYZRenderer implements XYZRenderer,
             topColor = color;
         }
 
-        Object3D bar = Object3D.createBar(wx1 - wx0, wz1 - wz0, 
-                ((wx0 + wx1) / 2.0) + xOffset, wy1 + yOffset, 
-                ((wz0 + wz1) / 2.0) + zOffset, wy0 + yOffset, color, 
-                baseColor, topColor, inverted);
+        XYZItemKey itemKey = new XYZItemKey(dataset.getSeriesKey(series), 
+                item);
+        if (bars != null) {
+            int i = bars.addInstance((wxmin + wxmax) / 2.0 + xOffset, 
+                    wymin + yOffset, (wzmin + wzmax) / 2.0 + zOffset, 
+                    wxmax - wxmin, wymax - wymin, wzmax - wzmin, color, 
+                    itemKey);
+            boolean swap = inverted != flipped;
+            bars.setTagColor(i, "c0", swap ? topColor : baseColor);
+            bars.setTagColor(i, "c1", swap ? baseColor : topColor);
+            bounds[0] = wxmin;
+            bounds[1] = wxmax;
+            bounds[2] = wymin;
+            bounds[3] = wymax;
+            bounds[4] = wzmin;
+            bounds[5] = wzmax;
+            return i;
+        }
+        Object3D bar;
+        if (color.getAlpha() == 255) {
+            bar = Object3D.createBar(wxmax - wxmin, wzmax - wzmin, 
+                    ((wxmin + wxmax) / 2.0) + xOffset, wy1 + yOffset, 
+                    ((wzmin + wzmax) / 2.0) + zOffset, wy0 + yOffset, color, 
+                    baseColor, topColor, inverted, 0);
+        } else {
+            bar = Object3D.createBar(wxmax - wxmin, wzmax - wzmin, 
+                    ((wxmin + wxmax) / 2.0) + xOffset, wy1 + yOffset, 
+                    ((wzmin + wzmax) / 2.0) + zOffset, wy0 + yOffset, color, 
+                    baseColor, topColor, inverted);
+        }
+        bar.setItemKey(itemKey);
         world.add(bar);
+        return -1;
     }
 
     /**
@@ -35,13 +35,21 @@ package com.orsoncharts.renderer.xyz;
 import java.awt.Color;
 import java.io.Serializable;
 
+import com.orsoncharts.Range;
 import com.orsoncharts.axis.Axis3D;
+import com.orsoncharts.axis.ValueAxis3D;
+import com.orsoncharts.data.Dataset3DChangeEvent;
+import com.orsoncharts.data.Dataset3DChangeListener;
 import com.orsoncharts.data.xyz.XYZDataset;
+import com.orsoncharts.data.xyz.XYZItemKey;
 import com.orsoncharts.plot.XYZPlot;
 import com.orsoncharts.graphics3d.Dimension3D;
 import com.orsoncharts.graphics3d.Line3D;
 import com.orsoncharts.graphics3d.LineObject3D;
+import com.orsoncharts.graphics3d.Object3D;
 import com.orsoncharts.graphics3d.World;
+import com.orsoncharts.renderer.ComposeType;
+import com.orsoncharts.renderer.Renderer3DChangeEvent;
 
 /**
  * A renderer that draws 3D lines on an {@link XYZPlot} using data from an
@@ -53,6 +61,12 @@ import com.orsoncharts.graphics3d.World;
  * (refer to {@code XYZLineChart3DDemo1.java} for the code to generate 
  * the above chart).
  * <br><br>
+ * For series with a very large number of items, most line segments are 
+ * too short to see.  Setting a positive decimation tolerance (see 
+ * {@link #setDecimationTolerance(double)}) simplifies each series (in world
+ * coordinates, using the Douglas-Peucker algorithm) before the lines are
+ * created, so that far fewer segments are drawn with little visible change.
+ * <br><br>
  * NOTE: This class is serializable, but the serialization format is subject 
  * to change in future releases and should not be relied upon for persisting 
  * instances of this class.
@@ -63,10 +77,299 @@ import com.orsoncharts.graphics3d.World;
 public class LineXYZRenderer extends AbstractXYZRenderer implements XYZRenderer,
         Serializable {
 
+    /** 
+     * The maximum distance (in world units) between an item and the 
+     * simplified line, or {@code 0.0} to draw every segment.
+     * 
+     * @since 1.7
+     */
+    private double decimationTolerance;
+    
+    /** 
+     * The most recent simplification of the dataset (cached so that it is 
+     * only repeated when the data or axis ranges change).
+     */
+    private transient Decimation decimation;
+    
+    /** 
+     * The dataset that {@code decimationListener} is registered with (or 
+     * {@code null}).
+     */
+    private transient XYZDataset<?> decimationDataset;
+    
+    /** 
+     * A listener that discards the cached simplification when the dataset 
+     * changes.
+     */
+    private transient Dataset3DChangeListener decimationListener;
+    
     /**
      * Creates a new default instance.
      */
     public LineXYZRenderer() {
+        this.decimationTolerance = 0.0;
+    }
+
+    /**
+     * Returns the decimation tolerance, which is the maximum distance (in 
+     * world units) between any item in a series and the simplified line that
+     * is drawn for the series.  The default value is {@code 0.0}, which 
+     * means no simplification is performed.
+     * 
+     * @return The decimation tolerance (in world units).
+     * 
+     * @since 1.7
+     */
+    public double getDecimationTolerance() {
+        return this.decimationTolerance;
+    }
+    
+    /**
+     * Sets the decimation tolerance and sends a {@link Renderer3DChangeEvent}
+     * to all registered listeners.  The tolerance is specified in world 
+     * units, so it scales with the plot dimensions (which have a default 
+     * size of 10 world units along the x-axis) and is independent of the 
+     * axis ranges.  A value around {@code 0.01} removes segments that are 
+     * too small to see at typical chart sizes.
+     * 
+     * @param tolerance  the tolerance (zero or positive).
+     * 
+     * @since 1.7
+     */
+    public void setDecimationTolerance(double tolerance) {
+        if (tolerance < 0.0) {
+            throw new IllegalArgumentException(
+                    "Requires 'tolerance' >= 0.0.");
+        }
+        this.decimationTolerance = tolerance;
+        fireChangeEvent(true);
+    }
+    
+    /**
+     * Returns the compose-type for the renderer.  This is 
+     * {@code ComposeType.PER_ITEM} unless a decimation tolerance is set, in
+     * which case it is {@code ComposeType.ALL} because the simplification 
+     * of a series requires all its items.
+     * 
+     * @return The compose type (never {@code null}). 
+     * 
+     * @since 1.7
+     */
+    @Override
+    public ComposeType getComposeType() {
+        if (this.decimationTolerance > 0.0) {
+            return ComposeType.ALL;
+        }
+        return ComposeType.PER_ITEM;
+    }
+    
+    /**
+     * Composes the lines for all series in the plot's dataset, simplifying
+     * each series first according to the decimation tolerance.  Each line
+     * segment carries the item key for the item at its end point, so that 
+     * it can be identified when hit-testing (for a simplified series, this
+     * is the last of the items that the segment replaces).
+     * 
+     * @param plot  the plot ({@code null} not permitted).
+     * @param world  the world ({@code null} not permitted).
+     * @param dimensions  the dimensions ({@code null} not permitted).
+     * @param xOffset  the x-offset.
+     * @param yOffset  the y-offset.
+     * @param zOffset  the z-offset.
+     * 
+     * @since 1.7
+     */
+    @Override
+    public void composeAll(XYZPlot plot, World world, Dimension3D dimensions, 
+            double xOffset, double yOffset, double zOffset) {
+        XYZDataset<?> dataset = plot.getDataset();
+        int[][] items = decimate(dataset, plot, dimensions);
+        for (int series = 0; series < items.length; series++) {
+            int[] kept = items[series];
+            for (int i = 1; i < kept.length; i++) {
+                composeSegment(dataset, series, kept[i - 1], kept[i], world, 
+                        dimensions, xOffset, yOffset, zOffset);
+            }
+        }
+    }
+    
+    /**
+     * Returns the indices of the items to keep for each series in the 
+     * dataset, reusing the cached result if the dataset, axis ranges, 
+     * dimensions and tolerance are unchanged.
+     * 
+     * @param dataset  the dataset.
+     * @param plot  the plot.
+     * @param dimensions  the dimensions.
+     * 
+     * @return The item indices for each series. 
+     */
+    private int[][] decimate(XYZDataset<?> dataset, XYZPlot plot, 
+            Dimension3D dimensions) {
+        ValueAxis3D xAxis = plot.getXAxis();
+        ValueAxis3D yAxis = plot.getYAxis();
+        ValueAxis3D zAxis = plot.getZAxis();
+        Decimation d = this.decimation;
+        if (d != null && d.isFor(dataset, xAxis.getRange(), yAxis.getRange(), 
+                zAxis.getRange(), dimensions, this.decimationTolerance)) {
+            return d.items;
+        }
+        if (dataset != this.decimationDataset) {
+            if (this.decimationListener == null) {
+                this.decimationListener = new Dataset3DChangeListener() {
+                    @Override
+                    public void datasetChanged(Dataset3DChangeEvent event) {
+                        LineXYZRenderer.this.decimation = null;
+                    }
+                };
+            }
+            if (this.decimationDataset != null) {
+                this.decimationDataset.removeChangeListener(
+                        this.decimationListener);
+            }
+            dataset.addChangeListener(this.decimationListener);
+            this.decimationDataset = dataset;
+        }
+        int[][] items = new int[dataset.getSeriesCount()][];
+        for (int series = 0; series < items.length; series++) {
+            int n = dataset.getItemCount(series);
+            double[] wx = new double[n];
+            double[] wy = new double[n];
+            double[] wz = new double[n];
+            for (int item = 0; item < n; item++) {
+                wx[item] = dataset.getX(series, item);
+                wy[item] = dataset.getY(series, item);
+                wz[item] = dataset.getZ(series, item);
+            }
+            translateToWorld(xAxis, wx, 0, n, dimensions.getWidth(), wx);
+            translateToWorld(yAxis, wy, 0, n, dimensions.getHeight(), wy);
+            translateToWorld(zAxis, wz, 0, n, dimensions.getDepth(), wz);
+            items[series] = simplify(wx, wy, wz, this.decimationTolerance);
+        }
+        this.decimation = new Decimation(dataset, xAxis.getRange(), 
+                yAxis.getRange(), zAxis.getRange(), dimensions, 
+                this.decimationTolerance, items);
+        return items;
+    }
+    
+    /**
+     * Simplifies a polyline using the Douglas-Peucker algorithm, returning 
+     * the indices of the points to keep.  Points with a {@code NaN} 
+     * coordinate are always kept (along with their neighbours) so that gaps 
+     * in a series are preserved.
+     * 
+     * @param x  the x-coordinates.
+     * @param y  the y-coordinates.
+     * @param z  the z-coordinates.
+     * @param tolerance  the maximum distance between a removed point and 
+     *     the simplified line.
+     * 
+     * @return The indices of the points to keep (in ascending order). 
+     */
+    static int[] simplify(double[] x, double[] y, double[] z, 
+            double tolerance) {
+        int n = x.length;
+        boolean[] keep = new boolean[n];
+        if (n == 0) {
+            return new int[0];
+        }
+        keep[0] = true;
+        keep[n - 1] = true;
+        for (int i = 0; i < n; i++) {
+            if (Double.isNaN(x[i] + y[i] + z[i])) {
+                keep[i] = true;
+                keep[Math.max(i - 1, 0)] = true;
+                keep[Math.min(i + 1, n - 1)] = true;
+            }
+        }
+        double tol2 = tolerance * tolerance;
+        int[] stack = new int[64];
+        int top = 0;
+        int start = 0;
+        for (int end = 1; end < n; end++) {
+            if (!keep[end]) {
+                continue;
+            }
+            if (end - start > 1 && !Double.isNaN(x[start] + y[start] 
+                    + z[start] + x[end] + y[end] + z[end])) {
+                stack[top++] = start;
+                stack[top++] = end;
+            }
+            while (top > 0) {
+                int e = stack[--top];
+                int s = stack[--top];
+                int index = -1;
+                double max = tol2;
+                for (int i = s + 1; i < e; i++) {
+                    double d2 = distanceSq(x, y, z, i, s, e);
+                    if (d2 > max) {
+                        max = d2;
+                        index = i;
+                    }
+                }
+                if (index >= 0) {
+                    keep[index] = true;
+                    if (top + 4 > stack.length) {
+                        int[] larger = new int[stack.length * 2];
+                        System.arraycopy(stack, 0, larger, 0, top);
+                        stack = larger;
+                    }
+                    if (index - s > 1) {
+                        stack[top++] = s;
+                        stack[top++] = index;
+                    }
+                    if (e - index > 1) {
+                        stack[top++] = index;
+                        stack[top++] = e;
+                    }
+                }
+            }
+            start = end;
+        }
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (keep[i]) {
+                count++;
+            }
+        }
+        int[] result = new int[count];
+        count = 0;
+        for (int i = 0; i < n; i++) {
+            if (keep[i]) {
+                result[count++] = i;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the square of the distance between point {@code i} and the 
+     * line segment from point {@code s} to point {@code e}.
+     * 
+     * @param x  the x-coordinates.
+     * @param y  the y-coordinates.
+     * @param z  the z-coordinates.
+     * @param i  the index of the point.
+     * @param s  the index of the start of the segment.
+     * @param e  the index of the end of the segment.
+     * 
+     * @return The squared distance. 
+     */
+    private static double distanceSq(double[] x, double[] y, double[] z, 
+            int i, int s, int e) {
+        double dx = x[e] - x[s];
+        double dy = y[e] - y[s];
+        double dz = z[e] - z[s];
+        double px = x[i] - x[s];
+        double py = y[i] - y[s];
+        double pz = z[i] - z[s];
+        double len2 = dx * dx + dy * dy + dz * dz;
+        double t = len2 > 0.0 ? (px * dx + py * dy + pz * dz) / len2 : 0.0;
+        t = Math.max(0.0, Math.min(1.0, t));
+        px -= t * dx;
+        py -= t * dy;
+        pz -= t * dz;
+        return px * px + py * py + pz * pz;
     }
 
     /**
@@ -89,17 +392,39 @@ public class LineXYZRenderer extends AbstractXYZRenderer implements XYZRenderer,
         if (item == 0) { // we are connecting lines between points, so there
             return;      // is nothing to do for item 0
         }
+        composeSegment(dataset, series, item - 1, item, world, dimensions, 
+                xOffset, yOffset, zOffset);
+    }
+    
+    /**
+     * Adds a line segment between two items from the same series.  The 
+     * color and item key for the segment are those of the end item.
+     * 
+     * @param dataset  the dataset.
+     * @param series  the series index.
+     * @param item0  the index of the item at the start of the segment.
+     * @param item1  the index of the item at the end of the segment.
+     * @param world  the world used to model the 3D chart.
+     * @param dimensions  the plot dimensions in 3D.
+     * @param xOffset  the x-offset.
+     * @param yOffset  the y-offset.
+     * @param zOffset  the z-offset.
+     */
+    @SuppressWarnings("unchecked")
+    private void composeSegment(XYZDataset<?> dataset, int series, int item0, 
+            int item1, World world, Dimension3D dimensions, double xOffset, 
+            double yOffset, double zOffset) {
         XYZPlot plot = getPlot();
         Axis3D xAxis = plot.getXAxis();
         Axis3D yAxis = plot.getYAxis();
         Axis3D zAxis = plot.getZAxis();
-        double x1 = dataset.getX(series, item);
-        double y1 = dataset.getY(series, item);
-        double z1 = dataset.getZ(series, item);
+        double x1 = dataset.getX(series, item1);
+        double y1 = dataset.getY(series, item1);
+        double z1 = dataset.getZ(series, item1);
 
-        double x0 = dataset.getX(series, item - 1);
-        double y0 = dataset.getY(series, item - 1);
-        double z0 = dataset.getZ(series, item - 1);
+        double x0 = dataset.getX(series, item0);
+        double y0 = dataset.getY(series, item0);
+        double z0 = dataset.getZ(series, item0);
         
         double wx0 = xAxis.translateToWorld(x0, dimensions.getWidth());
         double wx1 = xAxis.translateToWorld(x1, dimensions.getWidth());
@@ -112,7 +437,7 @@ public class LineXYZRenderer extends AbstractXYZRenderer implements XYZRenderer,
                 dimensions.getWidth(), 0, dimensions.getHeight(), 0,
                 dimensions.getDepth());
         if (line != null) {
-            Color color = getColorSource().getColor(series, item);
+            Color color = getColorSource().getColor(series, item1);
             LineObject3D line3D = new LineObject3D(
                     (float) (line.getStart().getX() + xOffset), 
                     (float) (line.getStart().getY() + yOffset), 
@@ -120,6 +445,8 @@ public class LineXYZRenderer extends AbstractXYZRenderer implements XYZRenderer,
                     (float) (line.getEnd().getX() + xOffset), 
                     (float) (line.getEnd().getY() + yOffset), 
                     (float) (line.getEnd().getZ() + zOffset), color);
+            line3D.setItemKey(new XYZItemKey(
+                    dataset.getSeriesKey(series), item1));
             world.add(line3D);
         }
     }
@@ -140,8 +467,60 @@ public class LineXYZRenderer extends AbstractXYZRenderer implements XYZRenderer,
             return false;
         }
         LineXYZRenderer that = (LineXYZRenderer) obj;
+        if (this.decimationTolerance != that.decimationTolerance) {
+            return false;
+        }
         return super.equals(obj);
     }
 
-}
+    /**
+     * A cached simplification of the series in a dataset, along with the 
+     * inputs used to create it.
+     */
+    private static final class Decimation {
+        
+        /** The dataset. */
+        final XYZDataset<?> dataset;
+        
+        /** The x-axis range. */
+        final Range xRange;
+        
+        /** The y-axis range. */
+        final Range yRange;
+        
+        /** The z-axis range. */
+        final Range zRange;
+        
+        /** The plot dimensions. */
+        final Dimension3D dimensions;
+        
+        /** The tolerance. */
+        final double tolerance;
+        
+        /** The indices of the items to keep for each series. */
+        final int[][] items;
+        
+        Decimation(XYZDataset<?> dataset, Range xRange, Range yRange, 
+                Range zRange, Dimension3D dimensions, double tolerance, 
+                int[][] items) {
+            this.dataset = dataset;
+            this.xRange = xRange;
+            this.yRange = yRange;
+            this.zRange = zRange;
+            this.dimensions = dimensions;
+            this.tolerance = tolerance;
+            this.items = items;
+        }
+        
+        boolean isFor(XYZDataset<?> dataset, Range xRange, Range yRange, 
+                Range zRange, Dimension3D dimensions, double tolerance) {
+            return this.dataset == dataset && this.tolerance == tolerance
+                    && this.xRange.equals(xRange) 
+                    && this.yRange.equals(yRange) 
+                    && this.zRange.equals(zRange) 
+                    && this.dimensions.equals(dimensions);
+        }
+        
+    }
 
+}
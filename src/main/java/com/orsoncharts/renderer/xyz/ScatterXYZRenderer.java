@@ -36,14 +36,18 @@ import java.awt.Color;
 import java.io.Serializable;
 
 import com.orsoncharts.Chart3DFactory;
-import com.orsoncharts.axis.Axis3D;
+import com.orsoncharts.axis.ValueAxis3D;
 import com.orsoncharts.data.xyz.XYZDataset;
 import com.orsoncharts.data.xyz.XYZItemKey;
 import com.orsoncharts.plot.XYZPlot;
 import com.orsoncharts.graphics3d.Dimension3D;
+import com.orsoncharts.graphics3d.InstancedObject3D;
 import com.orsoncharts.graphics3d.Object3D;
 import com.orsoncharts.graphics3d.Offset3D;
+import com.orsoncharts.graphics3d.SpriteFace;
+import com.orsoncharts.graphics3d.SpriteShape;
 import com.orsoncharts.graphics3d.World;
+import com.orsoncharts.renderer.ComposeType;
 import com.orsoncharts.renderer.Renderer3DChangeEvent;
 import com.orsoncharts.util.ArgChecks;
 
@@ -61,6 +65,11 @@ import com.orsoncharts.util.ArgChecks;
  * {@link Chart3DFactory#createScatterChart(String, String, XYZDataset, String, String, String)}
  * method.
  * <br><br>
+ * Since version 1.7 the items are composed all at once, as a single 
+ * {@link InstancedObject3D} for cubes or a single object for sprites (see 
+ * {@link #getComposeType()}).  Subclasses that override 
+ * {@code composeItem()} are still composed one item at a time.
+ * <br><br>
  * NOTE: This class is serializable, but the serialization format is subject 
  * to change in future releases and should not be relied upon for persisting 
  * instances of this class.
@@ -75,6 +84,12 @@ public class ScatterXYZRenderer extends AbstractXYZRenderer
     /** The offsets for item labels, as a percentage of the size. */
     private Offset3D itemLabelOffsetPercent;
     
+    /** 
+     * The sprite shape used to represent each data point, or {@code null} 
+     * if data points are represented by cubes.
+     */
+    private SpriteShape spriteShape;
+    
     /**
      * Creates a new instance with default attribute values.
      */
@@ -82,6 +97,7 @@ public class ScatterXYZRenderer extends AbstractXYZRenderer
         super();
         this.size = 0.10;
         this.itemLabelOffsetPercent = new Offset3D(0.0, 1.0, 0.0);
+        this.spriteShape = null;
     }
 
     /**
@@ -132,11 +148,137 @@ public class ScatterXYZRenderer extends AbstractXYZRenderer
         fireChangeEvent(true);
     }
     
+    /**
+     * Returns the sprite shape used to represent each data point.  The 
+     * default value is {@code null}, which means that each data point is 
+     * represented by a cube.
+     * 
+     * @return The sprite shape (possibly {@code null}).
+     * 
+     * @since 1.7
+     */
+    public SpriteShape getSpriteShape() {
+        return this.spriteShape;
+    }
+    
+    /**
+     * Sets the sprite shape used to represent each data point and sends a
+     * {@link Renderer3DChangeEvent} to all registered listeners.  When a 
+     * shape is set, each data point is drawn as a flat 2D marker (see 
+     * {@link SpriteFace}) with the size (in world units) scaled for 
+     * perspective.  This is much faster than drawing cubes and is 
+     * recommended for very dense scatter plots.  Set this to {@code null} to
+     * draw cubes.
+     * 
+     * @param shape  the shape ({@code null} permitted).
+     * 
+     * @since 1.7
+     */
+    public void setSpriteShape(SpriteShape shape) {
+        this.spriteShape = shape;
+        fireChangeEvent(true);
+    }
+    
+    /**
+     * Returns the compose-type for the renderer.  Here the value is
+     * {@code ComposeType.ALL} which means the plot will call the 
+     * {@link #composeAll(com.orsoncharts.plot.XYZPlot, 
+     * com.orsoncharts.graphics3d.World, com.orsoncharts.graphics3d.Dimension3D,
+     * double, double, double)} method for composing the chart.  All the 
+     * cubes are added to the world as a single {@link InstancedObject3D}, 
+     * which uses much less memory than one object per data item.
+     * <br><br>
+     * If a subclass overrides 
+     * {@link #composeItem(XYZDataset, int, int, World, Dimension3D, double, double, double)},
+     * the value is {@code ComposeType.PER_ITEM} (as in releases before 1.7) 
+     * so that the overridden method is still called for each item.
+     * 
+     * @return The compose type (never {@code null}). 
+     * 
+     * @since 1.7
+     */
+    @Override
+    public ComposeType getComposeType() {
+        if (isComposeItemOverridden(ScatterXYZRenderer.class)) {
+            return ComposeType.PER_ITEM;
+        }
+        return ComposeType.ALL;
+    }
+    
+    /**
+     * Composes all the data items for the plot's dataset, adding the cubes 
+     * to the world as a single {@link InstancedObject3D} or, if a sprite 
+     * shape is set, the sprites as a single object (item labels, if any, are
+     * added as separate objects).  The data values for each series are 
+     * translated to world coordinates in blocks.
+     * 
+     * @param plot  the plot ({@code null} not permitted).
+     * @param world  the world ({@code null} not permitted).
+     * @param dimensions  the dimensions ({@code null} not permitted).
+     * @param xOffset  the x-offset.
+     * @param yOffset  the y-offset.
+     * @param zOffset  the z-offset.
+     * 
+     * @since 1.7
+     */
+    @Override
+    public void composeAll(XYZPlot plot, World world, Dimension3D dimensions, 
+            double xOffset, double yOffset, double zOffset) {
+        XYZDataset dataset = plot.getDataset();
+        ValueAxis3D xAxis = plot.getXAxis();
+        ValueAxis3D yAxis = plot.getYAxis();
+        ValueAxis3D zAxis = plot.getZAxis();
+        Object3D sprites = null;
+        InstancedObject3D cubes = null;
+        if (this.spriteShape != null) {
+            sprites = new Object3D(Color.BLACK);
+        } else {
+            cubes = new InstancedObject3D(Object3D.createBox(0.0, 1.0, 0.0, 
+                    1.0, 0.0, 1.0, Color.BLACK));
+        }
+        double[] wx = new double[0];
+        double[] wy = new double[0];
+        double[] wz = new double[0];
+        for (int series = 0; series < dataset.getSeriesCount(); series++) {
+            int n = dataset.getItemCount(series);
+            if (n > wx.length) {
+                wx = new double[n];
+                wy = new double[n];
+                wz = new double[n];
+            }
+            for (int item = 0; item < n; item++) {
+                wx[item] = dataset.getX(series, item);
+                wy[item] = dataset.getY(series, item);
+                wz[item] = dataset.getZ(series, item);
+            }
+            translateToWorld(xAxis, wx, 0, n, dimensions.getWidth(), wx);
+            translateToWorld(yAxis, wy, 0, n, dimensions.getHeight(), wy);
+            translateToWorld(zAxis, wz, 0, n, dimensions.getDepth(), wz);
+            for (int item = 0; item < n; item++) {
+                if (sprites != null) {
+                    composeSprite(dataset, series, item, wx[item], wy[item], 
+                            wz[item], dimensions, world, sprites, xOffset, 
+                            yOffset, zOffset);
+                } else {
+                    composeCube(dataset, series, item, wx[item], wy[item], 
+                            wz[item], dimensions, world, cubes, xOffset, 
+                            yOffset, zOffset);
+                }
+            }
+        }
+        if (sprites != null && sprites.getFaceCount() > 0) {
+            world.add(sprites);
+        }
+        if (cubes != null && cubes.getInstanceCount() > 0) {
+            world.add(cubes);
+        }
+    }
+    
     /**
      * Constructs and places one item from the specified dataset into the given 
-     * world.  The {@link XYZPlot} class will iterate over its dataset and
-     * and call this method for each item (in other words, you don't need to 
-     * call this method directly).
+     * world.  This renderer normally composes all items at once, and the 
+     * {@link XYZPlot} class only calls this method when a subclass overrides
+     * it (see {@link #getComposeType()}).
      * 
      * @param dataset the dataset ({@code null} not permitted).
      * @param series  the series index.
@@ -148,29 +290,55 @@ public class ScatterXYZRenderer extends AbstractXYZRenderer
      * @param zOffset  the z-offset.
      */
     @Override
-    @SuppressWarnings("unchecked")
     public void composeItem(XYZDataset dataset, int series, int item, 
         World world, Dimension3D dimensions, double xOffset, double yOffset, 
         double zOffset) {
-    
-        double x = dataset.getX(series, item);
-        double y = dataset.getY(series, item);
-        double z = dataset.getZ(series, item);
-    
         XYZPlot plot = getPlot();
-        Axis3D xAxis = plot.getXAxis();
-        Axis3D yAxis = plot.getYAxis();
-        Axis3D zAxis = plot.getZAxis();
+        double xx = plot.getXAxis().translateToWorld(
+                dataset.getX(series, item), dimensions.getWidth());
+        double yy = plot.getYAxis().translateToWorld(
+                dataset.getY(series, item), dimensions.getHeight());
+        double zz = plot.getZAxis().translateToWorld(
+                dataset.getZ(series, item), dimensions.getDepth());
+        if (this.spriteShape != null) {
+            composeSprite(dataset, series, item, xx, yy, zz, dimensions, 
+                    world, null, xOffset, yOffset, zOffset);
+        } else {
+            composeCube(dataset, series, item, xx, yy, zz, dimensions, world, 
+                    null, xOffset, yOffset, zOffset);
+        }
+    }
     
+    /**
+     * Constructs one item from the specified dataset.  If {@code cubes} is
+     * not {@code null} the cube for the item is added to it as a new 
+     * instance, otherwise a new object is added to the world.  Item labels
+     * are always added to the world.
+     * 
+     * @param dataset the dataset ({@code null} not permitted).
+     * @param series  the series index.
+     * @param item  the item index.
+     * @param xx  the x-coordinate of the item in world units.
+     * @param yy  the y-coordinate of the item in world units.
+     * @param zz  the z-coordinate of the item in world units.
+     * @param dim  the dimensions ({@code null} not permitted).
+     * @param world  the world ({@code null} not permitted).
+     * @param cubes  the instanced object for the cubes ({@code null} 
+     *     permitted).
+     * @param xOffset  the x-offset.
+     * @param yOffset  the y-offset.
+     * @param zOffset  the z-offset.
+     */
+    @SuppressWarnings("unchecked")
+    private void composeCube(XYZDataset dataset, int series, int item, 
+            double xx, double yy, double zz, Dimension3D dim, World world, 
+            InstancedObject3D cubes, double xOffset, double yOffset, 
+            double zOffset) {
         double delta = this.size / 2.0;
-        Dimension3D dim = plot.getDimensions();
-        double xx = xAxis.translateToWorld(x, dim.getWidth());
         double xmin = Math.max(0.0, xx - delta);
         double xmax = Math.min(dim.getWidth(), xx + delta);
-        double yy = yAxis.translateToWorld(y, dim.getHeight());
         double ymin = Math.max(0.0, yy - delta);
         double ymax = Math.min(dim.getHeight(), yy + delta);
-        double zz = zAxis.translateToWorld(z, dim.getDepth());
         double zmin = Math.max(0.0, zz - delta);
         double zmax = Math.min(dim.getDepth(), zz + delta);
         if ((xmin >= xmax) || (ymin >= ymax) || (zmin >= zmax)) {
@@ -180,16 +348,86 @@ public class ScatterXYZRenderer extends AbstractXYZRenderer
         double cx = (xmax + xmin) / 2.0 + xOffset;
         double cy = (ymax + ymin) / 2.0 + yOffset;
         double cz = (zmax + zmin) / 2.0 + zOffset;
-        Object3D cube = Object3D.createBox(cx, xmax - xmin, cy, ymax - ymin, 
-                cz, zmax - zmin, color);
         Comparable<?> seriesKey = dataset.getSeriesKey(series);
         XYZItemKey itemKey = new XYZItemKey(seriesKey, item);
-        cube.setProperty(Object3D.ITEM_KEY, itemKey);
-        world.add(cube);
-        
+        if (cubes != null) {
+            cubes.addInstance(cx, cy, cz, xmax - xmin, ymax - ymin, 
+                    zmax - zmin, color, itemKey);
+        } else {
+            Object3D cube = Object3D.createBox(cx, xmax - xmin, cy, 
+                    ymax - ymin, cz, zmax - zmin, color);
+            cube.setItemKey(itemKey);
+            world.add(cube);
+        }
+        addItemLabel(dataset, series, item, itemKey, world, cx, cy, cz);
+    }
+    
+    /**
+     * Constructs one item from the specified dataset as a sprite.  If 
+     * {@code sprites} is not {@code null} the sprite for the item is added 
+     * to it, otherwise a new object is added to the world.  Item labels
+     * are always added to the world.
+     * 
+     * @param dataset the dataset ({@code null} not permitted).
+     * @param series  the series index.
+     * @param item  the item index.
+     * @param xx  the x-coordinate of the item in world units.
+     * @param yy  the y-coordinate of the item in world units.
+     * @param zz  the z-coordinate of the item in world units.
+     * @param dim  the dimensions ({@code null} not permitted).
+     * @param world  the world ({@code null} not permitted).
+     * @param sprites  the object for the sprites ({@code null} permitted).
+     * @param xOffset  the x-offset.
+     * @param yOffset  the y-offset.
+     * @param zOffset  the z-offset.
+     */
+    @SuppressWarnings("unchecked")
+    private void composeSprite(XYZDataset dataset, int series, int item, 
+            double xx, double yy, double zz, Dimension3D dim, World world, 
+            Object3D sprites, double xOffset, double yOffset, 
+            double zOffset) {
+        if (!(xx >= 0.0 && xx <= dim.getWidth() && yy >= 0.0 
+                && yy <= dim.getHeight() && zz >= 0.0 
+                && zz <= dim.getDepth())) {
+            return;
+        }
+        Color color = getColorSource().getColor(series, item);
+        XYZItemKey itemKey = new XYZItemKey(dataset.getSeriesKey(series), 
+                item);
+        double cx = xx + xOffset;
+        double cy = yy + yOffset;
+        double cz = zz + zOffset;
+        Object3D obj = sprites;
+        if (obj == null) {
+            obj = new Object3D(color);
+            world.add(obj);
+        }
+        obj.addVertex(cx, cy, cz);
+        obj.addFace(new SpriteFace(obj, obj.getVertexCount() - 1, 
+                this.spriteShape, this.size, color, itemKey));
+        addItemLabel(dataset, series, item, itemKey, world, cx, cy, cz);
+    }
+    
+    /**
+     * Adds an item label to the world, if there is a label generator and it
+     * generates a label for the item.
+     * 
+     * @param dataset the dataset ({@code null} not permitted).
+     * @param series  the series index.
+     * @param item  the item index.
+     * @param itemKey  the item key ({@code null} not permitted).
+     * @param world  the world ({@code null} not permitted).
+     * @param cx  the x-coordinate of the center of the item.
+     * @param cy  the y-coordinate of the center of the item.
+     * @param cz  the z-coordinate of the center of the item.
+     */
+    @SuppressWarnings("unchecked")
+    private void addItemLabel(XYZDataset dataset, int series, int item, 
+            XYZItemKey itemKey, World world, double cx, double cy, 
+            double cz) {
         if (getItemLabelGenerator() != null) {
             String label = getItemLabelGenerator().generateItemLabel(dataset,
-                    seriesKey, item);
+                    dataset.getSeriesKey(series), item);
             if (label != null) {
                 double dx = this.itemLabelOffsetPercent.getDX() * this.size;
                 double dy = this.itemLabelOffsetPercent.getDY() * this.size;
@@ -198,11 +436,10 @@ public class ScatterXYZRenderer extends AbstractXYZRenderer
                         getItemLabelFont(), getItemLabelColor(), 
                         getItemLabelBackgroundColor(), cx + dx, cy + dy, 
                         cz + dz, false, true);
-                labelObj.setProperty(Object3D.ITEM_KEY, itemKey);
+                labelObj.setItemKey(itemKey);
                 world.add(labelObj);
             }
         }
-
     }
 
     /**
@@ -227,6 +464,9 @@ public class ScatterXYZRenderer extends AbstractXYZRenderer
         if (!this.itemLabelOffsetPercent.equals(that.itemLabelOffsetPercent)) {
             return false;
         }
+        if (this.spriteShape != that.spriteShape) {
+            return false;
+        }
         return super.equals(obj);
     }
 }
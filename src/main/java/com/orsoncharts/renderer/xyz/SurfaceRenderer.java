@@ -35,16 +35,18 @@ package com.orsoncharts.renderer.xyz;
 import java.awt.Color;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.PriorityQueue;
 
 import com.orsoncharts.Range;
 import com.orsoncharts.axis.ValueAxis3D;
 import com.orsoncharts.data.function.Function3D;
-import com.orsoncharts.data.function.Function3DUtils;
+import com.orsoncharts.data.function.SampledFunction3D;
 import com.orsoncharts.data.xyz.XYZDataset;
 import com.orsoncharts.graphics3d.Dimension3D;
+import com.orsoncharts.graphics3d.DoubleSidedFace;
 import com.orsoncharts.graphics3d.Object3D;
-import com.orsoncharts.graphics3d.Point3D;
 import com.orsoncharts.graphics3d.World;
 import com.orsoncharts.plot.XYZPlot;
 import com.orsoncharts.renderer.ColorScale;
@@ -96,6 +98,54 @@ public class SurfaceRenderer extends AbstractXYZRenderer implements XYZRenderer,
      */
     private boolean drawFaceOutlines;
     
+    /** 
+     * A flag that permits the function to be sampled by multiple threads 
+     * (the default is {@code false}).
+     * 
+     * @since 1.7
+     */
+    private boolean parallelSampling;
+    
+    /**
+     * A flag that controls whether the surface is tessellated adaptively
+     * (refining the sample grid where the surface is curved) or on the
+     * regular sample grid only (the default).
+     * 
+     * @since 1.7
+     */
+    private boolean adaptiveTessellation;
+    
+    /**
+     * The error tolerance for adaptive tessellation, as a fraction of the
+     * height of the plot.
+     * 
+     * @since 1.7
+     */
+    private double tessellationTolerance;
+    
+    /**
+     * The maximum number of times a cell of the sample grid can be split
+     * during adaptive tessellation.
+     * 
+     * @since 1.7
+     */
+    private int maxTessellationDepth;
+    
+    /** 
+     * The approximate maximum number of faces generated by adaptive 
+     * tessellation.
+     * 
+     * @since 1.7
+     */
+    private int maxFaceCount;
+    
+    /** 
+     * The most recent function samples (cached so that the function is not
+     * evaluated again when the model is updated without a change to the
+     * axis ranges or the sample counts).
+     */
+    private transient SampledFunction3D samples;
+    
     /**
      * Creates a new renderer for the specified function.  By default, the 
      * renderer will take 30 samples along the x-axis and 30 samples along the 
@@ -110,6 +160,11 @@ public class SurfaceRenderer extends AbstractXYZRenderer implements XYZRenderer,
         this.zSamples = 30;
         this.colorScale = new FixedColorScale(Color.YELLOW);
         this.drawFaceOutlines = true;
+        this.parallelSampling = false;
+        this.adaptiveTessellation = false;
+        this.tessellationTolerance = 0.005;
+        this.maxTessellationDepth = 4;
+        this.maxFaceCount = 20000;
     }
     
     /**
@@ -228,6 +283,158 @@ public class SurfaceRenderer extends AbstractXYZRenderer implements XYZRenderer,
         fireChangeEvent(true);
     }
     
+    /**
+     * Returns the flag that controls whether or not the function can be 
+     * sampled by multiple threads.  The default value is {@code false}.
+     * 
+     * @return A boolean.
+     * 
+     * @since 1.7
+     */
+    public boolean getParallelSampling() {
+        return this.parallelSampling;
+    }
+    
+    /**
+     * Sets the flag that controls whether or not the function can be sampled
+     * by multiple threads and sends a {@link Renderer3DChangeEvent} to all
+     * registered listeners.  Parallel sampling is faster for expensive 
+     * functions on multi-core machines, but requires that the function is 
+     * safe to call from multiple threads (the {@link Function3D} interface 
+     * does not require this), so only set the flag for functions that are
+     * known to be thread safe.
+     * 
+     * @param parallel  the new flag value.
+     * 
+     * @since 1.7
+     */
+    public void setParallelSampling(boolean parallel) {
+        this.parallelSampling = parallel;
+        fireChangeEvent(true);
+    }
+    
+    /**
+     * Returns the flag that controls whether or not the surface is 
+     * tessellated adaptively.  The default value is {@code false}.
+     * 
+     * @return A boolean.
+     * 
+     * @since 1.7
+     */
+    public boolean getAdaptiveTessellation() {
+        return this.adaptiveTessellation;
+    }
+    
+    /**
+     * Sets the flag that controls whether or not the surface is tessellated
+     * adaptively and sends a {@link Renderer3DChangeEvent} to all registered
+     * listeners.  In adaptive mode, the sample grid (see 
+     * {@link #setXSamples(int)} and {@link #setZSamples(int)}) is the 
+     * starting point and cells are split where the surface deviates from a
+     * flat cell by more than the tessellation tolerance.  This gives 
+     * smooth results for sharp features with a relatively coarse sample 
+     * grid, and typically far fewer faces than a fine regular grid.
+     * 
+     * @param adaptive  the new flag value.
+     * 
+     * @since 1.7
+     */
+    public void setAdaptiveTessellation(boolean adaptive) {
+        this.adaptiveTessellation = adaptive;
+        fireChangeEvent(true);
+    }
+    
+    /**
+     * Returns the error tolerance for adaptive tessellation, as a fraction of 
+     * the height of the plot.  The default value is {@code 0.005}.
+     * 
+     * @return The tolerance.
+     * 
+     * @since 1.7
+     */
+    public double getTessellationTolerance() {
+        return this.tessellationTolerance;
+    }
+    
+    /**
+     * Sets the error tolerance for adaptive tessellation and sends a 
+     * {@link Renderer3DChangeEvent} to all registered listeners.  A cell is
+     * split if the function value at its center or the midpoint of an edge
+     * differs from the value interpolated from the cell corners by more than
+     * this fraction of the plot height.
+     * 
+     * @param tolerance  the tolerance (must be positive).
+     * 
+     * @since 1.7
+     */
+    public void setTessellationTolerance(double tolerance) {
+        ArgChecks.positiveRequired(tolerance, "tolerance");
+        this.tessellationTolerance = tolerance;
+        fireChangeEvent(true);
+    }
+    
+    /**
+     * Returns the maximum number of times that a cell of the sample grid can
+     * be split during adaptive tessellation.  The default value is 
+     * {@code 4}.
+     * 
+     * @return The maximum depth.
+     * 
+     * @since 1.7
+     */
+    public int getMaxTessellationDepth() {
+        return this.maxTessellationDepth;
+    }
+    
+    /**
+     * Sets the maximum number of times that a cell of the sample grid can be
+     * split during adaptive tessellation and sends a 
+     * {@link Renderer3DChangeEvent} to all registered listeners.
+     * 
+     * @param depth  the depth (in the range 0 to 10).
+     * 
+     * @since 1.7
+     */
+    public void setMaxTessellationDepth(int depth) {
+        if (depth < 0 || depth > 10) {
+            throw new IllegalArgumentException(
+                    "Requires 'depth' in the range 0 to 10.");
+        }
+        this.maxTessellationDepth = depth;
+        fireChangeEvent(true);
+    }
+    
+    /**
+     * Returns the approximate maximum number of faces generated by adaptive
+     * tessellation.  The default value is {@code 20000}.
+     * 
+     * @return The face budget.
+     * 
+     * @since 1.7
+     */
+    public int getMaxFaceCount() {
+        return this.maxFaceCount;
+    }
+    
+    /**
+     * Sets the approximate maximum number of faces generated by adaptive
+     * tessellation and sends a {@link Renderer3DChangeEvent} to all 
+     * registered listeners.  Cells with the largest errors are split first,
+     * so when the budget is exhausted the remaining error is spread evenly
+     * over the surface.  The budget is approximate because cells that 
+     * adjoin smaller cells need extra faces to avoid cracks, and the cells of
+     * the sample grid are always drawn.
+     * 
+     * @param count  the face budget (must be positive).
+     * 
+     * @since 1.7
+     */
+    public void setMaxFaceCount(int count) {
+        ArgChecks.positiveRequired(count, "count");
+        this.maxFaceCount = count;
+        fireChangeEvent(true);
+    }
+    
     /**
      * Composes the entire representation of the function in the supplied
      * {@code world}.
@@ -252,240 +459,616 @@ public class SurfaceRenderer extends AbstractXYZRenderer implements XYZRenderer,
         double ylen = dim.getHeight();
         double zlen = dim.getDepth();
         Range yRange = new Range(yOffset, -yOffset);
-        for (int xIndex = 0; xIndex < this.xSamples; xIndex++) {
-            double xfrac0 = xIndex / (double) this.xSamples;
-            double xfrac1 = (xIndex + 1) / (double) this.xSamples;
-            for (int zIndex = 0; zIndex < this.zSamples; zIndex++) {
-                double zfrac0 = zIndex / (double) this.zSamples;
-                double zfrac1 = (zIndex + 1) / (double) this.zSamples;
-                
-                double x0 = xAxis.getRange().value(xfrac0);
-                double x1 = xAxis.getRange().value(xfrac1);
-                double xm = x0 / 2.0 + x1 / 2.0;
-                double z0 = zAxis.getRange().value(zfrac0);
-                double z1 = zAxis.getRange().value(zfrac1);
-                double zm = z0 / 2.0 + z1 / 2.0;
-                double y00 = this.function.getValue(x0, z0);
-                double y01 = this.function.getValue(x0, z1);
-                double y10 = this.function.getValue(x1, z0);
-                double y11 = this.function.getValue(x1, z1);
-                double ymm = this.function.getValue(xm, zm);
-                
-                double wx0 = xAxis.translateToWorld(x0, xlen) + xOffset;
-                double wx1 = xAxis.translateToWorld(x1, xlen) + xOffset;
-                double wy00 = yAxis.translateToWorld(y00, ylen) + yOffset;
-                double wy01 = yAxis.translateToWorld(y01, ylen) + yOffset;
-                double wy10 = yAxis.translateToWorld(y10, ylen) + yOffset;
-                double wy11 = yAxis.translateToWorld(y11, ylen) + yOffset;
-                double wz0 = zAxis.translateToWorld(z0, zlen) + zOffset;
-                double wz1 = zAxis.translateToWorld(z1, zlen) + zOffset;
-
-                Color color = this.colorScale.valueToColor(ymm);
-                Object3D obj = new Object3D(color, this.drawFaceOutlines);
-                List<Point3D> pts1 = facePoints1(wx0, wx1, wz0, wz1, wy00, wy01, 
-                        wy11, yRange);
-                int count1 = pts1.size();
-                for (Point3D pt : pts1) {
-                    obj.addVertex(pt);
-                }
-                if (count1 == 3) {
-                    obj.addDoubleSidedFace(new int[] {0, 1, 2});
-                } else if (count1 == 4) {
-                    obj.addDoubleSidedFace(new int[] {0, 1, 2, 3});
-                } else if (count1 == 5) {
-                    obj.addDoubleSidedFace(new int[] {0, 1, 2, 3, 4});
-                }
-                List<Point3D> pts2 = facePoints2(wx0, wx1, wz0, wz1, wy00, wy11,
-                        wy10, yRange);
-                int count2 = pts2.size();
-                for (Point3D pt : pts2) {
-                    obj.addVertex(pt);
+        SampledFunction3D sf = sampleFunction(xAxis.getRange(), 
+                zAxis.getRange());
+        
+        // in adaptive mode, the sample grid is refined to a lattice with
+        // 'step' points per interval along each axis
+        int step = this.adaptiveTessellation 
+                ? 2 << this.maxTessellationDepth : 1;
+        
+        // the grid points are shared by up to four cells, so we translate
+        // them to world coordinates just once
+        int xCount = this.xSamples * step + 1;
+        int zCount = this.zSamples * step + 1;
+        double[] wx = new double[xCount];
+        double[] wz = new double[zCount];
+        Range xRange = sf.getXRange();
+        for (int xIndex = 0; xIndex < xCount; xIndex++) {
+            wx[xIndex] = xRange.value(xIndex / (double) (xCount - 1));
+        }
+        translate(xAxis, wx, xlen, xOffset);
+        Range zRange = sf.getZRange();
+        for (int zIndex = 0; zIndex < zCount; zIndex++) {
+            wz[zIndex] = zRange.value(zIndex / (double) (zCount - 1));
+        }
+        translate(zAxis, wz, zlen, zOffset);
+        
+        // all the cells are added to a single mesh, with each face carrying 
+        // its own color
+        Object3D mesh = new Object3D(this.colorScale.valueToColor(
+                this.colorScale.getRange().getMin()), this.drawFaceOutlines);
+        if (this.adaptiveTessellation) {
+            AdaptiveSurfaceMesh asm = new AdaptiveSurfaceMesh(mesh, wx, wz, 
+                    yRange, sf, step, yAxis, ylen, yOffset);
+            asm.tessellate(this.tessellationTolerance * ylen, 
+                    this.maxFaceCount, this.colorScale);
+        } else {
+            double[] wy = new double[xCount * zCount];
+            for (int xIndex = 0; xIndex < xCount; xIndex++) {
+                for (int zIndex = 0; zIndex < zCount; zIndex++) {
+                    wy[xIndex * zCount + zIndex] = sf.getValue(xIndex, 
+                            zIndex);
                 }
-                if (count2 == 3) {
-                    obj.addDoubleSidedFace(new int[] {count1, count1 + 1, 
-                        count1 + 2});
-                } else if (count2 == 4) {
-                    obj.addDoubleSidedFace(new int[] {count1, count1 + 1, 
-                        count1 + 2, count1 + 3});
-                } else if (count2 == 5) {
-                    obj.addDoubleSidedFace(new int[] {count1, count1 + 1, 
-                        count1 + 2, count1 + 3, count1 + 4});                    
+            }
+            translate(yAxis, wy, ylen, yOffset);
+            SurfaceMesh sm = new SurfaceMesh(mesh, wx, wy, wz, yRange);
+            for (int xIndex = 0; xIndex < this.xSamples; xIndex++) {
+                for (int zIndex = 0; zIndex < this.zSamples; zIndex++) {
+                    Color color = this.colorScale.valueToColor(
+                            sf.getMidValue(xIndex, zIndex));
+                    sm.addClippedFace(xIndex, zIndex, xIndex, zIndex + 1, 
+                            xIndex + 1, zIndex + 1, color);
+                    sm.addClippedFace(xIndex, zIndex, xIndex + 1, zIndex + 1,
+                            xIndex + 1, zIndex, color);
                 }
-                world.add(obj);
             }
-            
-        }        
+        }
+        if (mesh.getFaceCount() > 0) {
+            world.add(mesh);
+        }
     }
-    
-    private Point3D intersectPoint(double x0, double y0, double z0, double x1, 
-                double y1, double z1, double yy) {
-        double p = (yy - y0) / (y1 - y0);
-        double x = x0 + p * (x1 - x0);
-        double y = y0 + p * (y1 - y0);
-        double z = z0 + p * (z1 - z0);
-        return new Point3D(x, y, z);
+
+    /**
+     * Translates the data values in an array to world coordinates in place,
+     * then adds an offset to each.
+     * 
+     * @param axis  the axis.
+     * @param values  the values.
+     * @param length  the length of the axis in world units.
+     * @param offset  the offset.
+     */
+    private static void translate(ValueAxis3D axis, double[] values, 
+            double length, double offset) {
+        translateToWorld(axis, values, 0, values.length, length, values);
+        for (int i = 0; i < values.length; i++) {
+            values[i] += offset;
+        }
     }
     
-    private List<Point3D> facePoints1(double x0, double x1, double z0, 
-            double z1, double y00, double y01, double y11, Range yRange) {
+    /**
+     * A helper that builds the surface as a single mesh, where the vertices 
+     * on the sample grid are shared between all the faces that use them 
+     * (and only added to the mesh when they are first used).  Faces are 
+     * clipped to the y-range, and the clip points are added as extra 
+     * vertices.
+     */
+    private static class SurfaceMesh {
+        
+        /** The mesh. */
+        final Object3D mesh;
+        
+        /** The world x-coordinates of the grid. */
+        final double[] wx;
+        
+        /** 
+         * The world y-coordinates at the grid points (may be {@code null} 
+         * if a subclass overrides {@link #worldY(int, int)}). 
+         */
+        private final double[] wy;
         
-        List<Point3D> pts = new ArrayList<Point3D>(4);
-        double ymin = yRange.getMin();
-        double ymax = yRange.getMax();
+        /** The world z-coordinates of the grid. */
+        final double[] wz;
         
-        // handle y00
-        if (y00 > yRange.getMax()) {
-            if (yRange.contains(y01)) {
-                pts.add(intersectPoint(x0, y00, z0, x0, y01, z1, ymax));
-            } else if (y01 < yRange.getMin()) {
-                pts.add(intersectPoint(x0, y00, z0, x0, y01, z1, ymax));
-                pts.add(intersectPoint(x0, y00, z0, x0, y01, z1, ymin));
+        /** The y-range that faces are clipped to. */
+        private final Range yRange;
+        
+        /** 
+         * The mesh vertex index for each grid point, or -1 if the vertex has
+         * not yet been added (may be {@code null} if a subclass overrides
+         * the vertex index lookup).
+         */
+        private final int[] vertexIndices;
+        
+        /** Temporary storage for the vertices of the face being built. */
+        private final int[] faceVertices;
+        
+        /** The number of vertices in the face being built. */
+        private int faceVertexCount;
+        
+        SurfaceMesh(Object3D mesh, double[] wx, double[] wy, double[] wz, 
+                Range yRange) {
+            this.mesh = mesh;
+            this.wx = wx;
+            this.wy = wy;
+            this.wz = wz;
+            this.yRange = yRange;
+            if (wy != null) {
+                this.vertexIndices = new int[wx.length * wz.length];
+                Arrays.fill(this.vertexIndices, -1);
+            } else {
+                this.vertexIndices = null;
             }
-        } else if (yRange.contains(y00)) {
-            pts.add(new Point3D(x0, y00, z0));
-            if (y01 > yRange.getMax()) {
-                pts.add(intersectPoint(x0, y00, z0, x0, y01, z1, ymax));
-            } else if (y01 < yRange.getMin()) {
-                pts.add(intersectPoint(x0, y00, z0, x0, y01, z1, ymin));
+            this.faceVertices = new int[6];
+        }
+        
+        /**
+         * Returns the world y-coordinate at a grid point.
+         */
+        double worldY(int xIndex, int zIndex) {
+            return this.wy[xIndex * this.wz.length + zIndex];
+        }
+        
+        /**
+         * Returns the mesh vertex index for a grid point, or -1 if the 
+         * vertex has not been added to the mesh.
+         */
+        int getVertexIndex(int xIndex, int zIndex) {
+            return this.vertexIndices[xIndex * this.wz.length + zIndex];
+        }
+        
+        /**
+         * Records the mesh vertex index for a grid point.
+         */
+        void putVertexIndex(int xIndex, int zIndex, int vertexIndex) {
+            this.vertexIndices[xIndex * this.wz.length + zIndex] = vertexIndex;
+        }
+        
+        /**
+         * Adds the part of the triangle with the specified grid corners that 
+         * lies within the y-range as a double-sided face.
+         */
+        void addClippedFace(int xa, int za, int xb, int zb, int xc, int zc, 
+                Color color) {
+            this.faceVertexCount = 0;
+            clipEdge(xa, za, xb, zb);
+            clipEdge(xb, zb, xc, zc);
+            clipEdge(xc, zc, xa, za);
+            if (this.faceVertexCount >= 3) {
+                int[] vertices = Arrays.copyOf(this.faceVertices, 
+                        this.faceVertexCount);
+                this.mesh.addFace(new DoubleSidedFace(this.mesh, vertices, 
+                        color));
             }
-        } else { // below the range
-            if (yRange.contains(y01)) {
-                pts.add(intersectPoint(x0, y00, z0, x0, y01, z1, ymin));
-            } else if (y01 > yRange.getMax()) {
-                pts.add(intersectPoint(x0, y00, z0, x0, y01, z1, ymin));
-                pts.add(intersectPoint(x0, y00, z0, x0, y01, z1, ymax));
+        }
+        
+        /**
+         * Adds the vertices contributed by the edge from point 0 to point 1
+         * (the start point, if it is within the y-range, plus any points 
+         * where the edge crosses the bounds of the y-range).
+         */
+        private void clipEdge(int x0, int z0, int x1, int z1) {
+            double ymin = this.yRange.getMin();
+            double ymax = this.yRange.getMax();
+            double y0 = worldY(x0, z0);
+            double y1 = worldY(x1, z1);
+            if (y0 > ymax) {
+                if (this.yRange.contains(y1)) {
+                    addIntersect(x0, z0, y0, x1, z1, y1, ymax);
+                } else if (y1 < ymin) {
+                    addIntersect(x0, z0, y0, x1, z1, y1, ymax);
+                    addIntersect(x0, z0, y0, x1, z1, y1, ymin);
+                }
+            } else if (this.yRange.contains(y0)) {
+                addGridVertex(x0, z0, y0);
+                if (y1 > ymax) {
+                    addIntersect(x0, z0, y0, x1, z1, y1, ymax);
+                } else if (y1 < ymin) {
+                    addIntersect(x0, z0, y0, x1, z1, y1, ymin);
+                }
+            } else { // below the range
+                if (this.yRange.contains(y1)) {
+                    addIntersect(x0, z0, y0, x1, z1, y1, ymin);
+                } else if (y1 > ymax) {
+                    addIntersect(x0, z0, y0, x1, z1, y1, ymin);
+                    addIntersect(x0, z0, y0, x1, z1, y1, ymax);
+                }
             }
         }
         
-        // handle y01
-        if (y01 > yRange.getMax()) {
-            if (yRange.contains(y11)) {
-                pts.add(intersectPoint(x0, y01, z1, x1, y11, z1, ymax));
-            } else if (y11 < yRange.getMin()) {
-                pts.add(intersectPoint(x0, y01, z1, x1, y11, z1, ymax));
-                pts.add(intersectPoint(x0, y01, z1, x1, y11, z1, ymin));
+        private void addGridVertex(int xIndex, int zIndex, double y) {
+            int v = getVertexIndex(xIndex, zIndex);
+            if (v < 0) {
+                v = this.mesh.getVertexCount();
+                this.mesh.addVertex(this.wx[xIndex], y, this.wz[zIndex]);
+                putVertexIndex(xIndex, zIndex, v);
             }
-        } else if (yRange.contains(y01)) {
-            pts.add(new Point3D(x0, y01, z1));
-            if (y11 > yRange.getMax()) {
-                pts.add(intersectPoint(x0, y01, z1, x1, y11, z1, ymax));                
-            } else if (y11 < yRange.getMin()) {
-                pts.add(intersectPoint(x0, y01, z1, x1, y11, z1, ymin));         
+            this.faceVertices[this.faceVertexCount++] = v;
+        }
+        
+        private void addIntersect(int x0, int z0, double y0, int x1, int z1,
+                double y1, double yy) {
+            double p = (yy - y0) / (y1 - y0);
+            double x = this.wx[x0] + p * (this.wx[x1] - this.wx[x0]);
+            double z = this.wz[z0] + p * (this.wz[z1] - this.wz[z0]);
+            this.faceVertices[this.faceVertexCount++] 
+                    = this.mesh.getVertexCount();
+            this.mesh.addVertex(x, yy, z);
+        }
+    }
+    
+    /**
+     * A surface mesh built by adaptive tessellation.  The mesh starts with 
+     * the cells of the regular sample grid and, taking the cells with the
+     * largest error first, recursively splits cells into four until the 
+     * error is within the tolerance, the maximum depth is reached or the 
+     * face budget is used up.  The error for a cell is the largest 
+     * deviation of the function (in world units) at the cell center and 
+     * edge midpoints from the bilinear interpolation of the corner values.
+     * <br><br>
+     * All points lie on a lattice that is {@code step} times finer than the 
+     * sample grid, and function values are evaluated lazily and cached.
+     * To avoid cracks where a cell meets smaller neighbours, a leaf cell 
+     * with extra vertices along its edges is drawn as a fan of triangles 
+     * around its center point.
+     */
+    private static final class AdaptiveSurfaceMesh extends SurfaceMesh {
+        
+        /** The sampled function (for values on the regular grid). */
+        private final SampledFunction3D sf;
+        
+        /** The number of lattice intervals per sample interval. */
+        private final int step;
+        
+        /** The y-axis. */
+        private final ValueAxis3D yAxis;
+        
+        /** The y-dimension of the plot. */
+        private final double ylen;
+        
+        /** The y-offset. */
+        private final double yOffset;
+        
+        /** 
+         * The function values (evaluated lazily), mesh vertex indices and
+         * leaf cell corner flags for the lattice points that are used.
+         */
+        private final LatticeTable points;
+        
+        AdaptiveSurfaceMesh(Object3D mesh, double[] wx, double[] wz, 
+                Range yRange, SampledFunction3D sf, int step, 
+                ValueAxis3D yAxis, double ylen, double yOffset) {
+            super(mesh, wx, null, wz, yRange);
+            this.sf = sf;
+            this.step = step;
+            this.yAxis = yAxis;
+            this.ylen = ylen;
+            this.yOffset = yOffset;
+            this.points = new LatticeTable();
+        }
+        
+        private long key(int xIndex, int zIndex) {
+            return (long) xIndex * this.wz.length + zIndex;
+        }
+        
+        /**
+         * Returns the function value at a lattice point, reusing the 
+         * regular grid samples where possible.
+         */
+        double value(int xIndex, int zIndex) {
+            int slot = this.points.slot(key(xIndex, zIndex));
+            if (!this.points.evaluated[slot]) {
+                double result;
+                int half = this.step / 2;
+                if (xIndex % this.step == 0 && zIndex % this.step == 0) {
+                    result = this.sf.getValue(xIndex / this.step, 
+                            zIndex / this.step);
+                } else if (xIndex % this.step == half 
+                        && zIndex % this.step == half) {
+                    result = this.sf.getMidValue(xIndex / this.step, 
+                            zIndex / this.step);
+                } else {
+                    double x = this.sf.getXRange().value(xIndex 
+                            / (double) (this.wx.length - 1));
+                    double z = this.sf.getZRange().value(zIndex 
+                            / (double) (this.wz.length - 1));
+                    result = this.sf.getFunction().getValue(x, z);
+                }
+                this.points.values[slot] = result;
+                this.points.evaluated[slot] = true;
             }
-        } else {
-            if (y11 > yRange.getMax()) {
-                pts.add(intersectPoint(x0, y01, z1, x1, y11, z1, ymin));
-                pts.add(intersectPoint(x0, y01, z1, x1, y11, z1, ymax));
-            } else if (yRange.contains(y11)) {
-                pts.add(intersectPoint(x0, y01, z1, x1, y11, z1, ymin));                
+            return this.points.values[slot];
+        }
+
+        @Override
+        double worldY(int xIndex, int zIndex) {
+            return this.yAxis.translateToWorld(value(xIndex, zIndex), 
+                    this.ylen) + this.yOffset;
+        }
+        
+        @Override
+        int getVertexIndex(int xIndex, int zIndex) {
+            int slot = this.points.find(key(xIndex, zIndex));
+            return slot >= 0 ? this.points.vertices[slot] : -1;
+        }
+
+        @Override
+        void putVertexIndex(int xIndex, int zIndex, int vertexIndex) {
+            int slot = this.points.slot(key(xIndex, zIndex));
+            this.points.vertices[slot] = vertexIndex;
+        }
+        
+        /**
+         * Marks a lattice point as the corner of a leaf cell.
+         */
+        private void addCorner(int xIndex, int zIndex) {
+            this.points.corners[this.points.slot(key(xIndex, zIndex))] = true;
+        }
+        
+        /**
+         * Returns {@code true} if a lattice point is the corner of a leaf 
+         * cell.
+         */
+        private boolean isCorner(int xIndex, int zIndex) {
+            int slot = this.points.find(key(xIndex, zIndex));
+            return slot >= 0 && this.points.corners[slot];
+        }
+        
+        /**
+         * Returns the error for the cell with lower corner 
+         * {@code (xIndex, zIndex)} and the specified size (in lattice units).
+         */
+        private double error(int xIndex, int zIndex, int size) {
+            int h = size / 2;
+            int x1 = xIndex + size;
+            int z1 = zIndex + size;
+            double y00 = worldY(xIndex, zIndex);
+            double y01 = worldY(xIndex, z1);
+            double y11 = worldY(x1, z1);
+            double y10 = worldY(x1, zIndex);
+            double e = Math.abs(worldY(xIndex + h, zIndex + h) 
+                    - (y00 + y01 + y11 + y10) / 4.0);
+            e = Math.max(e, Math.abs(worldY(xIndex, zIndex + h) 
+                    - (y00 + y01) / 2.0));
+            e = Math.max(e, Math.abs(worldY(xIndex + h, z1) 
+                    - (y01 + y11) / 2.0));
+            e = Math.max(e, Math.abs(worldY(x1, zIndex + h) 
+                    - (y11 + y10) / 2.0));
+            e = Math.max(e, Math.abs(worldY(xIndex + h, zIndex) 
+                    - (y10 + y00) / 2.0));
+            if (Double.isNaN(e)) {
+                // part of the cell is undefined, so refine it to find the
+                // boundary more precisely
+                return Double.MAX_VALUE;
             }
+            return e;
         }
         
-        // handle y11
-        if (y11 > yRange.getMax()) {
-            if (yRange.contains(y00)) {
-                pts.add(intersectPoint(x1, y11, z1, x0, y00, z0, ymax));                
-            } else if (y00 < yRange.getMin()) {
-                pts.add(intersectPoint(x1, y11, z1, x0, y00, z0, ymax));                
-                pts.add(intersectPoint(x1, y11, z1, x0, y00, z0, ymin));
+        /**
+         * Refines the grid and adds the faces to the mesh.
+         * 
+         * @param tolerance  the error tolerance (in world units).
+         * @param maxFaceCount  the face budget.
+         * @param colorScale  the color scale.
+         */
+        void tessellate(double tolerance, int maxFaceCount, 
+                ColorScale colorScale) {
+            PriorityQueue<Cell> queue = new PriorityQueue<Cell>();
+            List<Cell> leaves = new ArrayList<Cell>();
+            int xCells = (this.wx.length - 1) / this.step;
+            int zCells = (this.wz.length - 1) / this.step;
+            for (int i = 0; i < xCells; i++) {
+                for (int k = 0; k < zCells; k++) {
+                    queue.add(new Cell(i * this.step, k * this.step, 
+                            this.step, error(i * this.step, k * this.step, 
+                            this.step)));
+                }
             }
-        } else if (yRange.contains(y11)) {
-            pts.add(new Point3D(x1, y11, z1));
-            if (y00 > yRange.getMax()) {
-                pts.add(intersectPoint(x1, y11, z1, x0, y00, z0, ymax));                
-            } else if (y00 < yRange.getMin()) {
-                pts.add(intersectPoint(x1, y11, z1, x0, y00, z0, ymin));                
+            // each leaf cell needs at least 2 faces
+            int leafCount = queue.size();
+            while (!queue.isEmpty()) {
+                Cell cell = queue.poll();
+                if (cell.error <= tolerance || cell.size <= 2 
+                        || 2 * (leafCount + 3) > maxFaceCount) {
+                    leaves.add(cell);
+                    continue;
+                }
+                int h = cell.size / 2;
+                for (int dx = 0; dx <= h; dx += h) {
+                    for (int dz = 0; dz <= h; dz += h) {
+                        int x = cell.xIndex + dx;
+                        int z = cell.zIndex + dz;
+                        queue.add(new Cell(x, z, h, error(x, z, h)));
+                    }
+                }
+                leafCount += 3;
             }
-        } else {
-            if (y00 > yRange.getMax()) {
-                pts.add(intersectPoint(x1, y11, z1, x0, y00, z0, ymin));                
-                pts.add(intersectPoint(x1, y11, z1, x0, y00, z0, ymax));                
-            } else if (yRange.contains(y00)) {
-                pts.add(intersectPoint(x1, y11, z1, x0, y00, z0, ymin));                
+            
+            // the corners of all leaf cells, used to find the extra 
+            // vertices along the edges of larger cells
+            for (Cell cell : leaves) {
+                int x1 = cell.xIndex + cell.size;
+                int z1 = cell.zIndex + cell.size;
+                addCorner(cell.xIndex, cell.zIndex);
+                addCorner(cell.xIndex, z1);
+                addCorner(x1, z1);
+                addCorner(x1, cell.zIndex);
+            }
+            
+            int[] px = new int[4 * this.step + 1];
+            int[] pz = new int[4 * this.step + 1];
+            for (Cell cell : leaves) {
+                int h = cell.size / 2;
+                Color color = colorScale.valueToColor(value(cell.xIndex + h, 
+                        cell.zIndex + h));
+                int x0 = cell.xIndex;
+                int z0 = cell.zIndex;
+                int x1 = x0 + cell.size;
+                int z1 = z0 + cell.size;
+                
+                // trace the outline in the same winding as the regular grid
+                // triangles: (x0, z0) -> (x0, z1) -> (x1, z1) -> (x1, z0)
+                int n = 0;
+                for (int z = z0; z < z1; z += 2) {
+                    if (z == z0 || isCorner(x0, z)) {
+                        px[n] = x0;
+                        pz[n++] = z;
+                    }
+                }
+                for (int x = x0; x < x1; x += 2) {
+                    if (x == x0 || isCorner(x, z1)) {
+                        px[n] = x;
+                        pz[n++] = z1;
+                    }
+                }
+                for (int z = z1; z > z0; z -= 2) {
+                    if (z == z1 || isCorner(x1, z)) {
+                        px[n] = x1;
+                        pz[n++] = z;
+                    }
+                }
+                for (int x = x1; x > x0; x -= 2) {
+                    if (x == x1 || isCorner(x, z0)) {
+                        px[n] = x;
+                        pz[n++] = z0;
+                    }
+                }
+                if (n == 4) {
+                    addClippedFace(x0, z0, x0, z1, x1, z1, color);
+                    addClippedFace(x0, z0, x1, z1, x1, z0, color);
+                } else {
+                    int xm = x0 + h;
+                    int zm = z0 + h;
+                    for (int j = 0; j < n; j++) {
+                        int next = (j + 1) % n;
+                        addClippedFace(xm, zm, px[j], pz[j], px[next], 
+                                pz[next], color);
+                    }
+                }
             }
         }
-        return pts;
     }
     
-    private List<Point3D> facePoints2(double x0, double x1, double z0, 
-            double z1, double y00, double y11, double y10, Range yRange) {
+    /**
+     * An open addressing hash table holding the data for the lattice points
+     * used by the adaptive tessellation.  The lattice can be very large, so
+     * only the points that are used are stored, and the keys and data are 
+     * held in primitive arrays (no boxing).
+     */
+    private static final class LatticeTable {
         
-        List<Point3D> pts = new ArrayList<Point3D>(4);
-        double ymin = yRange.getMin();
-        double ymax = yRange.getMax();        
-        // handle y00
-        if (y00 > yRange.getMax()) {
-            if (yRange.contains(y11)) {
-                pts.add(intersectPoint(x0, y00, z0, x1, y11, z1, ymax));
-            } else if (y11 < yRange.getMin()) {
-                pts.add(intersectPoint(x0, y00, z0, x1, y11, z1, ymax));
-                pts.add(intersectPoint(x0, y00, z0, x1, y11, z1, ymin));
-            }
-        } else if (yRange.contains(y00)) {
-            pts.add(new Point3D(x0, y00, z0));
-            if (y11 > yRange.getMax()) {
-                pts.add(intersectPoint(x0, y00, z0, x1, y11, z1, ymax));
-            } else if (y11 < yRange.getMin()) {
-                pts.add(intersectPoint(x0, y00, z0, x1, y11, z1, ymin));
-            }
-        } else { // below the range
-            if (yRange.contains(y11)) {
-                pts.add(intersectPoint(x0, y00, z0, x1, y11, z1, ymin));
-            } else if (y11 > yRange.getMax()) {
-                pts.add(intersectPoint(x0, y00, z0, x1, y11, z1, ymin));
-                pts.add(intersectPoint(x0, y00, z0, x1, y11, z1, ymax));
-            }
+        /** The keys plus one (so that zero marks an empty slot). */
+        private long[] keys;
+        
+        /** The function values. */
+        double[] values;
+        
+        /** Flags for the function values that have been evaluated. */
+        boolean[] evaluated;
+        
+        /** The mesh vertex indices (-1 if not added to the mesh). */
+        int[] vertices;
+        
+        /** Flags for the corners of leaf cells. */
+        boolean[] corners;
+        
+        /** The number of keys in the table. */
+        private int size;
+        
+        LatticeTable() {
+            allocate(1024);
         }
         
-        // handle y11
-        if (y11 > yRange.getMax()) {
-            if (yRange.contains(y10)) {
-                pts.add(intersectPoint(x1, y11, z1, x1, y10, z0, ymax));
-            } else if (y10 < yRange.getMin()) {
-                pts.add(intersectPoint(x1, y11, z1, x1, y10, z0, ymax));
-                pts.add(intersectPoint(x1, y11, z1, x1, y10, z0, ymin));
-            }
-        } else if (yRange.contains(y11)) {
-            pts.add(new Point3D(x1, y11, z1));
-            if (y10 > yRange.getMax()) {
-                pts.add(intersectPoint(x1, y11, z1, x1, y10, z0, ymax));                
-            } else if (y10 < yRange.getMin()) {
-                pts.add(intersectPoint(x1, y11, z1, x1, y10, z0, ymin));         
-            }
-        } else {
-            if (y10 > yRange.getMax()) {
-                pts.add(intersectPoint(x1, y11, z1, x1, y10, z0, ymin));
-                pts.add(intersectPoint(x1, y11, z1, x1, y10, z0, ymax));
-            } else if (yRange.contains(y10)) {
-                pts.add(intersectPoint(x1, y11, z1, x1, y10, z0, ymin));                
+        private void allocate(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new double[capacity];
+            this.evaluated = new boolean[capacity];
+            this.vertices = new int[capacity];
+            Arrays.fill(this.vertices, -1);
+            this.corners = new boolean[capacity];
+        }
+        
+        private static int hash(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+        
+        /**
+         * Returns the slot for a key, or -1 if the key is not in the table.
+         */
+        int find(long key) {
+            int mask = this.keys.length - 1;
+            int i = hash(key, mask);
+            while (this.keys[i] != 0L) {
+                if (this.keys[i] == key + 1) {
+                    return i;
+                }
+                i = (i + 1) & mask;
             }
+            return -1;
         }
         
-        // handle y10
-        if (y10 > yRange.getMax()) {
-            if (yRange.contains(y00)) {
-                pts.add(intersectPoint(x1, y10, z0, x0, y00, z0, ymax));                
-            } else if (y00 < yRange.getMin()) {
-                pts.add(intersectPoint(x1, y10, z0, x0, y00, z0, ymax));                
-                pts.add(intersectPoint(x1, y10, z0, x0, y00, z0, ymin));
+        /**
+         * Returns the slot for a key, adding the key to the table if it is
+         * not already present (this can reallocate the data arrays).
+         */
+        int slot(long key) {
+            int mask = this.keys.length - 1;
+            int i = hash(key, mask);
+            while (this.keys[i] != 0L) {
+                if (this.keys[i] == key + 1) {
+                    return i;
+                }
+                i = (i + 1) & mask;
             }
-        } else if (yRange.contains(y10)) {
-            pts.add(new Point3D(x1, y10, z0));
-            if (y00 > yRange.getMax()) {
-                pts.add(intersectPoint(x1, y10, z0, x0, y00, z0, ymax));                
-            } else if (y00 < yRange.getMin()) {
-                pts.add(intersectPoint(x1, y10, z0, x0, y00, z0, ymin));                
+            if (2 * (this.size + 1) > this.keys.length) {
+                grow();
+                return slot(key);
             }
-        } else {
-            if (y00 > yRange.getMax()) {
-                pts.add(intersectPoint(x1, y10, z0, x0, y00, z0, ymin));                
-                pts.add(intersectPoint(x1, y10, z0, x0, y00, z0, ymax));                
-            } else if (yRange.contains(y00)) {
-                pts.add(intersectPoint(x1, y10, z0, x0, y00, z0, ymin));                
+            this.keys[i] = key + 1;
+            this.size++;
+            return i;
+        }
+        
+        private void grow() {
+            long[] oldKeys = this.keys;
+            double[] oldValues = this.values;
+            boolean[] oldEvaluated = this.evaluated;
+            int[] oldVertices = this.vertices;
+            boolean[] oldCorners = this.corners;
+            allocate(oldKeys.length * 2);
+            int mask = this.keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldKeys[j] != 0L) {
+                    int i = hash(oldKeys[j] - 1, mask);
+                    while (this.keys[i] != 0L) {
+                        i = (i + 1) & mask;
+                    }
+                    this.keys[i] = oldKeys[j];
+                    this.values[i] = oldValues[j];
+                    this.evaluated[i] = oldEvaluated[j];
+                    this.vertices[i] = oldVertices[j];
+                    this.corners[i] = oldCorners[j];
+                }
             }
         }
+    }
+    
+    /**
+     * A cell in the adaptive tessellation, ordered so that cells with larger
+     * errors come first.
+     */
+    private static final class Cell implements Comparable<Cell> {
+        
+        final int xIndex;
+        
+        final int zIndex;
+        
+        final int size;
         
-        return pts;
+        final double error;
+        
+        Cell(int xIndex, int zIndex, int size, double error) {
+            this.xIndex = xIndex;
+            this.zIndex = zIndex;
+            this.size = size;
+            this.error = error;
+        }
+
+        @Override
+        public int compareTo(Cell other) {
+            return Double.compare(other.error, this.error);
+        }
     }
 
     /**
@@ -533,10 +1116,29 @@ public class SurfaceRenderer extends AbstractXYZRenderer implements XYZRenderer,
      */
     @Override
     public Range findYRange(XYZDataset dataset) {
-        return Function3DUtils.findYRange(this.function, 
-                getPlot().getXAxis().getRange(), 
-                getPlot().getZAxis().getRange(), 
-                this.xSamples, this.zSamples, true);
+        return sampleFunction(getPlot().getXAxis().getRange(), 
+                getPlot().getZAxis().getRange()).findYRange(true);
+    }
+    
+    /**
+     * Returns the function values sampled over the specified ranges, reusing
+     * the cached samples if the ranges and sample counts are unchanged.
+     * 
+     * @param xRange  the x-range.
+     * @param zRange  the z-range.
+     * 
+     * @return The sampled function values (never {@code null}).
+     */
+    private SampledFunction3D sampleFunction(Range xRange, Range zRange) {
+        SampledFunction3D result = this.samples;
+        if (result == null || !result.isSampleOf(this.function, xRange, 
+                this.xSamples, zRange, this.zSamples)) {
+            result = new SampledFunction3D(this.function, xRange, 
+                    this.xSamples, zRange, this.zSamples, 
+                    this.parallelSampling);
+            this.samples = result;
+        }
+        return result;
     }
 
     /**
@@ -584,6 +1186,21 @@ public class SurfaceRenderer extends AbstractXYZRenderer implements XYZRenderer,
         if (this.drawFaceOutlines != that.drawFaceOutlines) {
             return false;
         }
+        if (this.parallelSampling != that.parallelSampling) {
+            return false;
+        }
+        if (this.adaptiveTessellation != that.adaptiveTessellation) {
+            return false;
+        }
+        if (this.tessellationTolerance != that.tessellationTolerance) {
+            return false;
+        }
+        if (this.maxTessellationDepth != that.maxTessellationDepth) {
+            return false;
+        }
+        if (this.maxFaceCount != that.maxFaceCount) {
+            return false;
+        }
         return super.equals(obj);
     }
 }
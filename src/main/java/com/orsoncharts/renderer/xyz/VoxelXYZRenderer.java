@@ -0,0 +1,447 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.renderer.xyz;
+
+import java.awt.Color;
+import java.io.Serializable;
+
+import com.orsoncharts.Range;
+import com.orsoncharts.axis.ValueAxis3D;
+import com.orsoncharts.data.Dataset3DChangeEvent;
+import com.orsoncharts.data.Dataset3DChangeListener;
+import com.orsoncharts.data.xyz.VoxelGrid;
+import com.orsoncharts.data.xyz.XYZDataset;
+import com.orsoncharts.graphics3d.Dimension3D;
+import com.orsoncharts.graphics3d.InstancedObject3D;
+import com.orsoncharts.graphics3d.Object3D;
+import com.orsoncharts.graphics3d.World;
+import com.orsoncharts.plot.XYZPlot;
+import com.orsoncharts.renderer.ColorScale;
+import com.orsoncharts.renderer.ColorScaleRenderer;
+import com.orsoncharts.renderer.ComposeType;
+import com.orsoncharts.renderer.RainbowScale;
+import com.orsoncharts.renderer.Renderer3DChangeEvent;
+import com.orsoncharts.util.ArgChecks;
+
+/**
+ * A renderer for very large {@link XYZDataset}s that, rather than drawing 
+ * each item, divides the plot into a grid of voxels (3D cells) and draws 
+ * one colored cell for each voxel that contains at least one item.  The 
+ * color is obtained from a {@link ColorScale} using either the number of
+ * items in the voxel or their mean y-value (see {@link VoxelValue}), so 
+ * the cost of rendering depends on the number of occupied voxels rather 
+ * than the number of items.
+ * <br><br>
+ * The binning is performed in a single pass over the dataset (see 
+ * {@link VoxelGrid}) and the result is cached until the dataset changes
+ * or the axis ranges or voxel counts are modified.
+ * <br><br>
+ * NOTE: This class is serializable, but the serialization format is subject 
+ * to change in future releases and should not be relied upon for persisting 
+ * instances of this class.
+ * 
+ * @since 1.7
+ */
+@SuppressWarnings("serial")
+public class VoxelXYZRenderer extends AbstractXYZRenderer implements 
+        XYZRenderer, ColorScaleRenderer, Serializable {
+    
+    /** The number of voxels along the x-axis. */
+    private int xBins;
+    
+    /** The number of voxels along the y-axis. */
+    private int yBins;
+    
+    /** The number of voxels along the z-axis. */
+    private int zBins;
+    
+    /** The value used to color each voxel. */
+    private VoxelValue voxelValue;
+    
+    /** The color scale. */
+    private ColorScale colorScale;
+    
+    /** 
+     * A flag that permits the series to be binned by multiple threads (the
+     * default is {@code false}).
+     */
+    private boolean parallelBinning;
+    
+    /** The most recent binning of the dataset. */
+    private transient VoxelGrid grid;
+    
+    /** 
+     * The dataset that {@code gridListener} is registered with (or 
+     * {@code null}).
+     */
+    private transient XYZDataset<?> gridDataset;
+    
+    /** 
+     * A listener that discards the cached binning when the dataset changes 
+     * (the listener is not serializable, so it is not stored with the 
+     * dataset if that is serialized).
+     */
+    private transient Dataset3DChangeListener gridListener;
+    
+    /**
+     * Creates a new renderer with 20 voxels along each axis, colored by 
+     * item count.
+     */
+    public VoxelXYZRenderer() {
+        super();
+        this.xBins = 20;
+        this.yBins = 20;
+        this.zBins = 20;
+        this.voxelValue = VoxelValue.COUNT;
+        this.colorScale = new RainbowScale(new Range(0.0, 100.0));
+        this.parallelBinning = false;
+    }
+    
+    /**
+     * Returns the number of voxels along the x-axis.  The default value is
+     * {@code 20}.
+     * 
+     * @return The number of voxels. 
+     */
+    public int getXBins() {
+        return this.xBins;
+    }
+    
+    /**
+     * Sets the number of voxels along the x-axis and sends a 
+     * {@link Renderer3DChangeEvent} to all registered listeners.
+     * 
+     * @param count  the number of voxels (must be positive).
+     */
+    public void setXBins(int count) {
+        ArgChecks.positiveRequired(count, "count");
+        this.xBins = count;
+        fireChangeEvent(true);
+    }
+    
+    /**
+     * Returns the number of voxels along the y-axis.  The default value is
+     * {@code 20}.
+     * 
+     * @return The number of voxels. 
+     */
+    public int getYBins() {
+        return this.yBins;
+    }
+    
+    /**
+     * Sets the number of voxels along the y-axis and sends a 
+     * {@link Renderer3DChangeEvent} to all registered listeners.
+     * 
+     * @param count  the number of voxels (must be positive).
+     */
+    public void setYBins(int count) {
+        ArgChecks.positiveRequired(count, "count");
+        this.yBins = count;
+        fireChangeEvent(true);
+    }
+    
+    /**
+     * Returns the number of voxels along the z-axis.  The default value is
+     * {@code 20}.
+     * 
+     * @return The number of voxels. 
+     */
+    public int getZBins() {
+        return this.zBins;
+    }
+    
+    /**
+     * Sets the number of voxels along the z-axis and sends a 
+     * {@link Renderer3DChangeEvent} to all registered listeners.
+     * 
+     * @param count  the number of voxels (must be positive).
+     */
+    public void setZBins(int count) {
+        ArgChecks.positiveRequired(count, "count");
+        this.zBins = count;
+        fireChangeEvent(true);
+    }
+    
+    /**
+     * Returns the value used to color each voxel.  The default value is
+     * {@link VoxelValue#COUNT}.
+     * 
+     * @return The voxel value (never {@code null}).
+     */
+    public VoxelValue getVoxelValue() {
+        return this.voxelValue;
+    }
+    
+    /**
+     * Sets the value used to color each voxel and sends a 
+     * {@link Renderer3DChangeEvent} to all registered listeners.  Note that
+     * the range of the color scale should be appropriate for the value.
+     * 
+     * @param value  the voxel value ({@code null} not permitted).
+     */
+    public void setVoxelValue(VoxelValue value) {
+        ArgChecks.nullNotPermitted(value, "value");
+        this.voxelValue = value;
+        fireChangeEvent(true);
+    }
+    
+    /**
+     * Returns the color scale used to convert voxel values to colors.  The 
+     * default is a {@link RainbowScale} for the range {@code 0} to 
+     * {@code 100}.
+     * 
+     * @return The color scale (never {@code null}). 
+     */
+    @Override
+    public ColorScale getColorScale() {
+        return this.colorScale;
+    }
+    
+    /**
+     * Sets the color scale and sends a {@link Renderer3DChangeEvent} to all 
+     * registered listeners.
+     * 
+     * @param colorScale  the color scale ({@code null} not permitted). 
+     */
+    public void setColorScale(ColorScale colorScale) {
+        ArgChecks.nullNotPermitted(colorScale, "colorScale");
+        this.colorScale = colorScale;
+        fireChangeEvent(true);
+    }
+    
+    /**
+     * Returns the flag that permits the dataset series to be binned by 
+     * multiple threads.  The default value is {@code false}.
+     * 
+     * @return A boolean. 
+     */
+    public boolean getParallelBinning() {
+        return this.parallelBinning;
+    }
+    
+    /**
+     * Sets the flag that permits the dataset series to be binned by 
+     * multiple threads and sends a {@link Renderer3DChangeEvent} to all 
+     * registered listeners.  Only set this to {@code true} if the dataset is
+     * safe to read from multiple threads.
+     * 
+     * @param parallel  the new flag value.
+     */
+    public void setParallelBinning(boolean parallel) {
+        this.parallelBinning = parallel;
+        fireChangeEvent(true);
+    }
+    
+    /**
+     * Returns the compose-type for the renderer.  Here the value is
+     * {@code ComposeType.ALL} which means the plot will call the 
+     * {@link #composeAll(com.orsoncharts.plot.XYZPlot, 
+     * com.orsoncharts.graphics3d.World, com.orsoncharts.graphics3d.Dimension3D,
+     * double, double, double)} method for composing the chart.
+     * 
+     * @return The compose type (never {@code null}). 
+     */
+    @Override
+    public ComposeType getComposeType() {
+        return ComposeType.ALL;
+    }
+    
+    /**
+     * Composes the occupied voxels for the plot's dataset, adding them to 
+     * the world as a single {@link InstancedObject3D}.
+     * 
+     * @param plot  the plot ({@code null} not permitted).
+     * @param world  the world ({@code null} not permitted).
+     * @param dimensions  the dimensions ({@code null} not permitted).
+     * @param xOffset  the x-offset.
+     * @param yOffset  the y-offset.
+     * @param zOffset  the z-offset.
+     */
+    @Override
+    public void composeAll(XYZPlot plot, World world, Dimension3D dimensions, 
+            double xOffset, double yOffset, double zOffset) {
+        ValueAxis3D xAxis = plot.getXAxis();
+        ValueAxis3D yAxis = plot.getYAxis();
+        ValueAxis3D zAxis = plot.getZAxis();
+        VoxelGrid vg = binDataset(plot.getDataset(), xAxis.getRange(), 
+                yAxis.getRange(), zAxis.getRange());
+        double[] wx = voxelBounds(xAxis, vg.getXBins(), dimensions.getWidth());
+        double[] wy = voxelBounds(yAxis, vg.getYBins(), 
+                dimensions.getHeight());
+        double[] wz = voxelBounds(zAxis, vg.getZBins(), dimensions.getDepth());
+        InstancedObject3D voxels = new InstancedObject3D(
+                Object3D.createBox(0.0, 1.0, 0.0, 1.0, 0.0, 1.0, Color.BLACK));
+        for (int i = 0; i < vg.getXBins(); i++) {
+            for (int j = 0; j < vg.getYBins(); j++) {
+                for (int k = 0; k < vg.getZBins(); k++) {
+                    int count = vg.getCount(i, j, k);
+                    if (count == 0) {
+                        continue;
+                    }
+                    double value = this.voxelValue == VoxelValue.COUNT 
+                            ? count : vg.getMeanY(i, j, k);
+                    Color color = this.colorScale.valueToColor(value);
+                    voxels.addInstance((wx[i] + wx[i + 1]) / 2.0 + xOffset, 
+                            (wy[j] + wy[j + 1]) / 2.0 + yOffset, 
+                            (wz[k] + wz[k + 1]) / 2.0 + zOffset, 
+                            Math.abs(wx[i + 1] - wx[i]), 
+                            Math.abs(wy[j + 1] - wy[j]), 
+                            Math.abs(wz[k + 1] - wz[k]), color, null);
+                }
+            }
+        }
+        if (voxels.getInstanceCount() > 0) {
+            world.add(voxels);
+        }
+    }
+    
+    /**
+     * Returns the world coordinates of the voxel boundaries along one axis.
+     * 
+     * @param axis  the axis.
+     * @param bins  the number of voxels along the axis.
+     * @param length  the length of the axis in world units.
+     * 
+     * @return An array containing {@code bins + 1} coordinates. 
+     */
+    private double[] voxelBounds(ValueAxis3D axis, int bins, double length) {
+        Range range = axis.getRange();
+        double[] result = new double[bins + 1];
+        for (int i = 0; i <= bins; i++) {
+            result[i] = range.value(i / (double) bins);
+        }
+        translateToWorld(axis, result, 0, result.length, length, result);
+        return result;
+    }
+    
+    /**
+     * Returns the binning of the dataset for the specified ranges, reusing
+     * the cached binning if the dataset, ranges and voxel counts are 
+     * unchanged.
+     * 
+     * @param dataset  the dataset.
+     * @param xRange  the x-range.
+     * @param yRange  the y-range.
+     * @param zRange  the z-range.
+     * 
+     * @return The binning (never {@code null}). 
+     */
+    private VoxelGrid binDataset(XYZDataset<?> dataset, Range xRange, 
+            Range yRange, Range zRange) {
+        if (dataset != this.gridDataset) {
+            if (this.gridListener == null) {
+                this.gridListener = new Dataset3DChangeListener() {
+                    @Override
+                    public void datasetChanged(Dataset3DChangeEvent event) {
+                        VoxelXYZRenderer.this.grid = null;
+                    }
+                };
+            }
+            if (this.gridDataset != null) {
+                this.gridDataset.removeChangeListener(this.gridListener);
+            }
+            dataset.addChangeListener(this.gridListener);
+            this.gridDataset = dataset;
+            this.grid = null;
+        }
+        VoxelGrid result = this.grid;
+        if (result == null || !result.isBinningOf(dataset, xRange, this.xBins,
+                yRange, this.yBins, zRange, this.zBins)) {
+            result = new VoxelGrid(dataset, xRange, this.xBins, yRange, 
+                    this.yBins, zRange, this.zBins, this.parallelBinning);
+            this.grid = result;
+        }
+        return result;
+    }
+
+    /**
+     * Throws an {@code UnsupportedOperationException} because this renderer
+     * composes all items at once (see {@link #getComposeType()}).
+     * 
+     * @param dataset  the dataset.
+     * @param series  the series index.
+     * @param item  the item index.
+     * @param world  the world.
+     * @param dimensions  the dimensions.
+     * @param xOffset  the x-offset.
+     * @param yOffset  the y-offset.
+     * @param zOffset  the z-offset.
+     */
+    @Override
+    public void composeItem(XYZDataset dataset, int series, int item, 
+            World world, Dimension3D dimensions, double xOffset, 
+            double yOffset, double zOffset) {
+        throw new UnsupportedOperationException(
+                "Not supported by this renderer.");
+    }
+    
+    /**
+     * Tests this renderer for equality with an arbitrary object.
+     * 
+     * @param obj  the object ({@code null} permitted).
+     * 
+     * @return A boolean. 
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof VoxelXYZRenderer)) {
+            return false;
+        }
+        VoxelXYZRenderer that = (VoxelXYZRenderer) obj;
+        if (this.xBins != that.xBins) {
+            return false;
+        }
+        if (this.yBins != that.yBins) {
+            return false;
+        }
+        if (this.zBins != that.zBins) {
+            return false;
+        }
+        if (this.voxelValue != that.voxelValue) {
+            return false;
+        }
+        if (!this.colorScale.equals(that.colorScale)) {
+            return false;
+        }
+        if (this.parallelBinning != that.parallelBinning) {
+            return false;
+        }
+        return super.equals(obj);
+    }
+    
+}
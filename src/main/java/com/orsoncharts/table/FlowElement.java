@@ -189,7 +189,8 @@ public class FlowElement extends AbstractTableElement
         double w = getInsets().left + getInsets().right;
         while (index < this.elements.size() && !full) {
             TableElement element = this.elements.get(index);
-            Dimension2D dim = element.preferredSize(g2, bounds);
+            Dimension2D dim = LayoutPass.preferredSize(element, g2, 
+                    bounds);
             if (w + dim.getWidth() <= bounds.getWidth() || index == first) {
                 result.add(new ElementInfo(element, dim));
                 w += dim.getWidth() + this.hgap;
@@ -249,24 +250,31 @@ public class FlowElement extends AbstractTableElement
     @Override
     public Dimension2D preferredSize(Graphics2D g2, Rectangle2D bounds, 
             Map<String, Object> constraints) {
-        Insets insets = getInsets();
-        double width = insets.left + insets.right;
-        double height = insets.top + insets.bottom;
-        double maxRowWidth = 0.0;
-        int elementCount = this.elements.size();
-        int i = 0;
-        while (i < elementCount) {
-            // get one row of elements...
-            List<ElementInfo> elementsInRow = rowOfElements(i, g2, 
-                    bounds);
-            double rowHeight = calcRowHeight(elementsInRow);
-            double rowWidth = calcRowWidth(elementsInRow, this.hgap);
-            maxRowWidth = Math.max(rowWidth, maxRowWidth);
-            height += rowHeight;
-            i = i + elementsInRow.size();
+        boolean started = LayoutPass.begin();
+        try {
+            Insets insets = getInsets();
+            double width = insets.left + insets.right;
+            double height = insets.top + insets.bottom;
+            double maxRowWidth = 0.0;
+            int elementCount = this.elements.size();
+            int i = 0;
+            while (i < elementCount) {
+                // get one row of elements...
+                List<ElementInfo> elementsInRow = rowOfElements(i, g2, 
+                        bounds);
+                double rowHeight = calcRowHeight(elementsInRow);
+                double rowWidth = calcRowWidth(elementsInRow, this.hgap);
+                maxRowWidth = Math.max(rowWidth, maxRowWidth);
+                height += rowHeight;
+                i = i + elementsInRow.size();
+            }
+            width += maxRowWidth;
+            return new ElementDimension(width, height);        
+        } finally {
+            if (started) {
+                LayoutPass.end();
+            }
         }
-        width += maxRowWidth;
-        return new ElementDimension(width, height);        
     }
     
     /**
@@ -337,34 +345,42 @@ public class FlowElement extends AbstractTableElement
     @Override
     public void draw(Graphics2D g2, Rectangle2D bounds, 
             TableElementOnDraw onDrawHandler) {
-        if (onDrawHandler != null) {
-            onDrawHandler.beforeDraw(this, g2, bounds);
-        }
+        boolean started = LayoutPass.begin();
+        try {
+            if (onDrawHandler != null) {
+                onDrawHandler.beforeDraw(this, g2, bounds);
+            }
         
-        Shape savedClip = g2.getClip();
-        g2.clip(bounds);
+            Shape savedClip = g2.getClip();
+            g2.clip(bounds);
         
-        // find the preferred size of the flow layout
-        Dimension2D prefDim = preferredSize(g2, bounds);
+            // find the preferred size of the flow layout
+            Dimension2D prefDim = LayoutPass.preferredSize(this, g2, 
+                    bounds);
         
-        // fit a rectangle of this dimension to the bounds according to the 
-        // element anchor
-        Fit2D fitter = Fit2D.getNoScalingFitter(getRefPoint());
-        Rectangle2D dest = fitter.fit(prefDim, bounds);
+            // fit a rectangle of this dimension to the bounds according to the 
+            // element anchor
+            Fit2D fitter = Fit2D.getNoScalingFitter(getRefPoint());
+            Rectangle2D dest = fitter.fit(prefDim, bounds);
         
-        // perform layout within this bounding rectangle
-        List<Rectangle2D> layoutInfo = this.layoutElements(g2, dest, null);
+            // perform layout within this bounding rectangle
+            List<Rectangle2D> layoutInfo = this.layoutElements(g2, dest, null);
         
-        // draw the elements
-        for (int i = 0; i < this.elements.size(); i++) {
-            Rectangle2D rect = layoutInfo.get(i);
-            TableElement element = this.elements.get(i);
-            element.draw(g2, rect, onDrawHandler);
-        }
+            // draw the elements
+            for (int i = 0; i < this.elements.size(); i++) {
+                Rectangle2D rect = layoutInfo.get(i);
+                TableElement element = this.elements.get(i);
+                element.draw(g2, rect, onDrawHandler);
+            }
         
-        g2.setClip(savedClip);
-        if (onDrawHandler != null) {
-            onDrawHandler.afterDraw(this, g2, bounds);
+            g2.setClip(savedClip);
+            if (onDrawHandler != null) {
+                onDrawHandler.afterDraw(this, g2, bounds);
+            }
+        } finally {
+            if (started) {
+                LayoutPass.end();
+            }
         }
     }
     
@@ -124,7 +124,8 @@ public class GridElement<R extends Comparable<R>, C extends Comparable<C>>
                 if (element == null) {
                     continue;
                 }
-                Dimension2D dim = element.preferredSize(g2, bounds);
+                Dimension2D dim = LayoutPass.preferredSize(element, g2, 
+                        bounds);
                 widths[c] = Math.max(widths[c], dim.getWidth());
                 heights[r] = Math.max(heights[r], dim.getHeight());
             }
@@ -145,19 +146,26 @@ public class GridElement<R extends Comparable<R>, C extends Comparable<C>>
     @Override
     public Dimension2D preferredSize(Graphics2D g2, Rectangle2D bounds, 
             Map<String, Object> constraints) {
-        Insets insets = getInsets();
-        double[][] cellDimensions = findCellDimensions(g2, bounds);
-        double[] widths = cellDimensions[0];
-        double[] heights = cellDimensions[1];
-        double w = insets.left + insets.right;
-        for (int i = 0; i < widths.length; i++) {
-            w = w + widths[i];
-        }
-        double h = insets.top + insets.bottom;
-        for (int i = 0; i < heights.length; i++) {
-            h = h + heights[i];
+        boolean started = LayoutPass.begin();
+        try {
+            Insets insets = getInsets();
+            double[][] cellDimensions = findCellDimensions(g2, bounds);
+            double[] widths = cellDimensions[0];
+            double[] heights = cellDimensions[1];
+            double w = insets.left + insets.right;
+            for (int i = 0; i < widths.length; i++) {
+                w = w + widths[i];
+            }
+            double h = insets.top + insets.bottom;
+            for (int i = 0; i < heights.length; i++) {
+                h = h + heights[i];
+            }
+            return new Dimension((int) w, (int) h);
+        } finally {
+            if (started) {
+                LayoutPass.end();
+            }
         }
-        return new Dimension((int) w, (int) h);
     }
 
     /**
@@ -217,26 +225,33 @@ public class GridElement<R extends Comparable<R>, C extends Comparable<C>>
     @Override
     public void draw(Graphics2D g2, Rectangle2D bounds, 
             TableElementOnDraw onDrawHandler) {
-        if (onDrawHandler != null) {
-            onDrawHandler.beforeDraw(this, g2, bounds);
-        }
-        if (getBackground() != null) {
-            getBackground().fill(g2, bounds);
-        }
-        List<Rectangle2D> positions = layoutElements(g2, bounds, null);
-        for (int r = 0; r < this.elements.getRowCount(); r++) {
-            for (int c = 0; c < this.elements.getColumnCount(); c++) {
-                TableElement element = this.elements.getValue(r, c);
-                if (element == null) {
-                    continue;
+        boolean started = LayoutPass.begin();
+        try {
+            if (onDrawHandler != null) {
+                onDrawHandler.beforeDraw(this, g2, bounds);
+            }
+            if (getBackground() != null) {
+                getBackground().fill(g2, bounds);
+            }
+            List<Rectangle2D> positions = layoutElements(g2, bounds, null);
+            for (int r = 0; r < this.elements.getRowCount(); r++) {
+                for (int c = 0; c < this.elements.getColumnCount(); c++) {
+                    TableElement element = this.elements.getValue(r, c);
+                    if (element == null) {
+                        continue;
+                    }
+                    Rectangle2D pos = positions.get(
+                            r * elements.getColumnCount() + c);
+                    element.draw(g2, pos, onDrawHandler);
                 }
-                Rectangle2D pos = positions.get(r * elements.getColumnCount() 
-                        + c);
-                element.draw(g2, pos, onDrawHandler);
             }
-        }
-        if (onDrawHandler != null) {
-            onDrawHandler.afterDraw(this, g2, bounds);
+            if (onDrawHandler != null) {
+                onDrawHandler.afterDraw(this, g2, bounds);
+            }
+        } finally {
+            if (started) {
+                LayoutPass.end();
+            }
         }
     }
     
@@ -0,0 +1,193 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.table;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Dimension2D;
+import java.awt.geom.Rectangle2D;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.orsoncharts.util.ArgChecks;
+
+/**
+ * A layout pass for a tree of {@link TableElement} instances.  While a pass 
+ * is active (on the current thread), the preferred size of each element is
+ * calculated once for any given bounds and then reused, so that containers 
+ * can measure their children in both the {@code preferredSize()} and 
+ * {@code layoutElements()} methods (and again when the children are drawn) 
+ * without the measurement work multiplying with the depth of the tree.
+ * <br><br>
+ * Containers should start a pass at the beginning of their 
+ * {@code preferredSize()} and {@code draw()} methods, and measure their 
+ * children with {@link #preferredSize(TableElement, Graphics2D, Rectangle2D)}:
+ * <pre>
+ * boolean started = LayoutPass.begin();
+ * try {
+ *     // ... measure, lay out and draw the children
+ * } finally {
+ *     if (started) {
+ *         LayoutPass.end();
+ *     }
+ * }</pre>
+ * Only the outermost call starts (and ends) the pass, so the sizes are 
+ * shared across the whole tree.  Elements are expected not to change while
+ * a pass is active.  When no pass is active, 
+ * {@link #preferredSize(TableElement, Graphics2D, Rectangle2D)} simply calls 
+ * the element's own method, so existing {@link TableElement} 
+ * implementations work unchanged.
+ * 
+ * @since 1.7
+ */
+public final class LayoutPass {
+
+    /** The active pass for each thread. */
+    private static final ThreadLocal<LayoutPass> CURRENT 
+            = new ThreadLocal<LayoutPass>();
+    
+    /** The sizes calculated so far in this pass. */
+    private final Map<Key, Dimension2D> sizes;
+    
+    /**
+     * Creates a new pass.
+     */
+    private LayoutPass() {
+        this.sizes = new HashMap<Key, Dimension2D>();
+    }
+    
+    /**
+     * Starts a layout pass on the current thread, unless one is already
+     * active.
+     * 
+     * @return {@code true} if a new pass was started (in which case the 
+     *     caller must call {@link #end()} when it is finished), and 
+     *     {@code false} otherwise.
+     */
+    public static boolean begin() {
+        if (CURRENT.get() != null) {
+            return false;
+        }
+        CURRENT.set(new LayoutPass());
+        return true;
+    }
+    
+    /**
+     * Ends the layout pass on the current thread and discards the sizes 
+     * that were calculated during the pass.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+    
+    /**
+     * Returns {@code true} if a layout pass is active on the current thread,
+     * and {@code false} otherwise.
+     * 
+     * @return A boolean. 
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+    
+    /**
+     * Returns the preferred size of the element for the specified bounds.  
+     * If a layout pass is active and the element has already been measured
+     * for bounds of the same size, the earlier result is returned.
+     * 
+     * @param element  the element ({@code null} not permitted).
+     * @param g2  the graphics target ({@code null} not permitted).
+     * @param bounds  the bounds ({@code null} not permitted).
+     * 
+     * @return The preferred size (never {@code null}). 
+     */
+    public static Dimension2D preferredSize(TableElement element, 
+            Graphics2D g2, Rectangle2D bounds) {
+        ArgChecks.nullNotPermitted(element, "element");
+        ArgChecks.nullNotPermitted(bounds, "bounds");
+        LayoutPass pass = CURRENT.get();
+        if (pass == null) {
+            return element.preferredSize(g2, bounds);
+        }
+        Key key = new Key(element, bounds.getWidth(), bounds.getHeight());
+        Dimension2D result = pass.sizes.get(key);
+        if (result == null) {
+            result = element.preferredSize(g2, bounds);
+            pass.sizes.put(key, result);
+        }
+        return result;
+    }
+    
+    /**
+     * A key for the sizes calculated in a pass.  Elements are matched by 
+     * identity, since the sizes belong to one specific element in the tree.
+     */
+    private static final class Key {
+        
+        /** The element. */
+        private final TableElement element;
+        
+        /** The width of the bounds. */
+        private final double width;
+        
+        /** The height of the bounds. */
+        private final double height;
+        
+        Key(TableElement element, double width, double height) {
+            this.element = element;
+            this.width = width;
+            this.height = height;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) obj;
+            return this.element == that.element && this.width == that.width 
+                    && this.height == that.height;
+        }
+        
+        @Override
+        public int hashCode() {
+            long w = Double.doubleToLongBits(this.width);
+            long h = Double.doubleToLongBits(this.height);
+            int result = System.identityHashCode(this.element);
+            result = 31 * result + (int) (w ^ (w >>> 32));
+            result = 31 * result + (int) (h ^ (h >>> 32));
+            return result;
+        }
+    }
+    
+}
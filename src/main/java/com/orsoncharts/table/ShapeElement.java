@@ -184,6 +184,31 @@ public class ShapeElement extends AbstractTableElement
         visitor.visit(this);
     }
     
+    /**
+     * Tests this element for equality with an arbitrary object.
+     * 
+     * @param obj  the object ({@code null} permitted).
+     * 
+     * @return A boolean. 
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof ShapeElement)) {
+            return false;
+        }
+        ShapeElement that = (ShapeElement) obj;
+        if (!this.shape.equals(that.shape)) {
+            return false;
+        }
+        if (!this.fillColor.equals(that.fillColor)) {
+            return false;
+        }
+        return super.equals(obj);
+    }
+    
     /**
      * Returns a string representation of this element, primarily for
      * debugging purposes.
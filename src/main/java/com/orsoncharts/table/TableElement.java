@@ -50,7 +50,8 @@ import com.orsoncharts.util.RefPt2D;
  * There is some redundancy in calculation between the layout and drawing 
  * methods in order to preserve the statelessness, but it is important to 
  * ensure that table elements can be rendered to multiple targets 
- * simultaneously.
+ * simultaneously.  Containers can use a {@link LayoutPass} to avoid 
+ * measuring the same sub-element repeatedly during one layout.
  * 
  */
 public interface TableElement {
@@ -166,7 +166,7 @@ public class TextElement extends AbstractTableElement
             Map<String, Object> constraints) {
         g2.setFont(this.font);
         Rectangle2D textBounds = TextUtils.getTextBounds(this.text, 
-                g2.getFontMetrics(this.font));
+                this.font, g2);
         Insets insets = getInsets();
         double w = Math.min(textBounds.getWidth() + insets.left + insets.right, 
                 bounds.getWidth());
@@ -191,7 +191,7 @@ public class TextElement extends AbstractTableElement
             Map<String, Object> constraints) {
         g2.setFont(this.font);
         Rectangle2D textBounds = TextUtils.getTextBounds(this.text, 
-                g2.getFontMetrics(this.font));
+                this.font, g2);
         Insets insets = getInsets();
         double width = textBounds.getWidth() + insets.left + insets.right;
         double x = bounds.getX();
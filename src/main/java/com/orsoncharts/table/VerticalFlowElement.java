@@ -178,24 +178,32 @@ public class VerticalFlowElement extends AbstractTableElement
     @Override
     public Dimension2D preferredSize(Graphics2D g2, Rectangle2D bounds, 
             Map<String, Object> constraints) {
-        Insets insets = getInsets();
-        double width = insets.left + insets.right;
-        double height = insets.top + insets.bottom;
-        double maxColHeight = 0.0;
-        int elementCount = this.elements.size();
-        int i = 0;
-        while (i < elementCount) {
-            // get one column of elements...
-            List<ElementInfo> elementsInColumn = columnOfElements(i, g2, 
-                    bounds);
-            double colWidth = calcColumnWidth(elementsInColumn);
-            double colHeight = calcColumnHeight(elementsInColumn, this.vgap);
-            maxColHeight = Math.max(colHeight, maxColHeight);
-            width += colWidth;
-            i = i + elementsInColumn.size();
+        boolean started = LayoutPass.begin();
+        try {
+            Insets insets = getInsets();
+            double width = insets.left + insets.right;
+            double height = insets.top + insets.bottom;
+            double maxColHeight = 0.0;
+            int elementCount = this.elements.size();
+            int i = 0;
+            while (i < elementCount) {
+                // get one column of elements...
+                List<ElementInfo> elementsInColumn = columnOfElements(i, g2, 
+                        bounds);
+                double colWidth = calcColumnWidth(elementsInColumn);
+                double colHeight = calcColumnHeight(elementsInColumn, 
+                        this.vgap);
+                maxColHeight = Math.max(colHeight, maxColHeight);
+                width += colWidth;
+                i = i + elementsInColumn.size();
+            }
+            height += maxColHeight;
+            return new ElementDimension(width, height);
+        } finally {
+            if (started) {
+                LayoutPass.end();
+            }
         }
-        height += maxColHeight;
-        return new ElementDimension(width, height);
     }
 
     /**
@@ -215,7 +223,8 @@ public class VerticalFlowElement extends AbstractTableElement
         double h = getInsets().top + getInsets().bottom;
         while (index < this.elements.size() && !full) {
             TableElement element = this.elements.get(index);
-            Dimension2D dim = element.preferredSize(g2, bounds);
+            Dimension2D dim = LayoutPass.preferredSize(element, g2, 
+                    bounds);
             if (h + dim.getHeight() <= bounds.getHeight() || index == first) {
                 result.add(new ElementInfo(element, dim));
                 h += dim.getHeight() + this.vgap;
@@ -324,32 +333,40 @@ public class VerticalFlowElement extends AbstractTableElement
     @Override
     public void draw(Graphics2D g2, Rectangle2D bounds, 
             TableElementOnDraw onDrawHandler) {
-        if (onDrawHandler != null) {
-            onDrawHandler.beforeDraw(this, g2, bounds);
-        }
-        Shape savedClip = g2.getClip();
-        g2.clip(bounds);
+        boolean started = LayoutPass.begin();
+        try {
+            if (onDrawHandler != null) {
+                onDrawHandler.beforeDraw(this, g2, bounds);
+            }
+            Shape savedClip = g2.getClip();
+            g2.clip(bounds);
         
-        // find the preferred size of the flow layout
-        Dimension2D prefDim = preferredSize(g2, bounds);
+            // find the preferred size of the flow layout
+            Dimension2D prefDim = LayoutPass.preferredSize(this, g2, 
+                    bounds);
         
-        // fit a rectangle of this dimension to the bounds according to the 
-        // element anchor
-        Fit2D fitter = Fit2D.getNoScalingFitter(getRefPoint());
-        Rectangle2D dest = fitter.fit(prefDim, bounds);
+            // fit a rectangle of this dimension to the bounds according to the 
+            // element anchor
+            Fit2D fitter = Fit2D.getNoScalingFitter(getRefPoint());
+            Rectangle2D dest = fitter.fit(prefDim, bounds);
         
-        // perform layout within this bounding rectangle
-        List<Rectangle2D> layoutInfo = layoutElements(g2, dest, null);
+            // perform layout within this bounding rectangle
+            List<Rectangle2D> layoutInfo = layoutElements(g2, dest, null);
         
-        // draw the elements
-        for (int i = 0; i < this.elements.size(); i++) {
-            Rectangle2D rect = layoutInfo.get(i);
-            TableElement element = this.elements.get(i);
-            element.draw(g2, rect, onDrawHandler);
-        }
-        g2.setClip(savedClip);
-        if (onDrawHandler != null) {
-            onDrawHandler.afterDraw(this, g2, bounds);
+            // draw the elements
+            for (int i = 0; i < this.elements.size(); i++) {
+                Rectangle2D rect = layoutInfo.get(i);
+                TableElement element = this.elements.get(i);
+                element.draw(g2, rect, onDrawHandler);
+            }
+            g2.setClip(savedClip);
+            if (onDrawHandler != null) {
+                onDrawHandler.afterDraw(this, g2, bounds);
+            }
+        } finally {
+            if (started) {
+                LayoutPass.end();
+            }
         }
     }
     
@@ -0,0 +1,130 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Utility methods for running tasks on a shared pool of daemon threads.  The
+ * pool is created the first time it is needed and has one thread per
+ * available processor.
+ *
+ * @since 1.7
+ */
+public class TaskUtils {
+
+    /** The shared pool of threads (created on first use). */
+    private static ExecutorService executor;
+
+    private TaskUtils() {
+        // no need to instantiate this class
+    }
+
+    /**
+     * Returns {@code true} if more than one processor is available, in
+     * which case it may be worthwhile splitting work into parallel tasks.
+     *
+     * @return A boolean.
+     */
+    public static boolean isParallelAvailable() {
+        return Runtime.getRuntime().availableProcessors() > 1;
+    }
+
+    /**
+     * Runs the tasks using the shared thread pool and waits for them all to
+     * complete, returning the results in the same order as the tasks.  If a
+     * task throws a runtime exception, that exception is rethrown by this
+     * method.
+     *
+     * @param <T>  the result type.
+     * @param tasks  the tasks ({@code null} not permitted).
+     * @param description  a description of the work, used in the message
+     *     for any exception ({@code null} not permitted).
+     *
+     * @return The results of the tasks.
+     *
+     * @throws IllegalStateException if the calling thread is interrupted
+     *     while waiting, or a task throws a checked exception.
+     */
+    public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks,
+            String description) {
+        ArgChecks.nullNotPermitted(tasks, "tasks");
+        ArgChecks.nullNotPermitted(description, "description");
+        try {
+            List<Future<T>> futures = getExecutor().invokeAll(tasks);
+            List<T> result = new ArrayList<T>(futures.size());
+            for (Future<T> f : futures) {
+                result.add(f.get());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while "
+                    + description + ".", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the shared thread pool, creating it if necessary.
+     *
+     * @return The thread pool.
+     */
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(
+                    Runtime.getRuntime().availableProcessors(),
+                    new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "OrsonChartsWorker");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        return executor;
+    }
+
+}
@@ -0,0 +1,382 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.util;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.LineMetrics;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, least-recently-used cache of text measurements, keyed by the
+ * string, the font and the font render context (which captures the 
+ * transform, anti-aliasing and fractional metrics settings that affect the
+ * measurements).  The methods in {@link TextUtils} use a shared instance 
+ * (see {@link #getSharedInstance()}), so labels that are drawn on every 
+ * frame are only measured once.  The cache can optionally retain a 
+ * {@code GlyphVector} for each entry, so that redrawn labels are not laid
+ * out again (this is disabled by default because some output targets, 
+ * SVG and PDF for example, write glyph vectors as shapes rather than as 
+ * text).
+ * <br><br>
+ * This class is thread-safe.
+ * 
+ * @since 1.7
+ */
+public final class TextMeasureCache {
+
+    /** The default maximum number of entries for the shared cache. */
+    public static final int DEFAULT_CAPACITY = 1024;
+    
+    /** The shared instance. */
+    private static final TextMeasureCache SHARED 
+            = new TextMeasureCache(DEFAULT_CAPACITY);
+    
+    /**
+     * Returns the shared cache instance used by {@link TextUtils}.
+     * 
+     * @return The shared cache (never {@code null}). 
+     */
+    public static TextMeasureCache getSharedInstance() {
+        return SHARED;
+    }
+    
+    /** The maximum number of entries. */
+    private final int capacity;
+    
+    /** The entries, in access order. */
+    private final LinkedHashMap<Key, Measure> entries;
+    
+    /** A flag that controls whether glyph vectors are cached. */
+    private boolean glyphVectorCaching;
+    
+    /** The number of lookups that found an entry. */
+    private long hitCount;
+    
+    /** The number of lookups that created an entry. */
+    private long missCount;
+    
+    /**
+     * Creates a new cache.
+     * 
+     * @param capacity  the maximum number of entries (must be positive).
+     */
+    public TextMeasureCache(int capacity) {
+        ArgChecks.positiveRequired(capacity, "capacity");
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<Key, Measure>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Measure> e) {
+                return size() > TextMeasureCache.this.capacity;
+            }
+        };
+    }
+    
+    /**
+     * Returns the maximum number of entries in the cache.
+     * 
+     * @return The capacity. 
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+    
+    /**
+     * Returns the number of entries currently in the cache.
+     * 
+     * @return The number of entries. 
+     */
+    public synchronized int getSize() {
+        return this.entries.size();
+    }
+    
+    /**
+     * Returns the number of lookups that were satisfied by the cache.
+     * 
+     * @return The hit count. 
+     */
+    public synchronized long getHitCount() {
+        return this.hitCount;
+    }
+    
+    /**
+     * Returns the number of lookups that required the text to be measured.
+     * 
+     * @return The miss count. 
+     */
+    public synchronized long getMissCount() {
+        return this.missCount;
+    }
+    
+    /**
+     * Returns the flag that controls whether or not glyph vectors are cached
+     * (and used by {@link TextUtils} to draw strings).  The default value is 
+     * {@code false}.
+     * 
+     * @return A boolean. 
+     */
+    public synchronized boolean isGlyphVectorCaching() {
+        return this.glyphVectorCaching;
+    }
+    
+    /**
+     * Sets the flag that controls whether or not glyph vectors are cached.
+     * 
+     * @param cache  the new flag value.
+     */
+    public synchronized void setGlyphVectorCaching(boolean cache) {
+        this.glyphVectorCaching = cache;
+    }
+    
+    /**
+     * Removes all entries from the cache and resets the counters.
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+        this.hitCount = 0;
+        this.missCount = 0;
+    }
+    
+    /**
+     * Returns the measurements for a string drawn with the current font of
+     * {@code g2}.
+     * 
+     * @param text  the text ({@code null} not permitted).
+     * @param g2  the graphics target ({@code null} not permitted).
+     * 
+     * @return The measurements (never {@code null}). 
+     */
+    public Measure getMeasure(String text, Graphics2D g2) {
+        return getMeasure(text, g2.getFont(), g2);
+    }
+    
+    /**
+     * Returns the measurements for a string drawn with the specified font 
+     * on {@code g2}.
+     * 
+     * @param text  the text ({@code null} not permitted).
+     * @param font  the font ({@code null} not permitted).
+     * @param g2  the graphics target ({@code null} not permitted).
+     * 
+     * @return The measurements (never {@code null}). 
+     */
+    public Measure getMeasure(String text, Font font, Graphics2D g2) {
+        ArgChecks.nullNotPermitted(text, "text");
+        ArgChecks.nullNotPermitted(font, "font");
+        FontRenderContext frc = g2.getFontRenderContext();
+        Key key = new Key(text, font, frc);
+        synchronized (this) {
+            Measure m = this.entries.get(key);
+            if (m != null) {
+                this.hitCount++;
+                return m;
+            }
+            this.missCount++;
+        }
+        // measure outside the lock
+        FontMetrics fm = g2.getFontMetrics(font);
+        LineMetrics lm = font.getLineMetrics(text, frc);
+        Measure m = new Measure(fm.stringWidth(text), fm.getHeight(), 
+                fm.getAscent(), lm.getAscent(), lm.getDescent(), 
+                lm.getLeading());
+        synchronized (this) {
+            this.entries.put(key, m);
+        }
+        return m;
+    }
+    
+    /**
+     * Returns a glyph vector for the string (drawn with the current font of 
+     * {@code g2}), or {@code null} if glyph vector caching is disabled.
+     * 
+     * @param text  the text ({@code null} not permitted).
+     * @param g2  the graphics target ({@code null} not permitted).
+     * 
+     * @return The glyph vector (possibly {@code null}). 
+     */
+    public GlyphVector getGlyphVector(String text, Graphics2D g2) {
+        if (!isGlyphVectorCaching()) {
+            return null;
+        }
+        Measure m = getMeasure(text, g2);
+        synchronized (m) {
+            if (m.glyphVector == null) {
+                m.glyphVector = g2.getFont().createGlyphVector(
+                        g2.getFontRenderContext(), text);
+            }
+            return m.glyphVector;
+        }
+    }
+    
+    /**
+     * The measurements for a string.  The first three values are the 
+     * {@code FontMetrics} string width, height and ascent, the remaining 
+     * values are taken from the {@code LineMetrics} for the string.
+     */
+    public static final class Measure {
+        
+        /** The string width. */
+        private final double width;
+        
+        /** The font height. */
+        private final double height;
+        
+        /** The font ascent (from the font metrics). */
+        private final double fontAscent;
+        
+        /** The ascent (from the line metrics). */
+        private final float ascent;
+        
+        /** The descent (from the line metrics). */
+        private final float descent;
+        
+        /** The leading (from the line metrics). */
+        private final float leading;
+        
+        /** The glyph vector (created on demand, if caching is enabled). */
+        private GlyphVector glyphVector;
+        
+        Measure(double width, double height, double fontAscent, float ascent,
+                float descent, float leading) {
+            this.width = width;
+            this.height = height;
+            this.fontAscent = fontAscent;
+            this.ascent = ascent;
+            this.descent = descent;
+            this.leading = leading;
+        }
+        
+        /**
+         * Returns the width of the string.
+         * 
+         * @return The width. 
+         */
+        public double getWidth() {
+            return this.width;
+        }
+        
+        /**
+         * Returns the height of the font.
+         * 
+         * @return The height. 
+         */
+        public double getHeight() {
+            return this.height;
+        }
+        
+        /**
+         * Returns the ascent of the font (from the font metrics).
+         * 
+         * @return The ascent. 
+         */
+        public double getFontAscent() {
+            return this.fontAscent;
+        }
+        
+        /**
+         * Returns the ascent for the string (from the line metrics).
+         * 
+         * @return The ascent. 
+         */
+        public float getAscent() {
+            return this.ascent;
+        }
+        
+        /**
+         * Returns the descent for the string (from the line metrics).
+         * 
+         * @return The descent. 
+         */
+        public float getDescent() {
+            return this.descent;
+        }
+        
+        /**
+         * Returns the leading for the string (from the line metrics).
+         * 
+         * @return The leading. 
+         */
+        public float getLeading() {
+            return this.leading;
+        }
+    }
+    
+    /**
+     * The cache key.
+     */
+    private static final class Key {
+        
+        private final String text;
+        
+        private final Font font;
+        
+        private final FontRenderContext frc;
+        
+        private final int hash;
+        
+        Key(String text, Font font, FontRenderContext frc) {
+            this.text = text;
+            this.font = font;
+            this.frc = frc;
+            int h = text.hashCode();
+            h = 31 * h + font.hashCode();
+            h = 31 * h + frc.hashCode();
+            this.hash = h;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) obj;
+            return this.hash == that.hash && this.text.equals(that.text) 
+                    && this.font.equals(that.font) 
+                    && this.frc.equals(that.frc);
+        }
+        
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+    
+}
@@ -36,8 +36,7 @@ import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.Shape;
-import java.awt.font.FontRenderContext;
-import java.awt.font.LineMetrics;
+import java.awt.font.GlyphVector;
 import java.awt.font.TextLayout;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Rectangle2D;
@@ -74,7 +73,7 @@ public class TextUtils {
         // adjust text bounds to match string position
         textBounds.setRect(x + adjust[0], y + adjust[1] + adjust[2],
             textBounds.getWidth(), textBounds.getHeight());
-        g2.drawString(text, x + adjust[0], y + adjust[1]);
+        drawString(text, g2, x + adjust[0], y + adjust[1]);
         return textBounds;
     }
 
@@ -121,11 +120,8 @@ public class TextUtils {
             String text, TextAnchor anchor) {
 
         float[] result = new float[2];
-        FontRenderContext frc = g2.getFontRenderContext();
-        Font f = g2.getFont();
-        FontMetrics fm = g2.getFontMetrics(f);
-        Rectangle2D bounds = getTextBounds(text, fm);
-        LineMetrics metrics = f.getLineMetrics(text, frc);
+        TextMeasureCache.Measure metrics = measure(text, g2);
+        Rectangle2D bounds = bounds(metrics, 0.0, 0.0);
         float ascent = metrics.getAscent();
         float halfAscent = ascent / 2.0f;
         float descent = metrics.getDescent();
@@ -175,11 +171,8 @@ public class TextUtils {
             String text, TextAnchor anchor, Rectangle2D textBounds) {
 
         float[] result = new float[3];
-        FontRenderContext frc = g2.getFontRenderContext();
-        Font f = g2.getFont();
-        FontMetrics fm = g2.getFontMetrics(f);
-        Rectangle2D bounds = getTextBounds(text, fm);
-        LineMetrics metrics = f.getLineMetrics(text, frc);
+        TextMeasureCache.Measure metrics = measure(text, g2);
+        Rectangle2D bounds = bounds(metrics, 0.0, 0.0);
         float ascent = metrics.getAscent();
         result[2] = -ascent;
         float halfAscent = ascent / 2.0f;
@@ -247,6 +240,80 @@ public class TextUtils {
         return new Rectangle2D.Double(x, y - fm.getAscent(), width, height);
     }
     
+    /**
+     * Returns the bounds for the specified text when it is drawn on 
+     * {@code g2} using the specified font, with the left-baseline at 
+     * {@code (0, 0)}.  The measurements are obtained from the shared
+     * {@link TextMeasureCache}.
+     * 
+     * @param text  the text ({@code null} not permitted).
+     * @param font  the font ({@code null} not permitted).
+     * @param g2  the graphics target ({@code null} not permitted).
+     * 
+     * @return The bounding rectangle (never {@code null}).
+     * 
+     * @since 1.7
+     */
+    public static Rectangle2D getTextBounds(String text, Font font, 
+            Graphics2D g2) {
+        ArgChecks.nullNotPermitted(g2, "g2");
+        return bounds(TextMeasureCache.getSharedInstance().getMeasure(text, 
+                font, g2), 0.0, 0.0);
+    }
+    
+    /**
+     * Returns the measurements for a string drawn with the current font of
+     * {@code g2}, from the shared cache.
+     * 
+     * @param text  the text ({@code null} not permitted).
+     * @param g2  the graphics target ({@code null} not permitted).
+     * 
+     * @return The measurements. 
+     */
+    private static TextMeasureCache.Measure measure(String text, 
+            Graphics2D g2) {
+        ArgChecks.nullNotPermitted(g2, "g2");
+        return TextMeasureCache.getSharedInstance().getMeasure(text, g2);
+    }
+    
+    /**
+     * Returns the bounds for a string with the specified measurements, when
+     * its left-baseline is aligned to {@code (x, y)} (this gives the same 
+     * result as {@link #getTextBounds(String, double, double, FontMetrics)}).
+     * 
+     * @param m  the measurements.
+     * @param x  the x-coordinate.
+     * @param y  the y-coordinate.
+     * 
+     * @return The bounds. 
+     */
+    private static Rectangle2D bounds(TextMeasureCache.Measure m, double x, 
+            double y) {
+        return new Rectangle2D.Double(x, y - m.getFontAscent(), m.getWidth(), 
+                m.getHeight());
+    }
+    
+    /**
+     * Draws a string with its left-baseline at {@code (x, y)}, using a
+     * cached glyph vector if glyph vector caching is enabled for the shared
+     * {@link TextMeasureCache}.
+     * 
+     * @param text  the text.
+     * @param g2  the graphics target.
+     * @param x  the x-coordinate.
+     * @param y  the y-coordinate.
+     */
+    private static void drawString(String text, Graphics2D g2, float x, 
+            float y) {
+        GlyphVector gv = TextMeasureCache.getSharedInstance().getGlyphVector(
+                text, g2);
+        if (gv != null) {
+            g2.drawGlyphVector(gv, x, y);
+        } else {
+            g2.drawString(text, x, y);
+        }
+    }
+    
     /**
      * Draws a string that is aligned by one anchor point and rotated about
      * another anchor point.
@@ -313,10 +380,8 @@ public class TextUtils {
             String text, TextAnchor anchor) {
 
         float[] result = new float[2];
-        FontRenderContext frc = g2.getFontRenderContext();
-        LineMetrics metrics = g2.getFont().getLineMetrics(text, frc);
-        FontMetrics fm = g2.getFontMetrics();
-        Rectangle2D bounds = TextUtils.getTextBounds(text, fm);
+        TextMeasureCache.Measure metrics = measure(text, g2);
+        Rectangle2D bounds = bounds(metrics, 0.0, 0.0);
         float ascent = metrics.getAscent();
         float halfAscent = ascent / 2.0f;
         float descent = metrics.getDescent();
@@ -388,13 +453,12 @@ public class TextUtils {
             float rotateX, float rotateY) {
         ArgChecks.nullNotPermitted(text, "text");
         AffineTransform saved = g2.getTransform();
-        Rectangle2D rect = TextUtils.getTextBounds(text, textX, textY, 
-                g2.getFontMetrics());
+        Rectangle2D rect = bounds(measure(text, g2), textX, textY);
         AffineTransform rotate = AffineTransform.getRotateInstance(
                 angle, rotateX, rotateY);
         Shape bounds = rotate.createTransformedShape(rect);
         g2.transform(rotate);
-        g2.drawString(text, textX, textY);
+        drawString(text, g2, textX, textY);
         g2.setTransform(saved);
         return bounds;
     }
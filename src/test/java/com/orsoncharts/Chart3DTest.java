@@ -40,6 +40,12 @@ import org.junit.Test;
 
 import java.awt.Color;
 import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.Dimension2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
 import com.orsoncharts.data.StandardPieDataset3D;
 import com.orsoncharts.data.PieDataset3D;
 import com.orsoncharts.data.category.CategoryDataset3D;
@@ -49,10 +55,16 @@ import com.orsoncharts.data.xyz.XYZDataset;
 import com.orsoncharts.data.xyz.XYZSeries;
 import com.orsoncharts.data.xyz.XYZSeriesCollection;
 import com.orsoncharts.legend.LegendAnchor;
+import com.orsoncharts.legend.LegendBuilder;
 import com.orsoncharts.legend.StandardLegendBuilder;
+import com.orsoncharts.plot.Plot3D;
+import com.orsoncharts.style.ChartStyle;
 import com.orsoncharts.style.ChartStyles;
+import com.orsoncharts.util.Anchor2D;
 import com.orsoncharts.util.Orientation;
 import com.orsoncharts.table.StandardRectanglePainter;
+import com.orsoncharts.table.TableElement;
+import com.orsoncharts.table.TextElement;
 
 /**
  * Tests for the {@link Chart3D} class.
@@ -133,6 +145,12 @@ public class Chart3DTest {
         c2.setProjDistance(123);
         assertTrue(c1.equals(c2));
         
+        // itemLabelDecluttering
+        c1.setItemLabelDecluttering(true);
+        assertFalse(c1.equals(c2));
+        c2.setItemLabelDecluttering(true);
+        assertTrue(c1.equals(c2));
+        
         // style
         c1.setStyle(ChartStyles.createIceCubeStyle());
         assertFalse(c1.equals(c2));
@@ -243,6 +261,91 @@ public class Chart3DTest {
         
     }
 
+    /**
+     * A legend builder that counts the legends it creates.
+     */
+    /**
+     * A legend builder that counts the number of times that its legend is
+     * measured.
+     */
+    private static class CountingLegendBuilder implements LegendBuilder {
+        
+        int count;
+        
+        @Override
+        public TableElement createLegend(Plot3D plot, Anchor2D anchor, 
+                Orientation orientation, ChartStyle style) {
+            return new TextElement("Legend") {
+                @Override
+                public Dimension2D preferredSize(Graphics2D g2, 
+                        Rectangle2D bounds) {
+                    count++;
+                    return super.preferredSize(g2, bounds);
+                }
+            };
+        }
+    }
+    
+    /**
+     * The legend layout is reused when only the view point changes, and 
+     * recalculated after a change to the bounds or the legend settings.
+     */
+    @Test
+    public void testLegendReuse() {
+        Chart3D chart = Chart3DFactory.createPieChart("title", "subtitle", 
+                createPieDataset());
+        CountingLegendBuilder builder = new CountingLegendBuilder();
+        chart.setLegendBuilder(builder);
+        BufferedImage image = new BufferedImage(200, 100, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        Rectangle bounds = new Rectangle(200, 100);
+        chart.draw(g2, bounds);
+        assertEquals(1, builder.count);
+        chart.getViewPoint().panLeftRight(0.1);
+        chart.setViewPoint(chart.getViewPoint());
+        chart.draw(g2, bounds);
+        assertEquals(1, builder.count);
+        
+        chart.draw(g2, new Rectangle(300, 100));
+        assertEquals(2, builder.count);
+        chart.setLegendAnchor(LegendAnchor.TOP_LEFT);
+        chart.draw(g2, new Rectangle(300, 100));
+        assertEquals(3, builder.count);
+        g2.dispose();
+    }
+    
+    /**
+     * A change to the legend builder after the chart has been drawn is 
+     * picked up by the next drawing, even though the builder does not send
+     * a change event.
+     */
+    @Test
+    public void testLegendBuilderChange() {
+        Chart3D chart1 = Chart3DFactory.createPieChart("title", "subtitle", 
+                createPieDataset());
+        int[] before = drawToPixels(chart1);
+        ((StandardLegendBuilder) chart1.getLegendBuilder()).setHeader(
+                "Header");
+        int[] after = drawToPixels(chart1);
+        assertFalse(Arrays.equals(before, after));
+
+        Chart3D chart2 = Chart3DFactory.createPieChart("title", "subtitle", 
+                createPieDataset());
+        ((StandardLegendBuilder) chart2.getLegendBuilder()).setHeader(
+                "Header");
+        assertTrue(Arrays.equals(drawToPixels(chart2), after));
+    }
+    
+    private int[] drawToPixels(Chart3D chart) {
+        BufferedImage image = new BufferedImage(300, 200, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        chart.draw(g2, new Rectangle(300, 200));
+        g2.dispose();
+        return image.getRGB(0, 0, 300, 200, null, 0, 300);
+    }
+
     private PieDataset3D<String> createPieDataset() {
         StandardPieDataset3D<String> dataset 
                 = new StandardPieDataset3D<String>();
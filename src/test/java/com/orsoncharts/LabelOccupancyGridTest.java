@@ -0,0 +1,68 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.geom.Rectangle2D;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link LabelOccupancyGrid} class.
+ */
+public class LabelOccupancyGridTest {
+    
+    @Test
+    public void testPlace() {
+        LabelOccupancyGrid grid = new LabelOccupancyGrid(
+                new Rectangle2D.Double(-100, -50, 200, 100), 32.0);
+        assertTrue(grid.place(new Rectangle2D.Double(-10, -5, 20, 10)));
+        
+        // an overlapping label is rejected
+        assertFalse(grid.place(new Rectangle2D.Double(5, 0, 20, 10)));
+        
+        // a label that only touches the edge is accepted
+        assertTrue(grid.place(new Rectangle2D.Double(10, -5, 20, 10)));
+        
+        // overlaps spanning several cells are found
+        assertFalse(grid.place(new Rectangle2D.Double(-90, -2, 180, 4)));
+        
+        // labels outside the grid area are checked against the edge cells
+        assertTrue(grid.place(new Rectangle2D.Double(150, 60, 20, 10)));
+        assertFalse(grid.place(new Rectangle2D.Double(160, 65, 20, 10)));
+    }
+
+}
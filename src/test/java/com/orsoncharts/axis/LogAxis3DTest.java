@@ -34,6 +34,8 @@ package com.orsoncharts.axis;
 
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import java.awt.BasicStroke;
 import java.awt.Color;
@@ -43,6 +45,7 @@ import java.text.DecimalFormat;
 
 import org.junit.Test;
 
+import com.orsoncharts.Range;
 import com.orsoncharts.TestUtils;
 
 /**
@@ -200,4 +203,29 @@ public class LogAxis3DTest {
         assertTrue(axis1.equals(axis2));
     }
 
+    /**
+     * Translating a block of values should give the same results as 
+     * translating each value individually.
+     */
+    @Test
+    public void testTranslateToWorldBlock() {
+        LogAxis3D axis = new LogAxis3D("X");
+        axis.setRange(new Range(0.5, 2000.0));
+        double[] src = { 0.5, 0.9, 1.0, 17.3, 1000.0, 2000.0, 5000.0 };
+        for (boolean inverted : new boolean[] { false, true }) {
+            axis.setInverted(inverted);
+            double[] dst = new double[src.length];
+            axis.translateToWorld(src, 0, src.length, 8.0, dst);
+            for (int i = 0; i < src.length; i++) {
+                assertEquals(axis.translateToWorld(src[i], 8.0), dst[i], 0.0);
+            }
+        }
+        try {
+            axis.translateToWorld(src, 3, 5, 8.0, new double[8]);
+            fail("Expected an IllegalArgumentException.");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
 }
@@ -45,6 +45,9 @@ import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
 import java.text.DecimalFormat;
 import com.orsoncharts.Range;
 import com.orsoncharts.TestUtils;
@@ -289,6 +292,39 @@ public class NumberAxis3DTest implements Axis3DChangeListener {
         assertTrue(axis1.equals(axis2));
     }
     
+    /**
+     * The tick selection is reused while the inputs are unchanged, and 
+     * recalculated when they change.
+     */
+    @Test
+    public void testSelectTickReuse() {
+        BufferedImage img = new BufferedImage(10, 10, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = img.createGraphics();
+        NumberAxis3D axis = new NumberAxis3D("X", new Range(0.0, 100.0));
+        Point2D p0 = new Point2D.Double(0.0, 0.0);
+        Point2D opp = new Point2D.Double(0.0, 10.0);
+        double t1 = axis.selectTick(g2, p0, new Point2D.Double(400.0, 0.0), 
+                opp);
+        double t2 = axis.selectTick(g2, p0, new Point2D.Double(400.2, 0.0), 
+                opp);
+        assertEquals(t1, t2, 0.0);
+        double t3 = axis.selectTick(g2, p0, new Point2D.Double(40.0, 0.0), 
+                opp);
+        assertTrue(t3 > t1);
+        
+        // a larger font needs a larger tick unit
+        axis.setTickLabelFont(new Font(Font.DIALOG, Font.PLAIN, 40));
+        double t4 = axis.selectTick(g2, p0, new Point2D.Double(400.0, 0.0), 
+                opp);
+        assertTrue(t4 > t1);
+        
+        axis.setRange(0.0, 1000.0);
+        double t5 = axis.selectTick(g2, p0, new Point2D.Double(400.0, 0.0), 
+                opp);
+        assertTrue(t5 > t4);
+        g2.dispose();
+    }
     
     private Axis3DChangeEvent lastEvent;
 
@@ -297,4 +333,29 @@ public class NumberAxis3DTest implements Axis3DChangeListener {
         this.lastEvent = event;
     }
 
+    /**
+     * Translating a block of values should give the same results as 
+     * translating each value individually.
+     */
+    @Test
+    public void testTranslateToWorldBlock() {
+        NumberAxis3D axis = new NumberAxis3D("X", new Range(-3.0, 7.5));
+        double[] src = { 99.0, -3.0, -1.25, 0.0, 2.2, 7.5, 11.0, 99.0 };
+        for (boolean inverted : new boolean[] { false, true }) {
+            axis.setInverted(inverted);
+            double[] dst = new double[src.length];
+            axis.translateToWorld(src, 1, 6, 12.5, dst);
+            assertEquals(0.0, dst[0], 0.0);
+            assertEquals(0.0, dst[7], 0.0);
+            for (int i = 1; i < 7; i++) {
+                assertEquals(axis.translateToWorld(src[i], 12.5), dst[i], 0.0);
+            }
+        }
+        // the source and destination can be the same array
+        double[] values = { 2.2, -1.25 };
+        axis.translateToWorld(values, 0, 2, 12.5, values);
+        assertEquals(axis.translateToWorld(2.2, 12.5), values[0], 0.0);
+        assertEquals(axis.translateToWorld(-1.25, 12.5), values[1], 0.0);
+    }
+
 }
@@ -0,0 +1,113 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.data.function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import com.orsoncharts.Range;
+
+/**
+ * Tests for the {@link SampledFunction3D} class.
+ */
+public class SampledFunction3DTest {
+    
+    private static final double EPSILON = 0.00000001;
+    
+    private static final Function3D F = new Function3D() {
+        @Override
+        public double getValue(double x, double z) {
+            return x * z;
+        }
+    };
+    
+    @Test
+    public void testGeneral() {
+        SampledFunction3D sf = new SampledFunction3D(F, new Range(0.0, 4.0), 
+                4, new Range(-1.0, 1.0), 2);
+        assertEquals(3.0, sf.getX(3), EPSILON);
+        assertEquals(0.0, sf.getZ(1), EPSILON);
+        assertEquals(-4.0, sf.getValue(4, 0), EPSILON);
+        assertEquals(1.75, sf.getMidValue(3, 1), EPSILON);
+        assertEquals(new Range(-4.0, 4.0), sf.findYRange(true));
+        assertTrue(sf.isSampleOf(F, new Range(0.0, 4.0), 4, 
+                new Range(-1.0, 1.0), 2));
+        assertFalse(sf.isSampleOf(F, new Range(0.0, 4.0), 5, 
+                new Range(-1.0, 1.0), 2));
+    }
+    
+    /**
+     * The parallel and serial sampling should give the same results.
+     */
+    @Test
+    public void testParallel() {
+        Range r = new Range(-10.0, 10.0);
+        SampledFunction3D sf1 = new SampledFunction3D(F, r, 200, r, 150, 
+                true);
+        SampledFunction3D sf2 = new SampledFunction3D(F, r, 200, r, 150, 
+                false);
+        for (int i = 0; i <= 200; i++) {
+            for (int k = 0; k <= 150; k++) {
+                assertEquals(sf2.getValue(i, k), sf1.getValue(i, k), 0.0);
+            }
+        }
+        assertEquals(sf2.getMidValue(199, 149), sf1.getMidValue(199, 149), 
+                0.0);
+    }
+    
+    /**
+     * Unless parallel sampling is requested, the function is only called 
+     * from the thread that creates the samples (function implementations are
+     * not required to be thread safe).
+     */
+    @Test
+    public void testSerialByDefault() {
+        final Thread caller = Thread.currentThread();
+        final boolean[] otherThread = new boolean[1];
+        Function3D f = new Function3D() {
+            @Override
+            public double getValue(double x, double z) {
+                if (Thread.currentThread() != caller) {
+                    otherThread[0] = true;
+                }
+                return x + z;
+            }
+        };
+        Range r = new Range(-10.0, 10.0);
+        new SampledFunction3D(f, r, 200, r, 150);
+        assertFalse(otherThread[0]);
+    }
+
+}
@@ -0,0 +1,112 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.data.xyz;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link MappedXYZDataset} class.
+ */
+public class MappedXYZDatasetTest {
+    
+    private static final double EPSILON = 0.00000001;
+    
+    private XYZSeriesCollection<String> createDataset() {
+        XYZSeries<String> s1 = new XYZSeries<String>("S1");
+        s1.add(1.0, 2.0, 3.0);
+        s1.add(4.0, 5.0, 6.0);
+        XYZSeries<String> s2 = new XYZSeries<String>("S2");
+        s2.add(-1.5, 0.25, 100.0);
+        XYZSeriesCollection<String> dataset 
+                = new XYZSeriesCollection<String>();
+        dataset.add(s1);
+        dataset.add(s2);
+        return dataset;
+    }
+    
+    @Test
+    public void testDoublePrecision() throws IOException {
+        File file = File.createTempFile("orsoncharts", ".xyz");
+        try {
+            MappedXYZDatasetWriter.write(createDataset(), file, false);
+            MappedXYZDataset dataset = new MappedXYZDataset(file);
+            assertFalse(dataset.isSinglePrecision());
+            assertEquals(2, dataset.getSeriesCount());
+            assertEquals("S2", dataset.getSeriesKey(1));
+            assertEquals(1, dataset.getSeriesIndex("S2"));
+            assertEquals(2, dataset.getItemCount(0));
+            assertEquals(1, dataset.getItemCount(1));
+            assertEquals(4.0, dataset.getX(0, 1), EPSILON);
+            assertEquals(5.0, dataset.getY(0, 1), EPSILON);
+            assertEquals(6.0, dataset.getZ(0, 1), EPSILON);
+            assertEquals(-1.5, dataset.getX(1, 0), EPSILON);
+            assertEquals(0.25, dataset.getY(1, 0), EPSILON);
+            assertEquals(100.0, dataset.getZ(1, 0), EPSILON);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testSinglePrecision() throws IOException {
+        File file = File.createTempFile("orsoncharts", ".xyz");
+        try {
+            MappedXYZDatasetWriter writer = new MappedXYZDatasetWriter(file, 
+                    true);
+            writer.startSeries("A");
+            for (int i = 0; i < 10000; i++) {
+                writer.add(i, 2 * i, 3 * i);
+            }
+            writer.startSeries("B");
+            writer.close();
+            MappedXYZDataset dataset = new MappedXYZDataset(file);
+            assertTrue(dataset.isSinglePrecision());
+            assertEquals(2, dataset.getSeriesCount());
+            assertEquals(10000, dataset.getItemCount(0));
+            assertEquals(0, dataset.getItemCount(1));
+            assertEquals(9999.0, dataset.getX(0, 9999), EPSILON);
+            assertEquals(19998.0, dataset.getY(0, 9999), EPSILON);
+            assertEquals(29997.0, dataset.getZ(0, 9999), EPSILON);
+        } finally {
+            file.delete();
+        }
+    }
+
+}
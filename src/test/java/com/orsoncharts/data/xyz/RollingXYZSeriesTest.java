@@ -0,0 +1,198 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.data.xyz;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.orsoncharts.TestUtils;
+import com.orsoncharts.data.Series3DChangeEvent;
+import com.orsoncharts.data.Series3DChangeListener;
+
+/**
+ * Tests for the {@link RollingXYZSeries} class.
+ */
+public class RollingXYZSeriesTest implements Series3DChangeListener {
+    
+    private static final double EPSILON = 0.00000001;
+    
+    private Series3DChangeEvent lastEvent;
+    
+    @Test
+    public void testGeneral() {
+        RollingXYZSeries<String> s = new RollingXYZSeries<String>("S1", 3);
+        assertEquals("S1", s.getKey());
+        assertEquals(3, s.getCapacity());
+        assertEquals(0, s.getItemCount());
+        
+        s.add(1.0, 2.0, 3.0);
+        s.add(4.0, 5.0, 6.0);
+        s.add(7.0, 8.0, 9.0);
+        assertEquals(3, s.getItemCount());
+        assertEquals(1.0, s.getXValue(0), EPSILON);
+        
+        // the oldest item is evicted once the series is full
+        s.add(10.0, 11.0, 12.0);
+        assertEquals(3, s.getItemCount());
+        assertEquals(4.0, s.getXValue(0), EPSILON);
+        assertEquals(5.0, s.getYValue(0), EPSILON);
+        assertEquals(6.0, s.getZValue(0), EPSILON);
+        assertEquals(10.0, s.getXValue(2), EPSILON);
+        assertEquals(11.0, s.getYValue(2), EPSILON);
+        assertEquals(12.0, s.getZValue(2), EPSILON);
+        
+        s.remove(1);
+        assertEquals(2, s.getItemCount());
+        assertEquals(4.0, s.getXValue(0), EPSILON);
+        assertEquals(10.0, s.getXValue(1), EPSILON);
+        
+        s.clear();
+        assertEquals(0, s.getItemCount());
+    }
+    
+    @Test
+    public void testBlockAdd() {
+        RollingXYZSeries<String> s = new RollingXYZSeries<String>("S1", 2);
+        double[] x = new double[] { 1.0, 2.0, 3.0 };
+        double[] y = new double[] { 4.0, 5.0, 6.0 };
+        double[] z = new double[] { 7.0, 8.0, 9.0 };
+        s.add(x, y, z, 0, 3);
+        assertEquals(2, s.getItemCount());
+        assertEquals(2.0, s.getXValue(0), EPSILON);
+        assertEquals(6.0, s.getYValue(1), EPSILON);
+    }
+    
+    @Test
+    public void testEventNotification() {
+        RollingXYZSeries<String> s = new RollingXYZSeries<String>("S1", 2);
+        s.addChangeListener(this);
+        s.add(1.0, 2.0, 3.0);
+        RollingXYZSeriesChangeEvent e 
+                = (RollingXYZSeriesChangeEvent) this.lastEvent;
+        assertEquals(1, e.getAddedCount());
+        assertEquals(0, e.getEvictedCount());
+        
+        s.setNotify(false);
+        s.add(4.0, 5.0, 6.0);
+        s.add(7.0, 8.0, 9.0);
+        s.add(10.0, 11.0, 12.0);
+        s.setNotify(true);
+        e = (RollingXYZSeriesChangeEvent) this.lastEvent;
+        assertEquals(3, e.getAddedCount());
+        assertEquals(2, e.getEvictedCount());
+    }
+    
+    @Test
+    public void testCollection() {
+        RollingXYZSeries<String> s = new RollingXYZSeries<String>("S1", 2);
+        XYZSeriesCollection<String> dataset 
+                = new XYZSeriesCollection<String>();
+        dataset.add(s);
+        s.add(1.0, 2.0, 3.0);
+        s.add(4.0, 5.0, 6.0);
+        s.add(7.0, 8.0, 9.0);
+        assertEquals(2, dataset.getItemCount(0));
+        assertEquals(4.0, dataset.getX(0, 0), EPSILON);
+        assertEquals(9.0, dataset.getZ(0, 1), EPSILON);
+    }
+
+    /**
+     * Tests for the equals() method.
+     */
+    @Test
+    public void testEquals() {
+        RollingXYZSeries<String> s1 = new RollingXYZSeries<String>("S", 2);
+        RollingXYZSeries<String> s2 = new RollingXYZSeries<String>("S", 2);
+        assertTrue(s1.equals(s2));
+        assertFalse(s1.equals(null));
+        
+        // capacity
+        s1 = new RollingXYZSeries<String>("S", 3);
+        assertFalse(s1.equals(s2));
+        s2 = new RollingXYZSeries<String>("S", 3);
+        assertTrue(s1.equals(s2));
+        
+        // data items
+        s1.add(1.0, 2.0, 3.0);
+        assertFalse(s1.equals(s2));
+        s2.add(1.0, 2.0, 3.0);
+        assertTrue(s1.equals(s2));
+        
+        // same items at different buffer positions
+        s1.add(4.0, 5.0, 6.0);
+        s1.add(7.0, 8.0, 9.0);
+        s1.add(10.0, 11.0, 12.0);
+        s2.clear();
+        s2.add(4.0, 5.0, 6.0);
+        s2.add(7.0, 8.0, 9.0);
+        s2.add(10.0, 11.0, 12.0);
+        assertTrue(s1.equals(s2));
+        
+        // never equal to a regular series (in either direction)
+        XYZSeries<String> s3 = new XYZSeries<String>("S");
+        s3.add(7.0, 8.0, 9.0);
+        s3.add(10.0, 11.0, 12.0);
+        s1 = new RollingXYZSeries<String>("S", 2);
+        assertFalse(s1.equals(s3));
+        assertFalse(s3.equals(s1));
+        s1.clear();
+        assertFalse(s1.equals(new XYZSeries<String>("S")));
+        assertFalse(new XYZSeries<String>("S").equals(s1));
+    }
+
+    /**
+     * Checks for serialization support.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSerialization() {
+        RollingXYZSeries<String> s1 = new RollingXYZSeries<String>("S", 2);
+        RollingXYZSeries<String> s2 
+                = (RollingXYZSeries) TestUtils.serialized(s1);
+        assertEquals(s1, s2);
+
+        s1.add(1.0, 2.0, 3.0);
+        s2 = (RollingXYZSeries) TestUtils.serialized(s1);
+        assertEquals(s1, s2);
+    }
+
+    @Override
+    public void seriesChanged(Series3DChangeEvent event) {
+        this.lastEvent = event;
+    }
+
+}
@@ -0,0 +1,114 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.data.xyz;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import com.orsoncharts.Range;
+
+/**
+ * Tests for the {@link VoxelGrid} class.
+ */
+public class VoxelGridTest {
+    
+    private static final double EPSILON = 0.0000001;
+    
+    private static XYZSeriesCollection<String> createDataset(int seriesCount,
+            int itemCount) {
+        XYZSeriesCollection<String> dataset 
+                = new XYZSeriesCollection<String>();
+        for (int s = 0; s < seriesCount; s++) {
+            XYZSeries<String> series = new XYZSeries<String>("S" + s);
+            for (int i = 0; i < itemCount; i++) {
+                series.add(i % 10, (i + s) % 10, i % 3);
+            }
+            dataset.add(series);
+        }
+        return dataset;
+    }
+    
+    @Test
+    public void testBinning() {
+        XYZSeriesCollection<String> dataset 
+                = new XYZSeriesCollection<String>();
+        XYZSeries<String> s1 = new XYZSeries<String>("S1");
+        s1.add(0.0, 1.0, 0.0);
+        s1.add(0.4, 1.5, 0.1);
+        s1.add(10.0, 10.0, 10.0);
+        s1.add(11.0, 1.0, 0.0); // outside the x-range
+        s1.add(Double.NaN, 1.0, 0.0);
+        dataset.add(s1);
+        Range r = new Range(0.0, 10.0);
+        VoxelGrid grid = new VoxelGrid(dataset, r, 5, r, 5, r, 5);
+        assertEquals(2, grid.getCount(0, 0, 0));
+        assertEquals(0, grid.getCount(0, 1, 0));
+        assertEquals(0, grid.getCount(2, 0, 0));
+        assertEquals(1, grid.getCount(4, 4, 4));
+        assertEquals(1.25, grid.getMeanY(0, 0, 0), EPSILON);
+        assertTrue(Double.isNaN(grid.getMeanY(1, 1, 1)));
+        assertEquals(2, grid.getOccupiedCount());
+        assertEquals(2, grid.getMaxCount());
+        assertEquals(3, grid.getItemCount());
+        assertTrue(grid.isBinningOf(dataset, r, 5, r, 5, r, 5));
+        assertFalse(grid.isBinningOf(dataset, r, 4, r, 5, r, 5));
+    }
+    
+    /**
+     * The parallel binning should give the same result as the sequential
+     * binning.
+     */
+    @Test
+    public void testParallel() {
+        XYZSeriesCollection<String> dataset = createDataset(4, 40000);
+        Range xr = new Range(0.0, 9.0);
+        Range zr = new Range(0.0, 2.0);
+        VoxelGrid g1 = new VoxelGrid(dataset, xr, 7, xr, 8, zr, 3, true);
+        VoxelGrid g2 = new VoxelGrid(dataset, xr, 7, xr, 8, zr, 3, false);
+        assertEquals(160000, g1.getItemCount());
+        assertEquals(g2.getOccupiedCount(), g1.getOccupiedCount());
+        for (int i = 0; i < 7; i++) {
+            for (int j = 0; j < 8; j++) {
+                for (int k = 0; k < 3; k++) {
+                    assertEquals(g2.getCount(i, j, k), g1.getCount(i, j, k));
+                    assertEquals(g2.getMeanY(i, j, k), g1.getMeanY(i, j, k), 
+                            EPSILON);
+                }
+            }
+        }
+    }
+    
+}
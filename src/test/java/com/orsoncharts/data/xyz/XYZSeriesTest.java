@@ -111,6 +111,12 @@ public class XYZSeriesTest implements Series3DChangeListener {
         assertFalse(s1.equals(s2));
         s2.add(1.0, 2.0, 3.0);
         assertTrue(s1.equals(s2));
+        
+        // a subclass that uses the base storage compares by data
+        XYZSeries<String> s3 = new XYZSeries<String>("SS") {};
+        s3.add(1.0, 2.0, 3.0);
+        assertTrue(s1.equals(s3));
+        assertTrue(s3.equals(s1));
     }
 
     /**
@@ -0,0 +1,175 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.graphics3d;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import java.awt.Color;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Some tests for the {@link InstancedObject3D} class.
+ */
+public class InstancedObject3DTest {
+    
+    private static final double EPSILON = 0.00000001;
+
+    @Test
+    public void testInstances() {
+        Object3D template = Object3D.createBox(0.0, 1.0, 0.0, 1.0, 0.0, 1.0, 
+                Color.BLACK);
+        InstancedObject3D obj = new InstancedObject3D(template);
+        assertEquals(0, obj.getVertexCount());
+        assertEquals(0, obj.getFaces().size());
+        obj.addInstance(1.0, 2.0, 3.0, 2.0, 4.0, 6.0, Color.RED, "A");
+        obj.addInstance(-1.0, 0.0, 0.0, 1.0, 1.0, 1.0, Color.BLUE, null);
+        assertEquals(2, obj.getInstanceCount());
+        assertEquals(16, obj.getVertexCount());
+        
+        // vertex 0 in the box template is (-0.5, -0.5, -0.5)
+        Point3D v = obj.getVertex(0);
+        assertEquals(0.0, v.x, EPSILON);
+        assertEquals(0.0, v.y, EPSILON);
+        assertEquals(0.0, v.z, EPSILON);
+        v = obj.getVertex(8);
+        assertEquals(-1.5, v.x, EPSILON);
+        
+        List<Face> faces = obj.getFaces();
+        assertEquals(12, faces.size());
+        Face f0 = faces.get(0);
+        Face f6 = faces.get(6);
+        assertEquals(Color.RED, f0.getColor());
+        assertEquals("A", f0.getItemKey());
+        assertEquals(Color.BLUE, f6.getColor());
+        assertNull(f6.getItemKey());
+        
+        // the faces are created on request rather than stored
+        assertNotSame(f0, obj.getFaces().get(0));
+        assertEquals(f0, obj.getFaces().get(0));
+        assertFalse(f0.equals(f6));
+        
+        // faces for the second instance refer to the second set of vertices
+        assertEquals(template.getFaces().get(0).getVertexIndex(0) + 8, 
+                f6.getVertexIndex(0));
+        f6.setOffset(10);
+        assertEquals(10, f6.getOffset());
+        assertEquals(template.getFaces().get(0).getVertexIndex(0) + 18, 
+                f6.getVertexIndex(0));
+    }
+    
+    @Test
+    public void testTagColors() {
+        Object3D template = Object3D.createBar(1.0, 1.0, 0.0, 1.0, 0.0, 0.0, 
+                Color.BLACK, Color.BLACK, Color.BLACK, false);
+        InstancedObject3D obj = new InstancedObject3D(template);
+        for (int i = 0; i < 20; i++) {
+            obj.addInstance(i, 0.0, 0.0, 1.0, 1.0, 1.0, Color.GRAY, null);
+        }
+        obj.setTagColor(3, "c1", Color.GREEN);
+        obj.addInstance(20, 0.0, 0.0, 1.0, 1.0, 1.0, Color.GRAY, null);
+        int n = template.getFaceCount();
+        List<Face> faces = obj.getFaces();
+        for (int i = 0; i < faces.size(); i++) {
+            Color expected = Color.GRAY;
+            if (i == 3 * n + n - 2) {
+                expected = Color.GREEN;
+            }
+            assertEquals(expected, faces.get(i).getColor());
+            assertEquals(expected, obj.getColor(i));
+        }
+        
+        // the resolved tag colors are updated for a new tag
+        obj.setTagColor(5, "c0", Color.RED);
+        assertEquals(Color.RED, obj.getColor(5 * n + n - 1));
+        assertEquals(Color.GRAY, obj.getColor(6 * n + n - 1));
+    }
+    
+    @Test
+    public void testHiddenFaces() {
+        Object3D template = Object3D.createBar(1.0, 1.0, 0.0, 1.0, 0.0, 0.0, 
+                Color.BLACK, Color.BLACK, Color.BLACK, false, 0);
+        InstancedObject3D obj = new InstancedObject3D(template);
+        obj.addInstance(0.0, 0.0, 0.0, 1.0, 1.0, 1.0, Color.RED, "A");
+        obj.addInstance(1.0, 0.0, 0.0, 1.0, 2.0, 1.0, Color.BLUE, "B");
+        assertEquals(12, obj.getFaceCount());
+        obj.setHiddenFaces(0, Object3D.BAR_FACE_MAX_X);
+        assertEquals(11, obj.getFaceCount());
+        assertEquals(11, obj.getFaces().size());
+        for (Face f : obj.getFaces()) {
+            if (f.getItemKey().equals("A")) {
+                assertEquals(Color.RED, f.getColor());
+            }
+        }
+        
+        // adding an instance keeps the hidden faces
+        obj.addInstance(2.0, 0.0, 0.0, 1.0, 1.0, 1.0, Color.RED, "C");
+        assertEquals(17, obj.getFaceCount());
+        obj.setHiddenFaces(0, 0);
+        assertEquals(18, obj.getFaceCount());
+    }
+    
+    /**
+     * The normals for instance faces (derived from the template normals and
+     * the instance scaling) match those for a regular object with the same
+     * vertices.
+     */
+    @Test
+    public void testDotNormal() {
+        Object3D template = Object3D.createBox(0.0, 1.0, 0.0, 1.0, 0.0, 1.0, 
+                Color.BLACK);
+        InstancedObject3D obj = new InstancedObject3D(template);
+        obj.addInstance(1.0, 2.0, 3.0, 2.0, 0.5, 6.0, Color.RED, "A");
+        obj.addInstance(-1.0, 0.0, 0.0, 3.0, -1.0, 0.25, Color.BLUE, "B");
+        Object3D boxA = Object3D.createBox(1.0, 2.0, 2.0, 0.5, 3.0, 6.0, 
+                Color.RED);
+        Object3D boxB = Object3D.createBox(-1.0, 3.0, 0.0, -1.0, 0.0, 0.25, 
+                Color.BLUE);
+        List<Face> faces = obj.getFaces();
+        int n = template.getFaceCount();
+        for (int f = 0; f < n; f++) {
+            Face fa = boxA.getFaces().get(f);
+            Face fb = boxB.getFaces().get(f);
+            assertEquals(fa.dotNormal(0.3, -0.4, 0.5), 
+                    faces.get(f).dotNormal(0.3, -0.4, 0.5), EPSILON);
+            assertEquals(fb.dotNormal(-0.7, 0.1, 0.2), 
+                    faces.get(n + f).dotNormal(-0.7, 0.1, 0.2), EPSILON);
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.graphics3d;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Some tests for the {@link MeshObject3D} class.
+ */
+public class MeshObject3DTest {
+    
+    @Test
+    public void testAddPart() {
+        MeshObject3D mesh = new MeshObject3D(Color.BLACK);
+        Object3D p1 = Object3D.createBox(0.0, 1.0, 0.0, 1.0, 0.0, 1.0, 
+                Color.RED);
+        p1.setOutline(true);
+        Object3D p2 = Object3D.createBox(1.0, 1.0, 0.0, 1.0, 0.0, 1.0, 
+                Color.BLUE);
+        p2.setProperty(Object3D.COLOR_PREFIX + "x", Color.GREEN);
+        p2.addFace(new int[] {0, 1, 2}, "x");
+        assertEquals(0, mesh.addPart(p1, "A"));
+        assertEquals(1, mesh.addPart(p2, "B"));
+        assertEquals(2, mesh.getPartCount());
+        
+        // the boxes touch at x = 0.5, so four vertices are shared
+        assertEquals(12, mesh.getVertexCount());
+        assertEquals(13, mesh.getFaceCount());
+        List<Face> faces = mesh.getFaces();
+        assertEquals(Color.RED, faces.get(0).getColor());
+        assertEquals("A", faces.get(0).getItemKey());
+        assertTrue(faces.get(0).getOutline());
+        assertEquals(Color.BLUE, faces.get(6).getColor());
+        assertEquals("B", faces.get(6).getItemKey());
+        assertFalse(faces.get(6).getOutline());
+        assertEquals(Color.GREEN, faces.get(12).getColor());
+        
+        // the faces refer to the correct vertices
+        Face f = p2.getFaces().get(0);
+        Face mf = faces.get(6);
+        for (int i = 0; i < f.getVertexCount(); i++) {
+            assertEquals(p2.getVertex(f.getVertexIndex(i)), 
+                    mesh.getVertex(mf.getVertexIndex(i)));
+        }
+    }
+
+}
@@ -0,0 +1,347 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.graphics3d;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.awt.Color;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Some tests for the {@link Object3D} class.
+ */
+public class Object3DTest {
+    
+    private static final double EPSILON = 0.00000001;
+
+    /**
+     * Checks that every face of a bar faces away from the center of the bar.
+     * 
+     * @param bar  the bar.
+     */
+    private void checkOutwardFaces(Object3D bar) {
+        double cx = 0.0, cy = 0.0, cz = 0.0;
+        for (int i = 0; i < bar.getVertexCount(); i++) {
+            Point3D v = bar.getVertex(i);
+            cx += v.x / bar.getVertexCount();
+            cy += v.y / bar.getVertexCount();
+            cz += v.z / bar.getVertexCount();
+        }
+        for (Face f : bar.getFaces()) {
+            Point3D v0 = bar.getVertex(f.getVertexIndex(0));
+            Point3D v1 = bar.getVertex(f.getVertexIndex(1));
+            Point3D v2 = bar.getVertex(f.getVertexIndex(2));
+            Point3D v3 = bar.getVertex(f.getVertexIndex(3));
+            double ax = v1.x - v0.x, ay = v1.y - v0.y, az = v1.z - v0.z;
+            double bx = v2.x - v1.x, by = v2.y - v1.y, bz = v2.z - v1.z;
+            double nx = ay * bz - az * by;
+            double ny = az * bx - ax * bz;
+            double nz = ax * by - ay * bx;
+            double fx = (v0.x + v1.x + v2.x + v3.x) / 4.0 - cx;
+            double fy = (v0.y + v1.y + v2.y + v3.y) / 4.0 - cy;
+            double fz = (v0.z + v1.z + v2.z + v3.z) / 4.0 - cz;
+            assertTrue(nx * fx + ny * fy + nz * fz > 0.0);
+        }
+    }
+    
+    @Test
+    public void testCreateBarWithHiddenFaces() {
+        Object3D bar = Object3D.createBar(2.0, 3.0, 1.0, 5.0, 1.0, 1.0, 
+                Color.RED, Color.GREEN, Color.BLUE, false, 0);
+        assertEquals(6, bar.getFaceCount());
+        checkOutwardFaces(bar);
+        List<Face> faces = bar.getFaces();
+        assertEquals(Color.GREEN, faces.get(0).getColor());
+        assertEquals(Color.BLUE, faces.get(1).getColor());
+        assertEquals(Color.RED, faces.get(2).getColor());
+        
+        // a bar that extends below its base
+        bar = Object3D.createBar(2.0, 3.0, 1.0, -5.0, 1.0, 1.0, 
+                Color.RED, Color.GREEN, Color.BLUE, false, 0);
+        assertEquals(6, bar.getFaceCount());
+        checkOutwardFaces(bar);
+        
+        bar = Object3D.createBar(2.0, 3.0, 1.0, 5.0, 1.0, 1.0, 
+                Color.RED, Color.GREEN, Color.BLUE, false, 
+                Object3D.BAR_FACE_TOP | Object3D.BAR_FACE_MIN_X);
+        assertEquals(4, bar.getFaceCount());
+        checkOutwardFaces(bar);
+        faces = bar.getFaces();
+        assertEquals(Color.GREEN, faces.get(0).getColor());
+        for (Face f : faces) {
+            // no face remains in the plane of the top or at the minimum x
+            boolean top = true;
+            boolean minX = true;
+            for (int i = 0; i < f.getVertexCount(); i++) {
+                Point3D v = bar.getVertex(f.getVertexIndex(i));
+                top = top && v.y == 5.0;
+                minX = minX && v.x == 0.0;
+            }
+            assertTrue(!top && !minX);
+        }
+    }
+
+    @Test
+    public void testCreateBox() {
+        Object3D box = Object3D.createBox(1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 
+                Color.RED);
+        assertEquals(8, box.getVertexCount());
+        assertEquals(6, box.getFaceCount());
+        assertEquals(new Point3D(0.0, 1.0, 2.0), box.getVertex(0));
+        assertEquals(new Point3D(2.0, 5.0, 8.0), box.getVertex(6));
+        checkOutwardFaces(box);
+        // the top face (index 4) has a world normal in the y-direction
+        assertEquals(1.0, box.getFaces().get(4).dotNormal(0.0, 1.0, 0.0), 
+                0.000001);
+        assertEquals(-2.0, box.getFaces().get(5).dotNormal(0.0, 2.0, 0.0), 
+                0.000001);
+    }
+    
+    /**
+     * Primitives of the same type and resolution share their template.
+     */
+    @Test
+    public void testSharedTemplates() {
+        assertSame(PrimitiveTemplate.box(), PrimitiveTemplate.box());
+        assertSame(PrimitiveTemplate.sphere(8), PrimitiveTemplate.sphere(8));
+        assertTrue(PrimitiveTemplate.sphere(8) != PrimitiveTemplate.sphere(9));
+        
+        Object3D s1 = Object3D.createSphere(1.0, 8, 0.0, 0.0, 0.0, Color.RED, 
+                Color.BLUE);
+        Object3D s2 = Object3D.createSphere(2.0, 8, 1.0, 1.0, 1.0, 
+                Color.GREEN, Color.BLUE);
+        assertEquals(8 * 16, s1.getVertexCount());
+        assertEquals(6 * 16 * 2, s1.getFaceCount());
+        assertEquals(s1.getFaceCount(), s2.getFaceCount());
+        for (int f = 0; f < s1.getFaceCount(); f++) {
+            Face f1 = s1.getFaces().get(f);
+            Face f2 = s2.getFaces().get(f);
+            assertEquals(f1.getTag(), f2.getTag());
+            for (int v = 0; v < f1.getVertexCount(); v++) {
+                assertEquals(f1.getVertexIndex(v), f2.getVertexIndex(v));
+            }
+        }
+        assertEquals(Color.RED, s1.getFaces().get(0).getColor());
+        assertEquals(Color.BLUE, s1.getFaces().get(1).getColor());
+        assertEquals(new Point3D(1.0, 3.0, 1.0), s2.getVertex(0));
+        try {
+            s1.getFaces().clear();
+            fail("The faces of a primitive should not be modifiable.");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        assertEquals(6 * 16 * 2, s1.getFaceCount());
+    }
+    
+    /**
+     * Adding to a primitive copies the template geometry first.
+     */
+    @Test
+    public void testModifyPrimitive() {
+        Object3D octa = Object3D.createOctahedron(2.0, 1.0, 1.0, 1.0, 
+                Color.RED);
+        Face first = octa.getFaces().get(0);
+        octa.addVertex(10.0, 10.0, 10.0);
+        assertEquals(7, octa.getVertexCount());
+        assertEquals(new Point3D(3.0, 1.0, 1.0), octa.getVertex(0));
+        assertEquals(new Point3D(10.0, 10.0, 10.0), octa.getVertex(6));
+        assertEquals(8, octa.getFaceCount());
+        assertSame(first, octa.getFaces().get(0));
+        octa.addFace(new int[] {0, 1, 6});
+        assertEquals(9, octa.getFaceCount());
+        
+        Object3D tetra = Object3D.createTetrahedron(1.0, 0.0, 0.0, 0.0, 
+                Color.RED);
+        tetra.addFace(new int[] {0, 1, 3});
+        assertEquals(4, tetra.getVertexCount());
+        assertEquals(5, tetra.getFaceCount());
+    }
+
+    /**
+     * The item key, object class and tag colors are stored in fields but 
+     * remain accessible as properties.
+     */
+    @Test
+    public void testProperties() {
+        Object3D obj = new Object3D(Color.RED);
+        assertNull(obj.getProperty(Object3D.ITEM_KEY));
+        obj.setProperty(Object3D.ITEM_KEY, "K1");
+        assertEquals("K1", obj.getItemKey());
+        obj.setItemKey("K2");
+        assertEquals("K2", obj.getProperty(Object3D.ITEM_KEY));
+        
+        obj.setProperty(Object3D.CLASS_KEY, "ItemLabel");
+        assertEquals("ItemLabel", obj.getObjectClass());
+        obj.setObjectClass("X");
+        assertEquals("X", obj.getProperty(Object3D.CLASS_KEY));
+        
+        obj.setProperty(Object3D.COLOR_PREFIX + "top", Color.BLUE);
+        assertEquals(Color.BLUE, obj.getTagColor("top"));
+        obj.setTagColor("base", Color.GREEN);
+        assertEquals(Color.GREEN, obj.getProperty(Object3D.COLOR_PREFIX 
+                + "base"));
+        obj.setTagColor("top", Color.YELLOW);
+        assertEquals(Color.YELLOW, obj.getProperty(Object3D.COLOR_PREFIX 
+                + "top"));
+        
+        obj.setProperty("other", Integer.valueOf(3));
+        assertEquals(Integer.valueOf(3), obj.getProperty("other"));
+        assertNull(obj.getProperty("missing"));
+
+        obj.addVertex(0, 0, 0);
+        obj.addVertex(1, 0, 0);
+        obj.addVertex(1, 1, 0);
+        obj.addFace(new int[] {0, 1, 2});
+        obj.addFace(new int[] {2, 1, 0}, new String("top"));
+        obj.addFace(new int[] {0, 2, 1}, "side");
+        List<Face> faces = obj.getFaces();
+        assertEquals(Color.RED, faces.get(0).getColor());
+        assertEquals(Color.YELLOW, faces.get(1).getColor());
+        assertEquals(Color.RED, faces.get(2).getColor());
+    }
+    
+    /**
+     * Faces can still be added after the storage has been trimmed.
+     */
+    @Test
+    public void testAddAfterGetFaces() {
+        Object3D obj = new Object3D(Color.RED);
+        obj.addVertex(0, 0, 0);
+        obj.addVertex(1, 0, 0);
+        obj.addVertex(1, 1, 0);
+        obj.addFace(new int[] {0, 1, 2});
+        assertEquals(1, obj.getFaces().size());
+        obj.addVertex(new Point3D(0, 1, 0));
+        obj.addFace(new int[] {0, 2, 3});
+        assertEquals(2, obj.getFaces().size());
+        assertEquals(2, obj.getFaceCount());
+        assertEquals(4, obj.getVertexCount());
+        assertEquals(new Point3D(0, 1, 0), obj.getVertex(3));
+        assertEquals(new Point3D(1, 0, 0), obj.getVertex(1));
+    }
+
+    /**
+     * The normals retained by the object match those calculated by each
+     * face, for plain and template based objects, and are recalculated
+     * when a face is added.
+     */
+    @Test
+    public void testDotNormal() {
+        Object3D box = Object3D.createBox(1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 
+                Color.RED);
+        List<Face> faces = box.getFaces();
+        for (int i = 0; i < faces.size(); i++) {
+            assertEquals(faces.get(i).dotNormal(0.3, -0.5, 0.8), 
+                    box.dotNormal(i, 0.3, -0.5, 0.8), EPSILON);
+        }
+        Object3D obj = new Object3D(Color.RED);
+        obj.addVertex(0, 0, 0);
+        obj.addVertex(2, 0, 0);
+        obj.addVertex(2, 2, 0);
+        obj.addFace(new int[] {0, 1, 2});
+        assertEquals(1.0, obj.dotNormal(0, 0.0, 0.0, 1.0), EPSILON);
+        obj.addVertex(0, 0, 2);
+        obj.addFace(new int[] {0, 3, 1});
+        assertEquals(1.0, obj.dotNormal(1, 0.0, 1.0, 0.0), EPSILON);
+    }
+
+    /**
+     * The resolved face colors follow changes to the object and tag 
+     * colors.
+     */
+    @Test
+    public void testFaceColors() {
+        Object3D obj = new Object3D(Color.RED);
+        obj.addVertex(0, 0, 0);
+        obj.addVertex(1, 0, 0);
+        obj.addVertex(1, 1, 0);
+        obj.addFace(new int[] {0, 1, 2});
+        obj.addFace(new int[] {2, 1, 0}, "back");
+        assertEquals(Color.RED, obj.getColor(0));
+        assertEquals(Color.RED, obj.getColor(1));
+        obj.setTagColor("back", Color.BLUE);
+        assertEquals(Color.RED, obj.getColor(0));
+        assertEquals(Color.BLUE, obj.getColor(1));
+        obj.setColor(Color.GREEN);
+        assertEquals(Color.GREEN, obj.getColor(0));
+        obj.addFace(new int[] {1, 2, 0}, "back");
+        assertEquals(Color.BLUE, obj.getColor(2));
+        assertEquals(obj.getFaces().get(2).getColor(), obj.getColor(2));
+    }
+    
+    /**
+     * Face colors are not cached for a subclass that overrides 
+     * getColor(Face), or for a face class that overrides getColor().
+     */
+    @Test
+    public void testDynamicFaceColors() {
+        final Color[] color = new Color[] {Color.RED};
+        Object3D obj = new Object3D(Color.BLACK) {
+            @Override
+            public Color getColor(Face face) {
+                return color[0];
+            }
+        };
+        obj.addVertex(0, 0, 0);
+        obj.addVertex(1, 0, 0);
+        obj.addVertex(1, 1, 0);
+        obj.addFace(new int[] {0, 1, 2});
+        assertEquals(Color.RED, obj.getColor(0));
+        color[0] = Color.BLUE;
+        assertEquals(Color.BLUE, obj.getColor(0));
+        
+        Object3D obj2 = new Object3D(Color.BLACK);
+        obj2.addVertex(0, 0, 0);
+        obj2.addVertex(1, 0, 0);
+        obj2.addVertex(1, 1, 0);
+        obj2.addFace(new Face(obj2, new int[] {0, 1, 2}) {
+            @Override
+            public Color getColor() {
+                return color[0];
+            }
+        });
+        obj2.addFace(new int[] {2, 1, 0});
+        assertEquals(Color.BLUE, obj2.getColor(0));
+        assertEquals(Color.BLACK, obj2.getColor(1));
+        color[0] = Color.GREEN;
+        assertEquals(Color.GREEN, obj2.getColor(0));
+    }
+
+}
@@ -0,0 +1,142 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.graphics3d;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Some tests for the {@link PaintOrder} class.
+ */
+public class PaintOrderTest {
+    
+    /**
+     * Creates a world containing a regular object and an instanced object
+     * (with one hidden face).
+     * 
+     * @return The world. 
+     */
+    private static World createWorld() {
+        World world = new World();
+        world.add(Object3D.createBox(0.0, 2.0, 0.0, 1.0, 3.0, 1.0, 
+                Color.RED));
+        InstancedObject3D obj = new InstancedObject3D(Object3D.createBox(
+                0.0, 1.0, 0.0, 1.0, 0.0, 1.0, Color.BLACK));
+        obj.addInstance(-2.0, 0.0, 0.0, 1.0, 1.0, 1.0, Color.BLUE, "A");
+        obj.addInstance(2.0, 1.0, -1.0, 1.0, 2.0, 1.0, Color.GREEN, "B");
+        obj.addInstance(0.5, -1.0, 2.0, 0.5, 0.5, 0.5, Color.GRAY, "C");
+        obj.setHiddenFaces(1, 1);
+        world.add(obj);
+        world.add("other", Object3D.createOctahedron(1.0, 0.0, 2.0, 0.0, 
+                Color.YELLOW));
+        return world;
+    }
+    
+    /**
+     * The faces are sorted in the same order as the 
+     * {@link StandardFaceSorter}.
+     */
+    @Test
+    public void testOrder() {
+        World world = createWorld();
+        ViewPoint3D vp = new ViewPoint3D(-Math.PI / 3, Math.PI / 5, 20.0, 0.0);
+        Point3D[] eyePts = world.calculateEyeCoordinates(vp);
+        PaintOrder order = new PaintOrder(world, eyePts);
+        List<Face> expected = new StandardFaceSorter().sort(
+                new ArrayList<Face>(world.getFaces()), eyePts);
+        assertEquals(6 + 17 + 8, order.size());
+        assertEquals(expected.size(), order.size());
+        for (int i = 0; i < order.size(); i++) {
+            Face f = order.getFace(i);
+            assertEquals(expected.get(i), f);
+            assertEquals(expected.get(i), order.getTransientFace(i));
+            assertEquals(expected.get(i).getItemKey(), f.getItemKey());
+            assertEquals(expected.get(i).getColor(), f.getColor());
+            for (int v = 0; v < f.getVertexCount(); v++) {
+                assertEquals(expected.get(i).getVertexIndex(v), 
+                        f.getVertexIndex(v));
+            }
+        }
+        assertEquals(expected, order.getFaces());
+    }
+    
+    /**
+     * Transient faces for an instanced object are reused, while faces for
+     * other objects are returned directly.
+     */
+    @Test
+    public void testTransientFaces() {
+        World world = new World();
+        Object3D box = Object3D.createBox(0.0, 1.0, 0.0, 1.0, 0.0, 1.0, 
+                Color.RED);
+        world.add(box);
+        InstancedObject3D obj = new InstancedObject3D(box);
+        for (int i = 0; i < 10; i++) {
+            obj.addInstance(i, 0.0, 0.0, 0.5, 0.5, 0.5, Color.BLUE, null);
+        }
+        world.add(obj);
+        ViewPoint3D vp = new ViewPoint3D(0.1, 0.2, 30.0, 0.0);
+        PaintOrder order = new PaintOrder(world, 
+                world.calculateEyeCoordinates(vp));
+        List<Face> reused = new ArrayList<Face>();
+        for (int i = 0; i < order.size(); i++) {
+            Face f = order.getTransientFace(i);
+            if (f.getOwner() == box) {
+                assertSame(f, order.getFace(i));
+            } else if (!containsSame(reused, f)) {
+                reused.add(f);
+            }
+        }
+        // one reusable face per template face
+        assertEquals(6, reused.size());
+        assertEquals(Collections.<Face>emptyList(), new PaintOrder(
+                new World(), new Point3D[0]).getFaces());
+    }
+    
+    private static boolean containsSame(List<Face> faces, Face face) {
+        for (Face f : faces) {
+            if (f == face) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+}
@@ -32,6 +32,9 @@
 
 package com.orsoncharts.graphics3d;
 
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.geom.Point2D;
 import com.orsoncharts.TestUtils;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -139,4 +142,94 @@ public class ViewPoint3DTest {
         assertEquals(25, v1.getZ(), EPSILON);
         assertEquals(0, v1.getTheta(), EPSILON); 
     }
+
+    /**
+     * Converting a direction to eye coordinates and back again should give
+     * the original direction.
+     */
+    @Test
+    public void testEyeToWorldDirection() {
+        ViewPoint3D vp = new ViewPoint3D(1.1, 2.2, 30.0, 0.4);
+        vp.roll(0.7);
+        Point3D w = new Point3D(0.3, -2.0, 1.5);
+        Point3D e1 = vp.worldToEye(w);
+        Point3D e0 = vp.worldToEye(Point3D.ORIGIN);
+        Point3D p = vp.eyeToWorldDirection(e1.x - e0.x, e1.y - e0.y, 
+                e1.z - e0.z);
+        assertEquals(w.x, p.x, EPSILON);
+        assertEquals(w.y, p.y, EPSILON);
+        assertEquals(w.z, p.z, EPSILON);
+    }
+
+    /**
+     * The optimal distance should match a bisection that projects a box 
+     * object through a {@link World}.
+     */
+    @Test
+    public void testOptimalDistance() {
+        ViewPoint3D[] vps = new ViewPoint3D[] { 
+            ViewPoint3D.createAboveLeftViewPoint(40.0), 
+            ViewPoint3D.createAboveRightViewPoint(40.0),
+            ViewPoint3D.createAboveViewPoint(40.0),
+            new ViewPoint3D(0.3, 1.1, 25.0, 0.4)
+        };
+        Dimension3D[] dims = new Dimension3D[] { 
+            new Dimension3D(10, 10, 10), new Dimension3D(12, 5, 3), 
+            new Dimension3D(1, 8, 20)
+        };
+        Dimension[] targets = new Dimension[] { 
+            new Dimension(600, 400), new Dimension(80, 300), 
+            new Dimension(5, 5)
+        };
+        for (ViewPoint3D vp : vps) {
+            for (Dimension3D dim3D : dims) {
+                for (Dimension target : targets) {
+                    float expected = worldOptimalDistance(vp, target, dim3D, 
+                            1500);
+                    assertEquals(expected, vp.optimalDistance(target, dim3D, 
+                            1500), 0.0f);
+                }
+            }
+        }
+    }
+
+    private float worldOptimalDistance(ViewPoint3D viewPoint, 
+            Dimension target, Dimension3D dim3D, double projDist) {
+        ViewPoint3D vp = new ViewPoint3D(viewPoint.getTheta(), 
+                viewPoint.getPhi(), viewPoint.getRho(), 
+                viewPoint.calcRollAngle());
+        World w = new World();
+        w.add(Object3D.createBox(0, dim3D.getWidth(), 0, dim3D.getHeight(), 
+                0, dim3D.getDepth(), Color.RED));
+        float near = (float) dim3D.getDiagonalLength();
+        float far = near * 40;
+        for (int i = 0; i < 100; i++) {
+            vp.setRho(near);
+            if (coverage(w.calculateProjectedPoints(vp, projDist), target) 
+                    <= 1.0) {
+                return near;
+            }
+            vp.setRho(far);
+            if (coverage(w.calculateProjectedPoints(vp, projDist), target) 
+                    >= 1.0) {
+                return far;
+            }
+            float mid = (near + far) / 2.0f;
+            vp.setRho(mid);
+            if (coverage(w.calculateProjectedPoints(vp, projDist), target) 
+                    >= 1.0) {
+                near = mid;
+            } else {
+                far = mid;
+            }
+        }
+        return far;
+    }
+
+    private double coverage(Point2D[] pts, Dimension target) {
+        Dimension d = Utils2D.findDimension(pts);
+        double wpercent = d.getWidth() / target.getWidth();
+        double hpercent = d.getHeight() / target.getHeight();
+        return Math.max(wpercent, hpercent);
+    }
 }
@@ -0,0 +1,131 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.label;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+import java.util.IllegalFormatException;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Tests for the {@link LabelTemplate} class.
+ */
+public class LabelTemplateTest {
+    
+    /**
+     * Checks that the template gives the same result as 
+     * {@code String.format()}.
+     */
+    private void check(String template, Object... args) {
+        LabelTemplate t = new LabelTemplate(template);
+        assertEquals(String.format(template, args), t.format(args));
+    }
+    
+    @Test
+    public void testParse() {
+        assertTrue(new LabelTemplate("%s, %s, %s = %4$.3f").isCompiled());
+        assertTrue(new LabelTemplate("%s (%3$,.0f%%)").isCompiled());
+        assertTrue(new LabelTemplate("%s (%2$,d)%n").isCompiled());
+        assertTrue(new LabelTemplate("No conversions").isCompiled());
+        assertFalse(new LabelTemplate("%10s").isCompiled());
+        assertFalse(new LabelTemplate("%-5.2f").isCompiled());
+        assertFalse(new LabelTemplate("%x").isCompiled());
+        assertFalse(new LabelTemplate("%s %<s").isCompiled());
+        assertFalse(new LabelTemplate("100%").isCompiled());
+    }
+    
+    @Test
+    public void testFormat() {
+        Locale saved = Locale.getDefault();
+        Locale.setDefault(Locale.US);
+        try {
+            check("%s, %s, %s = %4$.3f", "S1", "R1", "C1", 1.2345);
+            check("%1$s, %3$s = %4$.3f", "S1", "R1", "C1", -0.0004);
+            check("%4$.2f", "S1", "R1", "C1", 1.005);
+            check("%s (%3$,.0f%%)", "A", 2.0, 12345678.5);
+            check("%s (%2$,d)", "A", -1234567, 3.0);
+            check("%s (%2$d) %3$.0f", "A", 7L, -0.4);
+            check("(%2$.3f, %3$.3f, %4$.3f)", "S", 1e21, -0.0, 1e-7);
+            check("%s%n%%", new StringBuilder("builder"));
+            check("%s %s", null, "x");
+            check("%.2f %.1f", Float.valueOf(2.675f), Double.NaN);
+            check("%4$.3f", "S", "R", "C", null);
+            check("%s (%2$,.2f)", "K", Double.NEGATIVE_INFINITY);
+            Random random = new Random(1L);
+            for (int i = 0; i < 2000; i++) {
+                double v = (random.nextDouble() - 0.5) 
+                        * Math.pow(10, random.nextInt(12) - 4);
+                check("%s (%2$,.0f) %2$.1f %2$,.2f %2$.3f %2$f", "K", v);
+                check("%2$,d %2$d", "K", random.nextInt());
+            }
+        } finally {
+            Locale.setDefault(saved);
+        }
+    }
+    
+    @Test
+    public void testOtherLocale() {
+        Locale saved = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            check("%s (%2$,.2f)", "K", 1234567.125);
+            check("%s (%2$,d)", "K", 1234567);
+        } finally {
+            Locale.setDefault(saved);
+        }
+    }
+    
+    @Test
+    public void testErrors() {
+        LabelTemplate t = new LabelTemplate("%s (%2$.2f)");
+        try {
+            t.format("A", Integer.valueOf(1));
+            fail("Expected an IllegalFormatException.");
+        } catch (IllegalFormatException e) {
+            // expected, as for Formatter
+        }
+        try {
+            t.format("A");
+            fail("Expected an IllegalFormatException.");
+        } catch (IllegalFormatException e) {
+            // expected, as for Formatter
+        }
+    }
+
+}
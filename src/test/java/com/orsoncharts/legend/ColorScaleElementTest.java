@@ -32,13 +32,22 @@
 
 package com.orsoncharts.legend;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import java.awt.Color;
 import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
 import org.junit.Test;
+import com.orsoncharts.Range;
 import com.orsoncharts.TestUtils;
+import com.orsoncharts.renderer.ColorScale;
 import com.orsoncharts.renderer.FixedColorScale;
+import com.orsoncharts.renderer.RGBColorScale;
+import com.orsoncharts.renderer.RainbowScale;
 import com.orsoncharts.util.Orientation;
 
 /**
@@ -103,6 +112,119 @@ public class ColorScaleElementTest {
         assertTrue(cs1.equals(cs2));
     }
     
+    /**
+     * The bar is drawn from a cached image, which should give the same 
+     * result each time the element is drawn.
+     */
+    @Test
+    public void testDraw() {
+        ColorScaleElement cs = new ColorScaleElement(
+                new FixedColorScale(Color.BLUE), Orientation.VERTICAL, 10.0, 
+                50.0, new Font(Font.SERIF, Font.PLAIN, 10), Color.BLACK);
+        int[] pixels = null;
+        for (int i = 0; i < 2; i++) {
+            BufferedImage image = new BufferedImage(100, 100, 
+                    BufferedImage.TYPE_INT_RGB);
+            Graphics2D g2 = image.createGraphics();
+            g2.setColor(Color.WHITE);
+            g2.fillRect(0, 0, 100, 100);
+            cs.draw(g2, new Rectangle(100, 100));
+            g2.dispose();
+            int[] p = image.getRGB(0, 0, 100, 100, null, 0, 100);
+            if (pixels != null) {
+                assertArrayEquals(pixels, p);
+            }
+            pixels = p;
+        }
+        int blue = 0;
+        for (int rgb : pixels) {
+            if (rgb == Color.BLUE.getRGB()) {
+                blue++;
+            }
+        }
+        assertTrue(blue >= 10 * 50);
+    }
+    
+    /**
+     * With a scaling transform the bar is drawn line by line, so each color 
+     * covers whole (scaled) units rather than being interpolated from a 
+     * cached image.
+     */
+    @Test
+    public void testDrawScaled() {
+        ColorScaleElement cs = new ColorScaleElement(
+                new RainbowScale(new Range(0.0, 1.0)), Orientation.HORIZONTAL, 
+                10.0, 50.0, new Font(Font.SERIF, Font.PLAIN, 10), Color.BLACK);
+        BufferedImage image = new BufferedImage(200, 200, 
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, 
+                RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2.scale(2.0, 2.0);
+        cs.draw(g2, new Rectangle(100, 100));
+        g2.dispose();
+        
+        // find the row with the most color changes (through the bar)
+        int[] best = null;
+        int bestRuns = 0;
+        for (int y = 0; y < 200; y++) {
+            int[] row = image.getRGB(0, y, 200, 1, null, 0, 200);
+            int runs = 1;
+            for (int x = 1; x < 200; x++) {
+                if (row[x] != row[x - 1]) {
+                    runs++;
+                }
+            }
+            if (runs > bestRuns) {
+                best = row;
+                bestRuns = runs;
+            }
+        }
+        assertTrue(bestRuns > 10);
+        int run = 1;
+        for (int x = 1; x < 200; x++) {
+            if (best[x] != best[x - 1]) {
+                assertTrue(run >= 2);
+                run = 1;
+            } else {
+                run++;
+            }
+        }
+    }
+    
+    /**
+     * A color scale that only implements the {@link ColorScale} interface
+     * (not {@link RGBColorScale}) can still be drawn.
+     */
+    @Test
+    public void testDrawPlainColorScale() {
+        ColorScale scale = new ColorScale() {
+            @Override
+            public Range getRange() {
+                return new Range(0.0, 1.0);
+            }
+            @Override
+            public Color valueToColor(double value) {
+                return Color.GREEN;
+            }
+        };
+        ColorScaleElement cs = new ColorScaleElement(scale, 
+                Orientation.VERTICAL, 10.0, 50.0, 
+                new Font(Font.SERIF, Font.PLAIN, 10), Color.BLACK);
+        BufferedImage image = new BufferedImage(100, 100, 
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        cs.draw(g2, new Rectangle(100, 100));
+        g2.dispose();
+        int green = 0;
+        for (int rgb : image.getRGB(0, 0, 100, 100, null, 0, 100)) {
+            if (rgb == Color.GREEN.getRGB()) {
+                green++;
+            }
+        }
+        assertTrue(green >= 50 * 10);
+    }
+    
     @Test
     public void testSerialization() {
         ColorScaleElement cs1 = new ColorScaleElement(
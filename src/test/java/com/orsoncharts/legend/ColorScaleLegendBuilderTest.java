@@ -33,12 +33,21 @@
 package com.orsoncharts.legend;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 
 import org.junit.Test;
 
+import com.orsoncharts.Chart3D;
+import com.orsoncharts.Chart3DFactory;
 import com.orsoncharts.TestUtils;
+import com.orsoncharts.data.function.Function3D;
+import com.orsoncharts.style.ChartStyle;
+import com.orsoncharts.table.TableElement;
+import com.orsoncharts.util.Orientation;
 
 /**
  * Tests for the {@link ColorScaleLegendBuilder} class.
@@ -67,6 +76,34 @@ public class ColorScaleLegendBuilderTest {
 
     }
     
+    /**
+     * An equal legend element is reused between calls, so that it keeps its
+     * cached image of the color bar.
+     */
+    @Test
+    public void testElementReuse() {
+        Chart3D chart = Chart3DFactory.createSurfaceChart("title", "subtitle", 
+                new Function3D() {
+                    @Override
+                    public double getValue(double x, double z) {
+                        return x * z;
+                    }
+                }, "X", "Y", "Z");
+        ColorScaleLegendBuilder lb = new ColorScaleLegendBuilder();
+        lb.setIgnoreFixedColorScale(false);
+        ChartStyle style = chart.getStyle();
+        TableElement e1 = lb.createLegend(chart.getPlot(), 
+                LegendAnchor.BOTTOM_RIGHT, Orientation.VERTICAL, style);
+        TableElement e2 = lb.createLegend(chart.getPlot(), 
+                LegendAnchor.BOTTOM_RIGHT, Orientation.VERTICAL, style);
+        assertNotNull(e1);
+        assertSame(e1, e2);
+        lb.setBarWidth(5.0);
+        TableElement e3 = lb.createLegend(chart.getPlot(), 
+                LegendAnchor.BOTTOM_RIGHT, Orientation.VERTICAL, style);
+        assertNotSame(e1, e3);
+    }
+    
     /**
      * Checks for serialization support.
      */
@@ -32,6 +32,7 @@
 
 package com.orsoncharts.plot;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import org.junit.Test;
@@ -44,7 +45,11 @@ import com.orsoncharts.axis.StandardCategoryAxis3D;
 import com.orsoncharts.axis.NumberAxis3D;
 import com.orsoncharts.data.category.CategoryDataset3D;
 import com.orsoncharts.data.category.StandardCategoryDataset3D;
+import com.orsoncharts.graphics3d.MeshObject3D;
+import com.orsoncharts.graphics3d.Object3D;
+import com.orsoncharts.graphics3d.World;
 import com.orsoncharts.renderer.category.BarRenderer3D;
+import com.orsoncharts.renderer.category.LineRenderer3D;
 import com.orsoncharts.TestUtils;
 import com.orsoncharts.label.StandardCategoryLabelGenerator;
 
@@ -136,6 +141,37 @@ public class CategoryPlot3DTest {
         assertTrue(p1.equals(p2));
     }
 
+    /**
+     * A line renderer gets one mesh for each series and row, holding the 
+     * segments for all the columns.
+     */
+    @Test
+    public void testComposeSeriesMeshes() {
+        StandardCategoryDataset3D<String, String, String> dataset 
+                = new StandardCategoryDataset3D<String, String, String>();
+        for (int c = 0; c < 4; c++) {
+            dataset.addValue(c, "S1", "R1", "C" + c);
+            dataset.addValue(c * 2, "S2", "R1", "C" + c);
+        }
+        CategoryPlot3D plot = new CategoryPlot3D(dataset, 
+                new LineRenderer3D(), new StandardCategoryAxis3D("Row"), 
+                new StandardCategoryAxis3D("Column"), new NumberAxis3D("Y"));
+        World world = new World();
+        plot.compose(world, 0.0, 0.0, 0.0);
+        assertEquals(2, world.getObjects().size());
+        for (Object3D obj : world.getObjects()) {
+            assertTrue(obj instanceof MeshObject3D);
+            // a right segment for the first column, left and right segments
+            // for the middle columns and a left segment for the last
+            assertEquals(6, ((MeshObject3D) obj).getPartCount());
+        }
+        
+        // composing again starts new meshes
+        World world2 = new World();
+        plot.compose(world2, 0.0, 0.0, 0.0);
+        assertEquals(2, world2.getObjects().size());
+    }
+
     private CategoryPlot3D createCategory3DPlot() {
         CategoryDataset3D dataset = new StandardCategoryDataset3D();
         BarRenderer3D renderer = new BarRenderer3D();
@@ -47,6 +47,7 @@ import com.orsoncharts.data.StandardPieDataset3D;
 import com.orsoncharts.Chart3D;
 import com.orsoncharts.Chart3DFactory;
 import com.orsoncharts.TestUtils;
+import com.orsoncharts.graphics3d.World;
 import com.orsoncharts.label.StandardPieLabelGenerator;
 
 /** 
@@ -166,6 +167,49 @@ public class PiePlot3DTest implements Plot3DChangeListener {
         assertFalse(p1.equals(p2));
         p2.setSegmentCount(123);
         assertTrue(p1.equals(p2));
+        
+        // adaptive segment count
+        p1.setAdaptiveSegmentCount(true);
+        assertFalse(p1.equals(p2));
+        p2.setAdaptiveSegmentCount(true);
+        assertTrue(p1.equals(p2));
+        
+        // segment tolerance
+        p1.setSegmentTolerance(1.5);
+        assertFalse(p1.equals(p2));
+        p2.setSegmentTolerance(1.5);
+        assertTrue(p1.equals(p2));
+    }
+    
+    @Test
+    public void testCalculateSegmentCount() {
+        PiePlot3D p = createPiePlot3D();
+        assertEquals(40, p.calculateSegmentCount(5.0));
+        assertEquals(40, p.calculateSegmentCount(5000.0));
+        p.setAdaptiveSegmentCount(true);
+        assertEquals(4, p.calculateSegmentCount(0.1));
+        assertEquals(40, p.calculateSegmentCount(5000.0));
+        int small = p.calculateSegmentCount(20.0);
+        int large = p.calculateSegmentCount(200.0);
+        assertTrue(small < large);
+        assertTrue(large < 40);
+    }
+    
+    /**
+     * The segment count passed to compose() is not retained by the plot.
+     */
+    @Test
+    public void testComposeSegmentCount() {
+        PiePlot3D p = createPiePlot3D();
+        p.setAdaptiveSegmentCount(true);
+        World w1 = new World();
+        p.compose(w1, 0.0, 0.0, 0.0, 8);
+        World w2 = new World();
+        p.compose(w2, 0.0, 0.0, 0.0);
+        World w3 = new World();
+        createPiePlot3D().compose(w3, 0.0, 0.0, 0.0);
+        assertTrue(w1.getFaces().size() < w2.getFaces().size());
+        assertEquals(w3.getFaces().size(), w2.getFaces().size());
     }
     
     /**
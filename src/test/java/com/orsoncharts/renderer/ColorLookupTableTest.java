@@ -0,0 +1,102 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.renderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import java.awt.Color;
+import com.orsoncharts.Range;
+import com.orsoncharts.TestUtils;
+
+/**
+ * Tests for the {@link ColorLookupTable} class.
+ */
+public class ColorLookupTableTest {
+    
+    @Test
+    public void testLookup() {
+        int[] argb = new int[] { 0xFF000000, 0x80102030, 0xFFFFFFFF };
+        ColorLookupTable lut = new ColorLookupTable(new Range(0.0, 10.0), 
+                argb);
+        argb[0] = 0; // the table keeps its own copy
+        assertEquals(3, lut.getSampleCount());
+        assertEquals(0xFF000000, lut.valueToRGB(0.0));
+        assertEquals(0xFF000000, lut.valueToRGB(4.9));
+        assertEquals(0x80102030, lut.valueToRGB(5.0));
+        assertEquals(0x80102030, lut.valueToRGB(9.9));
+        assertEquals(0xFFFFFFFF, lut.valueToRGB(10.0));
+        assertEquals(0xFF000000, lut.valueToRGB(-1.0));
+        assertEquals(0xFFFFFFFF, lut.valueToRGB(11.0));
+        assertEquals(0xFF000000, lut.valueToRGB(Double.NaN));
+        assertEquals(new Color(0x10, 0x20, 0x30, 0x80), 
+                lut.valueToColor(5.0));
+        assertTrue(lut.valueToColor(5.0) == lut.valueToColor(5.1));
+    }
+    
+    /**
+     * With one bin per sample, each sample covers an equal part of the range
+     * and the maximum value is mapped to the last sample.
+     */
+    @Test
+    public void testBins() {
+        ColorLookupTable lut = new ColorLookupTable(new Range(0.0, 10.0), 
+                new int[] { 0xFF000000, 0xFF808080, 0xFFFFFFFF }, 3);
+        assertEquals(0xFF000000, lut.valueToRGB(3.3));
+        assertEquals(0xFF808080, lut.valueToRGB(3.4));
+        assertEquals(0xFF808080, lut.valueToRGB(6.6));
+        assertEquals(0xFFFFFFFF, lut.valueToRGB(6.7));
+        assertEquals(0xFFFFFFFF, lut.valueToRGB(10.0));
+        assertEquals(0xFFFFFFFF, lut.valueToRGB(Double.POSITIVE_INFINITY));
+    }
+    
+    @Test
+    public void testSampleFraction() {
+        assertEquals(0.0, ColorLookupTable.sampleFraction(0, 1), 0.0);
+        assertEquals(0.0, ColorLookupTable.sampleFraction(0, 5), 0.0);
+        assertEquals(0.5, ColorLookupTable.sampleFraction(2, 5), 0.0);
+        assertEquals(1.0, ColorLookupTable.sampleFraction(4, 5), 0.0);
+    }
+    
+    @Test
+    public void testSerialization() {
+        ColorLookupTable lut1 = new ColorLookupTable(new Range(0.0, 10.0), 
+                new int[] { 0xFF000000, 0xFFFFFFFF });
+        ColorLookupTable lut2 = (ColorLookupTable) TestUtils.serialized(lut1);
+        assertEquals(lut1.valueToRGB(9.0), lut2.valueToRGB(9.0));
+        assertEquals(lut1.getRange(), lut2.getRange());
+    }
+
+}
@@ -32,6 +32,7 @@
 
 package com.orsoncharts.renderer;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import org.junit.Test;
@@ -60,8 +61,30 @@ public class GradientColorScaleTest {
         gcs2 = new GradientColorScale(new Range(0.0, 1.0), Color.BLUE, 
                 Color.WHITE);
         assertTrue(gcs1.equals(gcs2));
+        
+        gcs1 = new GradientColorScale(new Range(0.0, 1.0), Color.BLUE, 
+                Color.WHITE, 10);
+        assertFalse(gcs1.equals(gcs2));
+        gcs2 = new GradientColorScale(new Range(0.0, 1.0), Color.BLUE, 
+                Color.WHITE, 10);
+        assertTrue(gcs1.equals(gcs2));
     }    
     
+    @Test
+    public void testValueToColor() {
+        GradientColorScale gcs = new GradientColorScale(new Range(1.0, 2.0), 
+                Color.BLACK, Color.WHITE, 3);
+        assertEquals(3, gcs.getSampleCount());
+        assertEquals(Color.BLACK, gcs.valueToColor(1.0));
+        assertEquals(Color.WHITE, gcs.valueToColor(2.0));
+        assertEquals(new Color(128, 128, 128), gcs.valueToColor(1.5));
+        assertEquals(Color.BLACK, gcs.valueToColor(-5.0));
+        assertEquals(Color.WHITE, gcs.valueToColor(5.0));
+        for (double v = 0.5; v < 2.5; v += 0.125) {
+            assertEquals(gcs.valueToColor(v).getRGB(), gcs.valueToRGB(v));
+        }
+    }
+    
     @Test
     public void testSerialization() {
         GradientColorScale gcs1 = new GradientColorScale(new Range(0.0, 1.0), 
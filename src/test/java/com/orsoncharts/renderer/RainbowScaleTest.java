@@ -32,10 +32,13 @@
 
 package com.orsoncharts.renderer;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import org.junit.Test;
 
+import java.awt.Color;
+
 import com.orsoncharts.Range;
 import com.orsoncharts.TestUtils;
 
@@ -53,6 +56,19 @@ public class RainbowScaleTest {
         
     }    
     
+    @Test
+    public void testValueToColor() {
+        RainbowScale rs = new RainbowScale(new Range(5.0, 10.0), 11, 
+                RainbowScale.BLUE_TO_RED_RANGE);
+        assertEquals(Color.RED, rs.valueToColor(10.0));
+        assertEquals(Color.RED, rs.valueToColor(20.0));
+        assertEquals(Color.getHSBColor(0.6666f, 1.0f, 1.0f), 
+                rs.valueToColor(5.0));
+        for (double v = 4.0; v < 11.0; v += 0.25) {
+            assertEquals(rs.valueToColor(v).getRGB(), rs.valueToRGB(v));
+        }
+    }
+    
     @Test
     public void testSerialization() {
         RainbowScale rs1 = new RainbowScale(new Range(5.0, 10.0));
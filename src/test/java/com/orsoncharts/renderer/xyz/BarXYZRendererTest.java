@@ -32,11 +32,20 @@
 
 package com.orsoncharts.renderer.xyz;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import java.awt.Color;
 import org.junit.Test;
 import com.orsoncharts.TestUtils;
+import com.orsoncharts.axis.NumberAxis3D;
+import com.orsoncharts.data.xyz.XYZDataset;
+import com.orsoncharts.data.xyz.XYZSeries;
+import com.orsoncharts.data.xyz.XYZSeriesCollection;
+import com.orsoncharts.graphics3d.Dimension3D;
+import com.orsoncharts.graphics3d.World;
+import com.orsoncharts.plot.XYZPlot;
+import com.orsoncharts.renderer.ComposeType;
 
 /**
  * Tests for the {@link BarXYZRenderer} class.
@@ -107,4 +116,62 @@ public class BarXYZRendererTest {
         assertTrue(r1.equals(r2));
     }
 
+    /**
+     * For a regular grid of opaque bars with equal heights, the side faces
+     * between neighbouring bars are hidden.
+     */
+    @Test
+    public void testHiddenFaces() {
+        XYZSeries<String> s = new XYZSeries<String>("S1");
+        for (int x = 0; x < 3; x++) {
+            for (int z = 0; z < 2; z++) {
+                s.add(x, 5.0, z);
+            }
+        }
+        XYZSeriesCollection<String> dataset 
+                = new XYZSeriesCollection<String>();
+        dataset.add(s);
+        BarXYZRenderer r = new BarXYZRenderer();
+        r.setBarXWidth(1.0);
+        r.setBarZWidth(1.0);
+        XYZPlot plot = new XYZPlot(dataset, r, new NumberAxis3D("X"), 
+                new NumberAxis3D("Y"), new NumberAxis3D("Z"));
+        World world = new World();
+        r.composeAll(plot, world, plot.getDimensions(), 0.0, 0.0, 0.0);
+        // 6 bars with 6 faces, less 2 faces for each of the 4 x-adjacent 
+        // and 3 z-adjacent pairs
+        assertEquals(36 - 14, world.getFaces().size());
+    }
+    
+    /**
+     * A subclass that overrides composeItem() is composed one item at a time,
+     * so the override is still called.
+     */
+    @Test
+    public void testComposeItemOverride() {
+        assertEquals(ComposeType.ALL, new BarXYZRenderer().getComposeType());
+        final int[] count = new int[1];
+        BarXYZRenderer r = new BarXYZRenderer() {
+            @Override
+            public void composeItem(XYZDataset dataset, int series, int item, 
+                    World world, Dimension3D dimensions, double xOffset, 
+                    double yOffset, double zOffset) {
+                count[0]++;
+                super.composeItem(dataset, series, item, world, dimensions, 
+                        xOffset, yOffset, zOffset);
+            }
+        };
+        assertEquals(ComposeType.PER_ITEM, r.getComposeType());
+        XYZSeries<String> s = new XYZSeries<String>("S1");
+        s.add(1.0, 2.0, 3.0);
+        s.add(4.0, 5.0, 6.0);
+        XYZSeriesCollection<String> dataset 
+                = new XYZSeriesCollection<String>();
+        dataset.add(s);
+        XYZPlot plot = new XYZPlot(dataset, r, new NumberAxis3D("X"), 
+                new NumberAxis3D("Y"), new NumberAxis3D("Z"));
+        plot.compose(new World(), 0.0, 0.0, 0.0);
+        assertEquals(2, count[0]);
+    }
+
 }
@@ -0,0 +1,144 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.renderer.xyz;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import com.orsoncharts.TestUtils;
+import com.orsoncharts.axis.NumberAxis3D;
+import com.orsoncharts.data.Dataset3DChangeListener;
+import com.orsoncharts.data.xyz.XYZSeries;
+import com.orsoncharts.data.xyz.XYZSeriesCollection;
+import com.orsoncharts.graphics3d.World;
+import com.orsoncharts.plot.XYZPlot;
+
+/**
+ * Tests for the {@link LineXYZRenderer} class.
+ */
+public class LineXYZRendererTest {
+ 
+    /**
+     * Some checks for the equals() method.
+     */
+    @Test
+    public void testEquals() {
+        LineXYZRenderer r1 = new LineXYZRenderer();
+        LineXYZRenderer r2 = new LineXYZRenderer();
+        assertTrue(r1.equals(r2));
+        assertFalse(r1.equals(null));
+        
+        r1.setDecimationTolerance(0.5);
+        assertFalse(r1.equals(r2));
+        r2.setDecimationTolerance(0.5);
+        assertTrue(r1.equals(r2));
+    }
+    
+    /**
+     * Some checks for serialization support.
+     */
+    @Test
+    public void testSerialization() {
+        LineXYZRenderer r1 = new LineXYZRenderer();
+        r1.setDecimationTolerance(0.5);
+        LineXYZRenderer r2 = (LineXYZRenderer) TestUtils.serialized(r1);
+        assertTrue(r1.equals(r2));
+    }
+    
+    @Test
+    public void testSimplify() {
+        // points along a straight line are removed, the corner is kept
+        double[] x = {0.0, 1.0, 2.0, 3.0, 3.0, 3.0};
+        double[] y = {0.0, 0.0, 0.01, 0.0, 1.0, 2.0};
+        double[] z = {0.0, 0.0, 0.0, 0.0, 0.0, 0.0};
+        assertArrayEquals(new int[] {0, 3, 5}, 
+                LineXYZRenderer.simplify(x, y, z, 0.1));
+        assertArrayEquals(new int[] {0, 1, 2, 3, 5}, 
+                LineXYZRenderer.simplify(x, y, z, 0.001));
+        
+        // a gap (NaN) is preserved
+        y[1] = Double.NaN;
+        assertArrayEquals(new int[] {0, 1, 2, 3, 5}, 
+                LineXYZRenderer.simplify(x, y, z, 0.1));
+        
+        assertArrayEquals(new int[0], LineXYZRenderer.simplify(new double[0],
+                new double[0], new double[0], 0.1));
+    }
+    
+    /**
+     * A dataset that counts the change listeners registered with it.
+     */
+    @SuppressWarnings("serial")
+    static class CountingDataset extends XYZSeriesCollection<String> {
+        
+        int listenerCount;
+        
+        @Override
+        public void addChangeListener(Dataset3DChangeListener listener) {
+            super.addChangeListener(listener);
+            this.listenerCount++;
+        }
+
+        @Override
+        public void removeChangeListener(Dataset3DChangeListener listener) {
+            super.removeChangeListener(listener);
+            this.listenerCount--;
+        }
+    }
+    
+    /**
+     * Composing a decimated chart repeatedly while the dataset changes must
+     * not register the renderer with the dataset more than once.
+     */
+    @Test
+    public void testDecimationListener() {
+        CountingDataset dataset = new CountingDataset();
+        XYZSeries<String> s = new XYZSeries<String>("S1");
+        dataset.add(s);
+        LineXYZRenderer r = new LineXYZRenderer();
+        r.setDecimationTolerance(0.01);
+        XYZPlot plot = new XYZPlot(dataset, r, new NumberAxis3D("X"), 
+                new NumberAxis3D("Y"), new NumberAxis3D("Z"));
+        int base = dataset.listenerCount;
+        for (int i = 0; i < 5; i++) {
+            s.add(i, i * i, i);
+            r.composeAll(plot, new World(), plot.getDimensions(), 0.0, 0.0, 
+                    0.0);
+        }
+        assertEquals(base + 1, dataset.listenerCount);
+    }
+
+}
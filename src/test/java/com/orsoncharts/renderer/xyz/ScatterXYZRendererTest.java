@@ -32,10 +32,35 @@
 
 package com.orsoncharts.renderer.xyz;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.util.HashSet;
+import java.util.Set;
 import org.junit.Test;
+import com.orsoncharts.Chart3D;
+import com.orsoncharts.Chart3DFactory;
 import com.orsoncharts.TestUtils;
+import com.orsoncharts.axis.NumberAxis3D;
+import com.orsoncharts.data.xyz.XYZDataset;
+import com.orsoncharts.data.xyz.XYZItemKey;
+import com.orsoncharts.data.xyz.XYZSeries;
+import com.orsoncharts.data.xyz.XYZSeriesCollection;
+import com.orsoncharts.graphics3d.Dimension3D;
+import com.orsoncharts.graphics3d.Face;
+import com.orsoncharts.graphics3d.Point3D;
+import com.orsoncharts.graphics3d.RenderingInfo;
+import com.orsoncharts.graphics3d.SpriteFace;
+import com.orsoncharts.graphics3d.SpriteShape;
+import com.orsoncharts.graphics3d.ViewPoint3D;
+import com.orsoncharts.graphics3d.World;
+import com.orsoncharts.plot.XYZPlot;
+import com.orsoncharts.renderer.ComposeType;
 
 /**
  * Tests for the {@link ScatterXYZRenderer} class.
@@ -53,6 +78,11 @@ public class ScatterXYZRendererTest {
         assertFalse(r1.equals(r2));
         r2.setSize(1.0);
         assertTrue(r1.equals(r2));
+        
+        r1.setSpriteShape(SpriteShape.CIRCLE);
+        assertFalse(r1.equals(r2));
+        r2.setSpriteShape(SpriteShape.CIRCLE);
+        assertTrue(r1.equals(r2));
     }
     /**
      * Some checks for serialization support.
@@ -62,5 +92,130 @@ public class ScatterXYZRendererTest {
         ScatterXYZRenderer r1 = new ScatterXYZRenderer();
         ScatterXYZRenderer r2 = (ScatterXYZRenderer) TestUtils.serialized(r1);
         assertTrue(r1.equals(r2));
+        
+        r1.setSpriteShape(SpriteShape.SQUARE);
+        r2 = (ScatterXYZRenderer) TestUtils.serialized(r1);
+        assertTrue(r1.equals(r2));
+    }
+    
+    /**
+     * Creates a dataset with one series of well separated points.
+     */
+    private static XYZSeriesCollection<String> createDataset() {
+        XYZSeries<String> s = new XYZSeries<String>("S1");
+        s.add(1.0, 1.0, 1.0);
+        s.add(5.0, 9.0, 5.0);
+        s.add(9.0, 3.0, 9.0);
+        XYZSeriesCollection<String> dataset 
+                = new XYZSeriesCollection<String>();
+        dataset.add(s);
+        return dataset;
+    }
+    
+    /**
+     * The screen size of a sprite is inversely proportional to its distance
+     * from the viewer, so nearer sprites are drawn larger.
+     */
+    @Test
+    public void testSpriteScreenSize() {
+        ScatterXYZRenderer r = new ScatterXYZRenderer();
+        r.setSpriteShape(SpriteShape.SQUARE);
+        XYZPlot plot = new XYZPlot(createDataset(), r, new NumberAxis3D("X"),
+                new NumberAxis3D("Y"), new NumberAxis3D("Z"));
+        World world = new World();
+        Dimension3D dim = plot.getDimensions();
+        r.composeAll(plot, world, dim, -dim.getWidth() / 2.0, 
+                -dim.getHeight() / 2.0, -dim.getDepth() / 2.0);
+        Point3D[] eyePts = world.calculateEyeCoordinates(
+                ViewPoint3D.createAboveLeftViewPoint(40.0));
+        double projDist = 1500.0;
+        double nearest = Double.POSITIVE_INFINITY;
+        double farthest = 0.0;
+        double nearestSize = 0.0;
+        double farthestSize = 0.0;
+        int count = 0;
+        for (Face face : world.getFaces()) {
+            SpriteFace sf = (SpriteFace) face;
+            double size = sf.calculateScreenSize(eyePts, projDist);
+            assertEquals(size, sf.getScreenSize(), 0.0);
+            double distance = Math.abs(eyePts[sf.getVertexIndex(0)].getZ());
+            assertEquals(projDist * r.getSize(), size * distance, 0.000001);
+            if (distance < nearest) {
+                nearest = distance;
+                nearestSize = size;
+            }
+            if (distance > farthest) {
+                farthest = distance;
+                farthestSize = size;
+            }
+            count++;
+        }
+        assertEquals(3, count);
+        assertTrue(nearest < farthest);
+        assertTrue(nearestSize > farthestSize);
+    }
+    
+    /**
+     * Fetching the face at the center of a rendered sprite returns a face 
+     * with the item key for that sprite.
+     */
+    @Test
+    public void testFetchSpriteFace() {
+        Chart3D chart = Chart3DFactory.createScatterChart("title", null, 
+                createDataset(), "X", "Y", "Z");
+        XYZPlot plot = (XYZPlot) chart.getPlot();
+        ScatterXYZRenderer r = (ScatterXYZRenderer) plot.getRenderer();
+        r.setSpriteShape(SpriteShape.SQUARE);
+        r.setSize(0.3);
+        BufferedImage image = new BufferedImage(600, 400, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        RenderingInfo info = chart.draw(g2, new Rectangle(600, 400));
+        g2.dispose();
+        Point2D[] pts = info.getProjectedPoints();
+        Set<Object> keys = new HashSet<Object>();
+        for (Face face : info.getFaces()) {
+            if (!(face instanceof SpriteFace)) {
+                continue;
+            }
+            Point2D pt = pts[face.getVertexIndex(0)];
+            Face f = info.fetchFaceAt(pt.getX() + info.getDX(), 
+                    pt.getY() + info.getDY());
+            assertNotNull(f);
+            assertTrue(f instanceof SpriteFace);
+            assertEquals(face.getItemKey(), f.getItemKey());
+            keys.add(f.getItemKey());
+        }
+        Set<Object> expected = new HashSet<Object>();
+        for (int item = 0; item < 3; item++) {
+            expected.add(new XYZItemKey<String>("S1", item));
+        }
+        assertEquals(expected, keys);
+    }
+    
+    /**
+     * A subclass that overrides composeItem() is composed one item at a time,
+     * so the override is still called.
+     */
+    @Test
+    public void testComposeItemOverride() {
+        assertEquals(ComposeType.ALL, 
+                new ScatterXYZRenderer().getComposeType());
+        final int[] count = new int[1];
+        ScatterXYZRenderer r = new ScatterXYZRenderer() {
+            @Override
+            public void composeItem(XYZDataset dataset, int series, int item, 
+                    World world, Dimension3D dimensions, double xOffset, 
+                    double yOffset, double zOffset) {
+                count[0]++;
+                super.composeItem(dataset, series, item, world, dimensions, 
+                        xOffset, yOffset, zOffset);
+            }
+        };
+        assertEquals(ComposeType.PER_ITEM, r.getComposeType());
+        XYZPlot plot = new XYZPlot(createDataset(), r, new NumberAxis3D("X"), 
+                new NumberAxis3D("Y"), new NumberAxis3D("Z"));
+        plot.compose(new World(), 0.0, 0.0, 0.0);
+        assertEquals(3, count[0]);
     }
 }
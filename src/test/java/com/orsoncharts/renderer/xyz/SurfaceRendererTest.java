@@ -32,19 +32,39 @@
 
 package com.orsoncharts.renderer.xyz;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import org.junit.Test;
+import com.orsoncharts.Range;
 import com.orsoncharts.TestUtils;
+import com.orsoncharts.axis.NumberAxis3D;
+import com.orsoncharts.axis.ValueAxis3D;
 import com.orsoncharts.data.function.Function3D;
+import com.orsoncharts.data.xyz.XYZSeriesCollection;
+import com.orsoncharts.graphics3d.Dimension3D;
+import com.orsoncharts.graphics3d.Face;
+import com.orsoncharts.graphics3d.Object3D;
+import com.orsoncharts.graphics3d.Point3D;
+import com.orsoncharts.graphics3d.World;
+import com.orsoncharts.plot.XYZPlot;
+import com.orsoncharts.renderer.ColorScale;
 import com.orsoncharts.renderer.FixedColorScale;
+import com.orsoncharts.renderer.GradientColorScale;
 import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Tests for the {@link SurfaceRenderer} class.
  */
 public class SurfaceRendererTest {
     
+    private static final double EPSILON = 0.00000001;
+    
     @Test
     public void testEquals() {
         Function3D f = new Function3D() {
@@ -77,6 +97,31 @@ public class SurfaceRendererTest {
         assertFalse(r1.equals(r2));
         r2.setDrawFaceOutlines(false);
         assertTrue(r1.equals(r2));
+        
+        r1.setParallelSampling(true);
+        assertFalse(r1.equals(r2));
+        r2.setParallelSampling(true);
+        assertTrue(r1.equals(r2));
+        
+        r1.setAdaptiveTessellation(true);
+        assertFalse(r1.equals(r2));
+        r2.setAdaptiveTessellation(true);
+        assertTrue(r1.equals(r2));
+        
+        r1.setTessellationTolerance(0.05);
+        assertFalse(r1.equals(r2));
+        r2.setTessellationTolerance(0.05);
+        assertTrue(r1.equals(r2));
+        
+        r1.setMaxTessellationDepth(2);
+        assertFalse(r1.equals(r2));
+        r2.setMaxTessellationDepth(2);
+        assertTrue(r1.equals(r2));
+        
+        r1.setMaxFaceCount(500);
+        assertFalse(r1.equals(r2));
+        r2.setMaxFaceCount(500);
+        assertTrue(r1.equals(r2));
     }
     
     /**
@@ -89,6 +134,356 @@ public class SurfaceRendererTest {
         assertTrue(r1.equals(r2));
     }
 
+    /** A plane, which needs no refinement. */
+    private static final Function3D PLANE = new Function3D() {
+        @Override
+        public double getValue(double x, double z) {
+            return (x + z) / 2.0;
+        }
+    };
+    
+    /** A narrow peak at (0.5, 0.5), flat elsewhere. */
+    private static final Function3D PEAK = new Function3D() {
+        @Override
+        public double getValue(double x, double z) {
+            double dx = x - 0.5;
+            double dz = z - 0.5;
+            return Math.exp(-50.0 * (dx * dx + dz * dz));
+        }
+    };
+    
+    /** A function with curvature everywhere. */
+    private static final Function3D WAVES = new Function3D() {
+        @Override
+        public double getValue(double x, double z) {
+            return Math.sin(10.0 * x) * Math.cos(10.0 * z);
+        }
+    };
+    
+    /**
+     * Composes a surface over the range -1 to 1 on the x and z axes, with 
+     * a y-axis range of -2 to 2 (so that no faces are clipped), and returns
+     * the mesh.
+     */
+    private static Object3D composeAdaptive(Function3D f, int samples, 
+            int depth, int maxFaceCount) {
+        SurfaceRenderer r = new SurfaceRenderer(f);
+        r.setXSamples(samples);
+        r.setZSamples(samples);
+        r.setAdaptiveTessellation(true);
+        r.setMaxTessellationDepth(depth);
+        r.setMaxFaceCount(maxFaceCount);
+        return compose(createPlot(r, -2.0, 2.0));
+    }
+    
+    /**
+     * Creates a plot for a surface over the range -1 to 1 on the x and z 
+     * axes, with the specified y-axis range.
+     */
+    private static XYZPlot createPlot(SurfaceRenderer r, double ymin, 
+            double ymax) {
+        NumberAxis3D xAxis = new NumberAxis3D("X");
+        NumberAxis3D yAxis = new NumberAxis3D("Y");
+        NumberAxis3D zAxis = new NumberAxis3D("Z");
+        XYZPlot plot = new XYZPlot(new XYZSeriesCollection<String>(), r, 
+                xAxis, yAxis, zAxis);
+        xAxis.setAutoAdjustRange(false);
+        xAxis.setRange(-1.0, 1.0);
+        yAxis.setAutoAdjustRange(false);
+        yAxis.setRange(ymin, ymax);
+        zAxis.setAutoAdjustRange(false);
+        zAxis.setRange(-1.0, 1.0);
+        return plot;
+    }
+    
+    /**
+     * Composes the plot's surface, centered on the origin, and returns the
+     * mesh.
+     */
+    private static Object3D compose(XYZPlot plot) {
+        World world = new World();
+        Dimension3D dim = plot.getDimensions();
+        plot.getRenderer().composeAll(plot, world, dim, -dim.getWidth() / 2.0,
+                -dim.getHeight() / 2.0, -dim.getDepth() / 2.0);
+        assertEquals(1, world.getObjects().size());
+        return world.getObjects().get(0);
+    }
+    
+    /**
+     * A plane is drawn with two faces per cell of the sample grid.
+     */
+    @Test
+    public void testAdaptivePlane() {
+        Object3D mesh = composeAdaptive(PLANE, 4, 4, 20000);
+        assertEquals(32, mesh.getFaceCount());
+    }
+    
+    /**
+     * The cells are refined around a sharp peak, but not in the flat region 
+     * away from it.
+     */
+    @Test
+    public void testAdaptiveRefinement() {
+        Object3D mesh = composeAdaptive(PEAK, 4, 4, 20000);
+        assertTrue(mesh.getFaceCount() > 32);
+        int nearPeak = 0;
+        int farQuadrant = 0;
+        for (Face face : mesh.getFaces()) {
+            Point3D c = centroid(mesh, face);
+            if (c.getX() > 0.0 && c.getZ() > 0.0) {
+                nearPeak++;
+            } else if (c.getX() < 0.0 && c.getZ() < 0.0) {
+                farQuadrant++;
+            }
+        }
+        // the four cells in the quadrant away from the peak are not split
+        assertEquals(8, farQuadrant);
+        assertTrue(nearPeak > 8);
+    }
+    
+    /**
+     * The face count grows with the face budget, and stays within the limit
+     * implied by the budget (each leaf cell uses two faces, or a fan of at
+     * most eight triangles where it adjoins smaller cells).
+     */
+    @Test
+    public void testAdaptiveFaceBudget() {
+        int previous = 0;
+        for (int budget : new int[] { 100, 400, 1600 }) {
+            Object3D mesh = composeAdaptive(WAVES, 4, 6, budget);
+            int faces = mesh.getFaceCount();
+            assertTrue(faces > previous);
+            assertTrue(faces <= 4 * budget);
+            previous = faces;
+        }
+    }
+    
+    /**
+     * Every interior edge of the adaptive mesh is shared by exactly two 
+     * faces (so there are no cracks at T-junctions), and the edges used by
+     * only one face lie on the boundary of the surface.
+     */
+    @Test
+    public void testAdaptiveMeshIsCrackFree() {
+        for (Function3D f : new Function3D[] { PEAK, WAVES }) {
+            Object3D mesh = composeAdaptive(f, 5, 5, 20000);
+            Map<Long, Integer> edges = new HashMap<Long, Integer>();
+            for (Face face : mesh.getFaces()) {
+                int n = face.getVertexCount();
+                for (int i = 0; i < n; i++) {
+                    int a = face.getVertexIndex(i);
+                    int b = face.getVertexIndex((i + 1) % n);
+                    long key = ((long) Math.min(a, b) << 32) | Math.max(a, b);
+                    Integer count = edges.get(key);
+                    edges.put(key, count == null ? 1 : count + 1);
+                }
+            }
+            double maxX = 0.0;
+            double maxZ = 0.0;
+            for (int v = 0; v < mesh.getVertexCount(); v++) {
+                maxX = Math.max(maxX, mesh.getVertex(v).getX());
+                maxZ = Math.max(maxZ, mesh.getVertex(v).getZ());
+            }
+            for (Map.Entry<Long, Integer> e : edges.entrySet()) {
+                int count = e.getValue();
+                if (count == 2) {
+                    continue;
+                }
+                if (count != 1) {
+                    fail("Edge shared by " + count + " faces.");
+                }
+                Point3D a = mesh.getVertex((int) (e.getKey() >>> 32));
+                Point3D b = mesh.getVertex((int) (e.getKey() & 0xFFFFFFFFL));
+                assertTrue(onBoundary(a, maxX, maxZ) 
+                        && onBoundary(b, maxX, maxZ));
+            }
+        }
+    }
+    
+    private static boolean onBoundary(Point3D p, double maxX, double maxZ) {
+        return Math.abs(Math.abs(p.getX()) - maxX) < 1e-9 
+                || Math.abs(Math.abs(p.getZ()) - maxZ) < 1e-9;
+    }
+    
+    private static Point3D centroid(Object3D mesh, Face face) {
+        double x = 0.0;
+        double y = 0.0;
+        double z = 0.0;
+        int n = face.getVertexCount();
+        for (int i = 0; i < n; i++) {
+            Point3D p = mesh.getVertex(face.getVertexIndex(i));
+            x += p.getX();
+            y += p.getY();
+            z += p.getZ();
+        }
+        return new Point3D(x / n, y / n, z / n);
+    }
+    
+    /**
+     * An unclipped surface shares the grid vertices between the cells, so 
+     * the mesh has one vertex per grid point and two faces per cell.
+     */
+    @Test
+    public void testGridVertices() {
+        SurfaceRenderer r = new SurfaceRenderer(PLANE);
+        r.setXSamples(4);
+        r.setZSamples(3);
+        Object3D mesh = compose(createPlot(r, -2.0, 2.0));
+        assertEquals((4 + 1) * (3 + 1), mesh.getVertexCount());
+        assertEquals(2 * 4 * 3, mesh.getFaceCount());
+    }
+    
+    /**
+     * The faces of a clipped surface have the same vertices (in the same 
+     * order) and colors as the objects that were previously created for 
+     * each cell, where each triangle of the cell was clipped to the y-range
+     * and colored using the function value at the center of the cell.
+     */
+    @Test
+    public void testClippedCells() {
+        int xSamples = 6;
+        int zSamples = 5;
+        SurfaceRenderer r = new SurfaceRenderer(WAVES);
+        r.setXSamples(xSamples);
+        r.setZSamples(zSamples);
+        ColorScale scale = new GradientColorScale(new Range(-1.0, 1.0), 
+                Color.BLUE, Color.RED);
+        r.setColorScale(scale);
+        XYZPlot plot = createPlot(r, -0.5, 0.5);
+        Object3D mesh = compose(plot);
+        
+        Dimension3D dim = plot.getDimensions();
+        double xOffset = -dim.getWidth() / 2.0;
+        double yOffset = -dim.getHeight() / 2.0;
+        double zOffset = -dim.getDepth() / 2.0;
+        ValueAxis3D xAxis = plot.getXAxis();
+        ValueAxis3D yAxis = plot.getYAxis();
+        ValueAxis3D zAxis = plot.getZAxis();
+        List<Face> faces = mesh.getFaces();
+        int face = 0;
+        int clipped = 0;
+        for (int xIndex = 0; xIndex < xSamples; xIndex++) {
+            double x0 = xAxis.getRange().value(xIndex / (double) xSamples);
+            double x1 = xAxis.getRange().value(
+                    (xIndex + 1) / (double) xSamples);
+            double wx0 = xAxis.translateToWorld(x0, dim.getWidth()) + xOffset;
+            double wx1 = xAxis.translateToWorld(x1, dim.getWidth()) + xOffset;
+            for (int zIndex = 0; zIndex < zSamples; zIndex++) {
+                double z0 = zAxis.getRange().value(zIndex / (double) zSamples);
+                double z1 = zAxis.getRange().value(
+                        (zIndex + 1) / (double) zSamples);
+                double wz0 = zAxis.translateToWorld(z0, dim.getDepth()) 
+                        + zOffset;
+                double wz1 = zAxis.translateToWorld(z1, dim.getDepth()) 
+                        + zOffset;
+                double[] p00 = {wx0, worldY(yAxis, dim, x0, z0), wz0};
+                double[] p01 = {wx0, worldY(yAxis, dim, x0, z1), wz1};
+                double[] p10 = {wx1, worldY(yAxis, dim, x1, z0), wz0};
+                double[] p11 = {wx1, worldY(yAxis, dim, x1, z1), wz1};
+                Color color = scale.valueToColor(WAVES.getValue(
+                        x0 / 2.0 + x1 / 2.0, z0 / 2.0 + z1 / 2.0));
+                double[][][] triangles = {{p00, p01, p11}, {p00, p11, p10}};
+                for (double[][] triangle : triangles) {
+                    List<double[]> expected = clip(triangle, yOffset, 
+                            -yOffset);
+                    for (double[] p : triangle) {
+                        if (p[1] < yOffset || p[1] > -yOffset) {
+                            clipped++;
+                            break;
+                        }
+                    }
+                    if (expected.size() < 3) {
+                        continue;
+                    }
+                    Face f = faces.get(face++);
+                    assertEquals(color, f.getColor());
+                    assertEquals(expected.size(), f.getVertexCount());
+                    for (int i = 0; i < f.getVertexCount(); i++) {
+                        Point3D v = mesh.getVertex(f.getVertexIndex(i) 
+                                - f.getOffset());
+                        assertEquals(expected.get(i)[0], v.getX(), EPSILON);
+                        assertEquals(expected.get(i)[1], v.getY(), EPSILON);
+                        assertEquals(expected.get(i)[2], v.getZ(), EPSILON);
+                    }
+                }
+            }
+        }
+        assertEquals(face, mesh.getFaceCount());
+        assertTrue(clipped > 0);
+    }
+    
+    /**
+     * Returns the world y-coordinate for the function value at (x, z), 
+     * for a plot centered on the origin.
+     */
+    private static double worldY(ValueAxis3D yAxis, Dimension3D dim, 
+            double x, double z) {
+        return yAxis.translateToWorld(WAVES.getValue(x, z), dim.getHeight()) 
+                - dim.getHeight() / 2.0;
+    }
+    
+    /**
+     * Clips a triangle to the range {@code ymin} to {@code ymax} on the 
+     * y-axis, returning the vertices of the clipped polygon.  Each edge
+     * contributes its start point (if it is in range) and then the points
+     * where it crosses the bounds of the range.
+     */
+    private static List<double[]> clip(double[][] triangle, double ymin, 
+            double ymax) {
+        List<double[]> result = new ArrayList<double[]>();
+        for (int e = 0; e < 3; e++) {
+            double[] p = triangle[e];
+            double[] q = triangle[(e + 1) % 3];
+            if (p[1] >= ymin && p[1] <= ymax) {
+                result.add(p);
+                if (q[1] > ymax) {
+                    result.add(intersect(p, q, ymax));
+                } else if (q[1] < ymin) {
+                    result.add(intersect(p, q, ymin));
+                }
+            } else if (p[1] > ymax) {
+                if (q[1] <= ymax) {
+                    result.add(intersect(p, q, ymax));
+                }
+                if (q[1] < ymin) {
+                    result.add(intersect(p, q, ymin));
+                }
+            } else {
+                if (q[1] >= ymin) {
+                    result.add(intersect(p, q, ymin));
+                }
+                if (q[1] > ymax) {
+                    result.add(intersect(p, q, ymax));
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the point where the line from p to q crosses the plane at
+     * y = yy.
+     */
+    private static double[] intersect(double[] p, double[] q, double yy) {
+        double t = (yy - p[1]) / (q[1] - p[1]);
+        return new double[] {p[0] + t * (q[0] - p[0]), yy, 
+                p[2] + t * (q[2] - p[2])};
+    }
+    
+    /**
+     * The face budget must be positive.
+     */
+    @Test
+    public void testSetMaxFaceCount() {
+        SurfaceRenderer r = new SurfaceRenderer(PLANE);
+        try {
+            r.setMaxFaceCount(0);
+            fail("Expected an IllegalArgumentException.");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
     static final class F3D implements Function3D {
 
         public F3D() { 
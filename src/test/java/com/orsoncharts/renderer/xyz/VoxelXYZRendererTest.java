@@ -0,0 +1,158 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.renderer.xyz;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import com.orsoncharts.Range;
+import com.orsoncharts.TestUtils;
+import com.orsoncharts.axis.NumberAxis3D;
+import com.orsoncharts.data.Dataset3DChangeListener;
+import com.orsoncharts.data.xyz.XYZSeries;
+import com.orsoncharts.data.xyz.XYZSeriesCollection;
+import com.orsoncharts.graphics3d.Dimension3D;
+import com.orsoncharts.graphics3d.World;
+import com.orsoncharts.plot.XYZPlot;
+import com.orsoncharts.renderer.RainbowScale;
+
+/**
+ * Tests for the {@link VoxelXYZRenderer} class.
+ */
+public class VoxelXYZRendererTest {
+ 
+    /**
+     * Some checks for the equals() method.
+     */
+    @Test
+    public void testEquals() {
+        VoxelXYZRenderer r1 = new VoxelXYZRenderer();
+        VoxelXYZRenderer r2 = new VoxelXYZRenderer();
+        assertTrue(r1.equals(r2));
+        assertFalse(r1.equals(null));
+        
+        r1.setXBins(5);
+        assertFalse(r1.equals(r2));
+        r2.setXBins(5);
+        assertTrue(r1.equals(r2));
+
+        r1.setYBins(6);
+        assertFalse(r1.equals(r2));
+        r2.setYBins(6);
+        assertTrue(r1.equals(r2));
+
+        r1.setZBins(7);
+        assertFalse(r1.equals(r2));
+        r2.setZBins(7);
+        assertTrue(r1.equals(r2));
+        
+        r1.setVoxelValue(VoxelValue.MEAN_Y);
+        assertFalse(r1.equals(r2));
+        r2.setVoxelValue(VoxelValue.MEAN_Y);
+        assertTrue(r1.equals(r2));
+        
+        r1.setColorScale(new RainbowScale(new Range(1.0, 2.0)));
+        assertFalse(r1.equals(r2));
+        r2.setColorScale(new RainbowScale(new Range(1.0, 2.0)));
+        assertTrue(r1.equals(r2));
+        
+        r1.setParallelBinning(true);
+        assertFalse(r1.equals(r2));
+        r2.setParallelBinning(true);
+        assertTrue(r1.equals(r2));
+    }
+    
+    /**
+     * A dataset that counts the change listeners registered with it.
+     */
+    @SuppressWarnings("serial")
+    static class CountingDataset extends XYZSeriesCollection<String> {
+        
+        int listenerCount;
+        
+        @Override
+        public void addChangeListener(Dataset3DChangeListener listener) {
+            super.addChangeListener(listener);
+            this.listenerCount++;
+        }
+
+        @Override
+        public void removeChangeListener(Dataset3DChangeListener listener) {
+            super.removeChangeListener(listener);
+            this.listenerCount--;
+        }
+    }
+    
+    /**
+     * Composing the chart repeatedly while the dataset changes must not
+     * register the renderer with the dataset more than once, and switching 
+     * to another dataset must remove the registration.
+     */
+    @Test
+    public void testDatasetListener() {
+        CountingDataset d1 = new CountingDataset();
+        XYZSeries<String> s = new XYZSeries<String>("S1");
+        d1.add(s);
+        VoxelXYZRenderer r = new VoxelXYZRenderer();
+        XYZPlot plot = new XYZPlot(d1, r, new NumberAxis3D("X"), 
+                new NumberAxis3D("Y"), new NumberAxis3D("Z"));
+        int base = d1.listenerCount;
+        for (int i = 0; i < 5; i++) {
+            s.add(i, i, i);
+            Dimension3D dim = plot.getDimensions();
+            r.composeAll(plot, new World(), dim, 0.0, 0.0, 0.0);
+        }
+        assertEquals(base + 1, d1.listenerCount);
+        
+        CountingDataset d2 = new CountingDataset();
+        d2.add(new XYZSeries<String>("S2"));
+        r.composeAll(new XYZPlot(d2, new ScatterXYZRenderer(), 
+                new NumberAxis3D("X"), new NumberAxis3D("Y"), 
+                new NumberAxis3D("Z")), new World(), plot.getDimensions(), 
+                0.0, 0.0, 0.0);
+        assertEquals(base, d1.listenerCount);
+    }
+    
+    /**
+     * Some checks for serialization support.
+     */
+    @Test
+    public void testSerialization() {
+        VoxelXYZRenderer r1 = new VoxelXYZRenderer();
+        VoxelXYZRenderer r2 = (VoxelXYZRenderer) TestUtils.serialized(r1);
+        assertTrue(r1.equals(r2));
+    }
+
+}
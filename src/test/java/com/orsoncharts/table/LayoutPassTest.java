@@ -0,0 +1,150 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+
+package com.orsoncharts.table;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.Dimension2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for the {@link LayoutPass} class.
+ */
+public class LayoutPassTest {
+    
+    /**
+     * A text element that counts the number of times it is measured.
+     */
+    @SuppressWarnings("serial")
+    private static class CountingTextElement extends TextElement {
+        
+        int count;
+        
+        CountingTextElement(String text) {
+            super(text);
+        }
+        
+        @Override
+        public Dimension2D preferredSize(Graphics2D g2, Rectangle2D bounds, 
+                Map<String, Object> constraints) {
+            this.count++;
+            return super.preferredSize(g2, bounds, constraints);
+        }
+    }
+    
+    @Test
+    public void testBeginEnd() {
+        assertFalse(LayoutPass.isActive());
+        assertTrue(LayoutPass.begin());
+        assertTrue(LayoutPass.isActive());
+        assertFalse(LayoutPass.begin());
+        LayoutPass.end();
+        assertFalse(LayoutPass.isActive());
+    }
+    
+    @Test
+    public void testPreferredSize() {
+        BufferedImage image = new BufferedImage(10, 10, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        CountingTextElement e = new CountingTextElement("ABC");
+        Rectangle bounds = new Rectangle(100, 50);
+        
+        // without an active pass, the element is measured every time
+        LayoutPass.preferredSize(e, g2, bounds);
+        LayoutPass.preferredSize(e, g2, bounds);
+        assertEquals(2, e.count);
+        
+        LayoutPass.begin();
+        try {
+            Dimension2D d1 = LayoutPass.preferredSize(e, g2, bounds);
+            Dimension2D d2 = LayoutPass.preferredSize(e, g2, 
+                    new Rectangle(10, 20, 100, 50));
+            assertEquals(3, e.count);
+            assertTrue(d1 == d2);
+            LayoutPass.preferredSize(e, g2, new Rectangle(90, 50));
+            assertEquals(4, e.count);
+        } finally {
+            LayoutPass.end();
+        }
+        g2.dispose();
+    }
+    
+    /**
+     * Drawing nested containers measures each leaf element a small, fixed 
+     * number of times, independent of the depth of the nesting.
+     */
+    @Test
+    public void testNestedDraw() {
+        BufferedImage image = new BufferedImage(400, 300, 
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        List<CountingTextElement> leaves 
+                = new ArrayList<CountingTextElement>();
+        FlowElement root = new FlowElement();
+        for (int i = 0; i < 3; i++) {
+            GridElement<String, String> grid 
+                    = new GridElement<String, String>();
+            for (int j = 0; j < 3; j++) {
+                VerticalFlowElement column = new VerticalFlowElement();
+                for (int k = 0; k < 2; k++) {
+                    FlowElement flow = new FlowElement();
+                    CountingTextElement leaf = new CountingTextElement(
+                            "Item " + i + j + k);
+                    leaves.add(leaf);
+                    flow.addElement(leaf);
+                    column.addElement(flow);
+                }
+                grid.setElement(column, "R" + j, "C");
+            }
+            root.addElement(grid);
+        }
+        root.draw(g2, new Rectangle(400, 300));
+        assertFalse(LayoutPass.isActive());
+        for (CountingTextElement leaf : leaves) {
+            assertTrue(leaf.count <= 6);
+        }
+        g2.dispose();
+    }
+
+}
@@ -0,0 +1,76 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.table;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.awt.Color;
+import java.awt.Insets;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ShapeElement} class.
+ */
+public class ShapeElementTest {
+    
+    @Test
+    public void testEquals() {
+        ShapeElement e1 = new ShapeElement(new Rectangle2D.Double(-2, -2, 4, 
+                4), Color.RED);
+        ShapeElement e2 = new ShapeElement(new Rectangle2D.Double(-2, -2, 4, 
+                4), Color.RED);
+        assertTrue(e1.equals(e2));
+        assertFalse(e1.equals(null));
+        
+        // shape
+        e1 = new ShapeElement(new Ellipse2D.Double(-2, -2, 4, 4), Color.RED);
+        assertFalse(e1.equals(e2));
+        e2 = new ShapeElement(new Ellipse2D.Double(-2, -2, 4, 4), Color.RED);
+        assertTrue(e1.equals(e2));
+        
+        // fill color
+        e1.setFillColor(Color.BLUE);
+        assertFalse(e1.equals(e2));
+        e2.setFillColor(Color.BLUE);
+        assertTrue(e1.equals(e2));
+        
+        // insets
+        e1.setInsets(new Insets(1, 2, 3, 4));
+        assertFalse(e1.equals(e2));
+        e2.setInsets(new Insets(1, 2, 3, 4));
+        assertTrue(e1.equals(e2));
+    }
+
+}
@@ -0,0 +1,119 @@
+/* ===========================================================
+ * Orson Charts : a 3D chart library for the Java(tm) platform
+ * ===========================================================
+ * 
+ * (C)opyright 2013-2016, by Object Refinery Limited.  All rights reserved.
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * [Oracle and Java are registered trademarks of Oracle and/or its affiliates. 
+ * Other names may be trademarks of their respective owners.]
+ * 
+ * If you do not wish to be bound by the terms of the GPL, an alternative
+ * commercial license can be purchased.  For details, please see visit the
+ * Orson Charts home page:
+ * 
+ * http://www.object-refinery.com/orsoncharts/index.html
+ * 
+ */
+
+package com.orsoncharts.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+import org.junit.Test;
+
+/**
+ * Some tests for the {@link TextMeasureCache} class.
+ */
+public class TextMeasureCacheTest {
+
+    private Graphics2D createGraphics() {
+        BufferedImage img = new BufferedImage(10, 10, 
+                BufferedImage.TYPE_INT_ARGB);
+        return img.createGraphics();
+    }
+    
+    @Test
+    public void testHitsAndMisses() {
+        TextMeasureCache cache = new TextMeasureCache(10);
+        Graphics2D g2 = createGraphics();
+        Font font = new Font(Font.DIALOG, Font.PLAIN, 12);
+        g2.setFont(font);
+        TextMeasureCache.Measure m1 = cache.getMeasure("ABC", g2);
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        FontMetrics fm = g2.getFontMetrics();
+        assertEquals(fm.stringWidth("ABC"), m1.getWidth(), 0.0);
+        assertEquals(fm.getHeight(), m1.getHeight(), 0.0);
+        assertEquals(fm.getAscent(), m1.getFontAscent(), 0.0);
+        
+        assertSame(m1, cache.getMeasure("ABC", font, g2));
+        assertEquals(1, cache.getHitCount());
+        
+        // a different font or rendering context is a different entry
+        cache.getMeasure("ABC", font.deriveFont(20f), g2);
+        g2.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, 
+                RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        cache.getMeasure("ABC", font, g2);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(3, cache.getSize());
+        
+        cache.clear();
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getMissCount());
+        g2.dispose();
+    }
+    
+    @Test
+    public void testCapacity() {
+        TextMeasureCache cache = new TextMeasureCache(2);
+        Graphics2D g2 = createGraphics();
+        TextMeasureCache.Measure a = cache.getMeasure("A", g2);
+        cache.getMeasure("B", g2);
+        cache.getMeasure("A", g2);  // A is now the most recently used
+        cache.getMeasure("C", g2);  // evicts B
+        assertEquals(2, cache.getSize());
+        assertSame(a, cache.getMeasure("A", g2));
+        assertEquals(2, cache.getHitCount());
+        cache.getMeasure("B", g2);
+        assertEquals(4, cache.getMissCount());
+        g2.dispose();
+    }
+    
+    @Test
+    public void testGlyphVectorCaching() {
+        TextMeasureCache cache = new TextMeasureCache(10);
+        Graphics2D g2 = createGraphics();
+        assertNull(cache.getGlyphVector("A", g2));
+        cache.setGlyphVectorCaching(true);
+        assertNotNull(cache.getGlyphVector("A", g2));
+        assertSame(cache.getGlyphVector("A", g2), 
+                cache.getGlyphVector("A", g2));
+        g2.dispose();
+    }
+
+}